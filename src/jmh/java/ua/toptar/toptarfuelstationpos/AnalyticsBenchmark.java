@@ -0,0 +1,91 @@
+package ua.toptar.toptarfuelstationpos;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ua.toptar.toptarfuelstationpos.dto.FuelSalesAggregate;
+import ua.toptar.toptarfuelstationpos.service.TransactionService;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the analytics methods of {@code TransactionService}.
+ * The analytics read the daily sales rollup, so every dataset is folded into daily aggregates per fuel type first,
+ * and each operation covers the whole history, which is folded per month in parallel.
+ * Grouped series are grouped daily, the period with the most keys.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnalyticsBenchmark {
+
+    private static final String PERIOD = "daily";
+
+    @Param({"10000", "1000000", "10000000"})
+    public int transactions;
+
+    private TransactionService transactionService;
+
+    /**
+     * Folds the dataset into daily aggregates and creates the service reading them.
+     */
+    @Setup
+    public void setUp() {
+        List<FuelSalesAggregate> dailySales = BenchmarkFixtures.dailySales(transactions);
+        transactionService = BenchmarkFixtures.transactionService(List.of(), dailySales);
+    }
+
+    /**
+     * Calculates the total sales volume by fuel type.
+     *
+     * @return the sales volume by fuel type
+     */
+    @Benchmark
+    public Map<String, BigDecimal> getSalesByFuelType() {
+        return transactionService.getSalesByFuelType(null, null);
+    }
+
+    /**
+     * Calculates the revenue by fuel type and day.
+     *
+     * @return the revenue by fuel type and day
+     */
+    @Benchmark
+    public Map<String, Map<String, BigDecimal>> getRevenueByFuelTypeGroupedByPeriod() {
+        return transactionService.getRevenueByFuelTypeGroupedByPeriod(null, null, PERIOD);
+    }
+
+    /**
+     * Calculates the sales volume by fuel type and day.
+     *
+     * @return the sales volume by fuel type and day
+     */
+    @Benchmark
+    public Map<String, Map<String, BigDecimal>> getSalesByFuelTypeGroupedByPeriod() {
+        return transactionService.getSalesByFuelTypeGroupedByPeriod(null, null, PERIOD);
+    }
+
+    /**
+     * Calculates the total revenue by day.
+     *
+     * @return the total revenue by day
+     */
+    @Benchmark
+    public Map<String, BigDecimal> getTotalRevenueGroupedByPeriod() {
+        return transactionService.getTotalRevenueGroupedByPeriod(null, null, PERIOD);
+    }
+}
@@ -0,0 +1,369 @@
+package ua.toptar.toptarfuelstationpos;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import ua.toptar.toptarfuelstationpos.config.PosMetrics;
+import ua.toptar.toptarfuelstationpos.dto.FuelSalesAggregate;
+import ua.toptar.toptarfuelstationpos.dto.RecentSale;
+import ua.toptar.toptarfuelstationpos.dto.SalesDateRange;
+import ua.toptar.toptarfuelstationpos.model.FuelType;
+import ua.toptar.toptarfuelstationpos.model.Transaction;
+import ua.toptar.toptarfuelstationpos.model.User;
+import ua.toptar.toptarfuelstationpos.repository.ArchivedTransactionRepository;
+import ua.toptar.toptarfuelstationpos.repository.DailyFuelSalesRepository;
+import ua.toptar.toptarfuelstationpos.repository.FuelTypeRepository;
+import ua.toptar.toptarfuelstationpos.repository.TransactionRepository;
+import ua.toptar.toptarfuelstationpos.repository.UserRepository;
+import ua.toptar.toptarfuelstationpos.service.AnalyticsResultCache;
+import ua.toptar.toptarfuelstationpos.service.AnalyticsShardExecutor;
+import ua.toptar.toptarfuelstationpos.service.FuelTypeCatalogService;
+import ua.toptar.toptarfuelstationpos.service.RecentSalesStore;
+import ua.toptar.toptarfuelstationpos.service.SalesRollupService;
+import ua.toptar.toptarfuelstationpos.service.TransactionArchiveService;
+import ua.toptar.toptarfuelstationpos.service.TransactionService;
+import ua.toptar.toptarfuelstationpos.service.UserIdentityService;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Builds the services under benchmark on top of in-memory repository stubs, and the synthetic datasets they read.
+ * The stubs answer only the repository methods the benchmarked paths call, so the measured time is spent
+ * in the services rather than in a database or a mocking library.
+ */
+final class BenchmarkFixtures {
+
+    /** Number of sales per day in the synthetic datasets, as at a busy station. */
+    static final int SALES_PER_DAY = 1000;
+
+    private static final LocalDateTime FIRST_SALE = LocalDateTime.of(2000, 1, 1, 0, 0);
+    private static final int USERS = 5;
+    private static final BigDecimal[] VOLUMES = IntStream.range(5, 45)
+        .mapToObj(BigDecimal::valueOf)
+        .toArray(BigDecimal[]::new);
+
+    private static final List<FuelType> FUEL_TYPES = List.of(
+        fuelType(1L, "A95", "55.50"),
+        fuelType(2L, "A92", "52.30"),
+        fuelType(3L, "Diesel", "52.30"));
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Creates a transaction service whose repositories are in-memory stubs.
+     * New transactions get sequential IDs, the fuel types are the three fixture fuel types
+     * and sales are recorded for the guest user.
+     *
+     * @param transactions the transactions returned by {@code findSliceBy(Pageable)}
+     * @param dailySales the aggregates returned by the rollup
+     * @return the transaction service
+     */
+    static TransactionService transactionService(List<Transaction> transactions, List<FuelSalesAggregate> dailySales) {
+        return transactionService(transactions, salesRollupService(dailySales));
+    }
+
+    /**
+     * Creates a transaction service whose repositories are in-memory stubs, reading the analytics
+     * from the specified rollup service.
+     *
+     * @param transactions the transactions returned by {@code findSliceBy(Pageable)}
+     * @param salesRollupService the rollup service read by the analytics
+     * @return the transaction service
+     */
+    static TransactionService transactionService(List<Transaction> transactions, SalesRollupService salesRollupService) {
+        AtomicLong ids = new AtomicLong();
+        TransactionRepository transactionRepository = stub(TransactionRepository.class, Map.of(
+            "save", args -> {
+                Transaction transaction = (Transaction) args[0];
+                transaction.setId(ids.incrementAndGet());
+                return transaction;
+            },
+            "findSliceBy", args -> new SliceImpl<>(transactions, (Pageable) args[0], false)));
+        FuelTypeRepository fuelTypeRepository = stub(FuelTypeRepository.class, Map.of(
+            "findAll", args -> FUEL_TYPES,
+            "getReferenceById", args -> FUEL_TYPES.get((int) ((Long) args[0] - 1))));
+        User guest = user(1L, "guest");
+        UserRepository userRepository = stub(UserRepository.class, Map.of(
+            "findByUsername", args -> Optional.of(guest),
+            "getReferenceById", args -> guest));
+
+        PosMetrics posMetrics = posMetrics();
+        return new TransactionService(transactionRepository, fuelTypeRepository,
+            new FuelTypeCatalogService(fuelTypeRepository), userRepository, new UserIdentityService(userRepository, posMetrics),
+            salesRollupService, event -> { }, posMetrics, analyticsShardExecutor(), transactionArchiveService(),
+            analyticsResultCache());
+    }
+
+    /**
+     * Creates a rollup service reading the specified aggregates.
+     * Recorded sales always find their rollup row, as during a business day.
+     *
+     * @param dailySales the aggregates in ascending order of day
+     * @return the rollup service
+     */
+    static SalesRollupService salesRollupService(List<FuelSalesAggregate> dailySales) {
+        return salesRollupService(dailySales, new RecentSalesStore(stub(TransactionRepository.class, Map.of()), 0));
+    }
+
+    /**
+     * Creates a rollup service reading the specified aggregates and the specified store of recent sales.
+     * Recorded sales always find their rollup row, as during a business day.
+     *
+     * @param dailySales the aggregates in ascending order of day
+     * @param recentSalesStore the store of recent sales, read first for the ranges it holds
+     * @return the rollup service
+     */
+    static SalesRollupService salesRollupService(List<FuelSalesAggregate> dailySales,
+                                                 RecentSalesStore recentSalesStore) {
+        SalesDateRange history = dailySales.isEmpty()
+            ? new SalesDateRange(null, null)
+            : new SalesDateRange(dailySales.get(0).salesDate(), dailySales.get(dailySales.size() - 1).salesDate());
+        DailyFuelSalesRepository dailyFuelSalesRepository = stub(DailyFuelSalesRepository.class, Map.of(
+            "findAllAggregates", args -> dailySales,
+            "findAggregatesBetween", args -> between(dailySales, (LocalDate) args[0], (LocalDate) args[1]),
+            "findSalesDateRange", args -> history,
+            "increment", args -> 1));
+        return new SalesRollupService(dailyFuelSalesRepository, stub(TransactionRepository.class, Map.of()),
+            recentSalesStore, transactionArchiveService(), stub(PlatformTransactionManager.class, Map.of()));
+    }
+
+    /**
+     * Creates an archive service with an empty archive, so every query reads the transactions table only.
+     *
+     * @return the archive service
+     */
+    static TransactionArchiveService transactionArchiveService() {
+        return new TransactionArchiveService(stub(TransactionRepository.class, Map.of()),
+            stub(ArchivedTransactionRepository.class, Map.of()), stub(PlatformTransactionManager.class, Map.of()),
+            0, 0);
+    }
+
+    /**
+     * Creates a disabled cache of the analytics series, so every benchmark iteration computes its series.
+     *
+     * @return the analytics cache
+     */
+    static AnalyticsResultCache analyticsResultCache() {
+        return new AnalyticsResultCache(0);
+    }
+
+    /**
+     * Creates the executor of the analytics with a fork/join pool as large as the number of processors.
+     *
+     * @return the executor
+     */
+    static AnalyticsShardExecutor analyticsShardExecutor() {
+        return new AnalyticsShardExecutor(0);
+    }
+
+    /**
+     * Creates the metrics of the services, recording into an in-memory registry as the application would.
+     *
+     * @return the metrics
+     */
+    static PosMetrics posMetrics() {
+        return new PosMetrics(new SimpleMeterRegistry());
+    }
+
+    /**
+     * Creates the specified number of transactions, {@link #SALES_PER_DAY} per day,
+     * spread evenly over the fixture fuel types and five users.
+     *
+     * @param count the number of transactions
+     * @return the transactions
+     */
+    static List<Transaction> transactions(int count) {
+        List<User> users = new ArrayList<>();
+        for (long id = 1; id <= USERS; id++) {
+            users.add(user(id, "cashier" + id));
+        }
+
+        // Суми продажів спільні для однакових об’ємів, щоб набір з 10 млн транзакцій вміщувався в пам’ять
+        BigDecimal[][] totalAmounts = new BigDecimal[FUEL_TYPES.size()][VOLUMES.length];
+        for (int fuelIndex = 0; fuelIndex < FUEL_TYPES.size(); fuelIndex++) {
+            for (int volumeIndex = 0; volumeIndex < VOLUMES.length; volumeIndex++) {
+                totalAmounts[fuelIndex][volumeIndex] = VOLUMES[volumeIndex].multiply(FUEL_TYPES.get(fuelIndex).getPricePerLiter());
+            }
+        }
+
+        List<Transaction> transactions = new ArrayList<>(count);
+        LocalDateTime transactionDate = FIRST_SALE;
+        for (int i = 0; i < count; i++) {
+            if (i > 0 && i % SALES_PER_DAY == 0) {
+                transactionDate = transactionDate.plusDays(1);
+            }
+            FuelType fuelType = FUEL_TYPES.get(i % FUEL_TYPES.size());
+            Transaction transaction = new Transaction();
+            transaction.setId((long) i + 1);
+            transaction.setFuelType(fuelType);
+            transaction.setFuelTypeName(fuelType.getName());
+            transaction.setPricePerLiter(fuelType.getPricePerLiter());
+            transaction.setVolume(VOLUMES[i % VOLUMES.length]);
+            transaction.setTotalAmount(totalAmounts[i % FUEL_TYPES.size()][i % VOLUMES.length]);
+            // Дата теж спільна для всіх продажів дня
+            transaction.setTransactionDate(transactionDate);
+            transaction.setUser(users.get(i % USERS));
+            transactions.add(transaction);
+        }
+        return transactions;
+    }
+
+    /**
+     * Folds the specified number of sales into daily aggregates per fuel type, as the rollup would hold them.
+     * The sales are generated on the fly, so the dataset does not have to fit into memory as transactions.
+     *
+     * @param count the number of transactions
+     * @return the daily sales aggregates
+     */
+    static List<FuelSalesAggregate> dailySales(int count) {
+        List<FuelSalesAggregate> dailySales = new ArrayList<>();
+        int days = (count + SALES_PER_DAY - 1) / SALES_PER_DAY;
+        for (int day = 0; day < days; day++) {
+            int first = day * SALES_PER_DAY;
+            int last = Math.min(first + SALES_PER_DAY, count);
+            for (int fuelIndex = 0; fuelIndex < FUEL_TYPES.size(); fuelIndex++) {
+                FuelType fuelType = FUEL_TYPES.get(fuelIndex);
+                BigDecimal volume = BigDecimal.ZERO;
+                BigDecimal revenue = BigDecimal.ZERO;
+                long transactionCount = 0;
+                for (int i = first + Math.floorMod(fuelIndex - first, FUEL_TYPES.size()); i < last; i += FUEL_TYPES.size()) {
+                    BigDecimal saleVolume = VOLUMES[i % VOLUMES.length];
+                    volume = volume.add(saleVolume);
+                    revenue = revenue.add(saleVolume.multiply(fuelType.getPricePerLiter()));
+                    transactionCount++;
+                }
+                if (transactionCount > 0) {
+                    dailySales.add(new FuelSalesAggregate(FIRST_SALE.toLocalDate().plusDays(day), fuelType.getName(),
+                        volume, revenue, transactionCount));
+                }
+            }
+        }
+        return dailySales;
+    }
+
+    /**
+     * Creates a store of recent sales loaded with the specified number of sales, made over the last days
+     * at {@value #SALES_PER_DAY} sales per day and spread evenly over every day.
+     *
+     * @param count the number of sales
+     * @param windowDays the number of past days held by the store
+     * @return the loaded store
+     */
+    static RecentSalesStore recentSalesStore(int count, int windowDays) {
+        int days = (count + SALES_PER_DAY - 1) / SALES_PER_DAY;
+        LocalDateTime firstDay = LocalDate.now().minusDays(days - 1).atStartOfDay();
+        long secondsBetweenSales = 86_400 / SALES_PER_DAY;
+        List<RecentSale> sales = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            FuelType fuelType = FUEL_TYPES.get(i % FUEL_TYPES.size());
+            BigDecimal volume = VOLUMES[i % VOLUMES.length];
+            sales.add(new RecentSale((long) i, firstDay.plusDays(i / SALES_PER_DAY)
+                .plusSeconds(i % SALES_PER_DAY * secondsBetweenSales), fuelType.getName(), volume,
+                volume.multiply(fuelType.getPricePerLiter())));
+        }
+        RecentSalesStore recentSalesStore = new RecentSalesStore(
+            stub(TransactionRepository.class, Map.of("findRecentSales", args -> sales)), windowDays);
+        recentSalesStore.load();
+        return recentSalesStore;
+    }
+
+    /**
+     * Creates a stub of a repository or other interface that answers the specified methods by name.
+     * Any other method fails, so a benchmark cannot silently measure an unexpected path.
+     *
+     * @param type the interface to stub
+     * @param answers the answers to the stubbed methods, by method name
+     * @param <T> the type of the interface
+     * @return the stub
+     */
+    static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer != null) {
+                return answer.apply(args);
+            }
+            return switch (method.getName()) {
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                case "toString" -> type.getSimpleName() + " stub";
+                default -> throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+            };
+        }));
+    }
+
+    /**
+     * Returns the aggregates of a range of days, found by binary search as the rollup index would.
+     *
+     * @param dailySales the aggregates in ascending order of day
+     * @param startDate the first day of the range, inclusive
+     * @param endDate the last day of the range, inclusive
+     * @return the aggregates within the range
+     */
+    private static List<FuelSalesAggregate> between(List<FuelSalesAggregate> dailySales, LocalDate startDate,
+                                                    LocalDate endDate) {
+        return dailySales.subList(firstIndexFrom(dailySales, startDate), firstIndexFrom(dailySales, endDate.plusDays(1)));
+    }
+
+    /**
+     * Finds the index of the first aggregate on or after the specified day.
+     *
+     * @param dailySales the aggregates in ascending order of day
+     * @param date the day to search for
+     * @return the index of the first aggregate on or after the day, or the size of the list if there is none
+     */
+    private static int firstIndexFrom(List<FuelSalesAggregate> dailySales, LocalDate date) {
+        int low = 0;
+        int high = dailySales.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (dailySales.get(middle).salesDate().isBefore(date)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Creates a fuel type with the specified ID.
+     *
+     * @param id the ID of the fuel type
+     * @param name the name of the fuel type
+     * @param pricePerLiter the price per liter
+     * @return the fuel type
+     */
+    private static FuelType fuelType(Long id, String name, String pricePerLiter) {
+        FuelType fuelType = new FuelType(name, new BigDecimal(pricePerLiter));
+        fuelType.setId(id);
+        return fuelType;
+    }
+
+    /**
+     * Creates a user with the specified ID.
+     *
+     * @param id the ID of the user
+     * @param username the username of the user
+     * @return the user
+     */
+    private static User user(Long id, String username) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setPassword("password");
+        user.setRole("USER");
+        return user;
+    }
+}
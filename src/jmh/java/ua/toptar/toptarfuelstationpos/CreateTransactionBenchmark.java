@@ -0,0 +1,62 @@
+package ua.toptar.toptarfuelstationpos;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ua.toptar.toptarfuelstationpos.dto.TransactionDto;
+import ua.toptar.toptarfuelstationpos.service.TransactionService;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Benchmark of the throughput of {@code TransactionService.createTransaction} for a guest sale.
+ * The repositories are in-memory stubs, so the result covers the service logic of a sale
+ * without the database round trips.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CreateTransactionBenchmark {
+
+    // Посилання тримається, щоб рівень логера не скинувся після збирання сміття
+    private static final Logger serviceLogger = Logger.getLogger(TransactionService.class.getName());
+
+    private TransactionService transactionService;
+
+    /**
+     * Creates the service and silences its per-sale log lines,
+     * whose cost depends on the logging setup of the station rather than on the service.
+     */
+    @Setup
+    public void setUp() {
+        serviceLogger.setLevel(Level.WARNING);
+        transactionService = BenchmarkFixtures.transactionService(List.of(), List.of());
+    }
+
+    /**
+     * Creates a sale of 10 liters of the first fuel type.
+     *
+     * @return the created transaction
+     */
+    @Benchmark
+    public TransactionDto createTransaction() {
+        TransactionDto dto = new TransactionDto();
+        dto.setFuelTypeId(1L);
+        dto.setVolume(BigDecimal.TEN);
+        return transactionService.createTransaction(dto);
+    }
+}
@@ -0,0 +1,56 @@
+package ua.toptar.toptarfuelstationpos;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Slice;
+import ua.toptar.toptarfuelstationpos.dto.TransactionDto;
+import ua.toptar.toptarfuelstationpos.service.TransactionService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of mapping transaction entities to DTOs in {@code TransactionService}.
+ * The slice of recent transactions holds the whole dataset, so one operation maps every transaction of it once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MapToDtoBenchmark {
+
+    @Param({"10000", "1000000", "10000000"})
+    public int transactions;
+
+    private TransactionService transactionService;
+
+    /**
+     * Creates the dataset and the service listing it.
+     */
+    @Setup
+    public void setUp() {
+        transactionService = BenchmarkFixtures.transactionService(
+            BenchmarkFixtures.transactions(transactions), List.of());
+    }
+
+    /**
+     * Maps all transactions of the dataset to DTOs.
+     *
+     * @return the slice of mapped transactions
+     */
+    @Benchmark
+    public Slice<TransactionDto> mapToDto() {
+        return transactionService.getRecentTransactions();
+    }
+}
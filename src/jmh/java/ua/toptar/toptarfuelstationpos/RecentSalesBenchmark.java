@@ -0,0 +1,80 @@
+package ua.toptar.toptarfuelstationpos;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ua.toptar.toptarfuelstationpos.dto.FuelSalesAggregate;
+import ua.toptar.toptarfuelstationpos.service.RecentSalesStore;
+import ua.toptar.toptarfuelstationpos.service.TransactionService;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the analytics over the last quarter, read from the in-memory store of recent sales.
+ * The store holds the sales of the last 90 days and every operation covers all of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecentSalesBenchmark {
+
+    private static final int WINDOW_DAYS = 90;
+    private static final String PERIOD = "daily";
+
+    @Param({"90000"})
+    public int transactions;
+
+    private RecentSalesStore recentSalesStore;
+    private TransactionService transactionService;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+
+    /**
+     * Loads the store with a quarter of sales and creates the transaction service reading it.
+     */
+    @Setup
+    public void setUp() {
+        recentSalesStore = BenchmarkFixtures.recentSalesStore(transactions, WINDOW_DAYS);
+        transactionService = BenchmarkFixtures.transactionService(List.of(),
+            BenchmarkFixtures.salesRollupService(List.of(), recentSalesStore));
+        startDate = LocalDate.now().minusDays(WINDOW_DAYS).atStartOfDay();
+        endDate = LocalDate.now().plusDays(1).atStartOfDay();
+    }
+
+    /**
+     * Sums the sales of the quarter per day and fuel type.
+     *
+     * @return the daily sales aggregates
+     */
+    @Benchmark
+    public Optional<List<FuelSalesAggregate>> findDailySales() {
+        return recentSalesStore.findDailySales(startDate, endDate);
+    }
+
+    /**
+     * Calculates the revenue of the quarter by fuel type and day.
+     *
+     * @return the revenue by fuel type and day
+     */
+    @Benchmark
+    public Map<String, Map<String, BigDecimal>> getRevenueByFuelTypeGroupedByPeriod() {
+        return transactionService.getRevenueByFuelTypeGroupedByPeriod(startDate, endDate, PERIOD);
+    }
+}
@@ -2,12 +2,14 @@ package ua.toptar.toptarfuelstationpos;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main application class for the TopTar Fuel Station POS system.
- * Configures and starts the Spring Boot application.
+ * Configures and starts the Spring Boot application with scheduled background tasks enabled.
  */
 @SpringBootApplication
+@EnableScheduling
 public class TopTarFuelStationPosApplication {
 
     /**
@@ -0,0 +1,188 @@
+package ua.toptar.toptarfuelstationpos.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records the runtime metrics of the POS hot paths in the Micrometer registry,
+ * from where Actuator exposes them in Prometheus format.
+ * Covers sale latency by customer type, analytics computation by operation and period,
+ * exported rows and cache lookups; the connection pool and HTTP metrics are recorded by Spring Boot itself.
+ */
+@Component
+public class PosMetrics {
+
+    private static final String SALE_TIMER = "pos.transactions.create";
+    private static final String ANALYTICS_TIMER = "pos.analytics";
+    private static final String EXPORT_TIMER = "pos.export";
+    private static final String EXPORT_ROWS_COUNTER = "pos.export.rows";
+    private static final String CACHE_GETS_COUNTER = "cache.gets";
+
+    private static final Set<String> PERIODS = Set.of("daily", "weekly", "monthly", "all");
+
+    private final MeterRegistry registry;
+    private final Timer guestSales;
+    private final Timer guestFailedSales;
+    private final Timer authenticatedSales;
+    private final Timer authenticatedFailedSales;
+
+    /**
+     * Constructs a new {@code PosMetrics} recording into the specified registry.
+     *
+     * @param registry the registry to record the metrics in
+     */
+    public PosMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.guestSales = saleTimer("guest", "success");
+        this.guestFailedSales = saleTimer("guest", "error");
+        this.authenticatedSales = saleTimer("authenticated", "success");
+        this.authenticatedFailedSales = saleTimer("authenticated", "error");
+    }
+
+    /**
+     * Runs a sale and records its duration, tagged by customer type and outcome.
+     * A sale that throws is recorded with the error outcome.
+     *
+     * @param authenticated whether the sale is made by a logged-in user
+     * @param sale the sale to run
+     * @param <T> the type of the sale result
+     * @return the result of the sale
+     */
+    public <T> T recordSale(boolean authenticated, Supplier<T> sale) {
+        Timer.Sample sample = Timer.start(registry);
+        boolean succeeded = false;
+        try {
+            T result = sale.get();
+            succeeded = true;
+            return result;
+        } finally {
+            if (authenticated) {
+                sample.stop(succeeded ? authenticatedSales : authenticatedFailedSales);
+            } else {
+                sample.stop(succeeded ? guestSales : guestFailedSales);
+            }
+        }
+    }
+
+    /**
+     * Runs a batch of sales and records the duration of each of them, tagged by customer type and outcome.
+     * The sales share the duration of the batch equally. If the batch throws, all its sales are recorded
+     * with the error outcome.
+     *
+     * @param authenticated whether the sales are made by a logged-in user
+     * @param sales the number of sales in the batch
+     * @param batch the batch to run
+     * @param succeededSales the number of sales of the batch result that succeeded
+     * @param <T> the type of the batch result
+     * @return the result of the batch
+     */
+    public <T> T recordSales(boolean authenticated, int sales, Supplier<T> batch, ToIntFunction<T> succeededSales) {
+        long startTime = registry.config().clock().monotonicTime();
+        int succeeded = 0;
+        try {
+            T result = batch.get();
+            succeeded = succeededSales.applyAsInt(result);
+            return result;
+        } finally {
+            long share = sales > 0 ? (registry.config().clock().monotonicTime() - startTime) / sales : 0;
+            for (int i = 0; i < sales; i++) {
+                Timer timer = i < succeeded
+                    ? (authenticated ? authenticatedSales : guestSales)
+                    : (authenticated ? authenticatedFailedSales : guestFailedSales);
+                timer.record(share, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * Runs an analytics computation and records its duration, tagged by operation and period.
+     * Unknown periods are tagged as invalid, so user input cannot create new time series.
+     *
+     * @param operation the name of the analytics operation
+     * @param period the period the results are grouped by, or "all" for ungrouped results
+     * @param computation the computation to run
+     * @param <T> the type of the analytics result
+     * @return the result of the computation
+     */
+    public <T> T recordAnalytics(String operation, String period, Supplier<T> computation) {
+        return Timer.builder(ANALYTICS_TIMER)
+            .description("Duration of analytics computations")
+            .tag("operation", operation)
+            .tag("period", period != null && PERIODS.contains(period) ? period : "invalid")
+            .register(registry)
+            .record(computation);
+    }
+
+    /**
+     * Starts timing an export.
+     *
+     * @return the started sample, to be passed to {@link #stopExport}
+     */
+    public Timer.Sample startExport() {
+        return Timer.start(registry);
+    }
+
+    /**
+     * Records the duration of a finished or failed export.
+     *
+     * @param sample the sample started with {@link #startExport}
+     * @param format the export format
+     */
+    public void stopExport(Timer.Sample sample, String format) {
+        sample.stop(Timer.builder(EXPORT_TIMER)
+            .description("Duration of transaction exports")
+            .tag("format", format)
+            .register(registry));
+    }
+
+    /**
+     * Counts exported rows. The rate of the counter is the export throughput in rows per second.
+     *
+     * @param format the export format
+     * @param rows the number of rows written
+     */
+    public void countExportedRows(String format, long rows) {
+        Counter.builder(EXPORT_ROWS_COUNTER)
+            .description("Number of exported transaction rows")
+            .tag("format", format)
+            .register(registry)
+            .increment(rows);
+    }
+
+    /**
+     * Counts a cache lookup as a hit or a miss, with the same meter and tags as Micrometer's cache metrics.
+     *
+     * @param cache the name of the cache
+     * @param hit whether the value was found in the cache
+     */
+    public void recordCacheLookup(String cache, boolean hit) {
+        Counter.builder(CACHE_GETS_COUNTER)
+            .description("Number of cache lookups")
+            .tag("cache", cache)
+            .tag("result", hit ? "hit" : "miss")
+            .register(registry)
+            .increment();
+    }
+
+    /**
+     * Creates the sale timer for a customer type and outcome, with a histogram for latency percentiles.
+     *
+     * @param customer the customer type, "guest" or "authenticated"
+     * @param outcome the outcome of the sale, "success" or "error"
+     * @return the registered timer
+     */
+    private Timer saleTimer(String customer, String outcome) {
+        return Timer.builder(SALE_TIMER)
+            .description("Duration of recording a sale, up to the saved transaction")
+            .tag("customer", customer)
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .register(registry);
+    }
+}
@@ -2,6 +2,8 @@ package ua.toptar.toptarfuelstationpos.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -29,9 +31,32 @@ public class SecurityConfig {
         this.userRepository = userRepository;
     }
 
+    /**
+     * Configures the security filter chain for the Actuator endpoints, which is applied before the main one.
+     * The health endpoint is open to the monitoring system. The Prometheus and all other endpoints require an admin,
+     * who logs in with HTTP Basic, as a scraper cannot fill in the login form; a logged-in admin's session works too.
+     *
+     * @param http the {@code HttpSecurity} to configure
+     * @return the configured {@code SecurityFilterChain}
+     * @throws Exception if an error occurs during configuration
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorSecurityFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher("/actuator/**")
+            .authorizeHttpRequests(authorize -> authorize
+                .requestMatchers("/actuator/health").permitAll()
+                .anyRequest().hasRole("ADMIN")
+            )
+            .httpBasic(Customizer.withDefaults());
+        return http.build();
+    }
+
     /**
      * Configures the security filter chain for HTTP requests.
      * Defines access rules for different endpoints, form-based login, and logout functionality.
+     * CSRF protection is disabled for the transaction API used by pump controllers, which do not hold a session.
      *
      * @param http the {@code HttpSecurity} to configure
      * @return the configured {@code SecurityFilterChain}
@@ -40,10 +65,13 @@ public class SecurityConfig {
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
+            .csrf(csrf -> csrf
+                .ignoringRequestMatchers("/api/transactions", "/api/transactions/batch")
+            )
             .authorizeHttpRequests(authorize -> authorize
                 .requestMatchers("/admin/**").hasRole("ADMIN")
                 .requestMatchers("/user/**").hasRole("USER")
-                .requestMatchers("/api/transactions").permitAll()
+                .requestMatchers("/api/transactions", "/api/transactions/batch").permitAll()
                 .requestMatchers("/api/transactions/user").authenticated()
                 .requestMatchers("/pos", "/pos/transaction").permitAll()
                 .requestMatchers("/login", "/register", "/", "/css/**", "/images/**", "/js/**", "/webfonts/**").permitAll()
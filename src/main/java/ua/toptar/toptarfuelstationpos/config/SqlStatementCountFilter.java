@@ -0,0 +1,67 @@
+package ua.toptar.toptarfuelstationpos.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.logging.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Filter reporting how many SQL statements each HTTP request issued, including those issued while rendering the view.
+ * The count is logged, and stored in the request attribute {@value #COUNT_ATTRIBUTE};
+ * requests issuing more statements than the configured threshold are logged as warnings.
+ */
+@Component
+public class SqlStatementCountFilter extends OncePerRequestFilter {
+
+    /** Name of the request attribute holding the number of SQL statements of the request. */
+    public static final String COUNT_ATTRIBUTE = "sqlStatementCount";
+
+    private static final Logger logger = Logger.getLogger(SqlStatementCountFilter.class.getName());
+
+    private final SqlStatementCounter sqlStatementCounter;
+    private final int warningThreshold;
+
+    /**
+     * Constructs a new {@code SqlStatementCountFilter} with the specified dependencies and settings.
+     *
+     * @param sqlStatementCounter the counter of the statements prepared on the current thread
+     * @param warningThreshold the number of statements above which a request is logged as a warning
+     */
+    public SqlStatementCountFilter(SqlStatementCounter sqlStatementCounter,
+        @Value("${pos.sql.statement-warning-threshold:20}") int warningThreshold) {
+        this.sqlStatementCounter = sqlStatementCounter;
+        this.warningThreshold = warningThreshold;
+    }
+
+    /**
+     * Counts the SQL statements issued while the request is processed and reports the count.
+     *
+     * @param request the HTTP request
+     * @param response the HTTP response
+     * @param filterChain the chain to pass the request on to
+     * @throws ServletException if the request cannot be processed
+     * @throws IOException if an I/O error occurs while processing the request
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        sqlStatementCounter.reset();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int count = sqlStatementCounter.getCount();
+            request.setAttribute(COUNT_ATTRIBUTE, count);
+            String endpoint = request.getMethod() + " " + request.getRequestURI();
+            if (count > warningThreshold) {
+                logger.warning(() -> String.format("%s issued %d SQL statements", endpoint, count));
+            } else {
+                logger.fine(() -> String.format("%s issued %d SQL statements", endpoint, count));
+            }
+        }
+    }
+}
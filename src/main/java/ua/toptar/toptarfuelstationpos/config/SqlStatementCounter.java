@@ -0,0 +1,57 @@
+package ua.toptar.toptarfuelstationpos.config;
+
+import java.util.Map;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread.
+ * Registered as the statement inspector of the session factory, it sees every statement
+ * before it is sent to the database and leaves it unchanged.
+ * The count is reset and read per HTTP request by {@link SqlStatementCountFilter}.
+ */
+@Component
+public class SqlStatementCounter implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private final ThreadLocal<int[]> count = ThreadLocal.withInitial(() -> new int[1]);
+
+    /**
+     * Counts a SQL statement and returns it unchanged.
+     *
+     * @param sql the SQL statement about to be prepared
+     * @return the same SQL statement
+     */
+    @Override
+    public String inspect(String sql) {
+        count.get()[0]++;
+        return sql;
+    }
+
+    /**
+     * Registers this counter as the statement inspector of the Hibernate session factory.
+     *
+     * @param hibernateProperties the Hibernate properties to customize
+     */
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    /**
+     * Resets the count of the current thread.
+     */
+    public void reset() {
+        count.get()[0] = 0;
+    }
+
+    /**
+     * Returns the number of statements prepared on the current thread since the last reset.
+     *
+     * @return the number of statements
+     */
+    public int getCount() {
+        return count.get()[0];
+    }
+}
@@ -0,0 +1,91 @@
+package ua.toptar.toptarfuelstationpos.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ua.toptar.toptarfuelstationpos.model.Transaction;
+
+/**
+ * Moves the sequence of the transaction IDs past the IDs already in use when the application starts.
+ * A database that used to generate the IDs by auto-increment gets a new sequence starting at 1
+ * from {@code ddl-auto}, so without this the first sales after the upgrade would reuse existing IDs.
+ * The sequence is checked after the schema is updated and before the web server accepts any sale.
+ * Databases without sequences, such as MySQL, hold the sequence in a table with a single {@code next_val} row.
+ */
+@Component
+public class TransactionSequenceInitializer implements SmartInitializingSingleton {
+
+    private static final Logger logger = Logger.getLogger(TransactionSequenceInitializer.class.getName());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Constructs a new {@code TransactionSequenceInitializer} with the specified dependencies.
+     *
+     * @param dataSource the data source of the application database
+     * @param entityManagerFactory the entity manager factory, whose dialect tells how the sequence is held
+     */
+    public TransactionSequenceInitializer(DataSource dataSource, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * Checks the sequence once all beans are created, before the web server starts.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        seedSequence();
+    }
+
+    /**
+     * Moves the sequence past the highest ID of the transactions and the archive, if it is behind it.
+     * Hibernate uses the block of IDs that ends at the value it takes from the sequence,
+     * so the next value must be at least a whole block above the highest ID.
+     * A database without transactions is left as it is.
+     *
+     * @return the next value of the sequence after the check, or {@code 0} if there are no transactions
+     */
+    public long seedSequence() {
+        long lastId = 0;
+        for (String table : List.of("transactions", "transactions_archive")) {
+            Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+            lastId = Math.max(lastId, max != null ? max : 0);
+        }
+        if (lastId == 0) {
+            return 0;
+        }
+        long required = lastId + Transaction.ID_ALLOCATION_SIZE;
+
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        if (dialect.getSequenceSupport().supportsSequences()) {
+            // Прочитане значення послідовності витрачається, тож лишається пропуск в ID, як після перезапуску
+            Long next = jdbcTemplate.queryForObject(
+                dialect.getSequenceSupport().getSequenceNextValString(Transaction.ID_SEQUENCE), Long.class);
+            if (next != null && next >= required) {
+                return next;
+            }
+            jdbcTemplate.execute("ALTER SEQUENCE " + Transaction.ID_SEQUENCE + " RESTART WITH " + required);
+        } else {
+            List<Long> next = jdbcTemplate.queryForList(
+                "SELECT next_val FROM " + Transaction.ID_SEQUENCE, Long.class);
+            if (next.isEmpty()) {
+                jdbcTemplate.update("INSERT INTO " + Transaction.ID_SEQUENCE + " (next_val) VALUES (?)", required);
+            } else if (next.get(0) >= required) {
+                return next.get(0);
+            } else {
+                jdbcTemplate.update("UPDATE " + Transaction.ID_SEQUENCE + " SET next_val = ? WHERE next_val < ?",
+                    required, required);
+            }
+        }
+        logger.info("Transaction ID sequence moved to " + required + " past the last ID " + lastId);
+        return required;
+    }
+}
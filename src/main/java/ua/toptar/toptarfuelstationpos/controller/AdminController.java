@@ -1,31 +1,40 @@
 package ua.toptar.toptarfuelstationpos.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import java.util.HashMap;
-import java.util.Map;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-import org.springframework.data.domain.Page;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import ua.toptar.toptarfuelstationpos.dto.CursorPage;
 import ua.toptar.toptarfuelstationpos.dto.TransactionDto;
 import ua.toptar.toptarfuelstationpos.model.FuelType;
-import ua.toptar.toptarfuelstationpos.model.Transaction;
-import ua.toptar.toptarfuelstationpos.repository.FuelTypeRepository;
-import ua.toptar.toptarfuelstationpos.repository.TransactionRepository;
+import ua.toptar.toptarfuelstationpos.service.DashboardMetricsService;
+import ua.toptar.toptarfuelstationpos.service.FuelTypeCatalogService;
+import ua.toptar.toptarfuelstationpos.service.TransactionExportService;
 import ua.toptar.toptarfuelstationpos.service.TransactionService;
 
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Controller for handling admin-related requests.
@@ -35,30 +44,31 @@ import java.util.List;
 @RequestMapping("/admin")
 public class AdminController {
 
+    private static final int EXPORT_BUFFER_SIZE = 8192;
+
     private final TransactionService transactionService;
-    private final TransactionRepository transactionRepository;
-    private final FuelTypeRepository fuelTypeRepository;
+    private final TransactionExportService transactionExportService;
+    private final DashboardMetricsService dashboardMetricsService;
+    private final FuelTypeCatalogService fuelTypeCatalogService;
     private final ObjectMapper objectMapper;
 
-    // Constants for period types
-    private static final String DAILY_PERIOD = "daily";
-    private static final String WEEKLY_PERIOD = "weekly";
-    private static final String MONTHLY_PERIOD = "monthly";
-
     /**
      * Constructs a new {@code AdminController} with the specified dependencies.
      *
      * @param transactionService the service for managing transactions
-     * @param transactionRepository the repository for accessing transaction data
-     * @param fuelTypeRepository the repository for accessing fuel type data
-     * @param objectMapper the mapper for converting objects to JSON
+     * @param transactionExportService the service for exporting transactions
+     * @param dashboardMetricsService the service keeping the dashboard totals
+     * @param fuelTypeCatalogService the service holding the in-memory fuel type catalog
+     * @param objectMapper the mapper for converting the analytics series to JSON
      */
     public AdminController(TransactionService transactionService,
-        TransactionRepository transactionRepository,
-        FuelTypeRepository fuelTypeRepository, ObjectMapper objectMapper) {
+        TransactionExportService transactionExportService,
+        DashboardMetricsService dashboardMetricsService,
+        FuelTypeCatalogService fuelTypeCatalogService, ObjectMapper objectMapper) {
         this.transactionService = transactionService;
-        this.transactionRepository = transactionRepository;
-        this.fuelTypeRepository = fuelTypeRepository;
+        this.transactionExportService = transactionExportService;
+        this.dashboardMetricsService = dashboardMetricsService;
+        this.fuelTypeCatalogService = fuelTypeCatalogService;
         this.objectMapper = objectMapper;
     }
 
@@ -71,14 +81,10 @@ public class AdminController {
      */
     @GetMapping("/dashboard")
     public String showDashboard(Model model) {
-        long totalTransactions = transactionRepository.count();
-        BigDecimal totalRevenue = transactionRepository.findAll().stream()
-            .map(Transaction::getTotalAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal averageTransaction = totalTransactions > 0
-            ? BigDecimal.valueOf(Math.round(totalRevenue.doubleValue() / totalTransactions * 100) / 100.0)
-            : BigDecimal.ZERO;
+        // Підсумки беруться з лічильників у пам'яті, без запитів до таблиці транзакцій
+        long totalTransactions = dashboardMetricsService.getTransactionCount();
+        BigDecimal totalRevenue = dashboardMetricsService.getTotalRevenue();
+        BigDecimal averageTransaction = dashboardMetricsService.getAverageTransaction();
 
         model.addAttribute("totalTransactions", totalTransactions);
         model.addAttribute("totalRevenue", totalRevenue);
@@ -89,33 +95,44 @@ public class AdminController {
     }
 
     /**
-     * Displays a paginated list of transactions with optional filtering by fuel type and start date.
+     * Displays a page of transactions, newest first, with optional filtering by fuel type and start date.
+     * Pages are navigated with opaque cursors instead of page numbers.
+     * The matching transactions are only counted if the total is requested.
      *
-     * @param page the page number to display, defaults to 0
+     * @param cursor the cursor of the page to display, or null for the first page
      * @param fuelTypeName the name of the fuel type to filter by, can be null
      * @param startDate the start date to filter transactions, in ISO format, can be null
+     * @param withTotal whether to count all matching transactions, defaults to false
      * @param model the model to add attributes for the view
      * @return the name of the transactions view template
+     * @throws ResponseStatusException if the cursor is invalid
      */
     @GetMapping("/transactions")
     public String showTransactions(
-        @RequestParam(defaultValue = "0") int page,
+        @RequestParam(required = false) String cursor,
         @RequestParam(required = false) String fuelTypeName,
         @RequestParam(required = false) String startDate,
+        @RequestParam(defaultValue = "false") boolean withTotal,
         Model model) {
         int pageSize = 10;
         LocalDateTime parsedStartDate = startDate != null && !startDate.isEmpty()
             ? LocalDateTime.parse(startDate, DateTimeFormatter.ISO_LOCAL_DATE_TIME)
             : null;
 
-        Page<TransactionDto> transactionPage = transactionService.getFilteredTransactions(page, pageSize, fuelTypeName, parsedStartDate);
-        List<FuelType> fuelTypes = fuelTypeRepository.findAll();
+        CursorPage<TransactionDto> transactionPage;
+        try {
+            transactionPage = transactionService.getTransactionsPage(cursor, pageSize, fuelTypeName, parsedStartDate, withTotal);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        List<FuelType> fuelTypes = fuelTypeCatalogService.getFuelTypes();
 
-        model.addAttribute("transactions", transactionPage.getContent());
-        model.addAttribute("currentPage", page);
-        model.addAttribute("totalPages", transactionPage.getTotalPages());
+        model.addAttribute("transactions", transactionPage.content());
+        model.addAttribute("nextCursor", transactionPage.nextCursor());
+        model.addAttribute("previousCursor", transactionPage.previousCursor());
         model.addAttribute("hasPrevious", transactionPage.hasPrevious());
         model.addAttribute("hasNext", transactionPage.hasNext());
+        model.addAttribute("totalElements", transactionPage.totalElements());
         model.addAttribute("fuelTypeName", fuelTypeName);
         model.addAttribute("fuelTypes", fuelTypes);
         if (startDate != null) {
@@ -126,110 +143,145 @@ public class AdminController {
     }
 
     /**
-     * Displays the analytics page with sales and revenue statistics.
-     * Includes sales and revenue data by fuel type and total revenue, grouped by daily, weekly, and monthly periods.
+     * Displays the analytics page with sales and revenue charts.
+     * The page holds no data itself: each chart fetches only the series of the selected period
+     * from {@link #getAnalyticsSeries}, when it is first shown.
      *
-     * @param model the model to add attributes for the view
      * @return the name of the analytics view template
      */
     @GetMapping("/analytics")
-    public String showAnalytics(Model model) {
-        LocalDateTime endDate = LocalDateTime.now();
-        LocalDateTime startDate = endDate.minusMonths(1);
-
-        // Обсяг продажів за типами пального для різних періодів
-        Map<String, BigDecimal> salesByFuelType = transactionService.getSalesByFuelType(startDate, endDate);
-        Map<String, Map<String, BigDecimal>> salesByFuelTypeDaily = transactionService.getSalesByFuelTypeGroupedByPeriod(startDate, endDate, DAILY_PERIOD);
-        Map<String, Map<String, BigDecimal>> salesByFuelTypeWeekly = transactionService.getSalesByFuelTypeGroupedByPeriod(startDate, endDate, WEEKLY_PERIOD);
-        Map<String, Map<String, BigDecimal>> salesByFuelTypeMonthly = transactionService.getSalesByFuelTypeGroupedByPeriod(startDate, endDate, MONTHLY_PERIOD);
-
-        // Сума заробітку за типами пального для різних періодів
-        Map<String, Map<String, BigDecimal>> revenueByFuelTypeDaily = transactionService.getRevenueByFuelTypeGroupedByPeriod(startDate, endDate, DAILY_PERIOD);
-        Map<String, Map<String, BigDecimal>> revenueByFuelTypeWeekly = transactionService.getRevenueByFuelTypeGroupedByPeriod(startDate, endDate, WEEKLY_PERIOD);
-        Map<String, Map<String, BigDecimal>> revenueByFuelTypeMonthly = transactionService.getRevenueByFuelTypeGroupedByPeriod(startDate, endDate, MONTHLY_PERIOD);
-
-        // Загальний заробіток за період
-        Map<String, BigDecimal> totalRevenueDaily = transactionService.getTotalRevenueGroupedByPeriod(startDate, endDate, DAILY_PERIOD);
-        Map<String, BigDecimal> totalRevenueWeekly = transactionService.getTotalRevenueGroupedByPeriod(startDate, endDate, WEEKLY_PERIOD);
-        Map<String, BigDecimal> totalRevenueMonthly = transactionService.getTotalRevenueGroupedByPeriod(startDate, endDate, MONTHLY_PERIOD);
+    public String showAnalytics() {
+        return "admin-analytics";
+    }
+
+    /**
+     * Returns one analytics series as JSON, computed only for the requested metric and period.
+     * The range defaults to the last month of whole days up to today, which is the same all day,
+     * so the series is served from the analytics cache after its first request.
+     * The response carries an ETag of the request and the version of the analytics series, which changes
+     * after every committed sale. A request whose {@code If-None-Match} matches it is answered with status 304
+     * and no body, before the series is computed.
+     *
+     * @param metric the metric of the series ("sales", "revenue", or "totalRevenue")
+     * @param period the period to group by ("daily", "weekly", or "monthly")
+     * @param from the first day of the range, inclusive, can be null
+     * @param to the last day of the range, inclusive, can be null
+     * @param webRequest the current request, to check its {@code If-None-Match} header
+     * @return a {@code ResponseEntity} with the series as JSON and its ETag, or null if the series is not modified
+     * @throws ResponseStatusException with status 400 if the metric, period or range is invalid
+     * @throws JsonProcessingException if the series cannot be converted to JSON
+     */
+    @GetMapping("/api/analytics")
+    @ResponseBody
+    public ResponseEntity<byte[]> getAnalyticsSeries(@RequestParam String metric,
+        @RequestParam(defaultValue = "daily") String period,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        WebRequest webRequest) throws JsonProcessingException {
+        // Діапазон з цілих днів, включно з останнім, тож протягом дня ряди беруться з кешу
+        LocalDate lastDay = to != null ? to : LocalDate.now();
+        LocalDate firstDay = from != null ? from : lastDay.minusMonths(1);
+        if (firstDay.isAfter(lastDay)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Start date must not be after end date");
+        }
+        LocalDateTime startDate = firstDay.atStartOfDay();
+        LocalDateTime endDate = lastDay.plusDays(1).atStartOfDay();
+
+        // Версія читається до обчислення: продаж, доданий під час нього, лише змінить ETag наступної відповіді
+        String eTag = DigestUtils.md5DigestAsHex((transactionService.getAnalyticsVersion() + ":" + metric + ":"
+            + period + ":" + startDate + ":" + endDate).getBytes(StandardCharsets.UTF_8));
+        // Збіг з If-None-Match вже записав відповідь 304 без тіла
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
 
+        Object series;
         try {
-            // Серіалізуємо об’єкти в JSON-рядки
-            model.addAttribute("salesByFuelTypeJson", objectMapper.writeValueAsString(salesByFuelType != null ? salesByFuelType : new HashMap<>()));
-            model.addAttribute("salesByFuelTypeDailyJson", objectMapper.writeValueAsString(salesByFuelTypeDaily != null ? salesByFuelTypeDaily : new HashMap<>()));
-            model.addAttribute("salesByFuelTypeWeeklyJson", objectMapper.writeValueAsString(salesByFuelTypeWeekly != null ? salesByFuelTypeWeekly : new HashMap<>()));
-            model.addAttribute("salesByFuelTypeMonthlyJson", objectMapper.writeValueAsString(salesByFuelTypeMonthly != null ? salesByFuelTypeMonthly : new HashMap<>()));
-            model.addAttribute("revenueByFuelTypeDailyJson", objectMapper.writeValueAsString(revenueByFuelTypeDaily != null ? revenueByFuelTypeDaily : new HashMap<>()));
-            model.addAttribute("revenueByFuelTypeWeeklyJson", objectMapper.writeValueAsString(revenueByFuelTypeWeekly != null ? revenueByFuelTypeWeekly : new HashMap<>()));
-            model.addAttribute("revenueByFuelTypeMonthlyJson", objectMapper.writeValueAsString(revenueByFuelTypeMonthly != null ? revenueByFuelTypeMonthly : new HashMap<>()));
-            model.addAttribute("totalRevenueDailyJson", objectMapper.writeValueAsString(totalRevenueDaily != null ? totalRevenueDaily : new HashMap<>()));
-            model.addAttribute("totalRevenueWeeklyJson", objectMapper.writeValueAsString(totalRevenueWeekly != null ? totalRevenueWeekly : new HashMap<>()));
-            model.addAttribute("totalRevenueMonthlyJson", objectMapper.writeValueAsString(totalRevenueMonthly != null ? totalRevenueMonthly : new HashMap<>()));
-        } catch (Exception e) {
-            // У разі помилки серіалізації додаємо порожні JSON-об’єкти
-            model.addAttribute("salesByFuelTypeJson", "{}");
-            model.addAttribute("salesByFuelTypeDailyJson", "{}");
-            model.addAttribute("salesByFuelTypeWeeklyJson", "{}");
-            model.addAttribute("salesByFuelTypeMonthlyJson", "{}");
-            model.addAttribute("revenueByFuelTypeDailyJson", "{}");
-            model.addAttribute("revenueByFuelTypeWeeklyJson", "{}");
-            model.addAttribute("revenueByFuelTypeMonthlyJson", "{}");
-            model.addAttribute("totalRevenueDailyJson", "{}");
-            model.addAttribute("totalRevenueWeeklyJson", "{}");
-            model.addAttribute("totalRevenueMonthlyJson", "{}");
+            series = switch (metric) {
+                case "sales" -> transactionService.getSalesByFuelTypeGroupedByPeriod(startDate, endDate, period);
+                case "revenue" -> transactionService.getRevenueByFuelTypeGroupedByPeriod(startDate, endDate, period);
+                case "totalRevenue" -> transactionService.getTotalRevenueGroupedByPeriod(startDate, endDate, period);
+                default -> throw new IllegalArgumentException("Invalid metric: " + metric);
+            };
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         }
 
-        return "admin-analytics";
+        // Ключі впорядковуються, щоб графік отримував періоди в хронологічному порядку
+        byte[] body = objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .writeValueAsBytes(series);
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .cacheControl(CacheControl.noCache())
+            .eTag(eTag)
+            .body(body);
     }
 
     /**
-     * Exports transactions to an Excel file with optional filtering by fuel type and start date.
-     * The exported file includes transaction details such as ID, fuel type, price, volume, total amount, date, and username.
+     * Exports transactions with optional filtering by fuel type and start date.
+     * The exported data includes transaction details such as ID, fuel type, price, volume, total amount, date, and username.
+     * Supports an Excel file ("xlsx", default), CSV ("csv") and newline-delimited JSON ("ndjson");
+     * CSV and NDJSON can additionally be gzip-compressed. Rows are streamed to the response,
+     * so large exports do not have to fit in memory.
      *
      * @param fuelTypeName the name of the fuel type to filter by, can be null
      * @param startDate the start date to filter transactions, in ISO format, can be null
-     * @param response the HTTP response to write the Excel file to
+     * @param format the export format ("xlsx", "csv" or "ndjson"), defaults to "xlsx"
+     * @param gzip whether to gzip-compress a CSV or NDJSON export, defaults to false
+     * @param response the HTTP response to write the exported data to
      * @throws IOException if an error occurs while writing to the response output stream
+     * @throws ResponseStatusException if the format is not supported
      */
     @GetMapping("/transactions/export")
     public void exportTransactions(
         @RequestParam(required = false) String fuelTypeName,
         @RequestParam(required = false) String startDate,
+        @RequestParam(defaultValue = "xlsx") String format,
+        @RequestParam(defaultValue = "false") boolean gzip,
         HttpServletResponse response) throws IOException {
         LocalDateTime parsedStartDate = startDate != null && !startDate.isEmpty()
             ? LocalDateTime.parse(startDate, DateTimeFormatter.ISO_LOCAL_DATE_TIME)
             : null;
 
-        Page<TransactionDto> transactions = transactionService.getFilteredTransactions(0, Integer.MAX_VALUE, fuelTypeName, parsedStartDate);
-
-        try (Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("Transactions");
-
-            Row headerRow = sheet.createRow(0);
-            headerRow.createCell(0).setCellValue("ID");
-            headerRow.createCell(1).setCellValue("Fuel Type");
-            headerRow.createCell(2).setCellValue("Price per Liter (UAH)");
-            headerRow.createCell(3).setCellValue("Volume (L)");
-            headerRow.createCell(4).setCellValue("Total Amount (UAH)");
-            headerRow.createCell(5).setCellValue("Date");
-            headerRow.createCell(6).setCellValue("Username");
-
-            int rowNum = 1;
-            for (TransactionDto t : transactions.getContent()) {
-                Row row = sheet.createRow(rowNum++);
-                row.createCell(0).setCellValue(t.getId());
-                row.createCell(1).setCellValue(t.getFuelTypeName());
-                row.createCell(2).setCellValue(t.getPricePerLiter().doubleValue());
-                row.createCell(3).setCellValue(t.getVolume().doubleValue());
-                row.createCell(4).setCellValue(t.getTotalAmount().doubleValue());
-                row.createCell(5).setCellValue(t.getTransactionDate().format(DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm")));
-                row.createCell(6).setCellValue(t.getUsername() != null ? t.getUsername() : "N/A");
+        switch (format) {
+            case "xlsx" -> {
+                response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+                response.setHeader("Content-Disposition", "attachment; filename=\"transactions.xlsx\"");
+                transactionExportService.exportToXlsx(fuelTypeName, parsedStartDate, response.getOutputStream());
             }
+            case "csv" -> {
+                try (OutputStream out = openExportStream(response, "text/csv; charset=UTF-8", "transactions.csv", gzip)) {
+                    transactionExportService.exportToCsv(fuelTypeName, parsedStartDate, out);
+                }
+            }
+            case "ndjson" -> {
+                try (OutputStream out = openExportStream(response, "application/x-ndjson", "transactions.ndjson", gzip)) {
+                    transactionExportService.exportToNdjson(fuelTypeName, parsedStartDate, out);
+                }
+            }
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported export format: " + format);
+        }
+    }
 
-            response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
-            response.setHeader("Content-Disposition", "attachment; filename=\"transactions.xlsx\"");
-
-            workbook.write(response.getOutputStream());
+    /**
+     * Sets the export headers on the response and opens its output stream, wrapped in gzip compression if requested.
+     *
+     * @param response the HTTP response to write to
+     * @param contentType the content type of the uncompressed data
+     * @param fileName the file name of the uncompressed data
+     * @param gzip whether to gzip-compress the data
+     * @return the stream to write the exported data to
+     * @throws IOException if the response output stream cannot be opened
+     */
+    private OutputStream openExportStream(HttpServletResponse response, String contentType, String fileName,
+        boolean gzip) throws IOException {
+        if (!gzip) {
+            response.setContentType(contentType);
+            response.setHeader("Content-Disposition", "attachment; filename=\"" + fileName + "\"");
+            return response.getOutputStream();
         }
+        response.setContentType("application/gzip");
+        response.setHeader("Content-Disposition", "attachment; filename=\"" + fileName + ".gz\"");
+        return new GZIPOutputStream(response.getOutputStream(), EXPORT_BUFFER_SIZE);
     }
-}
\ No newline at end of file
+}
@@ -6,7 +6,7 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import ua.toptar.toptarfuelstationpos.dto.TransactionDto;
-import ua.toptar.toptarfuelstationpos.repository.FuelTypeRepository;
+import ua.toptar.toptarfuelstationpos.service.FuelTypeCatalogService;
 import ua.toptar.toptarfuelstationpos.service.TransactionService;
 
 /**
@@ -18,17 +18,17 @@ import ua.toptar.toptarfuelstationpos.service.TransactionService;
 public class PosController {
 
     private final TransactionService transactionService;
-    private final FuelTypeRepository fuelTypeRepository;
+    private final FuelTypeCatalogService fuelTypeCatalogService;
 
     /**
      * Constructs a new {@code PosController} with the specified dependencies.
      *
      * @param transactionService the service for managing transactions
-     * @param fuelTypeRepository the repository for accessing fuel type data
+     * @param fuelTypeCatalogService the service holding the in-memory fuel type catalog
      */
-    public PosController(TransactionService transactionService, FuelTypeRepository fuelTypeRepository) {
+    public PosController(TransactionService transactionService, FuelTypeCatalogService fuelTypeCatalogService) {
         this.transactionService = transactionService;
-        this.fuelTypeRepository = fuelTypeRepository;
+        this.fuelTypeCatalogService = fuelTypeCatalogService;
     }
 
     /**
@@ -43,7 +43,7 @@ public class PosController {
         addAuthenticationAttributes(model);
 
         model.addAttribute("transaction", new TransactionDto());
-        model.addAttribute("fuelTypes", fuelTypeRepository.findAll());
+        model.addAttribute("fuelTypes", fuelTypeCatalogService.getFuelTypes());
         return "index";
     }
 
@@ -67,7 +67,7 @@ public class PosController {
         }
 
         model.addAttribute("transaction", new TransactionDto());
-        model.addAttribute("fuelTypes", fuelTypeRepository.findAll());
+        model.addAttribute("fuelTypes", fuelTypeCatalogService.getFuelTypes());
         return "index";
     }
 
@@ -1,57 +1,109 @@
 package ua.toptar.toptarfuelstationpos.controller;
 
-import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import ua.toptar.toptarfuelstationpos.dto.BatchItemResult;
+import ua.toptar.toptarfuelstationpos.dto.CursorPage;
 import ua.toptar.toptarfuelstationpos.dto.TransactionDto;
-import ua.toptar.toptarfuelstationpos.model.User;
+import ua.toptar.toptarfuelstationpos.dto.UserIdentity;
+import ua.toptar.toptarfuelstationpos.service.TransactionJournalService;
 import ua.toptar.toptarfuelstationpos.service.TransactionService;
+import ua.toptar.toptarfuelstationpos.service.UserIdentityService;
+
+import java.io.IOException;
+import java.util.List;
 
 /**
  * REST controller for handling transaction-related API requests.
- * Provides endpoints for creating transactions and retrieving user-specific transactions.
+ * Provides endpoints for creating single or batched transactions and retrieving user-specific transactions.
  */
 @RestController
 @RequestMapping("/api/transactions")
 public class TransactionController {
 
+    private static final int MAX_BATCH_SIZE = 1000;
+
     private final TransactionService transactionService;
+    private final UserIdentityService userIdentityService;
+    private final TransactionJournalService transactionJournalService;
 
     /**
-     * Constructs a new {@code TransactionController} with the specified transaction service.
+     * Constructs a new {@code TransactionController} with the specified dependencies.
      *
      * @param transactionService the service for managing transactions
+     * @param userIdentityService the service resolving usernames to cached user identities
+     * @param transactionJournalService the service for the asynchronous ingestion of sales
      */
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService, UserIdentityService userIdentityService,
+        TransactionJournalService transactionJournalService) {
         this.transactionService = transactionService;
+        this.userIdentityService = userIdentityService;
+        this.transactionJournalService = transactionJournalService;
     }
 
     /**
      * Creates a new transaction based on the provided transaction data.
+     * In the asynchronous ingestion mode the sale is validated, written to the journal and accepted
+     * with status 202; it is saved to the database shortly afterwards.
      *
      * @param transactionDto the transaction data to create
-     * @return a {@code ResponseEntity} containing the created transaction
+     * @return a {@code ResponseEntity} containing the created or accepted transaction
+     * @throws IOException if the sale cannot be written to the journal
      */
     @PostMapping
-    public ResponseEntity<TransactionDto> createTransaction(@RequestBody TransactionDto transactionDto) {
+    public ResponseEntity<TransactionDto> createTransaction(@RequestBody TransactionDto transactionDto) throws IOException {
+        if (transactionJournalService.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(transactionJournalService.submit(transactionDto));
+        }
         TransactionDto createdTransaction = transactionService.createTransaction(transactionDto);
         return ResponseEntity.ok(createdTransaction);
     }
 
     /**
-     * Retrieves a paginated list of transactions for the authenticated user.
+     * Creates several transactions at once, as buffered and submitted by a pump controller.
+     * Every item is validated on its own; the response reports the outcome of each item in the submitted order.
+     *
+     * @param transactionDtos the transaction data to create
+     * @return a {@code ResponseEntity} containing the result of every item
+     * @throws ResponseStatusException if the batch is empty or larger than the allowed size
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchItemResult>> createTransactions(@RequestBody List<TransactionDto> transactionDtos) {
+        if (transactionDtos.isEmpty() || transactionDtos.size() > MAX_BATCH_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Batch must contain between 1 and " + MAX_BATCH_SIZE + " transactions");
+        }
+        return ResponseEntity.ok(transactionService.createTransactions(transactionDtos));
+    }
+
+    /**
+     * Retrieves a page of transactions of the authenticated user, newest first.
+     * The response carries opaque cursors of the next and previous pages,
+     * and the total number of the user's transactions if it is requested.
      *
-     * @param user the authenticated user
-     * @param page the page number to retrieve, defaults to 0
-     * @return a {@code ResponseEntity} containing the paginated list of transactions
+     * @param userDetails the authenticated user's details
+     * @param cursor the cursor of the page to retrieve, or null for the first page
+     * @param withTotal whether to count all transactions of the user, defaults to false
+     * @return a {@code ResponseEntity} containing the page of transactions
+     * @throws IllegalStateException if the authenticated user is not found
+     * @throws ResponseStatusException if the cursor is invalid
      */
     @GetMapping("/user")
-    public ResponseEntity<Page<TransactionDto>> getUserTransactions(
-        @AuthenticationPrincipal User user,
-        @RequestParam(defaultValue = "0") int page) {
+    public ResponseEntity<CursorPage<TransactionDto>> getUserTransactions(
+        @AuthenticationPrincipal UserDetails userDetails,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "false") boolean withTotal) {
         int pageSize = 10;
-        Page<TransactionDto> transactions = transactionService.getUserTransactions(user.getId(), page, pageSize);
-        return ResponseEntity.ok(transactions);
+        UserIdentity user = userIdentityService.findByUsername(userDetails.getUsername())
+            .orElseThrow(() -> new IllegalStateException("User not found: " + userDetails.getUsername()));
+        try {
+            return ResponseEntity.ok(transactionService.getUserTransactionsPage(user.id(), cursor, pageSize, null, null, withTotal));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 }
\ No newline at end of file
@@ -1,7 +1,7 @@
 package ua.toptar.toptarfuelstationpos.controller;
 
-import org.springframework.data.domain.Page;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Controller;
@@ -9,11 +9,13 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.server.ResponseStatusException;
+import ua.toptar.toptarfuelstationpos.dto.CursorPage;
 import ua.toptar.toptarfuelstationpos.dto.TransactionDto;
-import ua.toptar.toptarfuelstationpos.model.User;
-import ua.toptar.toptarfuelstationpos.repository.FuelTypeRepository;
-import ua.toptar.toptarfuelstationpos.repository.UserRepository;
+import ua.toptar.toptarfuelstationpos.dto.UserIdentity;
+import ua.toptar.toptarfuelstationpos.service.FuelTypeCatalogService;
 import ua.toptar.toptarfuelstationpos.service.TransactionService;
+import ua.toptar.toptarfuelstationpos.service.UserIdentityService;
 
 import java.time.LocalDateTime;
 import java.util.logging.Logger;
@@ -28,38 +30,40 @@ public class UserController {
 
     private static final Logger logger = Logger.getLogger(UserController.class.getName());
     private final TransactionService transactionService;
-    private final UserRepository userRepository;
-    private final FuelTypeRepository fuelTypeRepository;
+    private final UserIdentityService userIdentityService;
+    private final FuelTypeCatalogService fuelTypeCatalogService;
 
     /**
      * Constructs a new {@code UserController} with the specified dependencies.
      *
      * @param transactionService the service for managing transactions
-     * @param userRepository the repository for accessing user data
-     * @param fuelTypeRepository the repository for accessing fuel type data
+     * @param userIdentityService the service resolving usernames to cached user identities
+     * @param fuelTypeCatalogService the service holding the in-memory fuel type catalog
      */
-    public UserController(TransactionService transactionService, UserRepository userRepository, FuelTypeRepository fuelTypeRepository) {
+    public UserController(TransactionService transactionService, UserIdentityService userIdentityService, FuelTypeCatalogService fuelTypeCatalogService) {
         this.transactionService = transactionService;
-        this.userRepository = userRepository;
-        this.fuelTypeRepository = fuelTypeRepository;
+        this.userIdentityService = userIdentityService;
+        this.fuelTypeCatalogService = fuelTypeCatalogService;
     }
 
     /**
-     * Displays a paginated list of transactions for the authenticated user with optional filtering.
+     * Displays a page of transactions of the authenticated user, newest first, with optional filtering.
+     * Pages are navigated with opaque cursors instead of page numbers.
      * Redirects to the login page if the user is not authenticated.
      *
      * @param userDetails the authenticated user's details
-     * @param page the page number to display, defaults to 0
+     * @param cursor the cursor of the page to display, or null for the first page
      * @param fuelTypeName the name of the fuel type to filter by, optional
      * @param startDate the start date to filter transactions, optional
      * @param model the model to add attributes for the view
      * @return the name of the user transactions view template, or a redirect to the login page
-     * @throws IllegalStateException if the authenticated user is not found in the repository
+     * @throws IllegalStateException if the authenticated user is not found
+     * @throws ResponseStatusException if the cursor is invalid
      */
     @GetMapping("/transactions")
     public String getUserTransactions(
         @AuthenticationPrincipal UserDetails userDetails,
-        @RequestParam(defaultValue = "0") int page,
+        @RequestParam(required = false) String cursor,
         @RequestParam(required = false) String fuelTypeName,
         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
         Model model) {
@@ -70,25 +74,29 @@ public class UserController {
 
         String username = userDetails.getUsername();
         logger.info(() -> String.format("Authenticated user: %s", username));
-        User user = userRepository.findByUsername(username)
+        UserIdentity user = userIdentityService.findByUsername(username)
             .orElseThrow(() -> new IllegalStateException("User not found: " + username));
 
         int pageSize = 10;
-        logger.info(() -> String.format("Fetching transactions for user ID: %d, page: %d, fuelTypeName: %s, startDate: %s",
-            user.getId(), page, fuelTypeName, startDate));
-        Page<TransactionDto> transactions = transactionService.getFilteredUserTransactions(
-            user.getId(), page, pageSize, fuelTypeName, startDate);
+        logger.info(() -> String.format("Fetching transactions for user ID: %d, cursor: %s, fuelTypeName: %s, startDate: %s",
+            user.id(), cursor, fuelTypeName, startDate));
+        CursorPage<TransactionDto> transactions;
+        try {
+            transactions = transactionService.getUserTransactionsPage(user.id(), cursor, pageSize, fuelTypeName, startDate, false);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
 
-        model.addAttribute("transactions", transactions.getContent());
-        model.addAttribute("currentPage", page);
-        model.addAttribute("totalPages", transactions.getTotalPages());
+        model.addAttribute("transactions", transactions.content());
+        model.addAttribute("nextCursor", transactions.nextCursor());
+        model.addAttribute("previousCursor", transactions.previousCursor());
         model.addAttribute("hasPrevious", transactions.hasPrevious());
         model.addAttribute("hasNext", transactions.hasNext());
-        model.addAttribute("fuelTypes", fuelTypeRepository.findAll());
+        model.addAttribute("fuelTypes", fuelTypeCatalogService.getFuelTypes());
         model.addAttribute("fuelTypeName", fuelTypeName);
         model.addAttribute("startDate", startDate);
 
-        logger.info("Found " + transactions.getTotalElements() + " transactions for user ID: " + user.getId());
+        logger.info("Found " + transactions.content().size() + " transactions for user ID: " + user.id());
         return "user-transactions";
     }
 }
\ No newline at end of file
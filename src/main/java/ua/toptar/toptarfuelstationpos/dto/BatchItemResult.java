@@ -0,0 +1,34 @@
+package ua.toptar.toptarfuelstationpos.dto;
+
+/**
+ * Data Transfer Object (DTO) reporting the outcome of one item of a transaction batch.
+ *
+ * @param index the position of the item in the submitted batch
+ * @param success whether the transaction was created
+ * @param transaction the created transaction, null if the item failed
+ * @param error the reason the item failed, null if it succeeded
+ */
+public record BatchItemResult(int index, boolean success, TransactionDto transaction, String error) {
+
+    /**
+     * Creates the result of a created transaction.
+     *
+     * @param index the position of the item in the batch
+     * @param transaction the created transaction
+     * @return the successful result
+     */
+    public static BatchItemResult succeeded(int index, TransactionDto transaction) {
+        return new BatchItemResult(index, true, transaction, null);
+    }
+
+    /**
+     * Creates the result of a rejected item.
+     *
+     * @param index the position of the item in the batch
+     * @param error the reason the item was rejected
+     * @return the failed result
+     */
+    public static BatchItemResult failed(int index, String error) {
+        return new BatchItemResult(index, false, null, error);
+    }
+}
@@ -0,0 +1,35 @@
+package ua.toptar.toptarfuelstationpos.dto;
+
+import java.util.List;
+
+/**
+ * One page of a listing read by keyset pagination.
+ * Instead of page numbers, the page carries opaque cursors to the neighbouring pages.
+ * The total number of items is only counted on request.
+ *
+ * @param content the items of the page
+ * @param nextCursor the cursor of the next page, or {@code null} if this is the last page
+ * @param previousCursor the cursor of the previous page, or {@code null} if this is the first page
+ * @param totalElements the total number of items of the listing, or {@code null} if it was not counted
+ * @param <T> the type of the items
+ */
+public record CursorPage<T>(List<T> content, String nextCursor, String previousCursor, Long totalElements) {
+
+    /**
+     * Checks whether there is a page after this one.
+     *
+     * @return {@code true} if there is a next page
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    /**
+     * Checks whether there is a page before this one.
+     *
+     * @return {@code true} if there is a previous page
+     */
+    public boolean hasPrevious() {
+        return previousCursor != null;
+    }
+}
@@ -0,0 +1,12 @@
+package ua.toptar.toptarfuelstationpos.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Data Transfer Object (DTO) holding the number of transactions and their total revenue.
+ *
+ * @param transactionCount the number of transactions
+ * @param revenue the sum of the transaction amounts, null if there are no transactions
+ */
+public record DashboardTotals(long transactionCount, BigDecimal revenue) {
+}
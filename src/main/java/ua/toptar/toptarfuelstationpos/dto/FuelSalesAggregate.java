@@ -0,0 +1,53 @@
+package ua.toptar.toptarfuelstationpos.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import ua.toptar.toptarfuelstationpos.model.MinorUnits;
+
+/**
+ * Projection holding the aggregated sales of one fuel type on one day.
+ * Returned by the aggregation queries over the daily rollup and over transactions grouped in the database.
+ * The volume and revenue are held in millilitres and kopecks, so they can be summed without allocating.
+ *
+ * @param salesDate the day of the sales
+ * @param fuelTypeName the name of the fuel type
+ * @param volumeMillilitres the total volume sold, in millilitres
+ * @param revenueKopecks the total revenue, in kopecks
+ * @param transactionCount the number of transactions
+ */
+public record FuelSalesAggregate(LocalDate salesDate, String fuelTypeName, long volumeMillilitres,
+                                 long revenueKopecks, long transactionCount) {
+
+    /**
+     * Constructs an aggregate from the volume and revenue as stored in the database.
+     *
+     * @param salesDate the day of the sales
+     * @param fuelTypeName the name of the fuel type
+     * @param volume the total volume sold, in litres
+     * @param revenue the total revenue, in hryvnias
+     * @param transactionCount the number of transactions
+     */
+    public FuelSalesAggregate(LocalDate salesDate, String fuelTypeName, BigDecimal volume, BigDecimal revenue,
+                              long transactionCount) {
+        this(salesDate, fuelTypeName, MinorUnits.toMillilitres(volume), MinorUnits.toKopecks(revenue),
+            transactionCount);
+    }
+
+    /**
+     * Returns the total volume sold.
+     *
+     * @return the total volume, in litres
+     */
+    public BigDecimal volume() {
+        return MinorUnits.fromMillilitres(volumeMillilitres);
+    }
+
+    /**
+     * Returns the total revenue.
+     *
+     * @return the total revenue, in hryvnias
+     */
+    public BigDecimal revenue() {
+        return MinorUnits.fromKopecks(revenueKopecks);
+    }
+}
@@ -0,0 +1,41 @@
+package ua.toptar.toptarfuelstationpos.dto;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import ua.toptar.toptarfuelstationpos.model.FuelType;
+
+/**
+ * Immutable snapshot of all fuel types, identified by a version that grows with every reload.
+ * The fuel types are detached copies, so the snapshot can be shared between requests.
+ *
+ * @param version the version of the snapshot
+ * @param fuelTypes the fuel types, in the order they were loaded
+ * @param fuelTypesById the same fuel types, indexed by ID
+ */
+public record FuelTypeCatalog(long version, List<FuelType> fuelTypes, Map<Long, FuelType> fuelTypesById) {
+
+    /**
+     * Creates a snapshot of the specified fuel types.
+     *
+     * @param version the version of the snapshot
+     * @param fuelTypes the detached fuel types to include
+     * @return the new snapshot
+     */
+    public static FuelTypeCatalog of(long version, List<FuelType> fuelTypes) {
+        return new FuelTypeCatalog(version, List.copyOf(fuelTypes),
+            fuelTypes.stream().collect(Collectors.toUnmodifiableMap(FuelType::getId, Function.identity())));
+    }
+
+    /**
+     * Finds a fuel type of the snapshot by its ID.
+     *
+     * @param id the ID of the fuel type
+     * @return an {@code Optional} containing the fuel type, or empty if it is not part of the snapshot
+     */
+    public Optional<FuelType> findById(Long id) {
+        return Optional.ofNullable(fuelTypesById.get(id));
+    }
+}
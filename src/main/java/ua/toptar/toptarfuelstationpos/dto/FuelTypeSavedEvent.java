@@ -0,0 +1,9 @@
+package ua.toptar.toptarfuelstationpos.dto;
+
+/**
+ * Domain event published by Spring Data when a fuel type is saved through its repository.
+ *
+ * @param fuelTypeName the name of the saved fuel type
+ */
+public record FuelTypeSavedEvent(String fuelTypeName) {
+}
@@ -0,0 +1,39 @@
+package ua.toptar.toptarfuelstationpos.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object (DTO) for a validated sale recorded in the transaction journal.
+ * Holds everything needed to insert the transaction later, without looking anything up again.
+ *
+ * @param ingestKey the unique key of the sale, used to skip sales that have already been saved
+ * @param fuelTypeId the ID of the fuel type
+ * @param fuelTypeName the name of the fuel type
+ * @param pricePerLiter the price per liter charged
+ * @param volume the volume sold
+ * @param totalAmount the total amount charged
+ * @param transactionDate the date of the sale
+ * @param userId the ID of the user the sale is recorded for
+ * @param username the username of the user the sale is recorded for
+ */
+public record JournaledSale(String ingestKey, Long fuelTypeId, String fuelTypeName, BigDecimal pricePerLiter,
+    BigDecimal volume, BigDecimal totalAmount, LocalDateTime transactionDate, Long userId, String username) {
+
+    /**
+     * Converts the sale to a transaction DTO. The ID is not known until the sale has been saved.
+     *
+     * @return the transaction DTO of the sale
+     */
+    public TransactionDto toTransactionDto() {
+        TransactionDto dto = new TransactionDto();
+        dto.setFuelTypeId(fuelTypeId);
+        dto.setFuelTypeName(fuelTypeName);
+        dto.setPricePerLiter(pricePerLiter);
+        dto.setVolume(volume);
+        dto.setTotalAmount(totalAmount);
+        dto.setTransactionDate(transactionDate);
+        dto.setUsername(username);
+        return dto;
+    }
+}
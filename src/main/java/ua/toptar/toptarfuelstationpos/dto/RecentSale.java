@@ -0,0 +1,16 @@
+package ua.toptar.toptarfuelstationpos.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Projection holding the columns of a sale kept by the in-memory store of recent sales.
+ *
+ * @param id the ID of the transaction
+ * @param transactionDate the date of the transaction
+ * @param fuelTypeName the name of the fuel type
+ * @param volume the volume sold
+ * @param totalAmount the amount paid
+ */
+public record RecentSale(Long id, LocalDateTime transactionDate, String fuelTypeName, BigDecimal volume,
+                         BigDecimal totalAmount) {}
@@ -0,0 +1,12 @@
+package ua.toptar.toptarfuelstationpos.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Projection holding the first and last day of the daily sales rollup.
+ * Both days are null while the rollup is empty.
+ *
+ * @param firstDay the first day with sales
+ * @param lastDay the last day with sales
+ */
+public record SalesDateRange(LocalDate firstDay, LocalDate lastDay) {}
@@ -0,0 +1,12 @@
+package ua.toptar.toptarfuelstationpos.dto;
+
+import ua.toptar.toptarfuelstationpos.model.Transaction;
+
+/**
+ * Application event published when a transaction has been saved.
+ * Listeners that keep in-memory state should handle it after the database transaction commits.
+ *
+ * @param transaction the saved transaction
+ */
+public record TransactionCreatedEvent(Transaction transaction) {
+}
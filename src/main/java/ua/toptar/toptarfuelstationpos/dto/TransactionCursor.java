@@ -0,0 +1,57 @@
+package ua.toptar.toptarfuelstationpos.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a transaction listing ordered by transaction date and ID, newest first.
+ * A cursor points at the last transaction of a page for the next page,
+ * or at the first transaction of a page for the previous page.
+ *
+ * @param direction the direction to read in from the position
+ * @param transactionDate the transaction date of the transaction at the position
+ * @param id the ID of the transaction at the position
+ */
+public record TransactionCursor(Direction direction, LocalDateTime transactionDate, Long id) {
+
+    /**
+     * Direction to read a transaction listing in from a cursor.
+     */
+    public enum Direction {
+        /** Older transactions, following the position. */
+        NEXT,
+        /** Newer transactions, preceding the position. */
+        PREVIOUS
+    }
+
+    /**
+     * Encodes the cursor as an opaque URL-safe string.
+     *
+     * @return the encoded cursor
+     */
+    public String encode() {
+        String value = direction.name() + "|" + transactionDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor previously produced by {@link #encode()}.
+     *
+     * @param value the encoded cursor
+     * @return the decoded cursor
+     * @throws IllegalArgumentException if the value is not a valid cursor
+     */
+    public static TransactionCursor decode(String value) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new TransactionCursor(Direction.valueOf(parts[0]), LocalDateTime.parse(parts[1]), Long.valueOf(parts[2]));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
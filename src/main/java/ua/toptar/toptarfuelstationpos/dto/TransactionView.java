@@ -0,0 +1,40 @@
+package ua.toptar.toptarfuelstationpos.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a transaction with the username of its user, selected directly by listing
+ * and export queries. No entities are loaded for it, so the fuel type and user are never hydrated
+ * and the persistence context keeps no snapshots.
+ *
+ * @param id the ID of the transaction
+ * @param fuelTypeId the ID of the fuel type
+ * @param fuelTypeName the name of the fuel type at the time of the sale
+ * @param pricePerLiter the price per liter at the time of the sale
+ * @param volume the sold volume
+ * @param totalAmount the total amount of the sale
+ * @param transactionDate the date of the sale
+ * @param username the username of the user who made the sale, can be null
+ */
+public record TransactionView(Long id, Long fuelTypeId, String fuelTypeName, BigDecimal pricePerLiter,
+    BigDecimal volume, BigDecimal totalAmount, LocalDateTime transactionDate, String username) {
+
+    /**
+     * Converts the projection to a transaction DTO.
+     *
+     * @return the transaction DTO with the same values
+     */
+    public TransactionDto toTransactionDto() {
+        TransactionDto dto = new TransactionDto();
+        dto.setId(id);
+        dto.setFuelTypeId(fuelTypeId);
+        dto.setFuelTypeName(fuelTypeName);
+        dto.setPricePerLiter(pricePerLiter);
+        dto.setVolume(volume);
+        dto.setTotalAmount(totalAmount);
+        dto.setTransactionDate(transactionDate);
+        dto.setUsername(username);
+        return dto;
+    }
+}
@@ -0,0 +1,11 @@
+package ua.toptar.toptarfuelstationpos.dto;
+
+/**
+ * Data Transfer Object (DTO) identifying a user without the rest of the user entity.
+ *
+ * @param id the ID of the user
+ * @param username the username of the user
+ * @param role the role of the user
+ */
+public record UserIdentity(Long id, String username, String role) {
+}
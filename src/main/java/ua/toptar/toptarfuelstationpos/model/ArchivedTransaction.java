@@ -0,0 +1,50 @@
+package ua.toptar.toptarfuelstationpos.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing a transaction of a closed month, moved out of the {@code transactions} table.
+ * Keeps the columns and the ID of the original transaction; the fuel type and user are kept as IDs only,
+ * as archived transactions are never changed.
+ */
+@Entity
+@Table(name = "transactions_archive", indexes = {
+    // Ті самі індекси, що й у гарячій таблиці, щоб старі сторінки списку читались так само
+    @Index(name = "idx_transactions_archive_user_date", columnList = "user_id, transaction_date, id"),
+    @Index(name = "idx_transactions_archive_user_fuel_date", columnList = "user_id, fuel_type_name, transaction_date, id"),
+    @Index(name = "idx_transactions_archive_fuel_date", columnList = "fuel_type_name, transaction_date, id"),
+    @Index(name = "idx_transactions_archive_date", columnList = "transaction_date, id")
+})
+@Data
+public class ArchivedTransaction {
+
+    @Id
+    private Long id; // ID з таблиці transactions, тож курсори та експорт лишаються незмінними
+
+    @Column(name = "fuel_type_id", nullable = false)
+    private Long fuelTypeId;
+
+    @Column(name = "fuel_type_name", nullable = false)
+    private String fuelTypeName;
+
+    @Column(name = "price_per_liter", nullable = false)
+    private BigDecimal pricePerLiter;
+
+    @Column(nullable = false)
+    private BigDecimal volume;
+
+    @Column(nullable = false)
+    private BigDecimal totalAmount;
+
+    @Column(nullable = false)
+    private LocalDateTime transactionDate;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "ingest_key", length = 36)
+    private String ingestKey;
+}
@@ -0,0 +1,59 @@
+package ua.toptar.toptarfuelstationpos.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Entity representing the daily rollup of sales for a single fuel type.
+ * Holds the sold volume, revenue and number of transactions per day and fuel type name,
+ * so analytics can be computed without reading individual transactions.
+ */
+@Entity
+@Table(name = "daily_fuel_sales",
+    uniqueConstraints = @UniqueConstraint(name = "uk_daily_fuel_sales_date_fuel", columnNames = {"sales_date", "fuel_type_name"}))
+@Data
+public class DailyFuelSales {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "sales_date", nullable = false)
+    private LocalDate salesDate;
+
+    @Column(name = "fuel_type_name", nullable = false)
+    private String fuelTypeName;
+
+    @Column(nullable = false)
+    private BigDecimal volume;
+
+    @Column(nullable = false)
+    private BigDecimal revenue;
+
+    @Column(name = "transaction_count", nullable = false)
+    private long transactionCount;
+
+    /**
+     * Default constructor for JPA.
+     */
+    public DailyFuelSales() {}
+
+    /**
+     * Constructs a new {@code DailyFuelSales} rollup row with the specified totals.
+     *
+     * @param salesDate the day the sales belong to
+     * @param fuelTypeName the name of the fuel type
+     * @param volume the total volume sold on that day
+     * @param revenue the total revenue for that day
+     * @param transactionCount the number of transactions on that day
+     */
+    public DailyFuelSales(LocalDate salesDate, String fuelTypeName, BigDecimal volume, BigDecimal revenue, long transactionCount) {
+        this.salesDate = salesDate;
+        this.fuelTypeName = fuelTypeName;
+        this.volume = volume;
+        this.revenue = revenue;
+        this.transactionCount = transactionCount;
+    }
+}
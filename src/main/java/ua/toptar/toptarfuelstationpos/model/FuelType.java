@@ -2,7 +2,12 @@ package ua.toptar.toptarfuelstationpos.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.springframework.data.domain.DomainEvents;
+import ua.toptar.toptarfuelstationpos.dto.FuelTypeSavedEvent;
+
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Entity representing a fuel type in the system.
@@ -39,4 +44,15 @@ public class FuelType {
         this.name = name;
         this.pricePerLiter = pricePerLiter;
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns the event published by Spring Data when this fuel type is saved through its repository.
+     * The event lets the in-memory fuel type catalog pick up the change.
+     *
+     * @return the events to publish
+     */
+    @DomainEvents
+    Collection<Object> domainEvents() {
+        return List.of(new FuelTypeSavedEvent(name));
+    }
+}
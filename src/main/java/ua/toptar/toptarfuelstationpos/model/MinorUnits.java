@@ -0,0 +1,124 @@
+package ua.toptar.toptarfuelstationpos.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point arithmetic on money and fuel in minor units held in {@code long} values.
+ * Amounts are counted in kopecks, volumes in millilitres and prices in kopecks per litre.
+ * Sums and price calculations are done on these values without allocating, and {@code BigDecimal}
+ * values are only converted on the way in and back at the API edge.
+ */
+public final class MinorUnits {
+
+    /** The scale of an amount in hryvnias held in kopecks. */
+    public static final int KOPECK_SCALE = 2;
+    /** The scale of a volume in litres held in millilitres. */
+    public static final int MILLILITRE_SCALE = 3;
+
+    private static final long MILLILITRES_PER_LITRE = 1000;
+    private static final long MILLILITRES_PER_CENTILITRE = 10;
+    private static final long CENTILITRES_PER_LITRE = 100;
+
+    private MinorUnits() {}
+
+    /**
+     * Converts an amount to kopecks, rounded half up the same way the amount is stored in the database.
+     *
+     * @param amount the amount in hryvnias
+     * @return the amount in kopecks
+     * @throws ArithmeticException if the amount does not fit in a {@code long}
+     */
+    public static long toKopecks(BigDecimal amount) {
+        return amount.setScale(KOPECK_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Converts a volume to millilitres, rounded half up.
+     *
+     * @param volume the volume in litres
+     * @return the volume in millilitres
+     * @throws ArithmeticException if the volume does not fit in a {@code long}
+     */
+    public static long toMillilitres(BigDecimal volume) {
+        return volume.setScale(MILLILITRE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Converts the volume of a saved transaction to millilitres, rounded half up to the scale of two
+     * the volume is stored with in the database.
+     *
+     * @param volume the volume in litres
+     * @return the volume in millilitres, always whole centilitres
+     * @throws ArithmeticException if the volume does not fit in a {@code long}
+     */
+    public static long toStoredMillilitres(BigDecimal volume) {
+        return toMillilitres(volume.setScale(KOPECK_SCALE, RoundingMode.HALF_UP));
+    }
+
+    /**
+     * Converts kopecks back to an amount in hryvnias.
+     *
+     * @param kopecks the amount in kopecks
+     * @return the amount in hryvnias, with a scale of two
+     */
+    public static BigDecimal fromKopecks(long kopecks) {
+        return BigDecimal.valueOf(kopecks, KOPECK_SCALE);
+    }
+
+    /**
+     * Converts millilitres back to a volume in litres.
+     * Volumes in whole centilitres keep the scale of two the volumes are stored with.
+     *
+     * @param millilitres the volume in millilitres
+     * @return the volume in litres, with a scale of two, or three if it has a fraction of a centilitre
+     */
+    public static BigDecimal fromMillilitres(long millilitres) {
+        return millilitres % MILLILITRES_PER_CENTILITRE == 0
+            ? BigDecimal.valueOf(millilitres / MILLILITRES_PER_CENTILITRE, KOPECK_SCALE)
+            : BigDecimal.valueOf(millilitres, MILLILITRE_SCALE);
+    }
+
+    /**
+     * Calculates the amount of a volume at a price, rounded half up to kopecks.
+     *
+     * @param millilitres the volume in millilitres
+     * @param kopecksPerLitre the price in kopecks per litre
+     * @return the amount in kopecks
+     * @throws ArithmeticException if the amount does not fit in a {@code long}
+     */
+    public static long amountOf(long millilitres, long kopecksPerLitre) {
+        return divideHalfUp(Math.multiplyExact(millilitres, kopecksPerLitre), MILLILITRES_PER_LITRE);
+    }
+
+    /**
+     * Calculates the volume an amount buys at a price, rounded half up to centilitres.
+     *
+     * @param kopecks the amount in kopecks
+     * @param kopecksPerLitre the price in kopecks per litre
+     * @return the volume in millilitres, always whole centilitres
+     * @throws ArithmeticException if the price is zero or the volume does not fit in a {@code long}
+     */
+    public static long volumeOf(long kopecks, long kopecksPerLitre) {
+        long centilitres = divideHalfUp(Math.multiplyExact(kopecks, CENTILITRES_PER_LITRE), kopecksPerLitre);
+        return Math.multiplyExact(centilitres, MILLILITRES_PER_CENTILITRE);
+    }
+
+    /**
+     * Divides two values, rounding half up like {@link RoundingMode#HALF_UP}, that is, ties away from zero.
+     *
+     * @param dividend the value to divide
+     * @param divisor the value to divide by
+     * @return the rounded quotient
+     * @throws ArithmeticException if the divisor is zero
+     */
+    public static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        // Остача не менша за половину дільника — округлення від нуля, у бік знаку частки
+        if (Math.abs(remainder) >= Math.abs(divisor) - Math.abs(remainder)) {
+            return (dividend < 0) == (divisor < 0) ? quotient + 1 : quotient - 1;
+        }
+        return quotient;
+    }
+}
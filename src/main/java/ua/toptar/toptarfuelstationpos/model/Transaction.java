@@ -10,13 +10,26 @@ import java.time.LocalDateTime;
  * Stores details about a fuel purchase, including the fuel type, volume, total amount, and associated user.
  */
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+    // Індекси відповідають фільтрам у TransactionRepository: користувач, тип пального і дата;
+    // id в кінці дає готовий порядок для курсорної пагінації
+    @Index(name = "idx_transactions_user_date", columnList = "user_id, transaction_date, id"),
+    @Index(name = "idx_transactions_user_fuel_date", columnList = "user_id, fuel_type_name, transaction_date, id"),
+    @Index(name = "idx_transactions_fuel_date", columnList = "fuel_type_name, transaction_date, id"),
+    @Index(name = "idx_transactions_date", columnList = "transaction_date, id")
+})
 @Data
 public class Transaction {
 
+    /** The name of the sequence the IDs are taken from. */
+    public static final String ID_SEQUENCE = "transactions_seq";
+    /** The number of IDs Hibernate takes from the sequence at once. */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
+    private Long id; // Послідовність замість IDENTITY, щоб Hibernate міг групувати вставки в JDBC-пакети
 
     @ManyToOne
     @JoinColumn(name = "fuel_type_id", nullable = false)
@@ -41,6 +54,9 @@ public class Transaction {
     @JoinColumn(name = "user_id")
     private User user;
 
+    @Column(name = "ingest_key", unique = true, length = 36)
+    private String ingestKey; // Ключ продажу з журналу, null для транзакцій, збережених напряму
+
     /**
      * Default constructor for JPA.
      */
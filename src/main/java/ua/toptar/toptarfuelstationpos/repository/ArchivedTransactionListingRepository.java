@@ -0,0 +1,72 @@
+package ua.toptar.toptarfuelstationpos.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import ua.toptar.toptarfuelstationpos.dto.TransactionView;
+
+/**
+ * Listing and export queries of {@code ArchivedTransactionRepository}, built per combination of filters.
+ */
+public interface ArchivedTransactionListingRepository {
+
+    /**
+     * Counts the archived transactions of a listing.
+     *
+     * @param userId the ID of the user to filter by, can be null
+     * @param fuelTypeName the name of the fuel type to filter by, can be null
+     * @param startDate the start date to filter transactions, can be null
+     * @return the number of matching transactions
+     */
+    long countListing(Long userId, String fuelTypeName, LocalDateTime startDate);
+
+    /**
+     * Finds the first page of an archived transaction listing, newest first.
+     *
+     * @param userId the ID of the user to filter by, can be null
+     * @param fuelTypeName the name of the fuel type to filter by, can be null
+     * @param startDate the start date to filter transactions, can be null
+     * @param limit the maximum number of transactions to read
+     * @return the newest matching transactions
+     */
+    List<TransactionView> findListingFirst(Long userId, String fuelTypeName, LocalDateTime startDate, Limit limit);
+
+    /**
+     * Finds the archived transactions of a listing that follow a cursor, newest first.
+     *
+     * @param userId the ID of the user to filter by, can be null
+     * @param fuelTypeName the name of the fuel type to filter by, can be null
+     * @param startDate the start date to filter transactions, can be null
+     * @param cursorDate the date of the transaction at the cursor
+     * @param cursorId the ID of the transaction at the cursor
+     * @param limit the maximum number of transactions to read
+     * @return the matching transactions older than the cursor
+     */
+    List<TransactionView> findListingAfter(Long userId, String fuelTypeName, LocalDateTime startDate,
+        LocalDateTime cursorDate, Long cursorId, Limit limit);
+
+    /**
+     * Finds the archived transactions of a listing that precede a cursor, oldest first.
+     *
+     * @param userId the ID of the user to filter by, can be null
+     * @param fuelTypeName the name of the fuel type to filter by, can be null
+     * @param startDate the start date to filter transactions, can be null
+     * @param cursorDate the date of the transaction at the cursor
+     * @param cursorId the ID of the transaction at the cursor
+     * @param limit the maximum number of transactions to read
+     * @return the matching transactions newer than the cursor, closest to it first
+     */
+    List<TransactionView> findListingBefore(Long userId, String fuelTypeName, LocalDateTime startDate,
+        LocalDateTime cursorDate, Long cursorId, Limit limit);
+
+    /**
+     * Finds the next chunk of archived transactions to export, as projections ordered by ID.
+     *
+     * @param afterId the ID of the last transaction of the previous chunk, or 0 for the first chunk
+     * @param fuelTypeName the name of the fuel type to filter by, can be null
+     * @param startDate the start date to filter transactions, can be null
+     * @param limit the maximum number of transactions in the chunk
+     * @return the next chunk of matching transactions
+     */
+    List<TransactionView> findExportChunk(long afterId, String fuelTypeName, LocalDateTime startDate, Limit limit);
+}
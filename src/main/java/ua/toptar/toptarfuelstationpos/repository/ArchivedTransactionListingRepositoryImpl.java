@@ -0,0 +1,57 @@
+package ua.toptar.toptarfuelstationpos.repository;
+
+import jakarta.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import ua.toptar.toptarfuelstationpos.dto.TransactionView;
+
+/**
+ * Implementation of the listing queries of {@code ArchivedTransactionRepository} over the archive table.
+ */
+public class ArchivedTransactionListingRepositoryImpl implements ArchivedTransactionListingRepository {
+
+    private final ListingQuery listingQuery;
+
+    /**
+     * Constructs the listing queries over the archive table.
+     *
+     * @param entityManager the entity manager to run the queries with
+     */
+    public ArchivedTransactionListingRepositoryImpl(EntityManager entityManager) {
+        this.listingQuery = new ListingQuery(entityManager,
+            "SELECT new ua.toptar.toptarfuelstationpos.dto.TransactionView(a.id, a.fuelTypeId, a.fuelTypeName, "
+                + "a.pricePerLiter, a.volume, a.totalAmount, a.transactionDate, u.username) "
+                + "FROM ArchivedTransaction a LEFT JOIN User u ON u.id = a.userId",
+            "SELECT COUNT(a) FROM ArchivedTransaction a", "a", "a.userId");
+    }
+
+    @Override
+    public long countListing(Long userId, String fuelTypeName, LocalDateTime startDate) {
+        return listingQuery.count(userId, fuelTypeName, startDate);
+    }
+
+    @Override
+    public List<TransactionView> findListingFirst(Long userId, String fuelTypeName, LocalDateTime startDate,
+        Limit limit) {
+        return listingQuery.find(userId, fuelTypeName, startDate, null, null, false, limit);
+    }
+
+    @Override
+    public List<TransactionView> findListingAfter(Long userId, String fuelTypeName, LocalDateTime startDate,
+        LocalDateTime cursorDate, Long cursorId, Limit limit) {
+        return listingQuery.find(userId, fuelTypeName, startDate, cursorDate, cursorId, false, limit);
+    }
+
+    @Override
+    public List<TransactionView> findListingBefore(Long userId, String fuelTypeName, LocalDateTime startDate,
+        LocalDateTime cursorDate, Long cursorId, Limit limit) {
+        return listingQuery.find(userId, fuelTypeName, startDate, cursorDate, cursorId, true, limit);
+    }
+
+    @Override
+    public List<TransactionView> findExportChunk(long afterId, String fuelTypeName, LocalDateTime startDate,
+        Limit limit) {
+        return listingQuery.findExportChunk(afterId, fuelTypeName, startDate, limit);
+    }
+}
@@ -0,0 +1,77 @@
+package ua.toptar.toptarfuelstationpos.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ua.toptar.toptarfuelstationpos.dto.DashboardTotals;
+import ua.toptar.toptarfuelstationpos.dto.FuelSalesAggregate;
+import ua.toptar.toptarfuelstationpos.model.ArchivedTransaction;
+
+/**
+ * Repository interface for managing {@code ArchivedTransaction} entities.
+ * Mirrors the listing, export and aggregation queries of {@code TransactionRepository} over the archive table,
+ * and moves transactions into it.
+ */
+public interface ArchivedTransactionRepository extends JpaRepository<ArchivedTransaction, Long>,
+    ArchivedTransactionListingRepository {
+
+    /**
+     * Copies the transactions within the specified range from the {@code transactions} table into the archive.
+     * The rows are copied by the database, without loading them.
+     *
+     * @param startDate the start of the range, inclusive
+     * @param endDate the end of the range, exclusive
+     * @return the number of copied transactions
+     */
+    @Modifying
+    @Query(value = "INSERT INTO transactions_archive (id, fuel_type_id, fuel_type_name, price_per_liter, volume, "
+        + "total_amount, transaction_date, user_id, ingest_key) "
+        + "SELECT id, fuel_type_id, fuel_type_name, price_per_liter, volume, total_amount, transaction_date, "
+        + "user_id, ingest_key FROM transactions "
+        + "WHERE transaction_date >= :startDate AND transaction_date < :endDate", nativeQuery = true)
+    int copyFromTransactions(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Finds the date of the latest archived transaction.
+     *
+     * @return the date of the latest archived transaction, or null if the archive is empty
+     */
+    @Query("SELECT MAX(a.transactionDate) FROM ArchivedTransaction a")
+    LocalDateTime findLastTransactionDate();
+
+    /**
+     * Aggregates the archived sales of every fuel type per day within the specified range.
+     *
+     * @param startDate the start of the range, inclusive
+     * @param endDate the end of the range, exclusive
+     * @return a list of daily sales aggregates within the specified range
+     */
+    @Query("SELECT new ua.toptar.toptarfuelstationpos.dto.FuelSalesAggregate("
+        + "CAST(a.transactionDate AS LocalDate), a.fuelTypeName, SUM(a.volume), SUM(a.totalAmount), COUNT(a)) "
+        + "FROM ArchivedTransaction a WHERE a.transactionDate >= :startDate AND a.transactionDate < :endDate "
+        + "GROUP BY CAST(a.transactionDate AS LocalDate), a.fuelTypeName")
+    List<FuelSalesAggregate> aggregateDailySales(@Param("startDate") LocalDateTime startDate,
+        @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Aggregates the archived sales of every fuel type per day.
+     *
+     * @return a list of daily sales aggregates for the whole archive
+     */
+    @Query("SELECT new ua.toptar.toptarfuelstationpos.dto.FuelSalesAggregate("
+        + "CAST(a.transactionDate AS LocalDate), a.fuelTypeName, SUM(a.volume), SUM(a.totalAmount), COUNT(a)) "
+        + "FROM ArchivedTransaction a GROUP BY CAST(a.transactionDate AS LocalDate), a.fuelTypeName")
+    List<FuelSalesAggregate> aggregateAllDailySales();
+
+    /**
+     * Counts all archived transactions and sums their amounts in a single query.
+     *
+     * @return the number of archived transactions and their total revenue
+     */
+    @Query("SELECT new ua.toptar.toptarfuelstationpos.dto.DashboardTotals(COUNT(a), SUM(a.totalAmount)) "
+        + "FROM ArchivedTransaction a")
+    DashboardTotals findDashboardTotals();
+}
@@ -0,0 +1,72 @@
+package ua.toptar.toptarfuelstationpos.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ua.toptar.toptarfuelstationpos.dto.FuelSalesAggregate;
+import ua.toptar.toptarfuelstationpos.dto.SalesDateRange;
+import ua.toptar.toptarfuelstationpos.model.DailyFuelSales;
+
+/**
+ * Repository interface for managing {@code DailyFuelSales} rollup entities.
+ * Provides range queries for analytics and an in-place increment used when a sale is recorded.
+ */
+public interface DailyFuelSalesRepository extends JpaRepository<DailyFuelSales, Long> {
+
+    /**
+     * Finds rollup rows for all fuel types within the specified range of days.
+     * The rows are projected directly into aggregates without loading rollup entities.
+     *
+     * @param startDate the first day of the range, inclusive
+     * @param endDate the last day of the range, inclusive
+     * @return a list of daily sales aggregates within the specified range
+     */
+    @Query("SELECT new ua.toptar.toptarfuelstationpos.dto.FuelSalesAggregate("
+        + "d.salesDate, d.fuelTypeName, d.volume, d.revenue, d.transactionCount) "
+        + "FROM DailyFuelSales d WHERE d.salesDate BETWEEN :startDate AND :endDate")
+    List<FuelSalesAggregate> findAggregatesBetween(@Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate);
+
+    /**
+     * Finds all rollup rows, projected directly into aggregates.
+     *
+     * @return a list of daily sales aggregates for the whole history
+     */
+    @Query("SELECT new ua.toptar.toptarfuelstationpos.dto.FuelSalesAggregate("
+        + "d.salesDate, d.fuelTypeName, d.volume, d.revenue, d.transactionCount) FROM DailyFuelSales d")
+    List<FuelSalesAggregate> findAllAggregates();
+
+    /**
+     * Finds the first and last day of the rollup.
+     *
+     * @return the days covered by the rollup, both null if the rollup is empty
+     */
+    @Query("SELECT new ua.toptar.toptarfuelstationpos.dto.SalesDateRange(MIN(d.salesDate), MAX(d.salesDate)) "
+        + "FROM DailyFuelSales d")
+    SalesDateRange findSalesDateRange();
+
+    /**
+     * Adds the specified totals to the rollup row of the given day and fuel type.
+     * The update is performed in the database, so concurrent sales do not overwrite each other.
+     *
+     * @param salesDate the day of the sale
+     * @param fuelTypeName the name of the fuel type
+     * @param volume the volume to add
+     * @param revenue the revenue to add
+     * @param count the number of transactions to add
+     * @return the number of updated rows, {@code 0} if the row does not exist yet
+     */
+    @Modifying
+    @Query("UPDATE DailyFuelSales d SET d.volume = d.volume + :volume, d.revenue = d.revenue + :revenue, "
+        + "d.transactionCount = d.transactionCount + :count "
+        + "WHERE d.salesDate = :salesDate AND d.fuelTypeName = :fuelTypeName")
+    int increment(@Param("salesDate") LocalDate salesDate,
+        @Param("fuelTypeName") String fuelTypeName,
+        @Param("volume") BigDecimal volume,
+        @Param("revenue") BigDecimal revenue,
+        @Param("count") long count);
+}
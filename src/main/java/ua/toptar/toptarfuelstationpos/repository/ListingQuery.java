@@ -0,0 +1,169 @@
+package ua.toptar.toptarfuelstationpos.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import ua.toptar.toptarfuelstationpos.dto.TransactionView;
+
+/**
+ * Builds and runs the keyset listing and export queries over the transactions or the archive table.
+ * Only the filters that are set are written into a query, so every combination of filters is a query
+ * of its own with its own plan, which seeks the composite index starting with the filtered columns.
+ * A single query with catch-all predicates such as {@code (:userId IS NULL OR ...)} would be planned once
+ * for all combinations and read the user's transactions through the date index, row by row.
+ */
+final class ListingQuery {
+
+    private final EntityManager entityManager;
+    private final String select;
+    private final String count;
+    private final String alias;
+    private final String userIdPath;
+
+    /**
+     * Constructs the builder of the listing queries over one table.
+     *
+     * @param entityManager the entity manager to run the queries with
+     * @param select the select and from clauses of a page, projecting {@link TransactionView}
+     * @param count the select and from clauses of the count of a listing
+     * @param alias the alias of the listed entity
+     * @param userIdPath the path of the user ID of the listed entity
+     */
+    ListingQuery(EntityManager entityManager, String select, String count, String alias, String userIdPath) {
+        this.entityManager = entityManager;
+        this.select = select;
+        this.count = count;
+        this.alias = alias;
+        this.userIdPath = userIdPath;
+    }
+
+    /**
+     * Counts the transactions of a listing.
+     *
+     * @param userId the ID of the user to filter by, can be null
+     * @param fuelTypeName the name of the fuel type to filter by, can be null
+     * @param startDate the start date to filter transactions, can be null
+     * @return the number of matching transactions
+     */
+    long count(Long userId, String fuelTypeName, LocalDateTime startDate) {
+        List<String> predicates = filters(userId, fuelTypeName, startDate);
+        TypedQuery<Long> query = entityManager.createQuery(count + where(predicates), Long.class);
+        bindFilters(query, userId, fuelTypeName, startDate);
+        return query.getSingleResult();
+    }
+
+    /**
+     * Reads a page of a listing, from the newest transaction or from a position in either direction.
+     *
+     * @param userId the ID of the user to filter by, can be null
+     * @param fuelTypeName the name of the fuel type to filter by, can be null
+     * @param startDate the start date to filter transactions, can be null
+     * @param cursorDate the transaction date at the position, or null for the first page
+     * @param cursorId the transaction ID at the position, or null for the first page
+     * @param ascending whether to read the transactions newer than the position, oldest first,
+     *                  instead of the older ones, newest first
+     * @param limit the maximum number of transactions to return
+     * @return the matching transactions, in the order read
+     */
+    List<TransactionView> find(Long userId, String fuelTypeName, LocalDateTime startDate,
+        LocalDateTime cursorDate, Long cursorId, boolean ascending, Limit limit) {
+        List<String> predicates = filters(userId, fuelTypeName, startDate);
+        if (cursorDate != null) {
+            // Нестрога межа за датою дає індексу діапазон, строге порівняння з ID відкидає рядки на межі
+            String comparison = ascending ? ">" : "<";
+            predicates.add(alias + ".transactionDate " + comparison + "= :cursorDate AND ("
+                + alias + ".transactionDate " + comparison + " :cursorDate OR "
+                + alias + ".id " + comparison + " :cursorId)");
+        }
+        String direction = ascending ? "ASC" : "DESC";
+        TypedQuery<TransactionView> query = entityManager.createQuery(select + where(predicates)
+            + " ORDER BY " + alias + ".transactionDate " + direction + ", " + alias + ".id " + direction,
+            TransactionView.class);
+        bindFilters(query, userId, fuelTypeName, startDate);
+        if (cursorDate != null) {
+            query.setParameter("cursorDate", cursorDate);
+            query.setParameter("cursorId", cursorId);
+        }
+        if (limit.isLimited()) {
+            query.setMaxResults(limit.max());
+        }
+        return query.getResultList();
+    }
+
+    /**
+     * Reads the next chunk of an export, ordered by ID.
+     *
+     * @param afterId the ID of the last exported transaction, {@code 0} for the first chunk
+     * @param fuelTypeName the name of the fuel type to filter by, can be null
+     * @param startDate the start date to filter transactions, can be null
+     * @param limit the maximum number of transactions in the chunk
+     * @return the next chunk of matching transactions
+     */
+    List<TransactionView> findExportChunk(long afterId, String fuelTypeName, LocalDateTime startDate, Limit limit) {
+        List<String> predicates = filters(null, fuelTypeName, startDate);
+        predicates.add(alias + ".id > :afterId");
+        TypedQuery<TransactionView> query = entityManager.createQuery(select + where(predicates)
+            + " ORDER BY " + alias + ".id", TransactionView.class);
+        bindFilters(query, null, fuelTypeName, startDate);
+        query.setParameter("afterId", afterId);
+        if (limit.isLimited()) {
+            query.setMaxResults(limit.max());
+        }
+        return query.getResultList();
+    }
+
+    /**
+     * Lists the predicates of the filters that are set.
+     *
+     * @param userId the ID of the user to filter by, can be null
+     * @param fuelTypeName the name of the fuel type to filter by, can be null
+     * @param startDate the start date to filter transactions, can be null
+     * @return the predicates, in the order of the index columns
+     */
+    private List<String> filters(Long userId, String fuelTypeName, LocalDateTime startDate) {
+        List<String> predicates = new ArrayList<>();
+        if (userId != null) {
+            predicates.add(userIdPath + " = :userId");
+        }
+        if (fuelTypeName != null) {
+            predicates.add(alias + ".fuelTypeName = :fuelTypeName");
+        }
+        if (startDate != null) {
+            predicates.add(alias + ".transactionDate > :startDate");
+        }
+        return predicates;
+    }
+
+    /**
+     * Binds the parameters of the filters that are set.
+     *
+     * @param query the query to bind the parameters of
+     * @param userId the ID of the user to filter by, can be null
+     * @param fuelTypeName the name of the fuel type to filter by, can be null
+     * @param startDate the start date to filter transactions, can be null
+     */
+    private static void bindFilters(TypedQuery<?> query, Long userId, String fuelTypeName, LocalDateTime startDate) {
+        if (userId != null) {
+            query.setParameter("userId", userId);
+        }
+        if (fuelTypeName != null) {
+            query.setParameter("fuelTypeName", fuelTypeName);
+        }
+        if (startDate != null) {
+            query.setParameter("startDate", startDate);
+        }
+    }
+
+    /**
+     * Joins predicates into a where clause.
+     *
+     * @param predicates the predicates to join
+     * @return the where clause, or an empty string if there are no predicates
+     */
+    private static String where(List<String> predicates) {
+        return predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates);
+    }
+}
@@ -0,0 +1,80 @@
+package ua.toptar.toptarfuelstationpos.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import ua.toptar.toptarfuelstationpos.dto.TransactionView;
+
+/**
+ * Listing and export queries of {@code TransactionRepository}, built per combination of filters.
+ * Pages are read by keyset from the position of a cursor, so every page costs as much as the first one.
+ */
+public interface TransactionListingRepository {
+
+    /**
+     * Counts the transactions of a listing.
+     *
+     * @param userId the ID of the user to filter by, can be null
+     * @param fuelTypeName the name of the fuel type to filter by, can be null
+     * @param startDate the start date to filter transactions, can be null
+     * @return the number of matching transactions
+     */
+    long countListing(Long userId, String fuelTypeName, LocalDateTime startDate);
+
+    /**
+     * Finds the first page of a transaction listing, newest first.
+     * The rows are projected together with the username, without loading any entities.
+     *
+     * @param userId the ID of the user to filter by, can be null
+     * @param fuelTypeName the name of the fuel type to filter by, can be null
+     * @param startDate the start date to filter transactions, can be null
+     * @param limit the maximum number of transactions to return
+     * @return the newest matching transactions
+     */
+    List<TransactionView> findListingFirst(Long userId, String fuelTypeName, LocalDateTime startDate, Limit limit);
+
+    /**
+     * Finds the transactions of a listing that follow a position, newest first.
+     * The position is given by the transaction date and ID of the last transaction of the previous page,
+     * so the database seeks to it instead of skipping all preceding rows.
+     *
+     * @param userId the ID of the user to filter by, can be null
+     * @param fuelTypeName the name of the fuel type to filter by, can be null
+     * @param startDate the start date to filter transactions, can be null
+     * @param cursorDate the transaction date at the position
+     * @param cursorId the transaction ID at the position
+     * @param limit the maximum number of transactions to return
+     * @return the matching transactions older than the position
+     */
+    List<TransactionView> findListingAfter(Long userId, String fuelTypeName, LocalDateTime startDate,
+        LocalDateTime cursorDate, Long cursorId, Limit limit);
+
+    /**
+     * Finds the transactions of a listing that precede a position, oldest first.
+     * The position is given by the transaction date and ID of the first transaction of the following page.
+     *
+     * @param userId the ID of the user to filter by, can be null
+     * @param fuelTypeName the name of the fuel type to filter by, can be null
+     * @param startDate the start date to filter transactions, can be null
+     * @param cursorDate the transaction date at the position
+     * @param cursorId the transaction ID at the position
+     * @param limit the maximum number of transactions to return
+     * @return the matching transactions newer than the position, in ascending order
+     */
+    List<TransactionView> findListingBefore(Long userId, String fuelTypeName, LocalDateTime startDate,
+        LocalDateTime cursorDate, Long cursorId, Limit limit);
+
+    /**
+     * Finds the next chunk of transactions for an export, ordered by ID.
+     * Reads only transactions with an ID greater than {@code afterId}, so an export can walk
+     * the table chunk by chunk without offsets. The rows are projected together with the username,
+     * without loading any entities.
+     *
+     * @param afterId the ID of the last exported transaction, {@code 0} for the first chunk
+     * @param fuelTypeName the name of the fuel type to filter by, can be null
+     * @param startDate the start date to filter transactions, can be null
+     * @param limit the maximum number of transactions in the chunk
+     * @return the next chunk of matching transactions
+     */
+    List<TransactionView> findExportChunk(long afterId, String fuelTypeName, LocalDateTime startDate, Limit limit);
+}
@@ -0,0 +1,58 @@
+package ua.toptar.toptarfuelstationpos.repository;
+
+import jakarta.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import ua.toptar.toptarfuelstationpos.dto.TransactionView;
+
+/**
+ * Implementation of the listing queries of {@code TransactionRepository} over the transactions table.
+ */
+public class TransactionListingRepositoryImpl implements TransactionListingRepository {
+
+    private final ListingQuery listingQuery;
+
+    /**
+     * Constructs the listing queries over the transactions table.
+     *
+     * @param entityManager the entity manager to run the queries with
+     */
+    public TransactionListingRepositoryImpl(EntityManager entityManager) {
+        // Користувач приєднується за зовнішнім ключем, щоб фільтр t.user.id лишався на колонці user_id транзакцій
+        this.listingQuery = new ListingQuery(entityManager,
+            "SELECT new ua.toptar.toptarfuelstationpos.dto.TransactionView(t.id, t.fuelType.id, t.fuelTypeName, "
+                + "t.pricePerLiter, t.volume, t.totalAmount, t.transactionDate, u.username) "
+                + "FROM Transaction t LEFT JOIN User u ON u.id = t.user.id",
+            "SELECT COUNT(t) FROM Transaction t", "t", "t.user.id");
+    }
+
+    @Override
+    public long countListing(Long userId, String fuelTypeName, LocalDateTime startDate) {
+        return listingQuery.count(userId, fuelTypeName, startDate);
+    }
+
+    @Override
+    public List<TransactionView> findListingFirst(Long userId, String fuelTypeName, LocalDateTime startDate,
+        Limit limit) {
+        return listingQuery.find(userId, fuelTypeName, startDate, null, null, false, limit);
+    }
+
+    @Override
+    public List<TransactionView> findListingAfter(Long userId, String fuelTypeName, LocalDateTime startDate,
+        LocalDateTime cursorDate, Long cursorId, Limit limit) {
+        return listingQuery.find(userId, fuelTypeName, startDate, cursorDate, cursorId, false, limit);
+    }
+
+    @Override
+    public List<TransactionView> findListingBefore(Long userId, String fuelTypeName, LocalDateTime startDate,
+        LocalDateTime cursorDate, Long cursorId, Limit limit) {
+        return listingQuery.find(userId, fuelTypeName, startDate, cursorDate, cursorId, true, limit);
+    }
+
+    @Override
+    public List<TransactionView> findExportChunk(long afterId, String fuelTypeName, LocalDateTime startDate,
+        Limit limit) {
+        return listingQuery.findExportChunk(afterId, fuelTypeName, startDate, limit);
+    }
+}
@@ -1,93 +1,128 @@
 package ua.toptar.toptarfuelstationpos.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ua.toptar.toptarfuelstationpos.dto.DashboardTotals;
+import ua.toptar.toptarfuelstationpos.dto.FuelSalesAggregate;
+import ua.toptar.toptarfuelstationpos.dto.RecentSale;
 import ua.toptar.toptarfuelstationpos.model.Transaction;
 
 /**
  * Repository interface for managing {@code Transaction} entities.
  * Provides CRUD operations and custom query methods for transactions.
+ * Finders returning entities fetch the fuel type and user of every transaction in the same query,
+ * so a page of transactions is loaded without an additional select per row.
  */
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionListingRepository {
 
     /**
-     * Finds transactions for a specific user with pagination.
+     * Finds a slice of all transactions, without counting them.
      *
-     * @param userId the ID of the user
      * @param pageable the pagination information
-     * @return a paginated list of transactions for the specified user
+     * @return a slice of transactions
      */
-    Page<Transaction> findByUserId(Long userId, Pageable pageable);
+    @EntityGraph(attributePaths = {"fuelType", "user"})
+    Slice<Transaction> findSliceBy(Pageable pageable);
 
     /**
-     * Finds transactions for a specific user and fuel type with pagination.
+     * Finds transactions within a specified date range.
      *
-     * @param userId the ID of the user
-     * @param fuelTypeName the name of the fuel type
-     * @param pageable the pagination information
-     * @return a paginated list of transactions matching the criteria
+     * @param startDate the start date of the range
+     * @param endDate the end date of the range
+     * @return a list of transactions within the specified date range
      */
-    Page<Transaction> findByUserIdAndFuelTypeName(Long userId, String fuelTypeName, Pageable pageable);
+    @EntityGraph(attributePaths = {"fuelType", "user"})
+    List<Transaction> findByTransactionDateBetween(LocalDateTime startDate, LocalDateTime endDate);
 
     /**
-     * Finds transactions for a specific user after a given start date with pagination.
+     * Aggregates the sales of every fuel type per day within a date range.
+     * The grouping is done by the database, so only one row per day and fuel type is returned.
      *
-     * @param userId the ID of the user
-     * @param startDate the start date for filtering transactions
-     * @param pageable the pagination information
-     * @return a paginated list of transactions after the specified date
+     * @param startDate the start of the range, inclusive
+     * @param endDate the end of the range, exclusive
+     * @return a list of daily sales aggregates within the specified range
      */
-    Page<Transaction> findByUserIdAndTransactionDateAfter(Long userId, LocalDateTime startDate, Pageable pageable);
+    @Query("SELECT new ua.toptar.toptarfuelstationpos.dto.FuelSalesAggregate("
+        + "CAST(t.transactionDate AS LocalDate), t.fuelTypeName, SUM(t.volume), SUM(t.totalAmount), COUNT(t)) "
+        + "FROM Transaction t WHERE t.transactionDate >= :startDate AND t.transactionDate < :endDate "
+        + "GROUP BY CAST(t.transactionDate AS LocalDate), t.fuelTypeName")
+    List<FuelSalesAggregate> aggregateDailySales(@Param("startDate") LocalDateTime startDate,
+        @Param("endDate") LocalDateTime endDate);
 
     /**
-     * Finds transactions for a specific user, fuel type, and after a given start date with pagination.
+     * Aggregates the sales of every fuel type per day over all transactions.
+     * The grouping is done by the database, so only one row per day and fuel type is returned.
      *
-     * @param userId the ID of the user
-     * @param fuelTypeName the name of the fuel type
-     * @param startDate the start date for filtering transactions
-     * @param pageable the pagination information
-     * @return a paginated list of transactions matching the criteria
+     * @return a list of daily sales aggregates for the whole history
      */
-    Page<Transaction> findByUserIdAndFuelTypeNameAndTransactionDateAfter(
-        Long userId, String fuelTypeName, LocalDateTime startDate, Pageable pageable);
+    @Query("SELECT new ua.toptar.toptarfuelstationpos.dto.FuelSalesAggregate("
+        + "CAST(t.transactionDate AS LocalDate), t.fuelTypeName, SUM(t.volume), SUM(t.totalAmount), COUNT(t)) "
+        + "FROM Transaction t GROUP BY CAST(t.transactionDate AS LocalDate), t.fuelTypeName")
+    List<FuelSalesAggregate> aggregateAllDailySales();
 
     /**
-     * Finds transactions for a specific fuel type and after a given start date with pagination.
+     * Finds the sales made since the specified date, projected to the columns of the recent sales store.
      *
-     * @param fuelTypeName the name of the fuel type
-     * @param startDate the start date for filtering transactions
-     * @param pageable the pagination information
-     * @return a paginated list of transactions matching the criteria
+     * @param startDate the start of the range, inclusive
+     * @return a list of recent sales in ascending order of date
      */
-    Page<Transaction> findByFuelTypeNameAndTransactionDateAfter(String fuelTypeName, LocalDateTime startDate, Pageable pageable);
+    @Query("SELECT new ua.toptar.toptarfuelstationpos.dto.RecentSale("
+        + "t.id, t.transactionDate, t.fuelTypeName, t.volume, t.totalAmount) "
+        + "FROM Transaction t WHERE t.transactionDate >= :startDate ORDER BY t.transactionDate")
+    List<RecentSale> findRecentSales(@Param("startDate") LocalDateTime startDate);
 
     /**
-     * Finds transactions for a specific fuel type with pagination.
+     * Finds the date of the oldest transaction.
      *
-     * @param fuelTypeName the name of the fuel type
-     * @param pageable the pagination information
-     * @return a paginated list of transactions for the specified fuel type
+     * @return the date of the oldest transaction, or null if there are no transactions
      */
-    Page<Transaction> findByFuelTypeName(String fuelTypeName, Pageable pageable);
+    @Query("SELECT MIN(t.transactionDate) FROM Transaction t")
+    LocalDateTime findFirstTransactionDate();
 
     /**
-     * Finds transactions after a given start date with pagination.
+     * Deletes the transactions within the specified range, once they have been copied to the archive.
      *
-     * @param startDate the start date for filtering transactions
-     * @param pageable the pagination information
-     * @return a paginated list of transactions after the specified date
+     * @param startDate the start of the range, inclusive
+     * @param endDate the end of the range, exclusive
+     * @return the number of deleted transactions
      */
-    Page<Transaction> findByTransactionDateAfter(LocalDateTime startDate, Pageable pageable);
+    @Modifying
+    @Query("DELETE FROM Transaction t WHERE t.transactionDate >= :startDate AND t.transactionDate < :endDate")
+    int deleteByTransactionDateRange(@Param("startDate") LocalDateTime startDate,
+        @Param("endDate") LocalDateTime endDate);
 
     /**
-     * Finds transactions within a specified date range.
+     * Counts all transactions and sums their amounts in a single query.
      *
-     * @param startDate the start date of the range
-     * @param endDate the end date of the range
-     * @return a list of transactions within the specified date range
+     * @return the number of transactions and their total revenue
      */
-    List<Transaction> findByTransactionDateBetween(LocalDateTime startDate, LocalDateTime endDate);
-}
\ No newline at end of file
+    @Query("SELECT new ua.toptar.toptarfuelstationpos.dto.DashboardTotals(COUNT(t), SUM(t.totalAmount)) FROM Transaction t")
+    DashboardTotals findDashboardTotals();
+
+    /**
+     * Retrieves the number and the total revenue of the transactions with the specified identifiers.
+     *
+     * @param ids the identifiers of the transactions
+     * @return the number of the transactions found and their total revenue
+     */
+    @Query("SELECT new ua.toptar.toptarfuelstationpos.dto.DashboardTotals(COUNT(t), SUM(t.totalAmount)) "
+        + "FROM Transaction t WHERE t.id IN :ids")
+    DashboardTotals findDashboardTotalsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Finds which of the specified journal keys already belong to saved transactions.
+     *
+     * @param ingestKeys the journal keys to check
+     * @return the keys that have already been saved
+     */
+    @Query("SELECT t.ingestKey FROM Transaction t WHERE t.ingestKey IN :ingestKeys")
+    List<String> findExistingIngestKeys(@Param("ingestKeys") Collection<String> ingestKeys);
+}
@@ -0,0 +1,241 @@
+package ua.toptar.toptarfuelstationpos.service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ua.toptar.toptarfuelstationpos.dto.TransactionCreatedEvent;
+import ua.toptar.toptarfuelstationpos.model.MinorUnits;
+import ua.toptar.toptarfuelstationpos.model.Transaction;
+
+/**
+ * Bounded cache of analytics series, keyed by metric, period and date range, evicting the least recently used.
+ * A cached series is never recomputed: after every committed sale, the sale is added in place to the bucket
+ * of its day in each cached series whose range contains it, so the closed buckets stay as they are
+ * and only the open bucket changes. A series computed while a sale was committing is not cached,
+ * since it may already hold the sale that is added to it afterwards.
+ */
+@Service
+public class AnalyticsResultCache {
+
+    private final int maxEntries;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<SeriesKey, SalesSeries> entries;
+
+    /** Changes when a sale starts and finishes committing, to recognise series computed meanwhile. */
+    private long version;
+    /** The number of sales whose database transaction has started committing but not yet completed. */
+    private int committing;
+    /** The start time of this instance, so the version tags of a restarted application never repeat. */
+    private final long startedAt = System.currentTimeMillis();
+
+    /**
+     * Constructs a new {@code AnalyticsResultCache} with the specified size.
+     *
+     * @param maxEntries the maximum number of cached series, or {@code 0} to disable the cache
+     */
+    public AnalyticsResultCache(@Value("${pos.analytics.cache-size:64}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        // Порядок доступу робить першим записом той, що найдовше не читався
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<SeriesKey, SalesSeries> eldest) {
+                return size() > AnalyticsResultCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns a cached series, computing and caching it if it is missing.
+     *
+     * @param metric the metric of the series
+     * @param period the period the series is grouped by
+     * @param startDate the start date of the range, can be null
+     * @param endDate the end date of the range, can be null
+     * @param loader the computation of the series from the sales
+     * @return a copy of the series, which the caller may read without locking
+     */
+    SalesSeries get(String metric, String period, LocalDateTime startDate, LocalDateTime endDate,
+        Supplier<SalesSeries> loader) {
+        Optional<SalesSeries> cached = find(metric, period, startDate, endDate);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        long loadedAt = version();
+        SalesSeries series = loader.get();
+        put(startDate, endDate, series, loadedAt);
+        return series;
+    }
+
+    /**
+     * Finds a cached series.
+     *
+     * @param metric the metric of the series
+     * @param period the period the series is grouped by
+     * @param startDate the start date of the range, can be null
+     * @param endDate the end date of the range, can be null
+     * @return a copy of the cached series, or an empty optional if it is not cached
+     */
+    Optional<SalesSeries> find(String metric, String period, LocalDateTime startDate, LocalDateTime endDate) {
+        lock.lock();
+        try {
+            SalesSeries series = entries.get(new SeriesKey(metric, period, startDate, endDate));
+            return series != null ? Optional.of(series.copy()) : Optional.empty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the version of the cache, which changes when a sale starts and finishes committing.
+     * Read before a series is computed and passed to {@link #put}, so a series that may have missed a sale,
+     * or may hold a sale not yet added to the cache, is not cached.
+     *
+     * @return the current version of the cache
+     */
+    long version() {
+        lock.lock();
+        try {
+            return version;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a tag of the current state of the cached series, which changes after every committed sale.
+     * Read before a series is computed, it validates a copy of the series held by a client without computing it.
+     *
+     * @return the version of the cache together with the start time of this instance
+     */
+    public String versionTag() {
+        return startedAt + "-" + version();
+    }
+
+    /**
+     * Caches a copy of a computed series, unless a sale has been committing since the computation started.
+     *
+     * @param startDate the start date of the range, can be null
+     * @param endDate the end date of the range, can be null
+     * @param series the computed series
+     * @param loadedAt the version of the cache read before the computation started
+     */
+    void put(LocalDateTime startDate, LocalDateTime endDate, SalesSeries series, long loadedAt) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            // Продаж, що фіксувався під час обчислення, міг потрапити в ряд або ні, тож такий ряд не кешується
+            if (version == loadedAt && committing == 0) {
+                entries.put(new SeriesKey(series.metric(), series.period(), startDate, endDate), series.copy());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Marks a sale as committing just before its database transaction commits, and adds it to every cached series
+     * whose range contains it once the transaction has committed. Sales that are rolled back are never added.
+     * Until the transaction completes, no computed series is cached: from the commit on, a series read
+     * from the database or the recent sales store may already hold the sale.
+     *
+     * @param event the event of the created transaction
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onTransactionCreated(TransactionCreatedEvent event) {
+        Transaction transaction = event.transaction();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            complete(transaction, true, false);
+            return;
+        }
+        lock.lock();
+        try {
+            version++;
+            committing++;
+        } finally {
+            lock.unlock();
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                complete(transaction, status == STATUS_COMMITTED, true);
+            }
+        });
+    }
+
+    /**
+     * Finishes the commit of a sale, adding it to every cached series whose range contains it if it was committed.
+     *
+     * @param transaction the transaction of the sale
+     * @param committed whether the sale was committed
+     * @param marked whether the sale was marked as committing before
+     */
+    private void complete(Transaction transaction, boolean committed, boolean marked) {
+        LocalDateTime transactionDate = transaction.getTransactionDate();
+        long volume = MinorUnits.toStoredMillilitres(transaction.getVolume());
+        long amount = MinorUnits.toKopecks(transaction.getTotalAmount());
+        lock.lock();
+        try {
+            version++;
+            if (marked) {
+                committing--;
+            }
+            if (!committed) {
+                return;
+            }
+            entries.forEach((key, series) -> {
+                if (key.contains(transactionDate)) {
+                    series.add(transactionDate.toLocalDate(), transaction.getFuelTypeName(), volume, amount);
+                }
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of cached series.
+     *
+     * @return the number of cached series
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Key of a cached series.
+     *
+     * @param metric the metric of the series
+     * @param period the period the series is grouped by
+     * @param startDate the start date of the range, inclusive, or null for the whole history
+     * @param endDate the end date of the range, exclusive, or null for the whole history
+     */
+    private record SeriesKey(String metric, String period, LocalDateTime startDate, LocalDateTime endDate) {
+
+        /**
+         * Checks whether a sale made at the specified date falls within the range.
+         *
+         * @param transactionDate the date of the sale
+         * @return {@code true} if the range contains the date
+         */
+        boolean contains(LocalDateTime transactionDate) {
+            return (startDate == null || !transactionDate.isBefore(startDate))
+                && (endDate == null || transactionDate.isBefore(endDate));
+        }
+    }
+}
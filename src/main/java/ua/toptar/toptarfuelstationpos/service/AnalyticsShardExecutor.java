@@ -0,0 +1,153 @@
+package ua.toptar.toptarfuelstationpos.service;
+
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ua.toptar.toptarfuelstationpos.dto.FuelSalesAggregate;
+import ua.toptar.toptarfuelstationpos.dto.SalesDateRange;
+
+/**
+ * Folds the daily sales of long date ranges in parallel.
+ * A range of more than a year is split into calendar-month shards; every shard is read from the rollup
+ * and folded into a partial result on a bounded fork/join pool, and the partial results are merged pairwise.
+ * Partial results are keyed by fuel type and period, so buckets spanning two shards, such as a week
+ * at the turn of a month, are summed correctly whether they are daily, weekly or monthly.
+ */
+@Component
+public class AnalyticsShardExecutor {
+
+    /** Ranges of up to this many months are read in one query, where the pool would cost more than it saves. */
+    static final int MAX_UNSHARDED_MONTHS = 12;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs a new {@code AnalyticsShardExecutor} with a pool of the specified size.
+     * The pool also bounds the number of database connections the analytics take at once.
+     *
+     * @param parallelism the number of shards processed at once, or {@code 0} for the number of processors
+     */
+    public AnalyticsShardExecutor(@Value("${pos.analytics.parallelism:0}") int parallelism) {
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Reads the daily sales within the specified date range and folds them into a result.
+     * Ranges of up to {@value #MAX_UNSHARDED_MONTHS} months are read and folded at once on the calling thread.
+     * Longer ranges, and the whole history if the range is not provided, are folded per month in parallel.
+     *
+     * @param salesRollupService the service to read the daily sales from
+     * @param startDate the start date of the range, can be null
+     * @param endDate the end date of the range, can be null
+     * @param fold the function folding the daily sales of a range into a partial result
+     * @param merge the function merging two partial results, which may modify and return its first argument
+     * @param <T> the type of the result
+     * @return the result over the whole range
+     */
+    public <T> T foldDailySales(SalesRollupService salesRollupService, LocalDateTime startDate, LocalDateTime endDate,
+        Function<List<FuelSalesAggregate>, T> fold, BinaryOperator<T> merge) {
+        LocalDateTime shardedStart = startDate;
+        LocalDateTime shardedEnd = endDate;
+        if (startDate == null || endDate == null) {
+            Optional<SalesDateRange> history = salesRollupService.findSalesDateRange();
+            if (history.isEmpty()) {
+                return fold.apply(salesRollupService.findDailySales(startDate, endDate));
+            }
+            shardedStart = history.get().firstDay().atStartOfDay();
+            shardedEnd = history.get().lastDay().plusDays(1).atStartOfDay();
+        }
+
+        List<LocalDateTime> bounds = splitByMonth(shardedStart, shardedEnd);
+        if (bounds.size() - 1 <= MAX_UNSHARDED_MONTHS) {
+            return fold.apply(salesRollupService.findDailySales(startDate, endDate));
+        }
+        return pool.invoke(new ShardTask<>(salesRollupService, bounds, 0, bounds.size() - 1, fold, merge));
+    }
+
+    /**
+     * Shuts the pool down when the application stops.
+     */
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Splits a range at the start of every calendar month within it.
+     *
+     * @param startDate the start date of the range
+     * @param endDate the end date of the range
+     * @return the bounds of the shards, starting with the start date and ending with the end date
+     */
+    private static List<LocalDateTime> splitByMonth(LocalDateTime startDate, LocalDateTime endDate) {
+        List<LocalDateTime> bounds = new ArrayList<>();
+        bounds.add(startDate);
+        LocalDateTime monthStart = startDate.toLocalDate().withDayOfMonth(1).plusMonths(1).atStartOfDay();
+        while (monthStart.isBefore(endDate)) {
+            bounds.add(monthStart);
+            monthStart = monthStart.plusMonths(1);
+        }
+        bounds.add(endDate);
+        return bounds;
+    }
+
+    /**
+     * Folds a run of consecutive shards, forking the first half and merging it with the second.
+     *
+     * @param <T> the type of the result
+     */
+    private static final class ShardTask<T> extends RecursiveTask<T> {
+
+        private final SalesRollupService salesRollupService;
+        private final List<LocalDateTime> bounds;
+        private final int from;
+        private final int to;
+        private final Function<List<FuelSalesAggregate>, T> fold;
+        private final BinaryOperator<T> merge;
+
+        /**
+         * Creates a task folding the shards from {@code from} inclusive to {@code to} exclusive.
+         *
+         * @param salesRollupService the service to read the daily sales from
+         * @param bounds the bounds of all shards
+         * @param from the index of the first shard
+         * @param to the index after the last shard
+         * @param fold the function folding the daily sales of a shard
+         * @param merge the function merging two partial results
+         */
+        ShardTask(SalesRollupService salesRollupService, List<LocalDateTime> bounds, int from, int to,
+            Function<List<FuelSalesAggregate>, T> fold, BinaryOperator<T> merge) {
+            this.salesRollupService = salesRollupService;
+            this.bounds = bounds;
+            this.from = from;
+            this.to = to;
+            this.fold = fold;
+            this.merge = merge;
+        }
+
+        /**
+         * Folds a single shard directly, or splits the run in two and merges the halves in order.
+         *
+         * @return the result over the shards of the task
+         */
+        @Override
+        protected T compute() {
+            if (to - from == 1) {
+                return fold.apply(salesRollupService.findDailySales(bounds.get(from), bounds.get(to)));
+            }
+            int middle = (from + to) >>> 1;
+            ShardTask<T> first = new ShardTask<>(salesRollupService, bounds, from, middle, fold, merge);
+            first.fork();
+            T second = new ShardTask<>(salesRollupService, bounds, middle, to, fold, merge).compute();
+            return merge.apply(first.join(), second);
+        }
+    }
+}
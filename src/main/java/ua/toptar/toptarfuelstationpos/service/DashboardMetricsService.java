@@ -0,0 +1,158 @@
+package ua.toptar.toptarfuelstationpos.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ua.toptar.toptarfuelstationpos.dto.DashboardTotals;
+import ua.toptar.toptarfuelstationpos.dto.TransactionCreatedEvent;
+import ua.toptar.toptarfuelstationpos.model.MinorUnits;
+import ua.toptar.toptarfuelstationpos.model.Transaction;
+import ua.toptar.toptarfuelstationpos.repository.TransactionRepository;
+
+/**
+ * Service class for the admin dashboard totals.
+ * Keeps the number of transactions and the total revenue in memory, so the dashboard does not query
+ * the transactions table. The totals are loaded once at startup and updated after every committed sale.
+ * Every committed sale is counted by its event. The identifiers of the sales committing while the totals
+ * load are kept, and those the load has already counted are taken back out of its totals.
+ */
+@Service
+public class DashboardMetricsService {
+
+    private static final Logger logger = Logger.getLogger(DashboardMetricsService.class.getName());
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchiveService transactionArchiveService;
+    private final LongAdder transactionCount = new LongAdder();
+    private final LongAdder revenueInKopecks = new LongAdder();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** Whether the totals are loaded, so that committing sales are no longer recorded. */
+    private volatile boolean loaded;
+    /** The identifiers of the sales committing while the totals are loading, or null once they are loaded. */
+    private Set<Long> pendingIds = new HashSet<>();
+
+    /**
+     * Constructs a new {@code DashboardMetricsService} with the specified dependencies.
+     *
+     * @param transactionRepository the repository for accessing transaction data
+     * @param transactionArchiveService the service reading the archived transactions
+     */
+    public DashboardMetricsService(TransactionRepository transactionRepository,
+        TransactionArchiveService transactionArchiveService) {
+        this.transactionRepository = transactionRepository;
+        this.transactionArchiveService = transactionArchiveService;
+    }
+
+    /**
+     * Loads the totals of the existing transactions when the application starts,
+     * with one aggregate query per table and none for an empty archive.
+     * The queries share one snapshot, which tells exactly which of the sales committing meanwhile they counted;
+     * those are subtracted again, because their events add them as well.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public void loadTotals() {
+        List<DashboardTotals> loadedTotals = new ArrayList<>();
+        loadedTotals.add(transactionRepository.findDashboardTotals());
+        loadedTotals.add(transactionArchiveService.findDashboardTotals());
+
+        lock.lock();
+        try {
+            // Продаж, що почав фіксуватися після цієї точки, знімок уже не побачить
+            if (!pendingIds.isEmpty()) {
+                DashboardTotals counted = transactionRepository.findDashboardTotalsByIdIn(pendingIds);
+                loadedTotals.add(new DashboardTotals(-counted.transactionCount(),
+                    counted.revenue() != null ? counted.revenue().negate() : null));
+            }
+            long count = 0;
+            for (DashboardTotals totals : loadedTotals) {
+                transactionCount.add(totals.transactionCount());
+                if (totals.revenue() != null) {
+                    revenueInKopecks.add(MinorUnits.toKopecks(totals.revenue()));
+                }
+                count += totals.transactionCount();
+            }
+            pendingIds = null;
+            loaded = true;
+            logger.info("Dashboard totals loaded for " + count + " transactions");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records the identifier of a sale that is about to commit while the totals are loading,
+     * so that the load can tell whether it has counted the sale.
+     *
+     * @param event the event of the created transaction
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onTransactionCommitting(TransactionCreatedEvent event) {
+        if (loaded) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (pendingIds != null && event.transaction().getId() != null) {
+                pendingIds.add(event.transaction().getId());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds a sale to the totals once its database transaction has committed.
+     * Sales that are rolled back are never counted.
+     *
+     * @param event the event of the created transaction
+     */
+    @TransactionalEventListener
+    public void onTransactionCreated(TransactionCreatedEvent event) {
+        transactionCount.increment();
+        revenueInKopecks.add(MinorUnits.toKopecks(event.transaction().getTotalAmount()));
+    }
+
+    /**
+     * Returns the number of transactions.
+     *
+     * @return the number of transactions
+     */
+    public long getTransactionCount() {
+        return transactionCount.sum();
+    }
+
+    /**
+     * Returns the total revenue of all transactions.
+     *
+     * @return the total revenue, in hryvnias
+     */
+    public BigDecimal getTotalRevenue() {
+        return MinorUnits.fromKopecks(revenueInKopecks.sum());
+    }
+
+    /**
+     * Returns the average transaction amount, rounded to kopecks.
+     *
+     * @return the average transaction amount, or zero if there are no transactions
+     */
+    public BigDecimal getAverageTransaction() {
+        long count = getTransactionCount();
+        return count > 0
+            ? MinorUnits.fromKopecks(MinorUnits.divideHalfUp(revenueInKopecks.sum(), count))
+            : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,94 @@
+package ua.toptar.toptarfuelstationpos.service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ua.toptar.toptarfuelstationpos.dto.FuelTypeCatalog;
+import ua.toptar.toptarfuelstationpos.dto.FuelTypeSavedEvent;
+import ua.toptar.toptarfuelstationpos.model.FuelType;
+import ua.toptar.toptarfuelstationpos.repository.FuelTypeRepository;
+
+/**
+ * Service class holding the fuel type catalog in memory.
+ * Pages and the sale path read fuel types from an immutable snapshot instead of the database.
+ * The snapshot is loaded on first use and replaced after every committed save of a fuel type.
+ */
+@Service
+public class FuelTypeCatalogService {
+
+    private static final Logger logger = Logger.getLogger(FuelTypeCatalogService.class.getName());
+
+    private final FuelTypeRepository fuelTypeRepository;
+    private final AtomicReference<FuelTypeCatalog> catalog = new AtomicReference<>();
+
+    /**
+     * Constructs a new {@code FuelTypeCatalogService} with the specified dependencies.
+     *
+     * @param fuelTypeRepository the repository for accessing fuel type data
+     */
+    public FuelTypeCatalogService(FuelTypeRepository fuelTypeRepository) {
+        this.fuelTypeRepository = fuelTypeRepository;
+    }
+
+    /**
+     * Returns the current snapshot of the catalog, loading it if it has not been loaded yet.
+     *
+     * @return the current catalog snapshot
+     */
+    public FuelTypeCatalog getCatalog() {
+        FuelTypeCatalog current = catalog.get();
+        return current != null ? current : reload();
+    }
+
+    /**
+     * Returns all fuel types of the current snapshot.
+     *
+     * @return an unmodifiable list of fuel types
+     */
+    public List<FuelType> getFuelTypes() {
+        return getCatalog().fuelTypes();
+    }
+
+    /**
+     * Reloads the catalog when a fuel type has been saved.
+     * Runs after the saving transaction commits, or immediately if there was no transaction.
+     *
+     * @param event the event of the saved fuel type
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFuelTypeSaved(FuelTypeSavedEvent event) {
+        logger.info("Fuel type saved: " + event.fuelTypeName() + ", reloading catalog");
+        reload();
+    }
+
+    /**
+     * Reads all fuel types from the database and replaces the snapshot with a new version.
+     * Reloads are serialized, so an older snapshot never replaces a newer one.
+     *
+     * @return the new catalog snapshot
+     */
+    public synchronized FuelTypeCatalog reload() {
+        List<FuelType> fuelTypes = fuelTypeRepository.findAll().stream()
+            .map(FuelTypeCatalogService::copyOf)
+            .toList();
+        FuelTypeCatalog previous = catalog.get();
+        FuelTypeCatalog next = FuelTypeCatalog.of(previous != null ? previous.version() + 1 : 1, fuelTypes);
+        catalog.set(next);
+        logger.info("Fuel type catalog version " + next.version() + " loaded with " + fuelTypes.size() + " fuel types");
+        return next;
+    }
+
+    /**
+     * Creates a detached copy of a fuel type, so the snapshot is not affected by changes to managed entities.
+     *
+     * @param fuelType the fuel type to copy
+     * @return the copy
+     */
+    private static FuelType copyOf(FuelType fuelType) {
+        FuelType copy = new FuelType(fuelType.getName(), fuelType.getPricePerLiter());
+        copy.setId(fuelType.getId());
+        return copy;
+    }
+}
@@ -0,0 +1,50 @@
+package ua.toptar.toptarfuelstationpos.service;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongFunction;
+
+/**
+ * Sums of minor units per fuel type and period bucket.
+ * Adding to an existing bucket does not allocate.
+ */
+final class LongSeries {
+
+    private final Map<String, LongTotals<String>> series = new HashMap<>();
+
+    /**
+     * Adds a value to the period bucket of a fuel type.
+     *
+     * @param fuelTypeName the name of the fuel type
+     * @param periodKey the key of the period bucket
+     * @param value the value to add
+     */
+    void add(String fuelTypeName, String periodKey, long value) {
+        series.computeIfAbsent(fuelTypeName, k -> new LongTotals<>()).add(periodKey, value);
+    }
+
+    /**
+     * Adds the buckets of a partial series to this one, bucket by bucket.
+     *
+     * @param partial the series to add
+     * @return this series, with the partial series added
+     */
+    LongSeries merge(LongSeries partial) {
+        partial.series.forEach((fuelTypeName, buckets) ->
+            series.computeIfAbsent(fuelTypeName, k -> new LongTotals<>()).merge(buckets));
+        return this;
+    }
+
+    /**
+     * Converts the buckets back to decimal values.
+     *
+     * @param converter the function converting a sum in minor units to a decimal value
+     * @return a nested map of fuel type names to period keys and their converted sums
+     */
+    Map<String, Map<String, BigDecimal>> toDecimals(LongFunction<BigDecimal> converter) {
+        Map<String, Map<String, BigDecimal>> decimals = new HashMap<>();
+        series.forEach((fuelTypeName, buckets) -> decimals.put(fuelTypeName, buckets.toDecimals(converter)));
+        return decimals;
+    }
+}
@@ -0,0 +1,50 @@
+package ua.toptar.toptarfuelstationpos.service;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongFunction;
+
+/**
+ * Sums of minor units, such as kopecks or millilitres, by key.
+ * Every key holds a mutable {@code long}, so adding to an existing key does not allocate.
+ *
+ * @param <K> the type of the keys
+ */
+final class LongTotals<K> {
+
+    private final Map<K, long[]> sums = new HashMap<>();
+
+    /**
+     * Adds a value to the sum of a key.
+     *
+     * @param key the key
+     * @param value the value to add
+     */
+    void add(K key, long value) {
+        sums.computeIfAbsent(key, k -> new long[1])[0] += value;
+    }
+
+    /**
+     * Adds the sums of a partial result to these.
+     *
+     * @param partial the sums to add
+     * @return these sums, with the partial sums added
+     */
+    LongTotals<K> merge(LongTotals<K> partial) {
+        partial.sums.forEach((key, sum) -> add(key, sum[0]));
+        return this;
+    }
+
+    /**
+     * Converts the sums back to decimal values.
+     *
+     * @param converter the function converting a sum in minor units to a decimal value
+     * @return a map of keys to their converted sums
+     */
+    Map<K, BigDecimal> toDecimals(LongFunction<BigDecimal> converter) {
+        Map<K, BigDecimal> decimals = new HashMap<>();
+        sums.forEach((key, sum) -> decimals.put(key, converter.apply(sum[0])));
+        return decimals;
+    }
+}
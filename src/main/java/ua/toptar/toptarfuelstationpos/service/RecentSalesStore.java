@@ -0,0 +1,309 @@
+package ua.toptar.toptarfuelstationpos.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ua.toptar.toptarfuelstationpos.dto.FuelSalesAggregate;
+import ua.toptar.toptarfuelstationpos.dto.RecentSale;
+import ua.toptar.toptarfuelstationpos.dto.TransactionCreatedEvent;
+import ua.toptar.toptarfuelstationpos.model.MinorUnits;
+import ua.toptar.toptarfuelstationpos.model.Transaction;
+import ua.toptar.toptarfuelstationpos.repository.TransactionRepository;
+
+/**
+ * In-memory columnar store of the recent sales, read by the analytics instead of the database.
+ * Every sale of the last {@code pos.analytics.hot-days} days is held in primitive arrays in order of time:
+ * the date in local epoch seconds, the ordinal of the fuel type name, the volume in millilitres and the amount
+ * in kopecks. The store is loaded once at startup, appended to after every committed sale and trimmed
+ * to the window every night, and a range within the window is summed per day and fuel type in a single loop.
+ */
+@Service
+public class RecentSalesStore {
+
+    private static final Logger logger = Logger.getLogger(RecentSalesStore.class.getName());
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    private final TransactionRepository transactionRepository;
+    private final int windowDays;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] epochSeconds = new long[INITIAL_CAPACITY];
+    private int[] fuelTypes = new int[INITIAL_CAPACITY];
+    private long[] volumes = new long[INITIAL_CAPACITY];
+    private long[] amounts = new long[INITIAL_CAPACITY];
+    private int size;
+    private final List<String> fuelTypeNames = new ArrayList<>();
+    private final Map<String, Integer> fuelTypeOrdinals = new HashMap<>();
+
+    /** The start of the window held by the store, or null while the store is not loaded. */
+    private LocalDateTime coveredFrom;
+    /** The sales committed while the store is loading, or null once it is loaded or disabled. */
+    private List<Transaction> pendingSales = new ArrayList<>();
+
+    /**
+     * Constructs a new {@code RecentSalesStore} with the specified dependencies.
+     *
+     * @param transactionRepository the repository for accessing transaction data
+     * @param windowDays the number of past days held in the store, or {@code 0} to disable the store
+     */
+    public RecentSalesStore(TransactionRepository transactionRepository,
+        @Value("${pos.analytics.hot-days:90}") int windowDays) {
+        this.transactionRepository = transactionRepository;
+        this.windowDays = windowDays;
+    }
+
+    /**
+     * Loads the sales of the window with one projection query when the application starts.
+     * Sales committed while the query runs are kept aside and added once, whether the query saw them or not.
+     * If the store is disabled or cannot be loaded, the analytics keep reading the rollup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        LocalDateTime from = windowStart();
+        List<RecentSale> sales = List.of();
+        if (windowDays > 0) {
+            try {
+                sales = transactionRepository.findRecentSales(from);
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Recent sales store could not be loaded, analytics read the rollup", e);
+                sales = null;
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (windowDays <= 0 || sales == null) {
+                pendingSales = null;
+                return;
+            }
+            Set<Long> pendingIds = new HashSet<>();
+            pendingSales.forEach(transaction -> pendingIds.add(transaction.getId()));
+            coveredFrom = from;
+            for (RecentSale sale : sales) {
+                if (!pendingIds.contains(sale.id())) {
+                    append(sale.transactionDate(), sale.fuelTypeName(), sale.volume(), sale.totalAmount());
+                }
+            }
+            pendingSales.forEach(this::append);
+            pendingSales = null;
+            logger.info("Recent sales store loaded with " + size + " sales since " + from.toLocalDate());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a sale to the store once its database transaction has committed.
+     * Sales that are rolled back are never added.
+     *
+     * @param event the event of the created transaction
+     */
+    @TransactionalEventListener
+    public void onTransactionCreated(TransactionCreatedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (pendingSales != null) {
+                pendingSales.add(event.transaction());
+            } else if (coveredFrom != null) {
+                append(event.transaction());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops the sales that have left the window, shortly after midnight.
+     */
+    @Scheduled(cron = "0 5 0 * * *")
+    public void evictExpired() {
+        LocalDateTime from = windowStart();
+        lock.writeLock().lock();
+        try {
+            if (coveredFrom == null || !from.isAfter(coveredFrom)) {
+                return;
+            }
+            int expired = lowerBound(from.toEpochSecond(ZoneOffset.UTC));
+            int retained = size - expired;
+            System.arraycopy(epochSeconds, expired, epochSeconds, 0, retained);
+            System.arraycopy(fuelTypes, expired, fuelTypes, 0, retained);
+            System.arraycopy(volumes, expired, volumes, 0, retained);
+            System.arraycopy(amounts, expired, amounts, 0, retained);
+            size = retained;
+            coveredFrom = from;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sums the sales within the specified date range per day and fuel type, if the store holds the whole range.
+     *
+     * @param startDate the start date of the range, inclusive, can be null
+     * @param endDate the end date of the range, exclusive, can be null
+     * @return the daily sales aggregates within the range, or empty if the range is not held by the store
+     */
+    public Optional<List<FuelSalesAggregate>> findDailySales(LocalDateTime startDate, LocalDateTime endDate) {
+        if (startDate == null || endDate == null) {
+            return Optional.empty();
+        }
+        long firstDay = startDate.toLocalDate().toEpochDay();
+        List<String> names;
+        int days;
+        long[] volumeSums;
+        long[] amountSums;
+        long[] counts;
+
+        lock.readLock().lock();
+        try {
+            if (coveredFrom == null || startDate.isBefore(coveredFrom)) {
+                return Optional.empty();
+            }
+            int from = lowerBound(startDate.toEpochSecond(ZoneOffset.UTC));
+            int to = lowerBound(endDate.toEpochSecond(ZoneOffset.UTC));
+            if (from >= to) {
+                return Optional.of(List.of());
+            }
+            names = List.copyOf(fuelTypeNames);
+            days = (int) (Math.floorDiv(epochSeconds[to - 1], SECONDS_PER_DAY) - firstDay + 1);
+            volumeSums = new long[names.size() * days];
+            amountSums = new long[names.size() * days];
+            counts = new long[names.size() * days];
+            // Клітинка — вид пального × день діапазону, продажі впорядковані за часом
+            for (int i = from; i < to; i++) {
+                int cell = fuelTypes[i] * days + (int) (Math.floorDiv(epochSeconds[i], SECONDS_PER_DAY) - firstDay);
+                volumeSums[cell] += volumes[i];
+                amountSums[cell] += amounts[i];
+                counts[cell]++;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<FuelSalesAggregate> dailySales = new ArrayList<>();
+        for (int fuelType = 0; fuelType < names.size(); fuelType++) {
+            for (int day = 0; day < days; day++) {
+                int cell = fuelType * days + day;
+                if (counts[cell] > 0) {
+                    dailySales.add(new FuelSalesAggregate(LocalDate.ofEpochDay(firstDay + day), names.get(fuelType),
+                        volumeSums[cell], amountSums[cell], counts[cell]));
+                }
+            }
+        }
+        return Optional.of(dailySales);
+    }
+
+    /**
+     * Returns the number of sales held in the store.
+     *
+     * @return the number of sales
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the start of the window as of today.
+     *
+     * @return the start of the first day held by the store
+     */
+    private LocalDateTime windowStart() {
+        return LocalDate.now().minusDays(windowDays).atStartOfDay();
+    }
+
+    /**
+     * Adds a saved transaction to the store.
+     *
+     * @param transaction the transaction to add
+     */
+    private void append(Transaction transaction) {
+        append(transaction.getTransactionDate(), transaction.getFuelTypeName(), transaction.getVolume(),
+            transaction.getTotalAmount());
+    }
+
+    /**
+     * Adds a sale to the store, keeping the sales in order of time. Sales older than the window are ignored.
+     * Must be called with the write lock held.
+     *
+     * @param transactionDate the date of the sale
+     * @param fuelTypeName the name of the fuel type
+     * @param volume the volume sold
+     * @param totalAmount the amount paid
+     */
+    private void append(LocalDateTime transactionDate, String fuelTypeName, BigDecimal volume,
+        BigDecimal totalAmount) {
+        if (transactionDate.isBefore(coveredFrom)) {
+            return;
+        }
+        if (size == epochSeconds.length) {
+            int capacity = size * 2;
+            epochSeconds = Arrays.copyOf(epochSeconds, capacity);
+            fuelTypes = Arrays.copyOf(fuelTypes, capacity);
+            volumes = Arrays.copyOf(volumes, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+        }
+
+        long epochSecond = transactionDate.toEpochSecond(ZoneOffset.UTC);
+        // Продажі з журналу можуть прийти не за порядком часу, тоді новий запис вставляється на своє місце
+        int index = lowerBound(epochSecond + 1);
+        if (index < size) {
+            System.arraycopy(epochSeconds, index, epochSeconds, index + 1, size - index);
+            System.arraycopy(fuelTypes, index, fuelTypes, index + 1, size - index);
+            System.arraycopy(volumes, index, volumes, index + 1, size - index);
+            System.arraycopy(amounts, index, amounts, index + 1, size - index);
+        }
+        epochSeconds[index] = epochSecond;
+        fuelTypes[index] = fuelTypeOrdinals.computeIfAbsent(fuelTypeName, name -> {
+            fuelTypeNames.add(name);
+            return fuelTypeNames.size() - 1;
+        });
+        // Об'єм округлюється так само, як при збереженні в базі даних
+        volumes[index] = MinorUnits.toStoredMillilitres(volume);
+        amounts[index] = MinorUnits.toKopecks(totalAmount);
+        size++;
+    }
+
+    /**
+     * Finds the index of the first sale made at or after the specified time.
+     *
+     * @param epochSecond the time in local epoch seconds
+     * @return the index of the first such sale, or the number of sales if there is none
+     */
+    private int lowerBound(long epochSecond) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (epochSeconds[middle] < epochSecond) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
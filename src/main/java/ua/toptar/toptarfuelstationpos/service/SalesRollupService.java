@@ -0,0 +1,236 @@
+package ua.toptar.toptarfuelstationpos.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Logger;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.toptar.toptarfuelstationpos.dto.FuelSalesAggregate;
+import ua.toptar.toptarfuelstationpos.dto.SalesDateRange;
+import ua.toptar.toptarfuelstationpos.model.DailyFuelSales;
+import ua.toptar.toptarfuelstationpos.model.MinorUnits;
+import ua.toptar.toptarfuelstationpos.model.Transaction;
+import ua.toptar.toptarfuelstationpos.repository.DailyFuelSalesRepository;
+import ua.toptar.toptarfuelstationpos.repository.TransactionRepository;
+
+/**
+ * Service class for maintaining the daily sales rollup.
+ * Keeps one {@code DailyFuelSales} row per day and fuel type up to date as sales are recorded,
+ * and serves the rollup rows to the analytics.
+ */
+@Service
+public class SalesRollupService {
+
+    private static final Logger logger = Logger.getLogger(SalesRollupService.class.getName());
+
+    private final DailyFuelSalesRepository dailyFuelSalesRepository;
+    private final TransactionRepository transactionRepository;
+    private final RecentSalesStore recentSalesStore;
+    private final TransactionArchiveService transactionArchiveService;
+    private final TransactionTemplate newTransactionTemplate;
+
+    /**
+     * Constructs a new {@code SalesRollupService} with the specified dependencies.
+     *
+     * @param dailyFuelSalesRepository the repository for accessing rollup data
+     * @param transactionRepository the repository for accessing transaction data
+     * @param recentSalesStore the in-memory store of the recent sales
+     * @param transactionArchiveService the service reading the archived transactions
+     * @param transactionManager the transaction manager used to create missing rollup rows
+     */
+    public SalesRollupService(DailyFuelSalesRepository dailyFuelSalesRepository,
+        TransactionRepository transactionRepository, RecentSalesStore recentSalesStore,
+        TransactionArchiveService transactionArchiveService, PlatformTransactionManager transactionManager) {
+        this.dailyFuelSalesRepository = dailyFuelSalesRepository;
+        this.transactionRepository = transactionRepository;
+        this.recentSalesStore = recentSalesStore;
+        this.transactionArchiveService = transactionArchiveService;
+        this.newTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Adds a saved transaction to the rollup row of its day and fuel type.
+     * Runs in the caller's database transaction, so the rollup is rolled back together with the sale.
+     *
+     * @param transaction the saved transaction to add
+     */
+    @Transactional
+    public void record(Transaction transaction) {
+        add(transaction.getTransactionDate().toLocalDate(), transaction.getFuelTypeName(),
+            transaction.getVolume(), transaction.getTotalAmount(), 1);
+    }
+
+    /**
+     * Adds several saved transactions to the rollup.
+     * The transactions are summed per day and fuel type first, so each rollup row is updated only once.
+     * Runs in the caller's database transaction, so the rollup is rolled back together with the sales.
+     *
+     * @param transactions the saved transactions to add
+     */
+    @Transactional
+    public void recordAll(List<Transaction> transactions) {
+        // Для кожного дня й виду пального: мілілітри, копійки й кількість продажів
+        Map<LocalDate, Map<String, long[]>> totals = new HashMap<>();
+        for (Transaction transaction : transactions) {
+            long[] total = totals.computeIfAbsent(transaction.getTransactionDate().toLocalDate(), k -> new HashMap<>())
+                .computeIfAbsent(transaction.getFuelTypeName(), k -> new long[3]);
+            total[0] += MinorUnits.toMillilitres(transaction.getVolume());
+            total[1] += MinorUnits.toKopecks(transaction.getTotalAmount());
+            total[2]++;
+        }
+        totals.forEach((salesDate, byFuelType) -> byFuelType.forEach((fuelTypeName, total) ->
+            add(salesDate, fuelTypeName, MinorUnits.fromMillilitres(total[0]), MinorUnits.fromKopecks(total[1]),
+                total[2])));
+    }
+
+    /**
+     * Retrieves the daily sales aggregates within the specified date range.
+     * A range held by the in-memory store of recent sales is summed from the store without a query.
+     * Otherwise whole days are read from the rollup; a partial first or last day is aggregated by the database
+     * from its transactions, in the archive too if the day has been archived,
+     * so the result covers exactly {@code [startDate, endDate)}.
+     * If the range is not provided, the whole rollup is returned.
+     *
+     * @param startDate the start date of the range, can be null
+     * @param endDate the end date of the range, can be null
+     * @return a list of daily sales aggregates within the specified range
+     */
+    public List<FuelSalesAggregate> findDailySales(LocalDateTime startDate, LocalDateTime endDate) {
+        Optional<List<FuelSalesAggregate>> recentSales = recentSalesStore.findDailySales(startDate, endDate);
+        if (recentSales.isPresent()) {
+            return recentSales.get();
+        }
+        if (startDate == null || endDate == null) {
+            return dailyFuelSalesRepository.findAllAggregates();
+        }
+
+        LocalDate firstFullDay = startDate.toLocalDate().atStartOfDay().equals(startDate)
+            ? startDate.toLocalDate()
+            : startDate.toLocalDate().plusDays(1);
+        LocalDate endDay = endDate.toLocalDate();
+        if (!firstFullDay.isBefore(endDay)) {
+            return aggregateTransactions(startDate, endDate);
+        }
+
+        List<FuelSalesAggregate> dailySales = new ArrayList<>(
+            dailyFuelSalesRepository.findAggregatesBetween(firstFullDay, endDay.minusDays(1)));
+        if (startDate.isBefore(firstFullDay.atStartOfDay())) {
+            dailySales.addAll(aggregateTransactions(startDate, firstFullDay.atStartOfDay()));
+        }
+        if (endDate.isAfter(endDay.atStartOfDay())) {
+            dailySales.addAll(aggregateTransactions(endDay.atStartOfDay(), endDate));
+        }
+        return dailySales;
+    }
+
+    /**
+     * Retrieves the first and last day of the rollup, which bound a report over the whole history.
+     *
+     * @return the days covered by the rollup, or an empty optional if there are no sales yet
+     */
+    public Optional<SalesDateRange> findSalesDateRange() {
+        SalesDateRange range = dailyFuelSalesRepository.findSalesDateRange();
+        return range.firstDay() != null ? Optional.of(range) : Optional.empty();
+    }
+
+    /**
+     * Builds the rollup from the existing transactions when the application starts with an empty rollup table.
+     * The transactions of both the transactions table and the archive are grouped by day and fuel type
+     * in the database; a day with sales in both tables is summed into one row.
+     * This only happens once, on the first start after the rollup table has been introduced.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildIfEmpty() {
+        if (dailyFuelSalesRepository.count() > 0) {
+            return;
+        }
+
+        Map<String, FuelSalesAggregate> aggregates = new LinkedHashMap<>();
+        for (List<FuelSalesAggregate> source : List.of(transactionArchiveService.aggregateAllDailySales(),
+            transactionRepository.aggregateAllDailySales())) {
+            for (FuelSalesAggregate aggregate : source) {
+                aggregates.merge(aggregate.salesDate() + "/" + aggregate.fuelTypeName(), aggregate,
+                    (first, second) -> new FuelSalesAggregate(first.salesDate(), first.fuelTypeName(),
+                        first.volumeMillilitres() + second.volumeMillilitres(),
+                        first.revenueKopecks() + second.revenueKopecks(),
+                        first.transactionCount() + second.transactionCount()));
+            }
+        }
+        List<DailyFuelSales> rows = aggregates.values().stream()
+            .map(aggregate -> new DailyFuelSales(aggregate.salesDate(), aggregate.fuelTypeName(),
+                aggregate.volume(), aggregate.revenue(), aggregate.transactionCount()))
+            .toList();
+
+        if (!rows.isEmpty()) {
+            dailyFuelSalesRepository.saveAll(rows);
+            logger.info("Daily sales rollup rebuilt with " + rows.size() + " rows");
+        }
+    }
+
+    /**
+     * Aggregates the transactions within the specified range per day from the database,
+     * reading the archive as well if the range reaches the archived months.
+     *
+     * @param startDate the start of the range, inclusive
+     * @param endDate the end of the range, exclusive
+     * @return the daily sales aggregates within the range
+     */
+    private List<FuelSalesAggregate> aggregateTransactions(LocalDateTime startDate, LocalDateTime endDate) {
+        List<FuelSalesAggregate> archived = transactionArchiveService.aggregateDailySales(startDate, endDate);
+        List<FuelSalesAggregate> recent = transactionRepository.aggregateDailySales(startDate, endDate);
+        if (archived.isEmpty()) {
+            return recent;
+        }
+        List<FuelSalesAggregate> dailySales = new ArrayList<>(archived);
+        dailySales.addAll(recent);
+        return dailySales;
+    }
+
+    /**
+     * Adds the specified totals to the rollup row of the given day and fuel type, creating the row if needed.
+     *
+     * @param salesDate the day of the sales
+     * @param fuelTypeName the name of the fuel type
+     * @param volume the volume to add
+     * @param revenue the revenue to add
+     * @param count the number of transactions to add
+     */
+    private void add(LocalDate salesDate, String fuelTypeName, BigDecimal volume, BigDecimal revenue, long count) {
+        int updated = dailyFuelSalesRepository.increment(salesDate, fuelTypeName, volume, revenue, count);
+        if (updated == 0) {
+            createEmptyRow(salesDate, fuelTypeName);
+            dailyFuelSalesRepository.increment(salesDate, fuelTypeName, volume, revenue, count);
+        }
+    }
+
+    /**
+     * Creates an empty rollup row in a separate database transaction.
+     * If a concurrent sale has already created the row, the unique constraint violation is ignored.
+     *
+     * @param salesDate the day of the row
+     * @param fuelTypeName the name of the fuel type
+     */
+    private void createEmptyRow(LocalDate salesDate, String fuelTypeName) {
+        try {
+            newTransactionTemplate.executeWithoutResult(status -> dailyFuelSalesRepository.saveAndFlush(
+                new DailyFuelSales(salesDate, fuelTypeName, BigDecimal.ZERO, BigDecimal.ZERO, 0)));
+        } catch (DataIntegrityViolationException e) {
+            logger.fine(() -> "Rollup row for " + salesDate + "/" + fuelTypeName + " was created concurrently");
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package ua.toptar.toptarfuelstationpos.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongFunction;
+import ua.toptar.toptarfuelstationpos.dto.FuelSalesAggregate;
+import ua.toptar.toptarfuelstationpos.model.MinorUnits;
+
+/**
+ * One analytics series in minor units: the sales volume, the revenue per fuel type, or the total revenue,
+ * summed per period bucket. The series is folded from daily sales aggregates, and a single sale
+ * can be added to it later, which only changes the bucket of the day of the sale.
+ */
+final class SalesSeries {
+
+    /** The sales volume per fuel type. */
+    static final String SALES = "sales";
+    /** The revenue per fuel type. */
+    static final String REVENUE = "revenue";
+    /** The total revenue of all fuel types. */
+    static final String TOTAL_REVENUE = "totalRevenue";
+
+    static final String DAILY_PERIOD = "daily";
+    static final String WEEKLY_PERIOD = "weekly";
+    static final String MONTHLY_PERIOD = "monthly";
+
+    /** Every metric a series can hold. */
+    static final List<String> METRICS = List.of(SALES, REVENUE, TOTAL_REVENUE);
+    /** Every period a series can be grouped by. */
+    static final List<String> PERIODS = List.of(DAILY_PERIOD, WEEKLY_PERIOD, MONTHLY_PERIOD);
+
+    private static final DateTimeFormatter DAILY_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter WEEKLY_FORMATTER = DateTimeFormatter.ofPattern("yyyy-'W'ww");
+    private static final DateTimeFormatter MONTHLY_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    private final String metric;
+    private final String period;
+    private final LongSeries byFuelType = new LongSeries();
+    private final LongTotals<String> total = new LongTotals<>();
+    private final Map<LocalDate, String> periodKeys = new HashMap<>();
+
+    /**
+     * Constructs an empty series.
+     *
+     * @param metric the metric of the series ("sales", "revenue" or "totalRevenue")
+     * @param period the period to group by ("daily", "weekly", or "monthly")
+     * @throws IllegalArgumentException if the metric or period is invalid
+     */
+    SalesSeries(String metric, String period) {
+        if (!METRICS.contains(metric)) {
+            throw new IllegalArgumentException("Invalid metric: " + metric);
+        }
+        if (!PERIODS.contains(period)) {
+            throw new IllegalArgumentException("Invalid period: " + period);
+        }
+        this.metric = metric;
+        this.period = period;
+    }
+
+    /**
+     * Returns the metric of the series.
+     *
+     * @return the metric
+     */
+    String metric() {
+        return metric;
+    }
+
+    /**
+     * Returns the period the series is grouped by.
+     *
+     * @return the period
+     */
+    String period() {
+        return period;
+    }
+
+    /**
+     * Adds the sales of a day to the bucket of its period.
+     *
+     * @param salesDate the day of the sales
+     * @param fuelTypeName the name of the fuel type
+     * @param volumeMillilitres the volume sold, in millilitres
+     * @param revenueKopecks the revenue, in kopecks
+     */
+    void add(LocalDate salesDate, String fuelTypeName, long volumeMillilitres, long revenueKopecks) {
+        String periodKey = periodKeys.computeIfAbsent(salesDate, this::formatPeriodKey);
+        switch (metric) {
+            case SALES -> byFuelType.add(fuelTypeName, periodKey, volumeMillilitres);
+            case REVENUE -> byFuelType.add(fuelTypeName, periodKey, revenueKopecks);
+            default -> total.add(periodKey, revenueKopecks);
+        }
+    }
+
+    /**
+     * Adds every daily sales aggregate to the series.
+     *
+     * @param dailySales the daily sales aggregates to add
+     * @return this series, with the aggregates added
+     */
+    SalesSeries addAll(List<FuelSalesAggregate> dailySales) {
+        for (FuelSalesAggregate row : dailySales) {
+            add(row.salesDate(), row.fuelTypeName(), row.volumeMillilitres(), row.revenueKopecks());
+        }
+        return this;
+    }
+
+    /**
+     * Adds the buckets of a partial series of the same metric and period to this one.
+     *
+     * @param partial the series to add
+     * @return this series, with the partial series added
+     */
+    SalesSeries merge(SalesSeries partial) {
+        byFuelType.merge(partial.byFuelType);
+        total.merge(partial.total);
+        return this;
+    }
+
+    /**
+     * Creates an independent copy of the series.
+     *
+     * @return the copy
+     */
+    SalesSeries copy() {
+        return new SalesSeries(metric, period).merge(this);
+    }
+
+    /**
+     * Converts a series per fuel type back to decimal values.
+     *
+     * @return a nested map of fuel type names to period keys and their volume in litres or revenue in hryvnias
+     */
+    Map<String, Map<String, BigDecimal>> toFuelTypeDecimals() {
+        return byFuelType.toDecimals(converter());
+    }
+
+    /**
+     * Converts a series of the total revenue back to decimal values.
+     *
+     * @return a map of period keys to their revenue in hryvnias
+     */
+    Map<String, BigDecimal> toTotalDecimals() {
+        return total.toDecimals(converter());
+    }
+
+    /**
+     * Returns the conversion of the sums of the metric back to decimal values.
+     *
+     * @return the conversion from millilitres for the sales volume, from kopecks otherwise
+     */
+    private LongFunction<BigDecimal> converter() {
+        return SALES.equals(metric) ? MinorUnits::fromMillilitres : MinorUnits::fromKopecks;
+    }
+
+    /**
+     * Formats the key of the period bucket of a day.
+     *
+     * @param date the day to format
+     * @return the formatted period key
+     */
+    private String formatPeriodKey(LocalDate date) {
+        return switch (period) {
+            case DAILY_PERIOD -> date.format(DAILY_FORMATTER);
+            case WEEKLY_PERIOD -> date.format(WEEKLY_FORMATTER);
+            default -> date.format(MONTHLY_FORMATTER);
+        };
+    }
+}
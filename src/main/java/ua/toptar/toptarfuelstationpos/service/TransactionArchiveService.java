@@ -0,0 +1,285 @@
+package ua.toptar.toptarfuelstationpos.service;
+
+import jakarta.annotation.PostConstruct;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.toptar.toptarfuelstationpos.dto.DashboardTotals;
+import ua.toptar.toptarfuelstationpos.dto.FuelSalesAggregate;
+import ua.toptar.toptarfuelstationpos.dto.TransactionView;
+import ua.toptar.toptarfuelstationpos.repository.ArchivedTransactionRepository;
+import ua.toptar.toptarfuelstationpos.repository.TransactionRepository;
+
+/**
+ * Service class for the transaction archive.
+ * Closed months are moved from the {@code transactions} table to the {@code transactions_archive} table
+ * once a month, so the table written by every sale and read by the current listings only holds recent months.
+ * The reads of the archive are routed by date: a query whose range starts after the last archived month
+ * returns nothing without touching the archive table.
+ */
+@Service
+public class TransactionArchiveService {
+
+    private static final Logger logger = Logger.getLogger(TransactionArchiveService.class.getName());
+
+    private final TransactionRepository transactionRepository;
+    private final ArchivedTransactionRepository archivedTransactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int hotMonths;
+    private final int hotDays;
+    private final ReentrantLock archiveLock = new ReentrantLock();
+
+    /** The start of the first month that has not been archived, or null while the archive is empty. */
+    private volatile LocalDateTime archivedBefore;
+
+    /**
+     * Constructs a new {@code TransactionArchiveService} with the specified dependencies.
+     *
+     * @param transactionRepository the repository for accessing transaction data
+     * @param archivedTransactionRepository the repository for accessing archived transaction data
+     * @param transactionManager the transaction manager used to move each month
+     * @param hotMonths the number of closed months kept in the transactions table, or {@code 0} to disable archiving
+     * @param hotDays the number of past days held by the in-memory store of recent sales, which are never archived
+     */
+    public TransactionArchiveService(TransactionRepository transactionRepository,
+        ArchivedTransactionRepository archivedTransactionRepository,
+        PlatformTransactionManager transactionManager,
+        @Value("${pos.archive.hot-months:3}") int hotMonths,
+        @Value("${pos.analytics.hot-days:90}") int hotDays) {
+        this.transactionRepository = transactionRepository;
+        this.archivedTransactionRepository = archivedTransactionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.hotMonths = hotMonths;
+        this.hotDays = hotDays;
+    }
+
+    /**
+     * Reads the boundary of the archive when the application starts.
+     */
+    @PostConstruct
+    public void loadBoundary() {
+        LocalDateTime lastArchived = archivedTransactionRepository.findLastTransactionDate();
+        archivedBefore = lastArchived != null ? monthStart(lastArchived.toLocalDate()).plusMonths(1) : null;
+    }
+
+    /**
+     * Moves every closed month older than the hot months from the transactions table to the archive,
+     * in the early hours of the first day of each month.
+     * Each month is copied and deleted in its own database transaction, so a failure leaves it in one table only.
+     *
+     * @return the number of archived transactions
+     * @throws IllegalStateException if the number of deleted transactions differs from the number of copied ones
+     */
+    @Scheduled(cron = "${pos.archive.cron:0 30 2 1 * *}")
+    public int archiveClosedMonths() {
+        if (hotMonths <= 0) {
+            return 0;
+        }
+        archiveLock.lock();
+        try {
+            LocalDateTime cutoff = cutoff();
+            LocalDateTime firstDate = transactionRepository.findFirstTransactionDate();
+            if (firstDate == null || !firstDate.isBefore(cutoff)) {
+                return 0;
+            }
+
+            int archived = 0;
+            for (LocalDateTime month = monthStart(firstDate.toLocalDate()); month.isBefore(cutoff);
+                 month = month.plusMonths(1)) {
+                LocalDateTime start = month;
+                LocalDateTime end = month.plusMonths(1);
+                // Межа зсувається до перенесення: зайвий запит до архіву безпечний, пропущені продажі — ні
+                if (archivedBefore == null || archivedBefore.isBefore(end)) {
+                    archivedBefore = end;
+                }
+                Integer moved = transactionTemplate.execute(status -> {
+                    int copied = archivedTransactionRepository.copyFromTransactions(start, end);
+                    int deleted = transactionRepository.deleteByTransactionDateRange(start, end);
+                    if (deleted != copied) {
+                        throw new IllegalStateException("Archived " + copied + " transactions of "
+                            + start.toLocalDate() + " but deleted " + deleted);
+                    }
+                    return copied;
+                });
+                if (moved != null && moved > 0) {
+                    logger.info("Archived " + moved + " transactions of " + start.getYear() + "-"
+                        + start.getMonthValue());
+                    archived += moved;
+                }
+            }
+            return archived;
+        } finally {
+            archiveLock.unlock();
+        }
+    }
+
+    /**
+     * Checks whether a query starting at the specified date has to read the archive.
+     *
+     * @param startDate the start date of the query, can be null for the whole history
+     * @return {@code true} if some archived month lies after the start date
+     */
+    public boolean includes(LocalDateTime startDate) {
+        LocalDateTime boundary = archivedBefore;
+        return boundary != null && (startDate == null || startDate.isBefore(boundary));
+    }
+
+    /**
+     * Finds the first page of an archived transaction listing, newest first.
+     *
+     * @param userId the ID of the user to filter by, can be null
+     * @param fuelTypeName the name of the fuel type to filter by, can be null
+     * @param startDate the start date to filter transactions, can be null
+     * @param limit the maximum number of transactions to read
+     * @return the newest matching archived transactions, or an empty list if the archive is not in range
+     */
+    public List<TransactionView> findListingFirst(Long userId, String fuelTypeName, LocalDateTime startDate,
+        Limit limit) {
+        if (!includes(startDate)) {
+            return List.of();
+        }
+        return archivedTransactionRepository.findListingFirst(userId, fuelTypeName, startDate, limit);
+    }
+
+    /**
+     * Finds the archived transactions of a listing that follow a cursor, newest first.
+     *
+     * @param userId the ID of the user to filter by, can be null
+     * @param fuelTypeName the name of the fuel type to filter by, can be null
+     * @param startDate the start date to filter transactions, can be null
+     * @param cursorDate the date of the transaction at the cursor
+     * @param cursorId the ID of the transaction at the cursor
+     * @param limit the maximum number of transactions to read
+     * @return the matching archived transactions older than the cursor, or an empty list if the archive is not in range
+     */
+    public List<TransactionView> findListingAfter(Long userId, String fuelTypeName, LocalDateTime startDate,
+        LocalDateTime cursorDate, Long cursorId, Limit limit) {
+        if (!includes(startDate)) {
+            return List.of();
+        }
+        return archivedTransactionRepository.findListingAfter(userId, fuelTypeName, startDate, cursorDate, cursorId,
+            limit);
+    }
+
+    /**
+     * Finds the archived transactions of a listing that precede a cursor, oldest first.
+     * A cursor in the transactions table has no archived transactions after it.
+     *
+     * @param userId the ID of the user to filter by, can be null
+     * @param fuelTypeName the name of the fuel type to filter by, can be null
+     * @param startDate the start date to filter transactions, can be null
+     * @param cursorDate the date of the transaction at the cursor
+     * @param cursorId the ID of the transaction at the cursor
+     * @param limit the maximum number of transactions to read
+     * @return the matching archived transactions newer than the cursor, or an empty list if the archive is not in range
+     */
+    public List<TransactionView> findListingBefore(Long userId, String fuelTypeName, LocalDateTime startDate,
+        LocalDateTime cursorDate, Long cursorId, Limit limit) {
+        if (!includes(startDate) || !includes(cursorDate)) {
+            return List.of();
+        }
+        return archivedTransactionRepository.findListingBefore(userId, fuelTypeName, startDate, cursorDate, cursorId,
+            limit);
+    }
+
+    /**
+     * Counts the archived transactions of a listing.
+     *
+     * @param userId the ID of the user to filter by, can be null
+     * @param fuelTypeName the name of the fuel type to filter by, can be null
+     * @param startDate the start date to filter transactions, can be null
+     * @return the number of matching archived transactions
+     */
+    public long countListing(Long userId, String fuelTypeName, LocalDateTime startDate) {
+        if (!includes(startDate)) {
+            return 0;
+        }
+        return archivedTransactionRepository.countListing(userId, fuelTypeName, startDate);
+    }
+
+    /**
+     * Finds the next chunk of archived transactions to export, ordered by ID.
+     *
+     * @param afterId the ID of the last transaction of the previous chunk, or 0 for the first chunk
+     * @param fuelTypeName the name of the fuel type to filter by, can be null
+     * @param startDate the start date to filter transactions, can be null
+     * @param limit the maximum number of transactions in the chunk
+     * @return the next chunk of matching archived transactions
+     */
+    public List<TransactionView> findExportChunk(long afterId, String fuelTypeName, LocalDateTime startDate,
+        Limit limit) {
+        if (!includes(startDate)) {
+            return List.of();
+        }
+        return archivedTransactionRepository.findExportChunk(afterId, fuelTypeName, startDate, limit);
+    }
+
+    /**
+     * Aggregates the archived sales of every fuel type per day within the specified range.
+     *
+     * @param startDate the start of the range, inclusive
+     * @param endDate the end of the range, exclusive
+     * @return the daily sales aggregates within the range, or an empty list if the archive is not in range
+     */
+    public List<FuelSalesAggregate> aggregateDailySales(LocalDateTime startDate, LocalDateTime endDate) {
+        if (!includes(startDate)) {
+            return List.of();
+        }
+        return archivedTransactionRepository.aggregateDailySales(startDate, endDate);
+    }
+
+    /**
+     * Aggregates the archived sales of every fuel type per day.
+     *
+     * @return the daily sales aggregates of the whole archive
+     */
+    public List<FuelSalesAggregate> aggregateAllDailySales() {
+        if (!includes(null)) {
+            return List.of();
+        }
+        return archivedTransactionRepository.aggregateAllDailySales();
+    }
+
+    /**
+     * Counts all archived transactions and sums their amounts.
+     *
+     * @return the number of archived transactions and their total revenue, null if the archive is empty
+     */
+    public DashboardTotals findDashboardTotals() {
+        if (!includes(null)) {
+            return new DashboardTotals(0, null);
+        }
+        return archivedTransactionRepository.findDashboardTotals();
+    }
+
+    /**
+     * Returns the start of the first month that stays in the transactions table as of today.
+     * Months still held by the in-memory store of recent sales are never archived.
+     *
+     * @return the start of the first month that is not archived
+     */
+    private LocalDateTime cutoff() {
+        LocalDate today = LocalDate.now();
+        LocalDateTime byMonths = monthStart(today).minusMonths(hotMonths);
+        LocalDateTime byDays = monthStart(today.minusDays(Math.max(hotDays, 0)));
+        return byMonths.isBefore(byDays) ? byMonths : byDays;
+    }
+
+    /**
+     * Returns the start of the month of a day.
+     *
+     * @param day the day
+     * @return the start of the first day of its month
+     */
+    private static LocalDateTime monthStart(LocalDate day) {
+        return day.withDayOfMonth(1).atStartOfDay();
+    }
+}
@@ -0,0 +1,273 @@
+package ua.toptar.toptarfuelstationpos.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.logging.Logger;
+import io.micrometer.core.instrument.Timer;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import ua.toptar.toptarfuelstationpos.config.PosMetrics;
+import ua.toptar.toptarfuelstationpos.dto.TransactionView;
+import ua.toptar.toptarfuelstationpos.repository.TransactionRepository;
+
+/**
+ * Service class for exporting transactions.
+ * Reads matching transactions as projections in fixed-size chunks ordered by ID and writes them
+ * with a streaming writer, so memory use does not depend on the number of exported rows.
+ */
+@Service
+public class TransactionExportService {
+
+    private static final Logger logger = Logger.getLogger(TransactionExportService.class.getName());
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int ROW_WINDOW_SIZE = 100;
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm");
+
+    private static final String CSV_HEADER = "id,fuel_type_id,fuel_type_name,price_per_liter,volume,total_amount,transaction_date,username";
+
+    private final TransactionRepository transactionRepository;
+    private final ObjectMapper objectMapper;
+    private final PosMetrics posMetrics;
+    private final TransactionArchiveService transactionArchiveService;
+
+    /**
+     * Constructs a new {@code TransactionExportService} with the specified dependencies.
+     *
+     * @param transactionRepository the repository for accessing transaction data
+     * @param objectMapper the mapper providing the JSON generator for NDJSON exports
+     * @param posMetrics the metrics of the exports
+     * @param transactionArchiveService the service reading the archived transactions
+     */
+    public TransactionExportService(TransactionRepository transactionRepository, ObjectMapper objectMapper,
+        PosMetrics posMetrics, TransactionArchiveService transactionArchiveService) {
+        this.transactionRepository = transactionRepository;
+        this.objectMapper = objectMapper;
+        this.posMetrics = posMetrics;
+        this.transactionArchiveService = transactionArchiveService;
+    }
+
+    /**
+     * Writes transactions to an Excel file with optional filtering by fuel type and start date.
+     * Only a small window of rows is kept in memory; older rows are flushed to a compressed temporary file
+     * and the finished workbook is streamed to the output.
+     *
+     * @param fuelTypeName the name of the fuel type to filter by, can be null
+     * @param startDate the start date to filter transactions, can be null
+     * @param out the stream to write the Excel file to
+     * @throws IOException if an error occurs while writing to the output stream
+     */
+    public void exportToXlsx(String fuelTypeName, LocalDateTime startDate, OutputStream out) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW_SIZE);
+        workbook.setCompressTempFiles(true);
+        try {
+            Sheet sheet = workbook.createSheet("Transactions");
+
+            Row headerRow = sheet.createRow(0);
+            headerRow.createCell(0).setCellValue("ID");
+            headerRow.createCell(1).setCellValue("Fuel Type");
+            headerRow.createCell(2).setCellValue("Price per Liter (UAH)");
+            headerRow.createCell(3).setCellValue("Volume (L)");
+            headerRow.createCell(4).setCellValue("Total Amount (UAH)");
+            headerRow.createCell(5).setCellValue("Date");
+            headerRow.createCell(6).setCellValue("Username");
+
+            int[] rowNum = {1};
+            forEachTransaction("xlsx", fuelTypeName, startDate, t -> {
+                Row row = sheet.createRow(rowNum[0]++);
+                row.createCell(0).setCellValue(t.id());
+                row.createCell(1).setCellValue(t.fuelTypeName());
+                row.createCell(2).setCellValue(t.pricePerLiter().doubleValue());
+                row.createCell(3).setCellValue(t.volume().doubleValue());
+                row.createCell(4).setCellValue(t.totalAmount().doubleValue());
+                row.createCell(5).setCellValue(t.transactionDate().format(DATE_FORMATTER));
+                row.createCell(6).setCellValue(t.username() != null ? t.username() : "N/A");
+            });
+
+            workbook.write(out);
+            logger.info("Exported " + (rowNum[0] - 1) + " transactions to XLSX");
+        } finally {
+            workbook.close();
+        }
+    }
+
+    /**
+     * Writes transactions as CSV with optional filtering by fuel type and start date.
+     * Each row is written to the output as soon as it is read; numbers are written in plain notation
+     * and dates in ISO-8601 format, so the file can be consumed by other systems.
+     *
+     * @param fuelTypeName the name of the fuel type to filter by, can be null
+     * @param startDate the start date to filter transactions, can be null
+     * @param out the stream to write the CSV data to
+     * @throws IOException if an error occurs while writing to the output stream
+     */
+    public void exportToCsv(String fuelTypeName, LocalDateTime startDate, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+
+        long[] rowCount = {0};
+        forEachTransaction("csv", fuelTypeName, startDate, t -> {
+            writer.write(String.valueOf(t.id()));
+            writer.write(',');
+            writer.write(String.valueOf(t.fuelTypeId()));
+            writer.write(',');
+            writer.write(escapeCsv(t.fuelTypeName()));
+            writer.write(',');
+            writer.write(t.pricePerLiter().toPlainString());
+            writer.write(',');
+            writer.write(t.volume().toPlainString());
+            writer.write(',');
+            writer.write(t.totalAmount().toPlainString());
+            writer.write(',');
+            writer.write(t.transactionDate().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            writer.write(',');
+            writer.write(t.username() != null ? escapeCsv(t.username()) : "");
+            writer.write('\n');
+            rowCount[0]++;
+        });
+
+        writer.flush();
+        logger.info("Exported " + rowCount[0] + " transactions to CSV");
+    }
+
+    /**
+     * Writes transactions as newline-delimited JSON with optional filtering by fuel type and start date.
+     * Every line is one JSON object with the same fields as {@code TransactionDto}, written as soon as it is read.
+     *
+     * @param fuelTypeName the name of the fuel type to filter by, can be null
+     * @param startDate the start date to filter transactions, can be null
+     * @param out the stream to write the NDJSON data to
+     * @throws IOException if an error occurs while writing to the output stream
+     */
+    public void exportToNdjson(String fuelTypeName, LocalDateTime startDate, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+
+        long[] rowCount = {0};
+        forEachTransaction("ndjson", fuelTypeName, startDate, t -> {
+            generator.writeStartObject();
+            generator.writeNumberField("id", t.id());
+            generator.writeNumberField("fuelTypeId", t.fuelTypeId());
+            generator.writeStringField("fuelTypeName", t.fuelTypeName());
+            generator.writeNumberField("pricePerLiter", t.pricePerLiter());
+            generator.writeNumberField("volume", t.volume());
+            generator.writeNumberField("totalAmount", t.totalAmount());
+            generator.writeStringField("transactionDate", t.transactionDate().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            generator.writeStringField("username", t.username());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            rowCount[0]++;
+        });
+
+        generator.close();
+        logger.info("Exported " + rowCount[0] + " transactions to NDJSON");
+    }
+
+    /**
+     * Passes every transaction matching the filters to the writer, the archived months first,
+     * each table in ascending ID order.
+     * Transactions are read in chunks of projections; as no entities are loaded,
+     * every chunk can be garbage collected as soon as it has been written.
+     * The rows are counted per chunk and the whole pass is timed, both tagged with the export format.
+     *
+     * @param format the export format, used as the metrics tag
+     * @param fuelTypeName the name of the fuel type to filter by, can be null or empty
+     * @param startDate the start date to filter transactions, can be null
+     * @param writer the writer receiving each transaction
+     * @throws IOException if the writer fails to write a transaction
+     */
+    private void forEachTransaction(String format, String fuelTypeName, LocalDateTime startDate, RowWriter writer)
+        throws IOException {
+        String fuelTypeFilter = fuelTypeName != null && !fuelTypeName.isEmpty() ? fuelTypeName : null;
+        Timer.Sample sample = posMetrics.startExport();
+        try {
+            if (transactionArchiveService.includes(startDate)) {
+                forEachChunk(format, (afterId, limit) ->
+                    transactionArchiveService.findExportChunk(afterId, fuelTypeFilter, startDate, limit), writer);
+            }
+            forEachChunk(format, (afterId, limit) ->
+                transactionRepository.findExportChunk(afterId, fuelTypeFilter, startDate, limit), writer);
+        } finally {
+            posMetrics.stopExport(sample, format);
+        }
+    }
+
+    /**
+     * Passes every transaction returned by a chunk query to the writer, chunk by chunk.
+     *
+     * @param format the export format, used as the metrics tag
+     * @param reader the query reading the chunk after an ID
+     * @param writer the writer receiving each transaction
+     * @throws IOException if the writer fails to write a transaction
+     */
+    private void forEachChunk(String format, ChunkReader reader, RowWriter writer) throws IOException {
+        long afterId = 0;
+        List<TransactionView> chunk;
+        do {
+            chunk = reader.read(afterId, Limit.of(CHUNK_SIZE));
+            for (TransactionView transaction : chunk) {
+                writer.write(transaction);
+                afterId = transaction.id();
+            }
+            posMetrics.countExportedRows(format, chunk.size());
+        } while (chunk.size() == CHUNK_SIZE);
+    }
+
+    /**
+     * Escapes a value for a CSV field, quoting it if it contains a separator, quote or line break.
+     *
+     * @param value the value to escape
+     * @return the escaped value
+     */
+    private static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Query reading a chunk of exported transactions from one table.
+     */
+    @FunctionalInterface
+    private interface ChunkReader {
+
+        /**
+         * Reads the chunk of transactions following an ID.
+         *
+         * @param afterId the ID of the last transaction of the previous chunk, or 0 for the first chunk
+         * @param limit the maximum number of transactions in the chunk
+         * @return the next chunk of matching transactions, ordered by ID
+         */
+        List<TransactionView> read(long afterId, Limit limit);
+    }
+
+    /**
+     * Callback writing a single exported transaction.
+     */
+    @FunctionalInterface
+    private interface RowWriter {
+
+        /**
+         * Writes one transaction to the export.
+         *
+         * @param transaction the transaction to write
+         * @throws IOException if an error occurs while writing
+         */
+        void write(TransactionView transaction) throws IOException;
+    }
+}
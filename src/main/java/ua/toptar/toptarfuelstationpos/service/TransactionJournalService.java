@@ -0,0 +1,455 @@
+package ua.toptar.toptarfuelstationpos.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import ua.toptar.toptarfuelstationpos.dto.JournaledSale;
+import ua.toptar.toptarfuelstationpos.dto.TransactionDto;
+
+/**
+ * Service class for the optional asynchronous ingestion of sales.
+ * When enabled, a validated sale is appended to a local append-only journal file and acknowledged immediately;
+ * a background writer drains the journal to the database in group commits.
+ * The position up to which the journal has been saved is kept in a checkpoint file, so sales that were not saved
+ * before a restart are replayed on startup. Sales carry a unique key, so a replay never saves a sale twice.
+ * Concurrent submissions share one force of the journal to disk, and a sale the database rejects
+ * is moved to a dead-letter file instead of holding back the sales journaled after it.
+ */
+@Service
+public class TransactionJournalService {
+
+    private static final Logger logger = Logger.getLogger(TransactionJournalService.class.getName());
+
+    private static final String JOURNAL_FILE = "transactions.journal";
+    private static final String CHECKPOINT_FILE = "transactions.checkpoint";
+    private static final String DEAD_LETTER_FILE = "transactions.deadletter";
+    private static final int READ_BUFFER_SIZE = 1024 * 1024;
+
+    private final TransactionService transactionService;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Path directory;
+    private final int maxGroupSize;
+
+    // ReentrantLock замість synchronized: запис на диск під монітором закріплює віртуальний потік за потоком-носієм
+    private final ReentrantLock journalLock = new ReentrantLock();
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final ReentrantLock forceLock = new ReentrantLock();
+    private FileChannel journal;
+    private long checkpoint;
+    /** The number of bytes ever appended to the journal, not reset when the journal is truncated. */
+    private volatile long appendedBytes;
+    /** The number of appended bytes known to be on disk; guarded by {@code forceLock}. */
+    private long forcedBytes;
+
+    /**
+     * Constructs a new {@code TransactionJournalService} with the specified dependencies and settings.
+     *
+     * @param transactionService the service validating and saving sales
+     * @param objectMapper the mapper for writing and reading journal entries
+     * @param enabled whether sales are ingested asynchronously
+     * @param directory the directory of the journal and checkpoint files
+     * @param maxGroupSize the maximum number of sales saved in one database transaction
+     */
+    public TransactionJournalService(TransactionService transactionService, ObjectMapper objectMapper,
+        @Value("${pos.ingest.async.enabled:false}") boolean enabled,
+        @Value("${pos.ingest.journal-dir:journal}") String directory,
+        @Value("${pos.ingest.max-group-size:500}") int maxGroupSize) {
+        this.transactionService = transactionService;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.maxGroupSize = maxGroupSize;
+    }
+
+    /**
+     * Checks whether sales are ingested asynchronously through the journal.
+     *
+     * @return {@code true} if the asynchronous mode is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Opens the journal when the application starts. Sales left over from the previous run are saved
+     * by the first run of the background writer.
+     * An incomplete last entry, left by a crash in the middle of a write, is discarded; it was never acknowledged.
+     *
+     * @throws IOException if the journal or checkpoint file cannot be opened
+     */
+    @PostConstruct
+    public void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+
+        Files.createDirectories(directory);
+        journalLock.lock();
+        try {
+            journal = FileChannel.open(directory.resolve(JOURNAL_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            discardIncompleteEntry();
+            checkpoint = readCheckpoint();
+            if (checkpoint > journal.size()) {
+                checkpoint = 0;
+            }
+            logger.info("Transaction journal opened with " + (journal.size() - checkpoint) + " bytes to replay");
+        } finally {
+            journalLock.unlock();
+        }
+    }
+
+    /**
+     * Closes the journal when the application stops. Sales that have not been saved yet are replayed on the next start.
+     *
+     * @throws IOException if the journal cannot be closed
+     */
+    @PreDestroy
+    public void close() throws IOException {
+        journalLock.lock();
+        try {
+            if (journal != null) {
+                journal.close();
+                journal = null;
+            }
+        } finally {
+            journalLock.unlock();
+        }
+    }
+
+    /**
+     * Validates a sale and appends it to the journal.
+     * The entry is forced to disk before the method returns, so an acknowledged sale survives a crash.
+     * Sales appended while another submission forces the journal are forced together by the next one.
+     *
+     * @param dto the transaction data of the sale
+     * @return the accepted sale as a DTO, without an ID until it has been saved
+     * @throws IllegalArgumentException if the sale is invalid
+     * @throws IllegalStateException if the journal is not open
+     * @throws IOException if the sale cannot be written to the journal
+     */
+    public TransactionDto submit(TransactionDto dto) throws IOException {
+        JournaledSale sale = transactionService.prepareSale(dto);
+        byte[] json = objectMapper.writeValueAsBytes(sale);
+        ByteBuffer entry = ByteBuffer.allocate(json.length + 1).put(json).put((byte) '\n').flip();
+
+        FileChannel channel;
+        long appendedUpTo;
+        journalLock.lock();
+        try {
+            if (journal == null) {
+                throw new IllegalStateException("Transaction journal is not open");
+            }
+            channel = journal;
+            long position = journal.size();
+            while (entry.hasRemaining()) {
+                position += journal.write(entry, position);
+            }
+            appendedBytes += json.length + 1;
+            appendedUpTo = appendedBytes;
+        } finally {
+            journalLock.unlock();
+        }
+        forceUpTo(channel, appendedUpTo);
+        return sale.toTransactionDto();
+    }
+
+    /**
+     * Forces the journal to disk, unless a force that started after the entry was appended has already done so.
+     * The submission that takes the lock first forces everything appended so far, and the submissions that
+     * waited for it return without forcing again.
+     *
+     * @param channel the journal the entry was appended to
+     * @param appendedUpTo the number of appended bytes up to the end of the entry
+     * @throws IOException if the journal cannot be forced
+     */
+    private void forceUpTo(FileChannel channel, long appendedUpTo) throws IOException {
+        forceLock.lock();
+        try {
+            if (forcedBytes >= appendedUpTo) {
+                return;
+            }
+            // Усе, що дописано до цього моменту, потрапить на диск разом із власним записом
+            long target = appendedBytes;
+            channel.force(false);
+            forcedBytes = target;
+        } finally {
+            forceLock.unlock();
+        }
+    }
+
+    /**
+     * Saves the journaled sales to the database, one group commit at a time, until the journal is drained.
+     * If the database cannot be reached, the sales stay in the journal and are retried on the next run.
+     */
+    @Scheduled(fixedDelayString = "${pos.ingest.flush-interval-ms:200}")
+    public void drain() {
+        if (!enabled) {
+            return;
+        }
+
+        drainLock.lock();
+        try {
+            int processed;
+            do {
+                processed = drainGroup();
+            } while (processed > 0);
+        } catch (Exception e) {
+            logger.warning("Failed to save journaled sales, retrying later: " + e.getMessage());
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    /**
+     * Saves the next group of journaled sales in one database transaction and advances the checkpoint past them.
+     * If the group is rejected for any reason other than the database being unreachable, its sales are saved
+     * one by one, and the sales that are rejected on their own are moved to the dead-letter file.
+     * Once everything has been saved, the journal is truncated.
+     *
+     * @return the number of journal entries processed
+     * @throws IOException if the journal, checkpoint or dead-letter file cannot be accessed
+     */
+    private int drainGroup() throws IOException {
+        long end;
+        journalLock.lock();
+        try {
+            if (journal == null) {
+                return 0;
+            }
+            end = journal.size();
+        } finally {
+            journalLock.unlock();
+        }
+        if (checkpoint >= end) {
+            truncateIfDrained();
+            return 0;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(end - checkpoint, READ_BUFFER_SIZE));
+        while (buffer.hasRemaining()) {
+            if (journal.read(buffer, checkpoint + buffer.position()) < 0) {
+                break;
+            }
+        }
+
+        byte[] bytes = buffer.array();
+        List<JournalEntry> entries = new ArrayList<>();
+        int consumed = 0;
+        for (int i = 0; i < buffer.position() && entries.size() < maxGroupSize; i++) {
+            if (bytes[i] != '\n') {
+                continue;
+            }
+            byte[] line = Arrays.copyOfRange(bytes, consumed, i);
+            JournaledSale sale = null;
+            try {
+                sale = objectMapper.readValue(line, JournaledSale.class);
+            } catch (IOException e) {
+                logger.severe("Unreadable journal entry: " + new String(line, StandardCharsets.UTF_8));
+            }
+            entries.add(new JournalEntry(consumed, line, sale));
+            consumed = i + 1;
+        }
+        if (entries.isEmpty()) {
+            return 0;
+        }
+
+        List<JournaledSale> sales = entries.stream().map(JournalEntry::sale).filter(Objects::nonNull).toList();
+        try {
+            if (!sales.isEmpty()) {
+                int saved = transactionService.saveJournaledSales(sales);
+                logger.fine(() -> "Saved " + saved + " of " + sales.size() + " journaled sales");
+            }
+            for (JournalEntry entry : entries) {
+                if (entry.sale() == null) {
+                    deadLetter(entry.line(), "unreadable entry");
+                }
+            }
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                throw e;
+            }
+            logger.warning("Journaled group of " + sales.size() + " sales rejected, saving them one by one: "
+                + e.getMessage());
+            saveOneByOne(entries);
+        }
+        checkpoint += consumed;
+        writeCheckpoint(checkpoint);
+        return entries.size();
+    }
+
+    /**
+     * Saves the entries of a rejected group one at a time, moving the entries that cannot be saved
+     * to the dead-letter file. If the database becomes unreachable, the checkpoint is advanced
+     * up to the entry that failed, and the remaining entries are retried on the next run.
+     *
+     * @param entries the entries of the group, in journal order
+     * @throws IOException if the checkpoint or dead-letter file cannot be written
+     */
+    private void saveOneByOne(List<JournalEntry> entries) throws IOException {
+        for (JournalEntry entry : entries) {
+            if (entry.sale() == null) {
+                deadLetter(entry.line(), "unreadable entry");
+                continue;
+            }
+            try {
+                transactionService.saveJournaledSales(List.of(entry.sale()));
+            } catch (RuntimeException e) {
+                if (isTransient(e)) {
+                    // Попередні записи вже збережені або перенесені, тож повтор почнеться з цього
+                    checkpoint += entry.offset();
+                    writeCheckpoint(checkpoint);
+                    throw e;
+                }
+                deadLetter(entry.line(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Checks whether a failure to save sales is caused by the database being unreachable
+     * rather than by the sales themselves, so that saving them again later may succeed.
+     *
+     * @param failure the failure to check
+     * @return {@code true} if the failure is transient
+     */
+    private static boolean isTransient(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientDataAccessException || cause instanceof RecoverableDataAccessException
+                || cause instanceof DataAccessResourceFailureException
+                || cause instanceof CannotCreateTransactionException
+                || cause instanceof SQLTransientException || cause instanceof SQLRecoverableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Appends a journal entry that cannot be saved to the dead-letter file, to be inspected and resubmitted by hand.
+     *
+     * @param line the journal entry, without the line separator
+     * @param reason the reason the entry cannot be saved
+     * @throws IOException if the dead-letter file cannot be written
+     */
+    private void deadLetter(byte[] line, String reason) throws IOException {
+        ByteBuffer entry = ByteBuffer.allocate(line.length + 1).put(line).put((byte) '\n').flip();
+        try (FileChannel channel = FileChannel.open(directory.resolve(DEAD_LETTER_FILE),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (entry.hasRemaining()) {
+                channel.write(entry);
+            }
+            channel.force(false);
+        }
+        logger.severe("Journal entry moved to " + DEAD_LETTER_FILE + " (" + reason + "): "
+            + new String(line, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Truncates the journal once all of its entries have been saved, so that it does not grow without limit.
+     * The checkpoint is reset first; if the application stops in between, the journal is only replayed,
+     * and already saved sales are skipped.
+     *
+     * @throws IOException if the journal or checkpoint file cannot be written
+     */
+    private void truncateIfDrained() throws IOException {
+        journalLock.lock();
+        try {
+            if (checkpoint == 0 || checkpoint != journal.size()) {
+                return;
+            }
+            writeCheckpoint(0);
+            journal.truncate(0);
+            journal.force(true);
+            checkpoint = 0;
+        } finally {
+            journalLock.unlock();
+        }
+    }
+
+    /**
+     * Discards an incomplete last entry of the journal, so that new entries start on a new line.
+     *
+     * @throws IOException if the journal cannot be read or truncated
+     */
+    private void discardIncompleteEntry() throws IOException {
+        long size = journal.size();
+        ByteBuffer single = ByteBuffer.allocate(1);
+        long end = size;
+        while (end > 0) {
+            single.clear();
+            journal.read(single, end - 1);
+            if (single.get(0) == '\n') {
+                break;
+            }
+            end--;
+        }
+        if (end < size) {
+            logger.warning("Discarding " + (size - end) + " bytes of an incomplete journal entry");
+            journal.truncate(end);
+            journal.force(true);
+        }
+    }
+
+    /**
+     * Reads the checkpoint, the journal position up to which all sales have been saved.
+     *
+     * @return the checkpoint, or {@code 0} if no checkpoint has been written yet
+     * @throws IOException if the checkpoint file cannot be read
+     */
+    private long readCheckpoint() throws IOException {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        return Files.exists(file) ? Long.parseLong(Files.readString(file).trim()) : 0;
+    }
+
+    /**
+     * Writes the checkpoint atomically, by replacing the checkpoint file with a fully written temporary file.
+     *
+     * @param position the journal position up to which all sales have been saved
+     * @throws IOException if the checkpoint file cannot be written
+     */
+    private void writeCheckpoint(long position) throws IOException {
+        Path temporary = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(Long.toString(position).getBytes(StandardCharsets.UTF_8)));
+            channel.force(true);
+        }
+        Files.move(temporary, directory.resolve(CHECKPOINT_FILE),
+            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * An entry of the journal read by the background writer.
+     *
+     * @param offset the position of the entry, relative to the checkpoint
+     * @param line the entry, without the line separator
+     * @param sale the sale of the entry, or null if the entry cannot be read
+     */
+    private record JournalEntry(int offset, byte[] line, JournaledSale sale) {
+    }
+}
@@ -1,20 +1,38 @@
 package ua.toptar.toptarfuelstationpos.service;
 
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-import org.springframework.data.domain.Page;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ua.toptar.toptarfuelstationpos.config.PosMetrics;
+import ua.toptar.toptarfuelstationpos.dto.BatchItemResult;
+import ua.toptar.toptarfuelstationpos.dto.CursorPage;
+import ua.toptar.toptarfuelstationpos.dto.FuelSalesAggregate;
+import ua.toptar.toptarfuelstationpos.dto.FuelTypeCatalog;
+import ua.toptar.toptarfuelstationpos.dto.JournaledSale;
+import ua.toptar.toptarfuelstationpos.dto.TransactionCreatedEvent;
+import ua.toptar.toptarfuelstationpos.dto.TransactionCursor;
 import ua.toptar.toptarfuelstationpos.dto.TransactionDto;
+import ua.toptar.toptarfuelstationpos.dto.TransactionView;
+import ua.toptar.toptarfuelstationpos.dto.UserIdentity;
 import ua.toptar.toptarfuelstationpos.model.FuelType;
+import ua.toptar.toptarfuelstationpos.model.MinorUnits;
 import ua.toptar.toptarfuelstationpos.model.Transaction;
-import ua.toptar.toptarfuelstationpos.model.User;
 import ua.toptar.toptarfuelstationpos.repository.FuelTypeRepository;
 import ua.toptar.toptarfuelstationpos.repository.TransactionRepository;
 import ua.toptar.toptarfuelstationpos.repository.UserRepository;
@@ -31,212 +49,268 @@ import java.util.logging.Logger;
 public class TransactionService {
 
     private static final Logger logger = Logger.getLogger(TransactionService.class.getName());
-    private static final BigDecimal DISCOUNT_PER_LITER = BigDecimal.valueOf(2);
-
-    private static final String DAILY_PERIOD = "daily";
-    private static final String WEEKLY_PERIOD = "weekly";
-    private static final String MONTHLY_PERIOD = "monthly";
-
-    private static final String DAILY_FORMAT = "yyyy-MM-dd";
-    private static final String WEEKLY_FORMAT = "yyyy-'W'ww";
-    private static final String MONTHLY_FORMAT = "yyyy-MM";
-
-    private static final String INVALID_PERIOD_MESSAGE = "Invalid period: ";
+    private static final long DISCOUNT_KOPECKS_PER_LITER = 200;
 
     private final TransactionRepository transactionRepository;
     private final FuelTypeRepository fuelTypeRepository;
+    private final FuelTypeCatalogService fuelTypeCatalogService;
     private final UserRepository userRepository;
+    private final UserIdentityService userIdentityService;
+    private final SalesRollupService salesRollupService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PosMetrics posMetrics;
+    private final AnalyticsShardExecutor analyticsShardExecutor;
+    private final TransactionArchiveService transactionArchiveService;
+    private final AnalyticsResultCache analyticsResultCache;
 
     /**
      * Constructs a new {@code TransactionService} with the specified dependencies.
      *
      * @param transactionRepository the repository for accessing transaction data
      * @param fuelTypeRepository the repository for accessing fuel type data
+     * @param fuelTypeCatalogService the service holding the in-memory fuel type catalog
      * @param userRepository the repository for accessing user data
+     * @param userIdentityService the service resolving usernames to cached user identities
+     * @param salesRollupService the service maintaining the daily sales rollup
+     * @param eventPublisher the publisher notifying listeners of created transactions
+     * @param posMetrics the metrics of sales and analytics
+     * @param analyticsShardExecutor the executor folding long analytics ranges per month in parallel
+     * @param transactionArchiveService the service reading the archived months of the listings
+     * @param analyticsResultCache the cache of the analytics series
      */
     public TransactionService(TransactionRepository transactionRepository,
         FuelTypeRepository fuelTypeRepository,
-        UserRepository userRepository) {
+        FuelTypeCatalogService fuelTypeCatalogService,
+        UserRepository userRepository,
+        UserIdentityService userIdentityService,
+        SalesRollupService salesRollupService,
+        ApplicationEventPublisher eventPublisher,
+        PosMetrics posMetrics,
+        AnalyticsShardExecutor analyticsShardExecutor,
+        TransactionArchiveService transactionArchiveService,
+        AnalyticsResultCache analyticsResultCache) {
         this.transactionRepository = transactionRepository;
         this.fuelTypeRepository = fuelTypeRepository;
+        this.fuelTypeCatalogService = fuelTypeCatalogService;
         this.userRepository = userRepository;
+        this.userIdentityService = userIdentityService;
+        this.salesRollupService = salesRollupService;
+        this.eventPublisher = eventPublisher;
+        this.posMetrics = posMetrics;
+        this.analyticsShardExecutor = analyticsShardExecutor;
+        this.transactionArchiveService = transactionArchiveService;
+        this.analyticsResultCache = analyticsResultCache;
     }
 
     /**
      * Creates a new transaction based on the provided transaction data.
      * Applies a discount for authenticated users and associates the transaction with the user.
+     * The fuel type and its price are taken from the in-memory catalog and the user from the identity cache,
+     * so neither is queried from the database.
+     * The daily sales rollup is updated in the same database transaction,
+     * and a {@code TransactionCreatedEvent} is published for listeners keeping in-memory totals.
+     * The duration of the sale is recorded separately for guests and logged-in users.
      *
      * @param dto the transaction data to create
      * @return the created transaction as a DTO
      * @throws IllegalArgumentException if the fuel type ID is null, invalid, or if volume/total amount is not provided correctly
      * @throws IllegalStateException if the authenticated user or guest user is not found
      */
+    @Transactional
     public TransactionDto createTransaction(TransactionDto dto) {
-        logger.info("Creating transaction with fuelTypeId: " + dto.getFuelTypeId());
-        if (dto.getFuelTypeId() == null) {
-            throw new IllegalArgumentException("Fuel type ID cannot be null");
-        }
-
-        FuelType fuelType = fuelTypeRepository.findById(dto.getFuelTypeId())
-            .orElseThrow(() -> new IllegalArgumentException("Invalid fuel type ID: " + dto.getFuelTypeId()));
-        logger.info("Fuel type found: " + fuelType.getName());
-
-        Transaction transaction = new Transaction();
-        transaction.setFuelType(fuelType);
-        transaction.setFuelTypeName(fuelType.getName());
-        transaction.setTransactionDate(LocalDateTime.now());
-
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        boolean isAuthenticated = authentication != null && authentication.isAuthenticated() &&
-            !"anonymousUser".equals(authentication.getPrincipal());
-        BigDecimal pricePerLiter = fuelType.getPricePerLiter();
-
-        if (isAuthenticated) {
-            String username = authentication.getName();
-            User currentUser = userRepository.findByUsername(username)
-                .orElseThrow(() -> new IllegalStateException("User not found: " + username));
-            transaction.setUser(currentUser);
+        boolean isAuthenticated = isAuthenticated();
+        return posMetrics.recordSale(isAuthenticated, () -> {
+            logger.info("Creating transaction with fuelTypeId: " + dto.getFuelTypeId());
+            FuelType fuelType = findFuelType(fuelTypeCatalogService.getCatalog(), dto);
+            logger.info("Fuel type found: " + fuelType.getName());
+
+            UserIdentity user = resolveCurrentUser(isAuthenticated);
+            Transaction transaction = linkReferences(buildTransaction(dto, fuelType, isAuthenticated, LocalDateTime.now()),
+                fuelType.getId(), user.id());
+
+            Transaction savedTransaction = transactionRepository.save(transaction);
+            salesRollupService.record(savedTransaction);
+            eventPublisher.publishEvent(new TransactionCreatedEvent(savedTransaction));
+            return mapToDto(savedTransaction, user.username());
+        });
+    }
 
-            pricePerLiter = pricePerLiter.subtract(DISCOUNT_PER_LITER);
-            if (pricePerLiter.compareTo(BigDecimal.ZERO) < 0) {
-                pricePerLiter = BigDecimal.ZERO;
+    /**
+     * Creates several transactions at once, validating each of them with the same rules as {@link #createTransaction}.
+     * Valid transactions are saved together, so their inserts are sent to the database in JDBC batches,
+     * and the daily sales rollup is updated once per day and fuel type of the batch.
+     * Invalid transactions are skipped and reported without affecting the others.
+     * Every sale of the batch is timed like a single sale, with an equal share of the batch duration.
+     *
+     * @param dtos the transaction data to create
+     * @return the result of every item, in the order of the input
+     * @throws IllegalStateException if the authenticated user or guest user is not found
+     */
+    @Transactional
+    public List<BatchItemResult> createTransactions(List<TransactionDto> dtos) {
+        boolean isAuthenticated = isAuthenticated();
+        return posMetrics.recordSales(isAuthenticated, dtos.size(), () -> {
+            FuelTypeCatalog catalog = fuelTypeCatalogService.getCatalog();
+            UserIdentity user = resolveCurrentUser(isAuthenticated);
+            LocalDateTime now = LocalDateTime.now();
+
+            BatchItemResult[] results = new BatchItemResult[dtos.size()];
+            List<Transaction> transactions = new ArrayList<>(dtos.size());
+            List<Integer> positions = new ArrayList<>(dtos.size());
+            for (int i = 0; i < dtos.size(); i++) {
+                TransactionDto dto = dtos.get(i);
+                try {
+                    FuelType fuelType = findFuelType(catalog, dto);
+                    transactions.add(linkReferences(buildTransaction(dto, fuelType, isAuthenticated, now),
+                        fuelType.getId(), user.id()));
+                    positions.add(i);
+                } catch (IllegalArgumentException e) {
+                    results[i] = BatchItemResult.failed(i, e.getMessage());
+                }
             }
-        } else {
-            User guestUser = userRepository.findByUsername("guest")
-                .orElseThrow(() -> new IllegalStateException("Guest user not found"));
-            transaction.setUser(guestUser);
-        }
 
-        transaction.setPricePerLiter(pricePerLiter);
-
-        if (dto.getTotalAmount() != null && dto.getVolume() == null) {
-            transaction.setTotalAmount(dto.getTotalAmount());
-            transaction.setVolume(dto.getTotalAmount().divide(pricePerLiter, 2, BigDecimal.ROUND_HALF_UP));
-        } else if (dto.getVolume() != null) {
-            transaction.setVolume(dto.getVolume());
-            transaction.setTotalAmount(dto.getVolume().multiply(pricePerLiter));
-        } else {
-            throw new IllegalArgumentException("Either volume or totalAmount must be provided");
-        }
-
-        if (transaction.getVolume().compareTo(BigDecimal.ONE) < 0) {
-            throw new IllegalArgumentException("Volume must be at least 1 liter");
-        }
+            List<Transaction> savedTransactions = transactionRepository.saveAll(transactions);
+            salesRollupService.recordAll(savedTransactions);
+            for (int i = 0; i < savedTransactions.size(); i++) {
+                Transaction savedTransaction = savedTransactions.get(i);
+                eventPublisher.publishEvent(new TransactionCreatedEvent(savedTransaction));
+                int position = positions.get(i);
+                results[position] = BatchItemResult.succeeded(position, mapToDto(savedTransaction, user.username()));
+            }
 
-        Transaction savedTransaction = transactionRepository.save(transaction);
-        return mapToDto(savedTransaction);
+            logger.info("Created " + savedTransactions.size() + " of " + dtos.size() + " transactions in a batch");
+            return Arrays.asList(results);
+        }, results -> (int) results.stream().filter(BatchItemResult::success).count());
     }
 
     /**
-     * Retrieves a paginated list of all transactions.
+     * Validates a sale with the same rules as {@link #createTransaction} and prepares it for the transaction journal.
+     * Nothing is written to the database; the sale gets a unique key so that it is saved at most once.
      *
-     * @param page the page number to retrieve
-     * @param size the number of transactions per page
-     * @return a paginated list of transactions as DTOs
+     * @param dto the transaction data of the sale
+     * @return the validated sale
+     * @throws IllegalArgumentException if the fuel type ID is null, invalid, or if volume/total amount is not provided correctly
+     * @throws IllegalStateException if the authenticated user or guest user is not found
      */
-    public Page<TransactionDto> getAllTransactions(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        return transactionRepository.findAll(pageable)
-            .map(this::mapToDto);
+    public JournaledSale prepareSale(TransactionDto dto) {
+        FuelType fuelType = findFuelType(fuelTypeCatalogService.getCatalog(), dto);
+        boolean isAuthenticated = isAuthenticated();
+        UserIdentity user = resolveCurrentUser(isAuthenticated);
+        Transaction transaction = buildTransaction(dto, fuelType, isAuthenticated, LocalDateTime.now());
+        return new JournaledSale(UUID.randomUUID().toString(), fuelType.getId(), transaction.getFuelTypeName(),
+            transaction.getPricePerLiter(), transaction.getVolume(), transaction.getTotalAmount(),
+            transaction.getTransactionDate(), user.id(), user.username());
     }
 
     /**
-     * Retrieves the most recent transactions, limited to 5 entries, sorted by transaction date in ascending order.
+     * Saves sales drained from the transaction journal in a single database transaction.
+     * Sales whose key has already been saved, for example before a restart, are skipped,
+     * so replaying the journal never creates duplicates.
      *
-     * @return a paginated list of recent transactions as DTOs
+     * @param sales the sales to save
+     * @return the number of sales that were saved
      */
-    public Page<TransactionDto> getRecentTransactions() {
-        Pageable pageable = PageRequest.of(0, 5, Sort.by("transactionDate").ascending());
-        return transactionRepository.findAll(pageable)
-            .map(this::mapToDto);
+    @Transactional
+    public int saveJournaledSales(List<JournaledSale> sales) {
+        Set<String> savedKeys = new HashSet<>(transactionRepository.findExistingIngestKeys(
+            sales.stream().map(JournaledSale::ingestKey).toList()));
+
+        List<Transaction> transactions = new ArrayList<>(sales.size());
+        for (JournaledSale sale : sales) {
+            if (savedKeys.contains(sale.ingestKey())) {
+                continue;
+            }
+            Transaction transaction = new Transaction();
+            transaction.setIngestKey(sale.ingestKey());
+            transaction.setFuelTypeName(sale.fuelTypeName());
+            transaction.setPricePerLiter(sale.pricePerLiter());
+            transaction.setVolume(sale.volume());
+            transaction.setTotalAmount(sale.totalAmount());
+            transaction.setTransactionDate(sale.transactionDate());
+            transactions.add(linkReferences(transaction, sale.fuelTypeId(), sale.userId()));
+        }
+
+        List<Transaction> savedTransactions = transactionRepository.saveAll(transactions);
+        salesRollupService.recordAll(savedTransactions);
+        savedTransactions.forEach(savedTransaction ->
+            eventPublisher.publishEvent(new TransactionCreatedEvent(savedTransaction)));
+        return savedTransactions.size();
     }
 
     /**
-     * Retrieves a paginated list of transactions for a specific user.
+     * Retrieves the most recent transactions, limited to 5 entries, sorted by transaction date in ascending order.
+     * The transactions are read as a slice, so no count query is run.
      *
-     * @param userId the ID of the user
-     * @param page the page number to retrieve
-     * @param size the number of transactions per page
-     * @return a paginated list of transactions for the specified user as DTOs
+     * @return a slice of recent transactions as DTOs
      */
-    public Page<TransactionDto> getUserTransactions(Long userId, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        return transactionRepository.findByUserId(userId, pageable)
+    public Slice<TransactionDto> getRecentTransactions() {
+        Pageable pageable = PageRequest.of(0, 5, Sort.by("transactionDate").ascending());
+        return transactionRepository.findSliceBy(pageable)
             .map(this::mapToDto);
     }
 
     /**
-     * Retrieves a paginated list of transactions for a specific user with optional filtering by fuel type and start date.
+     * Retrieves a page of transactions, newest first, with optional filtering by fuel type and start date.
+     * Pages are read by keyset pagination, so every page costs the same regardless of how deep it is,
+     * and the total count is only queried on request.
      *
-     * @param userId the ID of the user
-     * @param page the page number to retrieve
+     * @param cursor the cursor of the page to retrieve, or null for the first page
      * @param size the number of transactions per page
      * @param fuelTypeName the name of the fuel type to filter by, can be null
      * @param startDate the start date to filter transactions, can be null
-     * @return a paginated list of filtered transactions for the specified user as DTOs
+     * @param withTotal whether to count all matching transactions as well
+     * @return the page of filtered transactions as DTOs
+     * @throws IllegalArgumentException if the cursor is invalid
      */
-    public Page<TransactionDto> getFilteredUserTransactions(Long userId, int page, int size, String fuelTypeName, LocalDateTime startDate) {
-        PageRequest pageRequest = PageRequest.of(page, size, Sort.by("transactionDate").descending());
-        Page<Transaction> transactions;
-
-        if (fuelTypeName != null && !fuelTypeName.isEmpty() && startDate != null) {
-            transactions = transactionRepository.findByUserIdAndFuelTypeNameAndTransactionDateAfter(
-                userId, fuelTypeName, startDate, pageRequest);
-        } else if (fuelTypeName != null && !fuelTypeName.isEmpty()) {
-            transactions = transactionRepository.findByUserIdAndFuelTypeName(userId, fuelTypeName, pageRequest);
-        } else if (startDate != null) {
-            transactions = transactionRepository.findByUserIdAndTransactionDateAfter(userId, startDate, pageRequest);
-        } else {
-            transactions = transactionRepository.findByUserId(userId, pageRequest);
-        }
-
-        return transactions.map(this::mapToDto);
+    public CursorPage<TransactionDto> getTransactionsPage(String cursor, int size, String fuelTypeName,
+        LocalDateTime startDate, boolean withTotal) {
+        return findPage(null, cursor, size, fuelTypeName, startDate, withTotal);
     }
 
     /**
-     * Retrieves a paginated list of transactions with optional filtering by fuel type and start date.
+     * Retrieves a page of transactions of a specific user, newest first, with optional filtering
+     * by fuel type and start date. Pages are read by keyset pagination.
      *
-     * @param page the page number to retrieve
+     * @param userId the ID of the user
+     * @param cursor the cursor of the page to retrieve, or null for the first page
      * @param size the number of transactions per page
      * @param fuelTypeName the name of the fuel type to filter by, can be null
      * @param startDate the start date to filter transactions, can be null
-     * @return a paginated list of filtered transactions as DTOs
+     * @param withTotal whether to count all matching transactions of the user as well
+     * @return the page of filtered transactions of the user as DTOs
+     * @throws IllegalArgumentException if the cursor is invalid
      */
-    public Page<TransactionDto> getFilteredTransactions(int page, int size, String fuelTypeName, LocalDateTime startDate) {
-        Pageable pageable = PageRequest.of(page, size);
-        if (fuelTypeName != null && !fuelTypeName.isEmpty() && startDate != null) {
-            return transactionRepository.findByFuelTypeNameAndTransactionDateAfter(fuelTypeName, startDate, pageable)
-                .map(this::mapToDto);
-        } else if (fuelTypeName != null && !fuelTypeName.isEmpty()) {
-            return transactionRepository.findByFuelTypeName(fuelTypeName, pageable)
-                .map(this::mapToDto);
-        } else if (startDate != null) {
-            return transactionRepository.findByTransactionDateAfter(startDate, pageable)
-                .map(this::mapToDto);
-        } else {
-            return transactionRepository.findAll(pageable)
-                .map(this::mapToDto);
-        }
+    public CursorPage<TransactionDto> getUserTransactionsPage(Long userId, String cursor, int size,
+        String fuelTypeName, LocalDateTime startDate, boolean withTotal) {
+        return findPage(userId, cursor, size, fuelTypeName, startDate, withTotal);
     }
 
     /**
      * Calculates the total sales volume by fuel type within a specified date range.
+     * The values are read from daily sales aggregates instead of individual transactions,
+     * per month in parallel for ranges longer than a year.
      *
      * @param startDate the start date of the range, can be null
      * @param endDate the end date of the range, can be null
      * @return a map of fuel type names to their total sales volume
      */
     public Map<String, BigDecimal> getSalesByFuelType(LocalDateTime startDate, LocalDateTime endDate) {
-        List<Transaction> transactions = fetchTransactionsByDateRange(startDate, endDate);
-        return transactions.stream()
-            .collect(Collectors.groupingBy(
-                Transaction::getFuelTypeName,
-                Collectors.mapping(Transaction::getVolume, Collectors.reducing(BigDecimal.ZERO, BigDecimal::add))
-            ));
+        return posMetrics.recordAnalytics("salesByFuelType", "all", () -> analyticsShardExecutor.foldDailySales(
+            salesRollupService, startDate, endDate,
+            dailySales -> {
+                LongTotals<String> totals = new LongTotals<>();
+                for (FuelSalesAggregate row : dailySales) {
+                    totals.add(row.fuelTypeName(), row.volumeMillilitres());
+                }
+                return totals;
+            },
+            LongTotals::merge).toDecimals(MinorUnits::fromMillilitres));
     }
 
     /**
      * Calculates the revenue by fuel type, grouped by the specified period (daily, weekly, or monthly).
+     * The values are read from daily sales aggregates instead of individual transactions,
+     * per month in parallel for ranges longer than a year, and the result is cached for the range.
      *
      * @param startDate the start date of the range, can be null
      * @param endDate the end date of the range, can be null
@@ -245,20 +319,13 @@ public class TransactionService {
      * @throws IllegalArgumentException if the period is invalid
      */
     public Map<String, Map<String, BigDecimal>> getRevenueByFuelTypeGroupedByPeriod(LocalDateTime startDate, LocalDateTime endDate, String period) {
-        List<Transaction> transactions = fetchTransactionsByDateRange(startDate, endDate);
-
-        return transactions.stream()
-            .collect(Collectors.groupingBy(
-                Transaction::getFuelTypeName,
-                Collectors.groupingBy(
-                    transaction -> formatTransactionDateByPeriod(transaction.getTransactionDate(), period),
-                    Collectors.mapping(Transaction::getTotalAmount, Collectors.reducing(BigDecimal.ZERO, BigDecimal::add))
-                )
-            ));
+        return getSeries("revenueByFuelType", SalesSeries.REVENUE, period, startDate, endDate).toFuelTypeDecimals();
     }
 
     /**
      * Calculates the sales volume by fuel type, grouped by the specified period (daily, weekly, or monthly).
+     * The values are read from daily sales aggregates instead of individual transactions,
+     * per month in parallel for ranges longer than a year, and the result is cached for the range.
      *
      * @param startDate the start date of the range, can be null
      * @param endDate the end date of the range, can be null
@@ -267,20 +334,13 @@ public class TransactionService {
      * @throws IllegalArgumentException if the period is invalid
      */
     public Map<String, Map<String, BigDecimal>> getSalesByFuelTypeGroupedByPeriod(LocalDateTime startDate, LocalDateTime endDate, String period) {
-        List<Transaction> transactions = fetchTransactionsByDateRange(startDate, endDate);
-
-        return transactions.stream()
-            .collect(Collectors.groupingBy(
-                Transaction::getFuelTypeName,
-                Collectors.groupingBy(
-                    transaction -> formatTransactionDateByPeriod(transaction.getTransactionDate(), period),
-                    Collectors.mapping(Transaction::getVolume, Collectors.reducing(BigDecimal.ZERO, BigDecimal::add))
-                )
-            ));
+        return getSeries("salesByFuelType", SalesSeries.SALES, period, startDate, endDate).toFuelTypeDecimals();
     }
 
     /**
      * Calculates the total revenue, grouped by the specified period (daily, weekly, or monthly).
+     * The values are read from daily sales aggregates instead of individual transactions,
+     * per month in parallel for ranges longer than a year, and the result is cached for the range.
      *
      * @param startDate the start date of the range, can be null
      * @param endDate the end date of the range, can be null
@@ -289,44 +349,251 @@ public class TransactionService {
      * @throws IllegalArgumentException if the period is invalid
      */
     public Map<String, BigDecimal> getTotalRevenueGroupedByPeriod(LocalDateTime startDate, LocalDateTime endDate, String period) {
-        List<Transaction> transactions = fetchTransactionsByDateRange(startDate, endDate);
+        return getSeries("totalRevenue", SalesSeries.TOTAL_REVENUE, period, startDate, endDate).toTotalDecimals();
+    }
 
-        return transactions.stream()
-            .collect(Collectors.groupingBy(
-                transaction -> formatTransactionDateByPeriod(transaction.getTransactionDate(), period),
-                Collectors.mapping(Transaction::getTotalAmount, Collectors.reducing(BigDecimal.ZERO, BigDecimal::add))
-            ));
+    /**
+     * Returns a tag of the current state of the analytics series, which changes after every committed sale.
+     * Read before a series is requested, it lets a copy of the series be validated without computing it.
+     *
+     * @return the tag of the current state of the analytics series
+     */
+    public String getAnalyticsVersion() {
+        return analyticsResultCache.versionTag();
     }
 
     /**
-     * Fetches transactions within the specified date range.
-     * If the date range is not provided, retrieves all transactions.
+     * Reads an analytics series from the cache, folding it from the daily sales aggregates if it is not cached.
+     * Only the computation is timed.
      *
+     * @param operation the name of the computation in the metrics
+     * @param metric the metric of the series
+     * @param period the period to group by
      * @param startDate the start date of the range, can be null
      * @param endDate the end date of the range, can be null
-     * @return a list of transactions within the specified date range
+     * @return the series
+     * @throws IllegalArgumentException if the period is invalid
      */
-    private List<Transaction> fetchTransactionsByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        return startDate != null && endDate != null
-            ? transactionRepository.findByTransactionDateBetween(startDate, endDate)
-            : transactionRepository.findAll();
+    private SalesSeries getSeries(String operation, String metric, String period, LocalDateTime startDate,
+        LocalDateTime endDate) {
+        return analyticsResultCache.get(metric, period, startDate, endDate,
+            () -> posMetrics.recordAnalytics(operation, period, () -> analyticsShardExecutor.foldDailySales(
+                salesRollupService, startDate, endDate,
+                dailySales -> new SalesSeries(metric, period).addAll(dailySales),
+                SalesSeries::merge)));
     }
 
     /**
-     * Formats a transaction date based on the specified period (daily, weekly, or monthly).
+     * Finds the fuel type of the transaction data in the catalog.
      *
-     * @param date the transaction date to format
-     * @param period the period to format by ("daily", "weekly", or "monthly")
-     * @return the formatted date string
-     * @throws IllegalArgumentException if the period is invalid
+     * @param catalog the fuel type catalog snapshot
+     * @param dto the transaction data
+     * @return the fuel type of the transaction
+     * @throws IllegalArgumentException if the fuel type ID is null or invalid
      */
-    private String formatTransactionDateByPeriod(LocalDateTime date, String period) {
-        return switch (period) {
-            case DAILY_PERIOD -> date.format(DateTimeFormatter.ofPattern(DAILY_FORMAT));
-            case WEEKLY_PERIOD -> date.format(DateTimeFormatter.ofPattern(WEEKLY_FORMAT));
-            case MONTHLY_PERIOD -> date.format(DateTimeFormatter.ofPattern(MONTHLY_FORMAT));
-            default -> throw new IllegalArgumentException(INVALID_PERIOD_MESSAGE + period);
-        };
+    private FuelType findFuelType(FuelTypeCatalog catalog, TransactionDto dto) {
+        if (dto.getFuelTypeId() == null) {
+            throw new IllegalArgumentException("Fuel type ID cannot be null");
+        }
+        return catalog.findById(dto.getFuelTypeId())
+            .orElseThrow(() -> new IllegalArgumentException("Invalid fuel type ID: " + dto.getFuelTypeId()));
+    }
+
+    /**
+     * Checks whether the current request is made by a logged-in user.
+     *
+     * @return {@code true} if a user is logged in, {@code false} for guests
+     */
+    private boolean isAuthenticated() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() &&
+            !"anonymousUser".equals(authentication.getPrincipal());
+    }
+
+    /**
+     * Resolves the user that new transactions are recorded for.
+     *
+     * @param isAuthenticated whether a user is logged in
+     * @return the logged-in user, or the guest user
+     * @throws IllegalStateException if the authenticated user or guest user is not found
+     */
+    private UserIdentity resolveCurrentUser(boolean isAuthenticated) {
+        if (!isAuthenticated) {
+            return userIdentityService.getGuest();
+        }
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        return userIdentityService.findByUsername(username)
+            .orElseThrow(() -> new IllegalStateException("User not found: " + username));
+    }
+
+    /**
+     * Builds a new, unsaved transaction from the transaction data.
+     * Applies the discount for logged-in users and calculates the volume, rounded half up to centilitres,
+     * or the total amount, rounded half up to kopecks, in fixed-point minor units.
+     * A volume or total amount given with more decimals than stored is rounded half up to two decimals.
+     * The fuel type and user associations are left for the caller to set.
+     *
+     * @param dto the transaction data
+     * @param fuelType the fuel type of the transaction, from the catalog
+     * @param discounted whether the discount for logged-in users applies
+     * @param transactionDate the date of the transaction
+     * @return the built transaction
+     * @throws IllegalArgumentException if volume/total amount is not provided correctly, or a total amount is given
+     *                                  for a price of zero
+     */
+    private Transaction buildTransaction(TransactionDto dto, FuelType fuelType, boolean discounted,
+        LocalDateTime transactionDate) {
+        Transaction transaction = new Transaction();
+        transaction.setFuelTypeName(fuelType.getName());
+        transaction.setTransactionDate(transactionDate);
+
+        // Ціна, сума й об'єм рахуються в копійках і мілілітрах, у BigDecimal переводяться лише для збереження
+        long pricePerLiter = MinorUnits.toKopecks(fuelType.getPricePerLiter());
+        if (discounted) {
+            pricePerLiter = Math.max(pricePerLiter - DISCOUNT_KOPECKS_PER_LITER, 0);
+        }
+        transaction.setPricePerLiter(MinorUnits.fromKopecks(pricePerLiter));
+
+        // Введені значення із зайвими знаками округлюються половиною вгору, як і при збереженні в базу
+        long volume;
+        if (dto.getTotalAmount() != null && dto.getVolume() == null) {
+            if (pricePerLiter == 0) {
+                throw new IllegalArgumentException("Total amount cannot be converted to volume at a zero price");
+            }
+            long totalAmount = MinorUnits.toKopecks(dto.getTotalAmount());
+            volume = MinorUnits.volumeOf(totalAmount, pricePerLiter);
+            transaction.setTotalAmount(MinorUnits.fromKopecks(totalAmount));
+        } else if (dto.getVolume() != null) {
+            // Сума рахується з введеного об'єму до його округлення, тож не залежить від кількості знаків
+            long amount = MinorUnits.toKopecks(dto.getVolume().multiply(MinorUnits.fromKopecks(pricePerLiter)));
+            volume = MinorUnits.toStoredMillilitres(dto.getVolume());
+            transaction.setTotalAmount(MinorUnits.fromKopecks(amount));
+        } else {
+            throw new IllegalArgumentException("Either volume or totalAmount must be provided");
+        }
+        transaction.setVolume(MinorUnits.fromMillilitres(volume));
+
+        // Введений об'єм перевіряється до округлення, об'єм за сумою — таким, як його збережено
+        BigDecimal litres = dto.getVolume() != null ? dto.getVolume() : transaction.getVolume();
+        if (litres.compareTo(BigDecimal.ONE) < 0) {
+            throw new IllegalArgumentException("Volume must be at least 1 liter");
+        }
+        return transaction;
+    }
+
+    /**
+     * Sets the fuel type and user associations of a transaction to references, without loading either entity.
+     *
+     * @param transaction the transaction to update
+     * @param fuelTypeId the ID of the fuel type
+     * @param userId the ID of the user
+     * @return the updated transaction
+     */
+    private Transaction linkReferences(Transaction transaction, Long fuelTypeId, Long userId) {
+        transaction.setFuelType(fuelTypeRepository.getReferenceById(fuelTypeId));
+        transaction.setUser(userRepository.getReferenceById(userId));
+        return transaction;
+    }
+
+    /**
+     * Reads a page of a transaction listing from the position of a cursor.
+     * One transaction more than the page size is read to find out whether the listing continues.
+     * The transactions are read as projections, so no entities are loaded.
+     * The page is read from the transactions table and completed from the archive only where it reaches
+     * the archived months, so a listing of recent sales never reads the archive table.
+     *
+     * @param userId the ID of the user to filter by, can be null
+     * @param cursor the cursor of the page to read, or null for the first page
+     * @param size the number of transactions per page
+     * @param fuelTypeName the name of the fuel type to filter by, can be null
+     * @param startDate the start date to filter transactions, can be null
+     * @param withTotal whether to count all matching transactions as well
+     * @return the page of transactions as DTOs
+     * @throws IllegalArgumentException if the cursor is invalid
+     */
+    private CursorPage<TransactionDto> findPage(Long userId, String cursor, int size, String fuelTypeName,
+        LocalDateTime startDate, boolean withTotal) {
+        String fuelType = fuelTypeName != null && !fuelTypeName.isEmpty() ? fuelTypeName : null;
+        TransactionCursor position = cursor != null && !cursor.isEmpty() ? TransactionCursor.decode(cursor) : null;
+        Limit limit = Limit.of(size + 1);
+
+        List<TransactionView> transactions;
+        // Архівні місяці старші за всі транзакції основної таблиці, тож сторінка дочитується з іншої таблиці
+        if (position == null) {
+            transactions = readOn(transactionRepository.findListingFirst(userId, fuelType, startDate, limit), limit,
+                rest -> transactionArchiveService.findListingFirst(userId, fuelType, startDate, rest));
+        } else if (position.direction() == TransactionCursor.Direction.NEXT) {
+            transactions = readOn(transactionRepository.findListingAfter(
+                    userId, fuelType, startDate, position.transactionDate(), position.id(), limit), limit,
+                rest -> transactionArchiveService.findListingAfter(
+                    userId, fuelType, startDate, position.transactionDate(), position.id(), rest));
+        } else {
+            transactions = readOn(transactionArchiveService.findListingBefore(
+                    userId, fuelType, startDate, position.transactionDate(), position.id(), limit), limit,
+                rest -> transactionRepository.findListingBefore(
+                    userId, fuelType, startDate, position.transactionDate(), position.id(), rest));
+        }
+
+        boolean hasMore = transactions.size() > size;
+        List<TransactionView> content = new ArrayList<>(hasMore ? transactions.subList(0, size) : transactions);
+        boolean backward = position != null && position.direction() == TransactionCursor.Direction.PREVIOUS;
+        if (backward) {
+            if (!hasMore) {
+                // Дійшли до початку списку, тому повертаємо повну першу сторінку
+                return findPage(userId, null, size, fuelTypeName, startDate, withTotal);
+            }
+            Collections.reverse(content);
+        }
+
+        boolean hasNext = backward || hasMore;
+        boolean hasPrevious = backward || position != null;
+        String nextCursor = hasNext && !content.isEmpty()
+            ? cursorOf(TransactionCursor.Direction.NEXT, content.get(content.size() - 1))
+            : null;
+        String previousCursor = hasPrevious && !content.isEmpty()
+            ? cursorOf(TransactionCursor.Direction.PREVIOUS, content.get(0))
+            : null;
+        Long totalElements = withTotal
+            ? transactionRepository.countListing(userId, fuelType, startDate)
+                + transactionArchiveService.countListing(userId, fuelType, startDate)
+            : null;
+        return new CursorPage<>(content.stream().map(TransactionView::toTransactionDto).toList(),
+            nextCursor, previousCursor, totalElements);
+    }
+
+    /**
+     * Completes a page read from one table with the transactions that follow it in the other table.
+     * The other table is only read if the first one did not fill the page.
+     *
+     * @param transactions the transactions read from the first table
+     * @param limit the number of transactions to read
+     * @param next the query reading the rest of the page from the other table
+     * @return the transactions of both tables, in listing order
+     */
+    private static List<TransactionView> readOn(List<TransactionView> transactions, Limit limit,
+        Function<Limit, List<TransactionView>> next) {
+        int missing = limit.max() - transactions.size();
+        if (missing <= 0) {
+            return transactions;
+        }
+        List<TransactionView> rest = next.apply(Limit.of(missing));
+        if (rest.isEmpty()) {
+            return transactions;
+        }
+        List<TransactionView> combined = new ArrayList<>(transactions);
+        combined.addAll(rest);
+        return combined;
+    }
+
+    /**
+     * Encodes the position of a transaction as a cursor.
+     *
+     * @param direction the direction to read in from the transaction
+     * @param transaction the transaction at the position
+     * @return the encoded cursor
+     */
+    private String cursorOf(TransactionCursor.Direction direction, TransactionView transaction) {
+        return new TransactionCursor(direction, transaction.transactionDate(), transaction.id()).encode();
     }
 
     /**
@@ -336,6 +603,18 @@ public class TransactionService {
      * @return the mapped transaction DTO
      */
     private TransactionDto mapToDto(Transaction transaction) {
+        return mapToDto(transaction, transaction.getUser() != null ? transaction.getUser().getUsername() : null);
+    }
+
+    /**
+     * Maps a {@code Transaction} entity to a {@code TransactionDto} with an already known username.
+     * The user association of the transaction is not read, so an uninitialized user reference stays unloaded.
+     *
+     * @param transaction the transaction entity to map
+     * @param username the username of the user of the transaction, can be null
+     * @return the mapped transaction DTO
+     */
+    private TransactionDto mapToDto(Transaction transaction, String username) {
         TransactionDto dto = new TransactionDto();
         dto.setId(transaction.getId());
         dto.setFuelTypeId(transaction.getFuelType().getId());
@@ -344,7 +623,7 @@ public class TransactionService {
         dto.setVolume(transaction.getVolume());
         dto.setTotalAmount(transaction.getTotalAmount());
         dto.setTransactionDate(transaction.getTransactionDate());
-        dto.setUsername(transaction.getUser() != null ? transaction.getUser().getUsername() : null);
+        dto.setUsername(username);
         return dto;
     }
 }
\ No newline at end of file
@@ -0,0 +1,115 @@
+package ua.toptar.toptarfuelstationpos.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Logger;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import ua.toptar.toptarfuelstationpos.config.PosMetrics;
+import ua.toptar.toptarfuelstationpos.dto.UserIdentity;
+import ua.toptar.toptarfuelstationpos.repository.UserRepository;
+
+/**
+ * Service class resolving usernames to user identities.
+ * Keeps a bounded cache of recently used identities, evicting the least recently used one when full,
+ * and pins the guest user, so that recording a sale does not query the users table.
+ */
+@Service
+public class UserIdentityService {
+
+    private static final Logger logger = Logger.getLogger(UserIdentityService.class.getName());
+    private static final String GUEST_USERNAME = "guest";
+    private static final int MAX_CACHED_USERS = 1000;
+    private static final String CACHE_NAME = "userIdentities";
+
+    private final UserRepository userRepository;
+    private final PosMetrics posMetrics;
+    private final Map<String, UserIdentity> identities = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, UserIdentity> eldest) {
+            return size() > MAX_CACHED_USERS;
+        }
+    };
+    private volatile UserIdentity guest;
+
+    /**
+     * Constructs a new {@code UserIdentityService} with the specified dependencies.
+     *
+     * @param userRepository the repository for accessing user data
+     * @param posMetrics the metrics recording the hits and misses of the cache
+     */
+    public UserIdentityService(UserRepository userRepository, PosMetrics posMetrics) {
+        this.userRepository = userRepository;
+        this.posMetrics = posMetrics;
+    }
+
+    /**
+     * Resolves the guest user once the application has started.
+     * If the guest user does not exist yet, it is resolved on first use instead.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadGuest() {
+        userRepository.findByUsername(GUEST_USERNAME).ifPresentOrElse(
+            user -> guest = new UserIdentity(user.getId(), user.getUsername(), user.getRole()),
+            () -> logger.warning("Guest user not found at startup"));
+    }
+
+    /**
+     * Returns the identity of the guest user.
+     *
+     * @return the guest user identity
+     * @throws IllegalStateException if the guest user is not found
+     */
+    public UserIdentity getGuest() {
+        UserIdentity current = guest;
+        if (current == null) {
+            current = findByUsername(GUEST_USERNAME)
+                .orElseThrow(() -> new IllegalStateException("Guest user not found"));
+            guest = current;
+        }
+        return current;
+    }
+
+    /**
+     * Finds the identity of a user by their username, reading the database only on a cache miss.
+     * Usernames that are not found are not cached.
+     *
+     * @param username the username to search for
+     * @return an {@code Optional} containing the user identity if found, or empty if not found
+     */
+    public Optional<UserIdentity> findByUsername(String username) {
+        synchronized (identities) {
+            UserIdentity cached = identities.get(username);
+            if (cached != null) {
+                posMetrics.recordCacheLookup(CACHE_NAME, true);
+                return Optional.of(cached);
+            }
+        }
+        posMetrics.recordCacheLookup(CACHE_NAME, false);
+
+        Optional<UserIdentity> identity = userRepository.findByUsername(username)
+            .map(user -> new UserIdentity(user.getId(), user.getUsername(), user.getRole()));
+        identity.ifPresent(found -> {
+            synchronized (identities) {
+                identities.put(username, found);
+            }
+        });
+        return identity;
+    }
+
+    /**
+     * Removes the cached identity of a user, so that it is read from the database on next use.
+     *
+     * @param username the username of the user
+     */
+    public void invalidate(String username) {
+        synchronized (identities) {
+            identities.remove(username);
+        }
+        if (GUEST_USERNAME.equals(username)) {
+            guest = null;
+        }
+    }
+}
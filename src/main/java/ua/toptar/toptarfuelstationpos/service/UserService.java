@@ -14,21 +14,26 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserIdentityService userIdentityService;
 
     /**
      * Constructs a new {@code UserService} with the specified dependencies.
      *
      * @param userRepository the repository for accessing user data
      * @param passwordEncoder the encoder for hashing passwords
+     * @param userIdentityService the service caching user identities
      */
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+        UserIdentityService userIdentityService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userIdentityService = userIdentityService;
     }
 
     /**
      * Registers a new user with the specified username, password, and role.
      * Encodes the password and validates the input data.
+     * Any cached identity for the username is invalidated.
      *
      * @param username the username for the new user
      * @param password the password for the new user
@@ -62,5 +67,6 @@ public class UserService {
         user.setPassword(passwordEncoder.encode(password));
         user.setRole(role);
         userRepository.save(user);
+        userIdentityService.invalidate(username);
     }
 }
\ No newline at end of file
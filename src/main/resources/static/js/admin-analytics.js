@@ -1,45 +1,47 @@
 document.addEventListener('DOMContentLoaded', function () {
-  // Отримання даних з data-атрибутів
+  // Адреса API аналітики з data-атрибута
   const dataElement = document.getElementById('chart-data');
-  let salesData = {};
-  let salesDataDaily = {};
-  let salesDataWeekly = {};
-  let salesDataMonthly = {};
-  let revenueDaily = {};
-  let revenueWeekly = {};
-  let revenueMonthly = {};
-  let totalRevenueDaily = {};
-  let totalRevenueWeekly = {};
-  let totalRevenueMonthly = {};
+  const apiUrl = dataElement ? dataElement.dataset.url : '/admin/api/analytics';
 
   // Отримання елементів для ефектів hover
   const navLinks = document.querySelectorAll('aside nav a');
   const periodButtons = document.querySelectorAll('.period-btn');
 
-  // Функція для безпечного парсингу JSON
-  function safeParse(jsonString, defaultValue = {}) {
-    try {
-      return JSON.parse(jsonString) || defaultValue;
-    } catch (e) {
-      console.error('Error parsing JSON:', e.message, 'Raw data:', jsonString);
-      return defaultValue;
+  // Завантажені ряди за метрикою та періодом, щоб повторне перемикання не зверталося до сервера
+  const seriesCache = {};
+
+  // Завантаження одного ряду; сервер відповідає 304, якщо ряд не змінився з попереднього запиту
+  function loadSeries(metric, period) {
+    const key = metric + '/' + period;
+    if (!seriesCache[key]) {
+      const params = new URLSearchParams({ metric: metric, period: period });
+      seriesCache[key] = fetch(apiUrl + '?' + params, { headers: { 'Accept': 'application/json' } })
+        .then(response => {
+          if (!response.ok) {
+            throw new Error('HTTP ' + response.status);
+          }
+          return response.json();
+        })
+        .catch(e => {
+          console.error('Error loading series:', key, e.message);
+          delete seriesCache[key];
+          return {};
+        });
     }
+    return seriesCache[key];
   }
 
-  // Парсинг даних з обробкою помилок
-  if (dataElement) {
-    salesData = safeParse(dataElement.dataset.sales);
-    salesDataDaily = safeParse(dataElement.dataset.salesDaily);
-    salesDataWeekly = safeParse(dataElement.dataset.salesWeekly);
-    salesDataMonthly = safeParse(dataElement.dataset.salesMonthly);
-    revenueDaily = safeParse(dataElement.dataset.revenueDaily);
-    revenueWeekly = safeParse(dataElement.dataset.revenueWeekly);
-    revenueMonthly = safeParse(dataElement.dataset.revenueMonthly);
-    totalRevenueDaily = safeParse(dataElement.dataset.totalRevenueDaily);
-    totalRevenueWeekly = safeParse(dataElement.dataset.totalRevenueWeekly);
-    totalRevenueMonthly = safeParse(dataElement.dataset.totalRevenueMonthly);
-  } else {
-    console.error('Element #chart-data not found');
+  // Останній запитаний період кожної метрики; кожна метрика має свій графік
+  const requestedPeriods = {};
+
+  // Завантаження ряду й оновлення графіка ним, якщо поки ряд завантажувався, не було запитано інший період
+  function showSeries(metric, period, updateChart, periodLabel) {
+    requestedPeriods[metric] = period;
+    loadSeries(metric, period).then(data => {
+      if (requestedPeriods[metric] === period) {
+        updateChart(data, periodLabel);
+      }
+    });
   }
 
   // Фіксована палітра кольорів
@@ -237,23 +239,23 @@ document.addEventListener('DOMContentLoaded', function () {
     });
   });
 
-  // Початкові графіки
-  updateSalesChart(salesDataDaily, 'Дата');
-  updateRevenueChart(revenueDaily, 'Дата');
-  updateTotalRevenueChart(totalRevenueDaily, 'Дата');
+  // Початкові графіки: завантажуються лише денні ряди
+  showSeries('sales', 'daily', updateSalesChart, 'Дата');
+  showSeries('revenue', 'daily', updateRevenueChart, 'Дата');
+  showSeries('totalRevenue', 'daily', updateTotalRevenueChart, 'Дата');
 
   // Перемикачі періодів для обсягу продажів
-  document.getElementById('salesDailyBtn').addEventListener('click', () => updateSalesChart(salesDataDaily, 'Дата'));
-  document.getElementById('salesWeeklyBtn').addEventListener('click', () => updateSalesChart(salesDataWeekly, 'Тиждень'));
-  document.getElementById('salesMonthlyBtn').addEventListener('click', () => updateSalesChart(salesDataMonthly, 'Місяць'));
+  document.getElementById('salesDailyBtn').addEventListener('click', () => showSeries('sales', 'daily', updateSalesChart, 'Дата'));
+  document.getElementById('salesWeeklyBtn').addEventListener('click', () => showSeries('sales', 'weekly', updateSalesChart, 'Тиждень'));
+  document.getElementById('salesMonthlyBtn').addEventListener('click', () => showSeries('sales', 'monthly', updateSalesChart, 'Місяць'));
 
   // Перемикачі періодів для доходу за типами пального
-  document.getElementById('dailyBtn').addEventListener('click', () => updateRevenueChart(revenueDaily, 'Дата'));
-  document.getElementById('weeklyBtn').addEventListener('click', () => updateRevenueChart(revenueWeekly, 'Тиждень'));
-  document.getElementById('monthlyBtn').addEventListener('click', () => updateRevenueChart(revenueMonthly, 'Місяць'));
+  document.getElementById('dailyBtn').addEventListener('click', () => showSeries('revenue', 'daily', updateRevenueChart, 'Дата'));
+  document.getElementById('weeklyBtn').addEventListener('click', () => showSeries('revenue', 'weekly', updateRevenueChart, 'Тиждень'));
+  document.getElementById('monthlyBtn').addEventListener('click', () => showSeries('revenue', 'monthly', updateRevenueChart, 'Місяць'));
 
   // Перемикачі періодів для загального заробітку
-  document.getElementById('totalDailyBtn').addEventListener('click', () => updateTotalRevenueChart(totalRevenueDaily, 'Дата'));
-  document.getElementById('totalWeeklyBtn').addEventListener('click', () => updateTotalRevenueChart(totalRevenueWeekly, 'Тиждень'));
-  document.getElementById('totalMonthlyBtn').addEventListener('click', () => updateTotalRevenueChart(totalRevenueMonthly, 'Місяць'));
+  document.getElementById('totalDailyBtn').addEventListener('click', () => showSeries('totalRevenue', 'daily', updateTotalRevenueChart, 'Дата'));
+  document.getElementById('totalWeeklyBtn').addEventListener('click', () => showSeries('totalRevenue', 'weekly', updateTotalRevenueChart, 'Тиждень'));
+  document.getElementById('totalMonthlyBtn').addEventListener('click', () => showSeries('totalRevenue', 'monthly', updateTotalRevenueChart, 'Місяць'));
 });
\ No newline at end of file
@@ -3,16 +3,12 @@ document.addEventListener('DOMContentLoaded', function () {
   const prevBtn = document.getElementById('prevBtn');
   const nextBtn = document.getElementById('nextBtn');
   const tableBody = document.querySelector('#transactionsTable tbody');
-  const currentPageSpan = document.querySelector('span > span:first-child');
-  const totalPagesSpan = document.querySelector('span > span:last-child');
   const fuelTypeNameInput = document.querySelector('#fuelTypeName');
   const startDateInput = document.querySelector('#startDate');
   const transactionRows = document.querySelectorAll('.transaction-row');
   const exportBtn = document.querySelector('a[href*="export"]');
   const navLinks = document.querySelectorAll('aside nav a');
 
-  let currentPage = parseInt(currentPageSpan.textContent, 10) - 1;
-
   // Ефект фокусу для полів вводу та випадаючого списку
   [fuelTypeNameInput, startDateInput].forEach(input => {
     input.addEventListener('focus', function () {
@@ -84,15 +80,14 @@ document.addEventListener('DOMContentLoaded', function () {
     });
   }
 
-  function fetchTransactions(page) {
-    const pageNum = parseInt(page, 10);
-    if (isNaN(pageNum) || pageNum < 0) {
-      console.error('Invalid page number:', page);
+  function fetchTransactions(cursor) {
+    if (!cursor) {
+      console.error('Missing page cursor');
       return;
     }
 
     const url = new URL(window.location.href);
-    url.searchParams.set('page', pageNum);
+    url.searchParams.set('cursor', cursor);
 
     if (fuelTypeNameInput.value) {
       url.searchParams.set('fuelTypeName', fuelTypeNameInput.value);
@@ -126,14 +121,12 @@ document.addEventListener('DOMContentLoaded', function () {
 
       const newPrevBtn = doc.getElementById('prevBtn');
       const newNextBtn = doc.getElementById('nextBtn');
-      const newPageSpan = doc.querySelector('span > span:first-child');
-      const newTotalPagesSpan = doc.querySelector('span > span:last-child');
 
+      // Курсори сусідніх сторінок беруться з відповіді сервера
       prevBtn.disabled = newPrevBtn.disabled;
       nextBtn.disabled = newNextBtn.disabled;
-      currentPage = pageNum;
-      currentPageSpan.textContent = newPageSpan.textContent;
-      totalPagesSpan.textContent = newTotalPagesSpan.textContent;
+      prevBtn.dataset.cursor = newPrevBtn.dataset.cursor || '';
+      nextBtn.dataset.cursor = newNextBtn.dataset.cursor || '';
 
       // Ефект hover до нових рядків таблиці після оновлення
       const newTransactionRows = tableBody.querySelectorAll('.transaction-row');
@@ -144,13 +137,13 @@ document.addEventListener('DOMContentLoaded', function () {
 
   prevBtn.addEventListener('click', function () {
     if (!this.disabled) {
-      fetchTransactions(currentPage - 1);
+      fetchTransactions(this.dataset.cursor);
     }
   });
 
   nextBtn.addEventListener('click', function () {
     if (!this.disabled) {
-      fetchTransactions(currentPage + 1);
+      fetchTransactions(this.dataset.cursor);
     }
   });
 });
\ No newline at end of file
@@ -2,13 +2,10 @@ document.addEventListener('DOMContentLoaded', () => {
   const filterBtn = document.getElementById('filterBtn');
   const prevBtn = document.getElementById('prevBtn');
   const nextBtn = document.getElementById('nextBtn');
-  const currentPageInput = document.querySelector('#currentPage');
   const fuelTypeNameInput = document.querySelector('#fuelTypeName');
   const startDateInput = document.querySelector('#startDate');
   const transactionRows = document.querySelectorAll('.transaction-row');
 
-  let currentPage = parseInt(currentPageInput.value, 10);
-
   // Ефект фокусу для полів вводу та випадаючого списку
   [fuelTypeNameInput, startDateInput].forEach(input => {
     input.addEventListener('focus', function () {
@@ -42,7 +39,7 @@ document.addEventListener('DOMContentLoaded', () => {
   });
 
   // Ефект наведення для кнопок пагінації
-  [prevBtn, nextBtn].forEach(button => {
+  [prevBtn, nextBtn].filter(button => button).forEach(button => {
     button.addEventListener('mouseover', function () {
       if (!this.disabled) {
         this.style.backgroundColor = '#D04F08';
@@ -55,9 +52,9 @@ document.addEventListener('DOMContentLoaded', () => {
     });
   });
 
-  function navigateToPage(page) {
+  function navigateToCursor(cursor) {
     const url = new URL(window.location.href);
-    url.searchParams.set('page', page);
+    url.searchParams.set('cursor', cursor);
 
     if (fuelTypeNameInput.value) {
       url.searchParams.set('fuelTypeName', fuelTypeNameInput.value);
@@ -77,8 +74,7 @@ document.addEventListener('DOMContentLoaded', () => {
   if (prevBtn) {
     prevBtn.addEventListener('click', () => {
       if (!prevBtn.disabled) {
-        const newPage = currentPage - 1;
-        navigateToPage(newPage);
+        navigateToCursor(prevBtn.dataset.cursor);
       }
     });
   }
@@ -86,8 +82,7 @@ document.addEventListener('DOMContentLoaded', () => {
   if (nextBtn) {
     nextBtn.addEventListener('click', () => {
       if (!nextBtn.disabled) {
-        const newPage = currentPage + 1;
-        navigateToPage(newPage);
+        navigateToCursor(nextBtn.dataset.cursor);
       }
     });
   }
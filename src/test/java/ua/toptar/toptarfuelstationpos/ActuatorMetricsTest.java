@@ -0,0 +1,107 @@
+package ua.toptar.toptarfuelstationpos;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ua.toptar.toptarfuelstationpos.model.User;
+import ua.toptar.toptarfuelstationpos.repository.UserRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for the Actuator endpoints exposing the POS metrics.
+ * Tests that the Prometheus endpoint is scraped by an admin over HTTP Basic and that no metrics are open to anyone else.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class ActuatorMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    /**
+     * Saves the admin account the monitoring system scrapes with.
+     */
+    @BeforeEach
+    void setUp() {
+        User monitor = new User();
+        monitor.setUsername("monitor");
+        monitor.setPassword(passwordEncoder.encode("secret"));
+        monitor.setRole("ADMIN");
+        userRepository.save(monitor);
+    }
+
+    /**
+     * Removes the admin account after each test.
+     */
+    @AfterEach
+    void tearDown() {
+        userRepository.findByUsername("monitor").ifPresent(userRepository::delete);
+    }
+
+    /**
+     * Tests scraping the Prometheus endpoint as an admin with HTTP Basic.
+     * Verifies that the sale latency histogram and the connection pool wait time are exposed.
+     */
+    @Test
+    void testPrometheusEndpointExposesSaleAndPoolMetrics() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, basic("monitor", "secret")))
+            .andExpect(status().isOk())
+            .andExpect(content().string(containsString(
+                "pos_transactions_create_seconds_bucket{customer=\"guest\",outcome=\"success\"")))
+            .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds")));
+    }
+
+    /**
+     * Tests scraping the Prometheus endpoint without logging in and with a wrong password.
+     * Verifies that no metrics are returned.
+     */
+    @Test
+    void testPrometheusEndpointRequiresAdmin() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+            .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, basic("monitor", "wrong")))
+            .andExpect(status().isUnauthorized());
+    }
+
+    /**
+     * Tests opening the metrics endpoint without logging in, and the health endpoint.
+     * Verifies that the metrics ask for credentials and the health stays open.
+     */
+    @Test
+    void testMetricsEndpointRequiresLogin() throws Exception {
+        mockMvc.perform(get("/actuator/metrics"))
+            .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/health"))
+            .andExpect(status().isOk());
+    }
+
+    /**
+     * Builds the value of an HTTP Basic authorization header.
+     */
+    private static String basic(String username, String password) {
+        return "Basic " + Base64.getEncoder().encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,144 @@
+package ua.toptar.toptarfuelstationpos;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ua.toptar.toptarfuelstationpos.controller.AdminController;
+import ua.toptar.toptarfuelstationpos.service.DashboardMetricsService;
+import ua.toptar.toptarfuelstationpos.service.FuelTypeCatalogService;
+import ua.toptar.toptarfuelstationpos.service.TransactionExportService;
+import ua.toptar.toptarfuelstationpos.service.TransactionService;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Unit tests for the analytics API of the {@code AdminController} class.
+ * Tests that only the requested series is computed and that unchanged series are answered with status 304.
+ */
+@ExtendWith(MockitoExtension.class)
+class AdminControllerTest {
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private TransactionExportService transactionExportService;
+
+    @Mock
+    private DashboardMetricsService dashboardMetricsService;
+
+    @Mock
+    private FuelTypeCatalogService fuelTypeCatalogService;
+
+    private MockMvc mockMvc;
+
+    /**
+     * Sets up the controller without the security filters before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new AdminController(transactionService, transactionExportService,
+            dashboardMetricsService, fuelTypeCatalogService, new ObjectMapper())).build();
+    }
+
+    /**
+     * Tests requesting the weekly sales series of April.
+     * Verifies that only that series is computed over whole days, and that it is returned as JSON
+     * with its keys in order and an ETag.
+     */
+    @Test
+    void testAnalyticsSeriesReturnsRequestedSeries() throws Exception {
+        Map<String, Map<String, BigDecimal>> series = new HashMap<>();
+        series.put("Diesel", Map.of("2025-W15", new BigDecimal("20.00")));
+        series.put("A95", Map.of("2025-W14", new BigDecimal("10.00")));
+        when(transactionService.getAnalyticsVersion()).thenReturn("1-0");
+        when(transactionService.getSalesByFuelTypeGroupedByPeriod(LocalDateTime.of(2025, 4, 1, 0, 0),
+            LocalDateTime.of(2025, 5, 1, 0, 0), "weekly")).thenReturn(series);
+
+        mockMvc.perform(get("/admin/api/analytics").param("metric", "sales").param("period", "weekly")
+                .param("from", "2025-04-01").param("to", "2025-04-30"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andExpect(content().string("{\"A95\":{\"2025-W14\":10.00},\"Diesel\":{\"2025-W15\":20.00}}"));
+
+        verify(transactionService).getSalesByFuelTypeGroupedByPeriod(any(), any(), any());
+        verify(transactionService).getAnalyticsVersion();
+        verifyNoMoreInteractions(transactionService);
+    }
+
+    /**
+     * Tests requesting the daily total revenue with the ETag of a previous response, before and after a sale.
+     * Verifies that the range defaults to the last month up to today, that the response before the sale
+     * has status 304 and no body without computing the series again, and that the sale changes the ETag.
+     */
+    @Test
+    void testAnalyticsSeriesNotModifiedForMatchingETag() throws Exception {
+        LocalDate today = LocalDate.now();
+        when(transactionService.getAnalyticsVersion()).thenReturn("1-0", "1-0", "1-1");
+        when(transactionService.getTotalRevenueGroupedByPeriod(today.minusMonths(1).atStartOfDay(),
+            today.plusDays(1).atStartOfDay(), "daily")).thenReturn(Map.of(today.toString(), new BigDecimal("555.00")));
+
+        MvcResult first = mockMvc.perform(get("/admin/api/analytics").param("metric", "totalRevenue"))
+            .andExpect(status().isOk())
+            .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        MvcResult second = mockMvc.perform(get("/admin/api/analytics").param("metric", "totalRevenue")
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andReturn();
+        assertEquals(0, second.getResponse().getContentLength());
+        verify(transactionService, times(1)).getTotalRevenueGroupedByPeriod(any(), any(), any());
+
+        // Після продажу версія аналітики інша, тож старий ETag уже не збігається
+        MvcResult third = mockMvc.perform(get("/admin/api/analytics").param("metric", "totalRevenue")
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andReturn();
+        assertNotEquals(etag, third.getResponse().getHeader(HttpHeaders.ETAG));
+        verify(transactionService, times(2)).getTotalRevenueGroupedByPeriod(any(), any(), any());
+    }
+
+    /**
+     * Tests requesting an unknown metric, an invalid period and a range that ends before it starts.
+     * Verifies that each request is rejected with status 400.
+     */
+    @Test
+    void testAnalyticsSeriesRejectsInvalidRequest() throws Exception {
+        when(transactionService.getRevenueByFuelTypeGroupedByPeriod(any(), any(), eq("yearly")))
+            .thenThrow(new IllegalArgumentException("Invalid period: yearly"));
+
+        mockMvc.perform(get("/admin/api/analytics").param("metric", "volume"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/admin/api/analytics").param("metric", "revenue").param("period", "yearly"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/admin/api/analytics").param("metric", "sales")
+                .param("from", "2025-05-01").param("to", "2025-04-01"))
+            .andExpect(status().isBadRequest());
+
+        verify(transactionService).getRevenueByFuelTypeGroupedByPeriod(any(), any(), any());
+        verify(transactionService, never()).getSalesByFuelTypeGroupedByPeriod(any(), any(), any());
+        verify(transactionService, never()).getTotalRevenueGroupedByPeriod(any(), any(), any());
+    }
+}
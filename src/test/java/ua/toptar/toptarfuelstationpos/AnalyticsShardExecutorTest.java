@@ -0,0 +1,137 @@
+package ua.toptar.toptarfuelstationpos;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ua.toptar.toptarfuelstationpos.dto.FuelSalesAggregate;
+import ua.toptar.toptarfuelstationpos.dto.SalesDateRange;
+import ua.toptar.toptarfuelstationpos.service.AnalyticsShardExecutor;
+import ua.toptar.toptarfuelstationpos.service.SalesRollupService;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the {@code AnalyticsShardExecutor} class.
+ * Tests how date ranges are split into month shards and how the partial results are merged.
+ */
+@ExtendWith(MockitoExtension.class)
+class AnalyticsShardExecutorTest {
+
+    @Mock
+    private SalesRollupService salesRollupService;
+
+    private final AnalyticsShardExecutor analyticsShardExecutor = new AnalyticsShardExecutor(4);
+
+    /**
+     * Tests folding a range of less than a year.
+     * Verifies that the range is read in one query with the requested bounds.
+     */
+    @Test
+    void testShortRangeReadAtOnce() {
+        LocalDateTime startDate = LocalDateTime.of(2025, 1, 15, 10, 0);
+        LocalDateTime endDate = LocalDateTime.of(2025, 6, 20, 18, 0);
+        when(salesRollupService.findDailySales(startDate, endDate)).thenReturn(List.of(sale(LocalDate.of(2025, 2, 1))));
+
+        long count = analyticsShardExecutor.foldDailySales(salesRollupService, startDate, endDate,
+            AnalyticsShardExecutorTest::countSales, Long::sum);
+
+        assertEquals(1, count);
+        verify(salesRollupService, times(1)).findDailySales(any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+
+    /**
+     * Tests folding a range of two years that starts and ends in the middle of a month.
+     * Verifies that the range is split at every month start, with the partial first and last months kept exact.
+     */
+    @Test
+    void testLongRangeSplitAtMonthStarts() {
+        LocalDateTime startDate = LocalDateTime.of(2023, 3, 15, 10, 0);
+        LocalDateTime endDate = LocalDateTime.of(2025, 3, 10, 12, 30);
+        when(salesRollupService.findDailySales(any(LocalDateTime.class), any(LocalDateTime.class)))
+            .thenAnswer(invocation -> List.of(sale(invocation.getArgument(0, LocalDateTime.class).toLocalDate())));
+
+        long count = analyticsShardExecutor.foldDailySales(salesRollupService, startDate, endDate,
+            AnalyticsShardExecutorTest::countSales, Long::sum);
+
+        // Березень 2023 – березень 2025 включно: 25 місяців
+        assertEquals(25, count);
+        verify(salesRollupService).findDailySales(startDate, LocalDateTime.of(2023, 4, 1, 0, 0));
+        verify(salesRollupService).findDailySales(LocalDateTime.of(2024, 2, 1, 0, 0), LocalDateTime.of(2024, 3, 1, 0, 0));
+        verify(salesRollupService).findDailySales(LocalDateTime.of(2025, 3, 1, 0, 0), endDate);
+    }
+
+    /**
+     * Tests folding the whole history when it spans several years.
+     * Verifies that the history is bounded by the first and last day of the rollup and read per month.
+     */
+    @Test
+    void testWholeHistorySplitByRollupRange() {
+        when(salesRollupService.findSalesDateRange())
+            .thenReturn(Optional.of(new SalesDateRange(LocalDate.of(2020, 1, 10), LocalDate.of(2022, 6, 5))));
+        when(salesRollupService.findDailySales(any(LocalDateTime.class), any(LocalDateTime.class)))
+            .thenReturn(List.of(sale(LocalDate.of(2020, 1, 10))));
+
+        long count = analyticsShardExecutor.foldDailySales(salesRollupService, null, null,
+            AnalyticsShardExecutorTest::countSales, Long::sum);
+
+        assertEquals(30, count);
+        verify(salesRollupService).findDailySales(LocalDateTime.of(2020, 1, 10, 0, 0), LocalDateTime.of(2020, 2, 1, 0, 0));
+        verify(salesRollupService).findDailySales(LocalDateTime.of(2022, 6, 1, 0, 0), LocalDateTime.of(2022, 6, 6, 0, 0));
+        verify(salesRollupService, never()).findDailySales(null, null);
+    }
+
+    /**
+     * Tests folding the whole history when the rollup is empty.
+     * Verifies that the rollup is read once without bounds.
+     */
+    @Test
+    void testEmptyHistoryReadAtOnce() {
+        when(salesRollupService.findSalesDateRange()).thenReturn(Optional.empty());
+        when(salesRollupService.findDailySales(null, null)).thenReturn(List.of());
+
+        long count = analyticsShardExecutor.foldDailySales(salesRollupService, null, null,
+            AnalyticsShardExecutorTest::countSales, Long::sum);
+
+        assertEquals(0, count);
+    }
+
+    /**
+     * Tests a shard failing with an invalid argument.
+     * Verifies that the caller gets the same exception type, as it would without sharding.
+     */
+    @Test
+    void testShardFailureRethrown() {
+        when(salesRollupService.findDailySales(any(LocalDateTime.class), any(LocalDateTime.class)))
+            .thenReturn(List.of(sale(LocalDate.of(2023, 1, 1))));
+
+        assertThrows(IllegalArgumentException.class, () -> analyticsShardExecutor.foldDailySales(salesRollupService,
+            LocalDateTime.of(2021, 1, 1, 0, 0), LocalDateTime.of(2024, 1, 1, 0, 0),
+            dailySales -> {
+                throw new IllegalArgumentException("Invalid period: yearly");
+            },
+            (first, second) -> first));
+    }
+
+    /**
+     * Counts the sales of a shard.
+     */
+    private static Long countSales(List<FuelSalesAggregate> dailySales) {
+        return dailySales.stream().mapToLong(FuelSalesAggregate::transactionCount).sum();
+    }
+
+    /**
+     * Creates a single A95 sale on the specified day.
+     */
+    private static FuelSalesAggregate sale(LocalDate day) {
+        return new FuelSalesAggregate(day, "A95", BigDecimal.TEN, new BigDecimal("555.00"), 1);
+    }
+}
@@ -0,0 +1,133 @@
+package ua.toptar.toptarfuelstationpos;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ua.toptar.toptarfuelstationpos.dto.DashboardTotals;
+import ua.toptar.toptarfuelstationpos.dto.TransactionCreatedEvent;
+import ua.toptar.toptarfuelstationpos.model.Transaction;
+import ua.toptar.toptarfuelstationpos.repository.TransactionRepository;
+import ua.toptar.toptarfuelstationpos.service.DashboardMetricsService;
+import ua.toptar.toptarfuelstationpos.service.TransactionArchiveService;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the {@code DashboardMetricsService} class.
+ * Tests how the dashboard totals are loaded and updated.
+ */
+@ExtendWith(MockitoExtension.class)
+class DashboardMetricsServiceTest {
+
+    @InjectMocks
+    private DashboardMetricsService dashboardMetricsService;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private TransactionArchiveService transactionArchiveService;
+
+    /**
+     * Tests loading the totals and adding new sales to them.
+     * Verifies the count, the revenue rounded to kopecks and the average amount.
+     */
+    @Test
+    void testLoadTotalsAndRecordSales() {
+        when(transactionRepository.findDashboardTotals()).thenReturn(new DashboardTotals(2, new BigDecimal("1000.00")));
+        when(transactionArchiveService.findDashboardTotals()).thenReturn(new DashboardTotals(0, null));
+
+        dashboardMetricsService.loadTotals();
+        // Сума з чотирма знаками після коми округлюється так само, як у базі даних
+        dashboardMetricsService.onTransactionCreated(new TransactionCreatedEvent(createTransaction("555.0050")));
+
+        assertEquals(3, dashboardMetricsService.getTransactionCount());
+        assertEquals(new BigDecimal("1555.01"), dashboardMetricsService.getTotalRevenue());
+        assertEquals(new BigDecimal("518.34"), dashboardMetricsService.getAverageTransaction());
+    }
+
+    /**
+     * Tests the totals of an empty transactions table.
+     * Verifies that the missing revenue sum is treated as zero.
+     */
+    @Test
+    void testLoadTotalsWithoutTransactions() {
+        when(transactionRepository.findDashboardTotals()).thenReturn(new DashboardTotals(0, null));
+        when(transactionArchiveService.findDashboardTotals()).thenReturn(new DashboardTotals(0, null));
+
+        dashboardMetricsService.loadTotals();
+
+        assertEquals(0, dashboardMetricsService.getTransactionCount());
+        assertEquals(0, BigDecimal.ZERO.compareTo(dashboardMetricsService.getTotalRevenue()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(dashboardMetricsService.getAverageTransaction()));
+    }
+
+    /**
+     * Tests loading the totals when older months have been archived.
+     * Verifies that the archived transactions are counted together with the recent ones.
+     */
+    @Test
+    void testLoadTotalsIncludesArchive() {
+        when(transactionRepository.findDashboardTotals()).thenReturn(new DashboardTotals(2, new BigDecimal("1000.00")));
+        when(transactionArchiveService.findDashboardTotals()).thenReturn(new DashboardTotals(3, new BigDecimal("500.50")));
+
+        dashboardMetricsService.loadTotals();
+
+        assertEquals(5, dashboardMetricsService.getTransactionCount());
+        assertEquals(new BigDecimal("1500.50"), dashboardMetricsService.getTotalRevenue());
+    }
+
+    /**
+     * Tests sales committing while the totals load, with identifiers committed out of order.
+     * Verifies that a sale the load has counted is not counted again, and that a sale with a lower identifier
+     * committed after the load is still counted.
+     */
+    @Test
+    void testSalesDuringLoadCountedOnce() {
+        when(transactionRepository.findDashboardTotals()).thenReturn(new DashboardTotals(2, new BigDecimal("1000.00")));
+        when(transactionArchiveService.findDashboardTotals()).thenReturn(new DashboardTotals(0, null));
+        when(transactionRepository.findDashboardTotalsByIdIn(Set.of(100L, 101L)))
+            .thenReturn(new DashboardTotals(1, new BigDecimal("500.00")));
+
+        // Продаж 101 зафіксовано до запиту, а продаж 100 з меншим ідентифікатором — лише після нього
+        Transaction first = createTransaction(100L, "100.00");
+        Transaction second = createTransaction(101L, "500.00");
+        dashboardMetricsService.onTransactionCommitting(new TransactionCreatedEvent(first));
+        dashboardMetricsService.onTransactionCommitting(new TransactionCreatedEvent(second));
+        dashboardMetricsService.onTransactionCreated(new TransactionCreatedEvent(second));
+        dashboardMetricsService.loadTotals();
+        dashboardMetricsService.onTransactionCreated(new TransactionCreatedEvent(first));
+
+        Transaction later = createTransaction(99L, "50.00");
+        dashboardMetricsService.onTransactionCommitting(new TransactionCreatedEvent(later));
+        dashboardMetricsService.onTransactionCreated(new TransactionCreatedEvent(later));
+
+        assertEquals(4, dashboardMetricsService.getTransactionCount());
+        assertEquals(new BigDecimal("1150.00"), dashboardMetricsService.getTotalRevenue());
+        verify(transactionRepository).findDashboardTotalsByIdIn(Set.of(100L, 101L));
+    }
+
+    /**
+     * Creates a transaction with the specified total amount.
+     */
+    private Transaction createTransaction(String totalAmount) {
+        Transaction transaction = new Transaction();
+        transaction.setTotalAmount(new BigDecimal(totalAmount));
+        return transaction;
+    }
+
+    /**
+     * Creates a saved transaction with the specified identifier and total amount.
+     */
+    private Transaction createTransaction(Long id, String totalAmount) {
+        Transaction transaction = createTransaction(totalAmount);
+        transaction.setId(id);
+        return transaction;
+    }
+}
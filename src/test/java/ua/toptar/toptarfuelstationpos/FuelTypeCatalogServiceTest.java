@@ -0,0 +1,80 @@
+package ua.toptar.toptarfuelstationpos;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ua.toptar.toptarfuelstationpos.dto.FuelTypeCatalog;
+import ua.toptar.toptarfuelstationpos.dto.FuelTypeSavedEvent;
+import ua.toptar.toptarfuelstationpos.model.FuelType;
+import ua.toptar.toptarfuelstationpos.repository.FuelTypeRepository;
+import ua.toptar.toptarfuelstationpos.service.FuelTypeCatalogService;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the {@code FuelTypeCatalogService} class.
+ * Tests how the fuel type catalog is loaded and replaced.
+ */
+@ExtendWith(MockitoExtension.class)
+class FuelTypeCatalogServiceTest {
+
+    @InjectMocks
+    private FuelTypeCatalogService fuelTypeCatalogService;
+
+    @Mock
+    private FuelTypeRepository fuelTypeRepository;
+
+    /**
+     * Tests that the catalog is loaded once and then served from memory.
+     * Verifies that the snapshot holds copies that are not affected by changes to the loaded entities.
+     */
+    @Test
+    void testGetCatalogLoadsOnce() {
+        FuelType a95 = createFuelType(1L, "A95", "55.50");
+        when(fuelTypeRepository.findAll()).thenReturn(List.of(a95));
+
+        FuelTypeCatalog catalog = fuelTypeCatalogService.getCatalog();
+        a95.setPricePerLiter(new BigDecimal("60.00"));
+
+        assertSame(catalog, fuelTypeCatalogService.getCatalog());
+        assertEquals(1, catalog.version());
+        assertEquals(new BigDecimal("55.50"), catalog.findById(1L).orElseThrow().getPricePerLiter());
+        assertTrue(catalog.findById(2L).isEmpty());
+        verify(fuelTypeRepository, times(1)).findAll();
+    }
+
+    /**
+     * Tests replacing the catalog after a fuel type has been saved.
+     * Verifies that a new version with the saved price is published.
+     */
+    @Test
+    void testOnFuelTypeSavedReplacesCatalog() {
+        when(fuelTypeRepository.findAll()).thenReturn(
+            List.of(createFuelType(1L, "A95", "55.50")),
+            List.of(createFuelType(1L, "A95", "57.00"), createFuelType(2L, "ДП", "52.30")));
+
+        FuelTypeCatalog first = fuelTypeCatalogService.getCatalog();
+        fuelTypeCatalogService.onFuelTypeSaved(new FuelTypeSavedEvent("ДП"));
+        FuelTypeCatalog second = fuelTypeCatalogService.getCatalog();
+
+        assertEquals(first.version() + 1, second.version());
+        assertEquals(2, second.fuelTypes().size());
+        assertEquals(new BigDecimal("57.00"), second.findById(1L).orElseThrow().getPricePerLiter());
+        assertEquals(new BigDecimal("55.50"), first.findById(1L).orElseThrow().getPricePerLiter());
+    }
+
+    /**
+     * Creates a fuel type with the specified ID, name and price.
+     */
+    private FuelType createFuelType(Long id, String name, String price) {
+        FuelType fuelType = new FuelType(name, new BigDecimal(price));
+        fuelType.setId(id);
+        return fuelType;
+    }
+}
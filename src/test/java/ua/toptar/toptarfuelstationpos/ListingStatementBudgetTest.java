@@ -0,0 +1,193 @@
+package ua.toptar.toptarfuelstationpos;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ua.toptar.toptarfuelstationpos.config.SqlStatementCountFilter;
+import ua.toptar.toptarfuelstationpos.model.FuelType;
+import ua.toptar.toptarfuelstationpos.model.Transaction;
+import ua.toptar.toptarfuelstationpos.model.User;
+import ua.toptar.toptarfuelstationpos.repository.FuelTypeRepository;
+import ua.toptar.toptarfuelstationpos.repository.TransactionRepository;
+import ua.toptar.toptarfuelstationpos.repository.UserRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for the number of SQL statements issued by the transaction listing endpoints.
+ * Every listing shows transactions of several users and fuel types, so loading them row by row
+ * would exceed the fixed statement budget.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ListingStatementBudgetTest {
+
+    private static final int STATEMENT_BUDGET = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private FuelTypeRepository fuelTypeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    /**
+     * Saves 3 fuel types, an admin, 5 cashiers and 30 transactions spread across them.
+     */
+    @BeforeEach
+    void setUp() {
+        List<FuelType> fuelTypes = fuelTypeRepository.saveAll(List.of(
+            new FuelType("A95", new BigDecimal("55.50")),
+            new FuelType("A92", new BigDecimal("52.30")),
+            new FuelType("Diesel", new BigDecimal("52.30"))));
+
+        userRepository.save(createUser("admin", "ADMIN"));
+        List<User> cashiers = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            cashiers.add(userRepository.save(createUser("cashier" + i, "USER")));
+        }
+
+        List<Transaction> transactions = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 30; i++) {
+            FuelType fuelType = fuelTypes.get(i % fuelTypes.size());
+            Transaction transaction = new Transaction();
+            transaction.setFuelType(fuelType);
+            transaction.setFuelTypeName(fuelType.getName());
+            transaction.setPricePerLiter(fuelType.getPricePerLiter());
+            transaction.setVolume(new BigDecimal("10.00"));
+            transaction.setTotalAmount(fuelType.getPricePerLiter().multiply(new BigDecimal("10.00")));
+            transaction.setTransactionDate(now.minusMinutes(i));
+            // Продажі першого касира чергуються з продажами інших, щоб на кожній сторінці були різні користувачі
+            transaction.setUser(cashiers.get(i % 2 == 0 ? 0 : i % cashiers.size()));
+            transactions.add(transaction);
+        }
+        transactionRepository.saveAll(transactions);
+    }
+
+    /**
+     * Removes the test data after each test.
+     */
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAll();
+        userRepository.deleteAll();
+        fuelTypeRepository.deleteAll();
+    }
+
+    /**
+     * Tests the admin transaction listing, with and without the total count, and its second page.
+     * Verifies that each request stays within the statement budget.
+     */
+    @Test
+    void testAdminTransactionsWithinBudget() throws Exception {
+        MockHttpSession session = login("admin", "ADMIN");
+
+        assertWithinBudget(get("/admin/transactions"), session);
+        assertWithinBudget(get("/admin/transactions").param("withTotal", "true").param("fuelTypeName", "A95"), session);
+        MvcResult result = mockMvc.perform(get("/admin/transactions").session(session)).andReturn();
+        String nextCursor = (String) result.getModelAndView().getModel().get("nextCursor");
+        assertNotNull(nextCursor);
+        assertWithinBudget(get("/admin/transactions").param("cursor", nextCursor), session);
+    }
+
+    /**
+     * Tests the admin dashboard with its recent transactions.
+     * Verifies that the users and fuel types of the recent transactions are not loaded one by one.
+     */
+    @Test
+    void testAdminDashboardWithinBudget() throws Exception {
+        assertWithinBudget(get("/admin/dashboard"), login("admin", "ADMIN"));
+    }
+
+    /**
+     * Tests the transaction history page and API of a cashier.
+     * Verifies that both stay within the statement budget, including the lookup of the user.
+     */
+    @Test
+    void testUserTransactionsWithinBudget() throws Exception {
+        MockHttpSession session = login("cashier1", "USER");
+
+        assertWithinBudget(get("/user/transactions"), session);
+        assertWithinBudget(get("/api/transactions/user"), session);
+    }
+
+    /**
+     * Performs a request and asserts that it succeeded within the statement budget.
+     *
+     * @param request the request to perform
+     * @param session the session of the authenticated user
+     * @throws Exception if the request fails
+     */
+    private void assertWithinBudget(MockHttpServletRequestBuilder request,
+        MockHttpSession session) throws Exception {
+        MvcResult result = mockMvc.perform(request.session(session))
+            .andExpect(status().isOk())
+            .andReturn();
+        Integer count = (Integer) result.getRequest().getAttribute(SqlStatementCountFilter.COUNT_ATTRIBUTE);
+        assertNotNull(count);
+        assertTrue(count <= STATEMENT_BUDGET,
+            result.getRequest().getRequestURI() + " issued " + count + " SQL statements, budget is " + STATEMENT_BUDGET);
+    }
+
+    /**
+     * Creates a session holding an authenticated user, as left by a form login.
+     *
+     * @param username the username of the user
+     * @param role the role of the user
+     * @return the session of the authenticated user
+     */
+    private MockHttpSession login(String username, String role) {
+        UserDetails userDetails = org.springframework.security.core.userdetails.User
+            .withUsername(username)
+            .password("password")
+            .roles(role)
+            .build();
+        SecurityContext context = new SecurityContextImpl(
+            new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, context);
+        return session;
+    }
+
+    /**
+     * Creates a user with the specified username and role.
+     *
+     * @param username the username of the user
+     * @param role the role of the user
+     * @return the new user
+     */
+    private User createUser(String username, String role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("password");
+        user.setRole(role);
+        return user;
+    }
+}
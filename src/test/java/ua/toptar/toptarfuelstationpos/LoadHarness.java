@@ -0,0 +1,406 @@
+package ua.toptar.toptarfuelstationpos;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import ua.toptar.toptarfuelstationpos.model.FuelType;
+import ua.toptar.toptarfuelstationpos.model.User;
+import ua.toptar.toptarfuelstationpos.repository.FuelTypeRepository;
+import ua.toptar.toptarfuelstationpos.repository.UserRepository;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * HTTP load generator shared by the load tests.
+ * Simulates pumps selling through {@code /api/transactions} as guests, loyalty users selling through
+ * {@code /pos/transaction}, admins loading the analytics series from {@code /admin/api/analytics} and {@code /admin/dashboard},
+ * and exporters downloading the CSV export of all transactions, and records the latency of every endpoint.
+ */
+class LoadHarness {
+
+    private static final Logger logger = Logger.getLogger(LoadHarness.class.getName());
+
+    static final String PASSWORD = "password";
+
+    private static final String SALE_MESSAGE = "Транзакцію успішно завершено!";
+    private static final String EXPORT_ENDPOINT = "GET /admin/transactions/export";
+    private static final Pattern CSRF_PATTERN = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+
+    private final int port;
+    private final ObjectMapper objectMapper;
+    private final List<FuelType> fuelTypes;
+    private final long thinkTimeMillis;
+
+    /**
+     * Creates a load generator for the application running on the specified port.
+     *
+     * @param port the port of the running application
+     * @param objectMapper the mapper for the JSON request bodies
+     * @param fuelTypes the fuel types to sell
+     * @param thinkTimeMillis the pause of every actor between its requests
+     */
+    LoadHarness(int port, ObjectMapper objectMapper, List<FuelType> fuelTypes, long thinkTimeMillis) {
+        this.port = port;
+        this.objectMapper = objectMapper;
+        this.fuelTypes = fuelTypes;
+        this.thinkTimeMillis = thinkTimeMillis;
+    }
+
+    /**
+     * Saves 3 fuel types, the guest user, the loyalty users, the admins and the exporters.
+     * All users have the password {@link #PASSWORD}; the admins and the exporters have the ADMIN role.
+     *
+     * @param fuelTypeRepository the repository to save the fuel types in
+     * @param userRepository the repository to save the users in
+     * @param passwordEncoder the encoder of the user passwords
+     * @param users the number of loyalty users
+     * @param admins the number of admins
+     * @param exporters the number of exporters
+     * @return the saved fuel types
+     */
+    static List<FuelType> seed(FuelTypeRepository fuelTypeRepository, UserRepository userRepository,
+                               PasswordEncoder passwordEncoder, int users, int admins, int exporters) {
+        List<FuelType> fuelTypes = fuelTypeRepository.saveAll(List.of(
+            new FuelType("A95", new BigDecimal("55.50")),
+            new FuelType("A92", new BigDecimal("52.30")),
+            new FuelType("Diesel", new BigDecimal("52.30"))));
+
+        String encodedPassword = passwordEncoder.encode(PASSWORD);
+        List<User> accounts = new ArrayList<>();
+        accounts.add(createUser("guest", encodedPassword, "USER"));
+        for (int i = 1; i <= users; i++) {
+            accounts.add(createUser("loyal" + i, encodedPassword, "USER"));
+        }
+        for (int i = 1; i <= admins; i++) {
+            accounts.add(createUser("admin" + i, encodedPassword, "ADMIN"));
+        }
+        for (int i = 1; i <= exporters; i++) {
+            accounts.add(createUser("exporter" + i, encodedPassword, "ADMIN"));
+        }
+        userRepository.saveAll(accounts);
+        return fuelTypes;
+    }
+
+    /**
+     * Runs the pumps, loyalty users, admins and exporters concurrently for the specified time.
+     * Every actor has its own HTTP client and session, and sends its next request as soon as
+     * the previous one has completed and the think time has passed.
+     *
+     * @param seconds the duration of the phase
+     * @param pumps the number of pumps
+     * @param users the number of loyalty users
+     * @param admins the number of admins
+     * @param exporters the number of exporters
+     * @return the statistics of every endpoint called during the phase
+     * @throws Exception if an actor cannot log in or a request cannot be sent
+     */
+    Map<String, EndpointStats> run(int seconds, int pumps, int users, int admins, int exporters) throws Exception {
+        Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+        List<Actor> actors = new ArrayList<>();
+        for (int i = 0; i < pumps; i++) {
+            actors.add(new Actor(null, i));
+        }
+        for (int i = 1; i <= users; i++) {
+            actors.add(new Actor("loyal" + i, i));
+        }
+        for (int i = 1; i <= admins; i++) {
+            actors.add(new Actor("admin" + i, i));
+        }
+        for (int i = 1; i <= exporters; i++) {
+            actors.add(new Actor("exporter" + i, i));
+        }
+        for (Actor actor : actors) {
+            actor.logIn();
+        }
+
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        ExecutorService executor = Executors.newFixedThreadPool(actors.size());
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Actor actor : actors) {
+                futures.add(executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        actor.sendNext(stats);
+                        if (thinkTimeMillis > 0) {
+                            Thread.sleep(thinkTimeMillis);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return stats;
+    }
+
+    /**
+     * Logs the statistics of a phase, checks that no request failed and converts the statistics for a report.
+     *
+     * @param phase the name of the phase
+     * @param stats the statistics of every endpoint called during the phase
+     * @param seconds the duration of the phase
+     * @return the statistics of every endpoint, by endpoint
+     */
+    static Map<String, Object> summarize(String phase, Map<String, EndpointStats> stats, int seconds) {
+        assertTrue(stats.containsKey("POST /api/transactions"), "No pump sales in phase " + phase);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        stats.entrySet().stream()
+            .sorted(Map.Entry.comparingByKey())
+            .forEach(entry -> {
+                Map<String, Object> endpoint = entry.getValue().summarize(seconds);
+                logger.info(String.format("%-16s %-32s %8.1f req/s  p50 %7.2f ms  p95 %7.2f ms  p99 %7.2f ms  errors %d",
+                    phase, entry.getKey(), endpoint.get("throughput"), endpoint.get("p50Millis"),
+                    endpoint.get("p95Millis"), endpoint.get("p99Millis"), endpoint.get("errors")));
+                summary.put(entry.getKey(), endpoint);
+            });
+        summary.forEach((name, endpoint) -> assertEquals(0L, ((Map<?, ?>) endpoint).get("errors"),
+            name + " failed in phase " + phase));
+        return summary;
+    }
+
+    /**
+     * Creates a user with the specified username, encoded password and role.
+     *
+     * @param username the username of the user
+     * @param encodedPassword the encoded password of the user
+     * @param role the role of the user
+     * @return the new user
+     */
+    private static User createUser(String username, String encodedPassword, String role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword(encodedPassword);
+        user.setRole(role);
+        return user;
+    }
+
+    /**
+     * A simulated pump, loyalty user, admin or exporter with its own HTTP session.
+     * Pumps have no username and sell as guests.
+     */
+    private class Actor {
+
+        private final String username;
+        private final HttpClient client = HttpClient.newBuilder()
+            .cookieHandler(new CookieManager())
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+        private int requestCount;
+        private String csrfToken;
+
+        /**
+         * Creates an actor.
+         *
+         * @param username the username to log in with, or null for a pump
+         * @param offset the offset of the actor, so that actors start with different fuel types and pages
+         */
+        Actor(String username, int offset) {
+            this.username = username;
+            this.requestCount = offset;
+        }
+
+        /**
+         * Logs the actor in with a form login and keeps the CSRF token of its new session.
+         * Pumps do not log in.
+         *
+         * @throws Exception if the login fails
+         */
+        void logIn() throws Exception {
+            if (username == null) {
+                return;
+            }
+            String loginToken = fetchCsrfToken("/login");
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri("/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(form(Map.of("username", username, "password", PASSWORD, "_csrf", loginToken)))
+                .build(), HttpResponse.BodyHandlers.ofString());
+            String location = response.headers().firstValue("Location").orElse("");
+            assertTrue(response.statusCode() == 302 && location.endsWith("/pos"), "Login failed for " + username);
+            // Після входу сесія змінюється, тому токен береться заново
+            csrfToken = fetchCsrfToken("/pos");
+        }
+
+        /**
+         * Sends the next request of the actor and records its latency.
+         * Pumps sell through the API, loyalty users through the POS page, admins alternate
+         * between the analytics page and the dashboard, and exporters download the CSV export.
+         *
+         * @param stats the statistics to record the request in
+         * @throws Exception if the request cannot be sent
+         */
+        void sendNext(Map<String, EndpointStats> stats) throws Exception {
+            int request = requestCount++;
+            String endpoint;
+            HttpRequest httpRequest;
+            if (username == null) {
+                endpoint = "POST /api/transactions";
+                String body = objectMapper.writeValueAsString(Map.of(
+                    "fuelTypeId", fuelTypeIdOf(request), "volume", 10 + request % 30));
+                httpRequest = HttpRequest.newBuilder(uri("/api/transactions"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+            } else if (username.startsWith("loyal")) {
+                endpoint = "POST /pos/transaction";
+                httpRequest = HttpRequest.newBuilder(uri("/pos/transaction"))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(form(Map.of("fuelTypeId", String.valueOf(fuelTypeIdOf(request)),
+                        "volume", String.valueOf(10 + request % 30), "_csrf", csrfToken)))
+                    .build();
+            } else if (username.startsWith("exporter")) {
+                endpoint = EXPORT_ENDPOINT;
+                httpRequest = HttpRequest.newBuilder(uri("/admin/transactions/export?format=csv")).GET().build();
+            } else {
+                endpoint = request % 2 == 0 ? "GET /admin/api/analytics?metric=sales&period=daily" : "GET /admin/dashboard";
+                httpRequest = HttpRequest.newBuilder(uri(endpoint.substring(4))).GET().build();
+            }
+
+            long startTime = System.nanoTime();
+            boolean succeeded;
+            if (endpoint.equals(EXPORT_ENDPOINT)) {
+                // Експорт читається до кінця без збереження, щоб затримка охоплювала весь файл
+                succeeded = client.send(httpRequest, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+            } else {
+                HttpResponse<String> response = client.send(httpRequest, HttpResponse.BodyHandlers.ofString());
+                succeeded = response.statusCode() == 200
+                    && (!endpoint.equals("POST /pos/transaction") || response.body().contains(SALE_MESSAGE));
+            }
+            long latency = System.nanoTime() - startTime;
+            stats.computeIfAbsent(endpoint, k -> new EndpointStats()).record(latency, succeeded);
+        }
+
+        /**
+         * Reads the CSRF token from the form of a page.
+         *
+         * @param path the path of the page
+         * @return the CSRF token
+         * @throws Exception if the page cannot be loaded or has no CSRF token
+         */
+        private String fetchCsrfToken(String path) throws Exception {
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri(path)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+            Matcher matcher = CSRF_PATTERN.matcher(response.body());
+            if (!matcher.find()) {
+                throw new IOException("No CSRF token on " + path);
+            }
+            return matcher.group(1);
+        }
+
+        /**
+         * Returns the ID of the fuel type sold by the specified request, cycling through all fuel types.
+         *
+         * @param request the number of the request
+         * @return the ID of the fuel type
+         */
+        private Long fuelTypeIdOf(int request) {
+            return fuelTypes.get(request % fuelTypes.size()).getId();
+        }
+
+        /**
+         * Resolves a path against the running application.
+         *
+         * @param path the path to resolve
+         * @return the URI of the path
+         */
+        private URI uri(String path) {
+            return URI.create("http://localhost:" + port + path);
+        }
+
+        /**
+         * Encodes form fields as a request body.
+         *
+         * @param fields the form fields
+         * @return the URL-encoded request body
+         */
+        private HttpRequest.BodyPublisher form(Map<String, String> fields) {
+            StringBuilder body = new StringBuilder();
+            fields.forEach((name, value) -> {
+                if (!body.isEmpty()) {
+                    body.append('&');
+                }
+                body.append(URLEncoder.encode(name, StandardCharsets.UTF_8)).append('=')
+                    .append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+            });
+            return HttpRequest.BodyPublishers.ofString(body.toString());
+        }
+    }
+
+    /**
+     * Latencies and errors of the requests to one endpoint during a phase.
+     */
+    static class EndpointStats {
+
+        private final List<Long> latencies = new ArrayList<>();
+        private long errors;
+
+        /**
+         * Records a completed request.
+         *
+         * @param latencyNanos the latency of the request in nanoseconds
+         * @param succeeded whether the request succeeded
+         */
+        synchronized void record(long latencyNanos, boolean succeeded) {
+            latencies.add(latencyNanos);
+            if (!succeeded) {
+                errors++;
+            }
+        }
+
+        /**
+         * Calculates the throughput and latency percentiles of the endpoint.
+         *
+         * @param seconds the duration of the phase
+         * @return the request and error counts, the throughput in requests per second and the percentiles in milliseconds
+         */
+        synchronized Map<String, Object> summarize(int seconds) {
+            List<Long> sorted = new ArrayList<>(latencies);
+            Collections.sort(sorted);
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("requests", sorted.size());
+            summary.put("errors", errors);
+            summary.put("throughput", (double) sorted.size() / seconds);
+            summary.put("p50Millis", percentile(sorted, 0.50));
+            summary.put("p95Millis", percentile(sorted, 0.95));
+            summary.put("p99Millis", percentile(sorted, 0.99));
+            return summary;
+        }
+
+        /**
+         * Returns a nearest-rank percentile of sorted latencies.
+         *
+         * @param sorted the latencies in nanoseconds, in ascending order
+         * @param percentile the percentile, between 0 and 1
+         * @return the latency at the percentile in milliseconds
+         */
+        private static double percentile(List<Long> sorted, double percentile) {
+            int rank = (int) Math.ceil(percentile * sorted.size());
+            return sorted.get(Math.max(rank - 1, 0)) / 1_000_000.0;
+        }
+    }
+}
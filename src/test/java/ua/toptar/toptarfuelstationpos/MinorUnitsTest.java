@@ -0,0 +1,80 @@
+package ua.toptar.toptarfuelstationpos;
+
+import org.junit.jupiter.api.Test;
+import ua.toptar.toptarfuelstationpos.model.MinorUnits;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@code MinorUnits} class.
+ * Tests that the fixed-point calculations round exactly like the {@code BigDecimal} calculations they replace.
+ */
+class MinorUnitsTest {
+
+    /**
+     * Tests calculating the volume an amount buys over a range of amounts and prices.
+     * Verifies that the volume equals the amount divided by the price, rounded half up to two decimals.
+     */
+    @Test
+    void testVolumeOfMatchesDecimalDivision() {
+        for (long price = 1; price <= 7000; price += 37) {
+            for (long amount = 0; amount <= 100_000; amount += 97) {
+                BigDecimal expected = BigDecimal.valueOf(amount, 2)
+                    .divide(BigDecimal.valueOf(price, 2), 2, RoundingMode.HALF_UP);
+
+                assertEquals(expected, MinorUnits.fromMillilitres(MinorUnits.volumeOf(amount, price)),
+                    amount + " / " + price);
+            }
+        }
+    }
+
+    /**
+     * Tests calculating the amount of a volume over a range of volumes and prices.
+     * Verifies that the amount equals the volume multiplied by the price, rounded half up to kopecks.
+     */
+    @Test
+    void testAmountOfMatchesDecimalMultiplication() {
+        for (long price = 0; price <= 7000; price += 41) {
+            for (long volume = 1000; volume <= 200_000; volume += 113) {
+                BigDecimal expected = BigDecimal.valueOf(volume, 3).multiply(BigDecimal.valueOf(price, 2))
+                    .setScale(2, RoundingMode.HALF_UP);
+
+                assertEquals(expected, MinorUnits.fromKopecks(MinorUnits.amountOf(volume, price)),
+                    volume + " * " + price);
+            }
+        }
+    }
+
+    /**
+     * Tests rounding a quotient that lies exactly halfway, for every combination of signs.
+     * Verifies that ties are rounded away from zero like {@link RoundingMode#HALF_UP}.
+     */
+    @Test
+    void testDivideHalfUpRoundsTiesAwayFromZero() {
+        assertEquals(3, MinorUnits.divideHalfUp(5, 2));
+        assertEquals(-3, MinorUnits.divideHalfUp(-5, 2));
+        assertEquals(-3, MinorUnits.divideHalfUp(5, -2));
+        assertEquals(3, MinorUnits.divideHalfUp(-5, -2));
+        assertEquals(1, MinorUnits.divideHalfUp(4, 3));
+        assertEquals(0, MinorUnits.divideHalfUp(0, 7));
+        assertThrows(ArithmeticException.class, () -> MinorUnits.divideHalfUp(1, 0));
+    }
+
+    /**
+     * Tests converting decimal values to minor units and back.
+     * Verifies that stored values are rounded half up, and that volumes keep two decimals unless they need three.
+     */
+    @Test
+    void testConversionsRoundAndKeepScale() {
+        assertEquals(83250, MinorUnits.toKopecks(new BigDecimal("832.5")));
+        assertEquals(58553, MinorUnits.toKopecks(new BigDecimal("585.5250")));
+        assertEquals(10555, MinorUnits.toMillilitres(new BigDecimal("10.5554")));
+
+        assertEquals(new BigDecimal("15.00"), MinorUnits.fromMillilitres(15000));
+        assertEquals(new BigDecimal("10.555"), MinorUnits.fromMillilitres(10555));
+        assertEquals(new BigDecimal("0.05"), MinorUnits.fromKopecks(5));
+    }
+}
@@ -0,0 +1,132 @@
+package ua.toptar.toptarfuelstationpos;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import ua.toptar.toptarfuelstationpos.model.FuelType;
+import ua.toptar.toptarfuelstationpos.repository.DailyFuelSalesRepository;
+import ua.toptar.toptarfuelstationpos.repository.FuelTypeRepository;
+import ua.toptar.toptarfuelstationpos.repository.TransactionRepository;
+import ua.toptar.toptarfuelstationpos.repository.UserRepository;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load test of the sale and admin endpoints over HTTP, against the application running on embedded H2.
+ * Pumps post sales to {@code /api/transactions} as guests, and logged-in loyalty users sell through
+ * {@code /pos/transaction}. The sales run alone first, and then while admins keep loading the analytics series
+ * from {@code /admin/api/analytics} and {@code /admin/dashboard}, which shows whether the analytics slow the sales down.
+ * The throughput and the p50, p95 and p99 latency of every endpoint in both phases are logged
+ * and written to {@code target/load-test-report.json}.
+ *
+ * <p>The test only runs with {@code -Dloadtest=true}. The load is set with the system properties
+ * {@code loadtest.pumps}, {@code loadtest.users}, {@code loadtest.admins}, {@code loadtest.duration-seconds},
+ * {@code loadtest.warmup-seconds} and {@code loadtest.think-time-ms}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class PumpLoadTest {
+
+    private static final Logger logger = Logger.getLogger(PumpLoadTest.class.getName());
+
+    private static final int PUMPS = Integer.getInteger("loadtest.pumps", 8);
+    private static final int USERS = Integer.getInteger("loadtest.users", 4);
+    private static final int ADMINS = Integer.getInteger("loadtest.admins", 2);
+    private static final int DURATION_SECONDS = Integer.getInteger("loadtest.duration-seconds", 30);
+    private static final int WARMUP_SECONDS = Integer.getInteger("loadtest.warmup-seconds", 5);
+    private static final long THINK_TIME_MILLIS = Long.getLong("loadtest.think-time-ms", 0L);
+
+    private static final Path REPORT = Path.of("target", "load-test-report.json");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private DailyFuelSalesRepository dailyFuelSalesRepository;
+
+    @Autowired
+    private FuelTypeRepository fuelTypeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private LoadHarness harness;
+
+    /**
+     * Saves 3 fuel types, the guest user, the loyalty users and the admins.
+     */
+    @BeforeEach
+    void setUp() {
+        List<FuelType> fuelTypes = LoadHarness.seed(fuelTypeRepository, userRepository, passwordEncoder,
+            USERS, ADMINS, 0);
+        harness = new LoadHarness(port, objectMapper, fuelTypes, THINK_TIME_MILLIS);
+    }
+
+    /**
+     * Removes the test data after the test.
+     */
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAll();
+        dailyFuelSalesRepository.deleteAll();
+        userRepository.deleteAll();
+        fuelTypeRepository.deleteAll();
+    }
+
+    /**
+     * Runs the sales alone and then together with the admin pages, and reports the latency of every endpoint.
+     * Verifies that every endpoint was called in its phases and that no request failed.
+     */
+    @Test
+    void testSalesUnderAdminLoad() throws Exception {
+        // Прогрів JIT і пулів з’єднань, результати не враховуються
+        harness.run(WARMUP_SECONDS, PUMPS, USERS, ADMINS, 0);
+
+        Map<String, Map<String, Object>> report = new LinkedHashMap<>();
+        report.put("sales", summarize("sales", harness.run(DURATION_SECONDS, PUMPS, USERS, 0, 0)));
+        report.put("salesWithAdmins", summarize("salesWithAdmins",
+            harness.run(DURATION_SECONDS, PUMPS, USERS, ADMINS, 0)));
+
+        Files.createDirectories(REPORT.getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(REPORT.toFile(), report);
+        logger.info("Load test report written to " + REPORT.toAbsolutePath());
+    }
+
+    /**
+     * Logs the statistics of a phase and checks that the loyalty users sold and no request failed.
+     *
+     * @param phase the name of the phase
+     * @param stats the statistics of every endpoint called during the phase
+     * @return the statistics of every endpoint, by endpoint
+     */
+    private Map<String, Object> summarize(String phase, Map<String, LoadHarness.EndpointStats> stats) {
+        if (USERS > 0) {
+            assertTrue(stats.containsKey("POST /pos/transaction"), "No loyalty sales in phase " + phase);
+        }
+        return LoadHarness.summarize(phase, stats, DURATION_SECONDS);
+    }
+}
@@ -0,0 +1,155 @@
+package ua.toptar.toptarfuelstationpos;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ua.toptar.toptarfuelstationpos.dto.FuelSalesAggregate;
+import ua.toptar.toptarfuelstationpos.dto.RecentSale;
+import ua.toptar.toptarfuelstationpos.dto.TransactionCreatedEvent;
+import ua.toptar.toptarfuelstationpos.model.Transaction;
+import ua.toptar.toptarfuelstationpos.repository.TransactionRepository;
+import ua.toptar.toptarfuelstationpos.service.RecentSalesStore;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the {@code RecentSalesStore} class.
+ * Tests how recent sales are loaded, appended and summed per day and fuel type.
+ */
+@ExtendWith(MockitoExtension.class)
+class RecentSalesStoreTest {
+
+    private static final LocalDateTime TODAY = LocalDate.now().atStartOfDay();
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    /**
+     * Tests summing a range after loading the store.
+     * Verifies that the sales are summed per day and fuel type, and that a partial day only counts its own sales.
+     */
+    @Test
+    void testFindDailySalesSumsPerDayAndFuelType() {
+        when(transactionRepository.findRecentSales(any(LocalDateTime.class))).thenReturn(List.of(
+            sale(1L, TODAY.minusDays(1).plusHours(8), "A95", "10.00", "555.00"),
+            sale(2L, TODAY.minusDays(1).plusHours(20), "A95", "5.00", "277.50"),
+            sale(3L, TODAY.minusDays(1).plusHours(21), "Diesel", "20.00", "1046.00"),
+            sale(4L, TODAY.plusHours(7), "A95", "1.00", "55.50")));
+        RecentSalesStore recentSalesStore = loadedStore();
+
+        Optional<List<FuelSalesAggregate>> dailySales =
+            recentSalesStore.findDailySales(TODAY.minusDays(1).plusHours(12), TODAY.plusDays(1));
+
+        assertTrue(dailySales.isPresent());
+        assertEquals(Set.of(
+            new FuelSalesAggregate(TODAY.minusDays(1).toLocalDate(), "A95", 5000, 27750, 1),
+            new FuelSalesAggregate(TODAY.minusDays(1).toLocalDate(), "Diesel", 20000, 104600, 1),
+            new FuelSalesAggregate(TODAY.toLocalDate(), "A95", 1000, 5550, 1)), new HashSet<>(dailySales.get()));
+    }
+
+    /**
+     * Tests summing ranges the store does not hold.
+     * Verifies that ranges starting before the window and ranges without bounds are left to the rollup.
+     */
+    @Test
+    void testFindDailySalesOutsideWindow() {
+        RecentSalesStore recentSalesStore = loadedStore();
+
+        assertTrue(recentSalesStore.findDailySales(TODAY.minusDays(31), TODAY).isEmpty());
+        assertTrue(recentSalesStore.findDailySales(null, null).isEmpty());
+        assertTrue(new RecentSalesStore(transactionRepository, 30).findDailySales(TODAY, TODAY.plusDays(1)).isEmpty());
+    }
+
+    /**
+     * Tests sales committed while the store is loading, one of them also returned by the loading query.
+     * Verifies that every sale is counted once.
+     */
+    @Test
+    void testSalesCommittedDuringLoadCountedOnce() {
+        RecentSalesStore recentSalesStore = new RecentSalesStore(transactionRepository, 30);
+        recentSalesStore.onTransactionCreated(new TransactionCreatedEvent(transaction(7L, TODAY.plusHours(9), "10.00")));
+        recentSalesStore.onTransactionCreated(new TransactionCreatedEvent(transaction(8L, TODAY.plusHours(10), "2.00")));
+        when(transactionRepository.findRecentSales(any(LocalDateTime.class))).thenReturn(List.of(
+            sale(6L, TODAY.plusHours(8), "A95", "1.00", "55.50"),
+            sale(7L, TODAY.plusHours(9), "A95", "10.00", "555.00")));
+
+        recentSalesStore.load();
+
+        assertEquals(3, recentSalesStore.size());
+        assertEquals(List.of(new FuelSalesAggregate(TODAY.toLocalDate(), "A95", 13000, 72150, 3)),
+            recentSalesStore.findDailySales(TODAY, TODAY.plusDays(1)).orElseThrow());
+    }
+
+    /**
+     * Tests appending a sale older than the last one held, as sales saved from the journal may arrive.
+     * Verifies that the sale is placed in order of time, so ranges ending before the last sale still find it.
+     */
+    @Test
+    void testAppendOutOfOrderKeepsTimeOrder() {
+        when(transactionRepository.findRecentSales(any(LocalDateTime.class))).thenReturn(List.of(
+            sale(1L, TODAY.plusHours(12), "A95", "10.00", "555.00")));
+        RecentSalesStore recentSalesStore = loadedStore();
+
+        recentSalesStore.onTransactionCreated(new TransactionCreatedEvent(transaction(2L, TODAY.plusHours(6), "2.005")));
+
+        assertEquals(List.of(new FuelSalesAggregate(TODAY.toLocalDate(), "A95", 2010, 11128, 1)),
+            recentSalesStore.findDailySales(TODAY, TODAY.plusHours(7)).orElseThrow());
+    }
+
+    /**
+     * Tests a store disabled with a window of zero days.
+     * Verifies that it never queries the transactions and never holds sales.
+     */
+    @Test
+    void testDisabledStoreNeverLoads() {
+        RecentSalesStore recentSalesStore = new RecentSalesStore(transactionRepository, 0);
+
+        recentSalesStore.load();
+        recentSalesStore.onTransactionCreated(new TransactionCreatedEvent(transaction(1L, TODAY, "10.00")));
+
+        assertEquals(0, recentSalesStore.size());
+        assertTrue(recentSalesStore.findDailySales(TODAY, TODAY.plusDays(1)).isEmpty());
+        verifyNoInteractions(transactionRepository);
+    }
+
+    /**
+     * Creates a store of the last 30 days loaded from the mocked repository.
+     */
+    private RecentSalesStore loadedStore() {
+        RecentSalesStore recentSalesStore = new RecentSalesStore(transactionRepository, 30);
+        recentSalesStore.load();
+        return recentSalesStore;
+    }
+
+    /**
+     * Creates a recent sale projection with the specified totals.
+     */
+    private static RecentSale sale(Long id, LocalDateTime date, String fuelTypeName, String volume, String totalAmount) {
+        return new RecentSale(id, date, fuelTypeName, new BigDecimal(volume), new BigDecimal(totalAmount));
+    }
+
+    /**
+     * Creates a saved A95 transaction at 55.50 per liter with the specified volume.
+     */
+    private static Transaction transaction(Long id, LocalDateTime date, String volume) {
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setFuelTypeName("A95");
+        transaction.setPricePerLiter(new BigDecimal("55.50"));
+        transaction.setVolume(new BigDecimal(volume));
+        transaction.setTotalAmount(new BigDecimal(volume).multiply(new BigDecimal("55.50")));
+        transaction.setTransactionDate(date);
+        return transaction;
+    }
+}
@@ -0,0 +1,247 @@
+package ua.toptar.toptarfuelstationpos;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ua.toptar.toptarfuelstationpos.dto.FuelSalesAggregate;
+import ua.toptar.toptarfuelstationpos.dto.RecentSale;
+import ua.toptar.toptarfuelstationpos.model.DailyFuelSales;
+import ua.toptar.toptarfuelstationpos.model.FuelType;
+import ua.toptar.toptarfuelstationpos.model.Transaction;
+import ua.toptar.toptarfuelstationpos.repository.DailyFuelSalesRepository;
+import ua.toptar.toptarfuelstationpos.repository.TransactionRepository;
+import ua.toptar.toptarfuelstationpos.service.RecentSalesStore;
+import ua.toptar.toptarfuelstationpos.service.SalesRollupService;
+import ua.toptar.toptarfuelstationpos.service.TransactionArchiveService;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the {@code SalesRollupService} class.
+ * Tests how sales are added to the daily rollup and how the rollup is rebuilt.
+ */
+@ExtendWith(MockitoExtension.class)
+class SalesRollupServiceTest {
+
+    @Mock
+    private DailyFuelSalesRepository dailyFuelSalesRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private TransactionArchiveService transactionArchiveService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SalesRollupService salesRollupService;
+    private FuelType a95;
+
+    /**
+     * Sets up the service and test data before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        salesRollupService = new SalesRollupService(dailyFuelSalesRepository, transactionRepository,
+            new RecentSalesStore(transactionRepository, 0), transactionArchiveService, transactionManager);
+        a95 = new FuelType("A95", new BigDecimal("55.50"));
+        a95.setId(1L);
+    }
+
+    /**
+     * Tests recording a sale when the rollup row of the day already exists.
+     * Verifies that the row is incremented in place without creating a new one.
+     */
+    @Test
+    void testRecordIncrementsExistingRow() {
+        Transaction transaction = createTransaction(LocalDateTime.of(2025, 4, 1, 12, 0), "10.00", "555.00");
+        when(dailyFuelSalesRepository.increment(LocalDate.of(2025, 4, 1), "A95",
+            new BigDecimal("10.00"), new BigDecimal("555.00"), 1)).thenReturn(1);
+
+        salesRollupService.record(transaction);
+
+        verify(dailyFuelSalesRepository, never()).saveAndFlush(any(DailyFuelSales.class));
+    }
+
+    /**
+     * Tests recording the first sale of a day.
+     * Verifies that an empty row is created before the increment is applied.
+     */
+    @Test
+    void testRecordCreatesMissingRow() {
+        Transaction transaction = createTransaction(LocalDateTime.of(2025, 4, 1, 12, 0), "10.00", "555.00");
+        when(dailyFuelSalesRepository.increment(LocalDate.of(2025, 4, 1), "A95",
+            new BigDecimal("10.00"), new BigDecimal("555.00"), 1)).thenReturn(0, 1);
+
+        salesRollupService.record(transaction);
+
+        ArgumentCaptor<DailyFuelSales> captor = ArgumentCaptor.forClass(DailyFuelSales.class);
+        verify(dailyFuelSalesRepository).saveAndFlush(captor.capture());
+        assertEquals(LocalDate.of(2025, 4, 1), captor.getValue().getSalesDate());
+        assertEquals(0, BigDecimal.ZERO.compareTo(captor.getValue().getVolume()));
+        verify(dailyFuelSalesRepository, times(2)).increment(LocalDate.of(2025, 4, 1), "A95",
+            new BigDecimal("10.00"), new BigDecimal("555.00"), 1);
+    }
+
+    /**
+     * Tests recording a batch of sales.
+     * Verifies that sales of the same day and fuel type are summed into a single increment.
+     */
+    @Test
+    void testRecordAllIncrementsOncePerDay() {
+        Transaction first = createTransaction(LocalDateTime.of(2025, 4, 1, 9, 0), "10.00", "555.00");
+        Transaction second = createTransaction(LocalDateTime.of(2025, 4, 1, 18, 0), "5.00", "277.50");
+        Transaction nextDay = createTransaction(LocalDateTime.of(2025, 4, 2, 8, 0), "20.00", "1110.00");
+        when(dailyFuelSalesRepository.increment(LocalDate.of(2025, 4, 1), "A95",
+            new BigDecimal("15.00"), new BigDecimal("832.50"), 2)).thenReturn(1);
+        when(dailyFuelSalesRepository.increment(LocalDate.of(2025, 4, 2), "A95",
+            new BigDecimal("20.00"), new BigDecimal("1110.00"), 1)).thenReturn(1);
+
+        salesRollupService.recordAll(List.of(first, second, nextDay));
+
+        verify(dailyFuelSalesRepository, times(2)).increment(any(LocalDate.class), anyString(),
+            any(BigDecimal.class), any(BigDecimal.class), anyLong());
+    }
+
+    /**
+     * Tests rebuilding the rollup from existing transactions.
+     * Verifies that the rows grouped by the database are saved as rollup rows.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRebuildIfEmpty() {
+        when(dailyFuelSalesRepository.count()).thenReturn(0L);
+        when(transactionRepository.aggregateAllDailySales()).thenReturn(Arrays.asList(
+            new FuelSalesAggregate(LocalDate.of(2025, 4, 1), "A95", new BigDecimal("30.00"), new BigDecimal("1665.00"), 2),
+            new FuelSalesAggregate(LocalDate.of(2025, 4, 2), "A95", new BigDecimal("5.00"), new BigDecimal("277.50"), 1)));
+
+        salesRollupService.rebuildIfEmpty();
+
+        ArgumentCaptor<Iterable<DailyFuelSales>> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(dailyFuelSalesRepository).saveAll(captor.capture());
+        List<DailyFuelSales> rows = new ArrayList<>();
+        captor.getValue().forEach(rows::add);
+        assertEquals(2, rows.size());
+        assertEquals(LocalDate.of(2025, 4, 1), rows.get(0).getSalesDate());
+        assertEquals(0, new BigDecimal("30.00").compareTo(rows.get(0).getVolume()));
+        assertEquals(0, new BigDecimal("1665.00").compareTo(rows.get(0).getRevenue()));
+        assertEquals(2, rows.get(0).getTransactionCount());
+        assertEquals(1, rows.get(1).getTransactionCount());
+    }
+
+    /**
+     * Tests that the rollup is not rebuilt when it already contains data.
+     */
+    @Test
+    void testRebuildSkippedWhenRollupExists() {
+        when(dailyFuelSalesRepository.count()).thenReturn(3L);
+
+        salesRollupService.rebuildIfEmpty();
+
+        verify(transactionRepository, never()).aggregateAllDailySales();
+        verify(dailyFuelSalesRepository, never()).saveAll(anyIterable());
+    }
+
+    /**
+     * Tests reading a range that starts and ends in the middle of a day.
+     * Verifies that whole days come from the rollup and the partial days are aggregated from transactions.
+     */
+    @Test
+    void testFindDailySalesSplitsPartialDays() {
+        LocalDateTime startDate = LocalDateTime.of(2025, 4, 1, 15, 30);
+        LocalDateTime endDate = LocalDateTime.of(2025, 4, 5, 9, 0);
+        FuelSalesAggregate head = new FuelSalesAggregate(LocalDate.of(2025, 4, 1), "A95", BigDecimal.ONE, BigDecimal.ONE, 1);
+        FuelSalesAggregate body = new FuelSalesAggregate(LocalDate.of(2025, 4, 3), "A95", BigDecimal.TEN, BigDecimal.TEN, 4);
+        FuelSalesAggregate tail = new FuelSalesAggregate(LocalDate.of(2025, 4, 5), "A95", BigDecimal.ONE, BigDecimal.ONE, 1);
+        when(dailyFuelSalesRepository.findAggregatesBetween(LocalDate.of(2025, 4, 2), LocalDate.of(2025, 4, 4)))
+            .thenReturn(List.of(body));
+        when(transactionRepository.aggregateDailySales(startDate, LocalDateTime.of(2025, 4, 2, 0, 0)))
+            .thenReturn(List.of(head));
+        when(transactionRepository.aggregateDailySales(LocalDateTime.of(2025, 4, 5, 0, 0), endDate))
+            .thenReturn(List.of(tail));
+
+        List<FuelSalesAggregate> dailySales = salesRollupService.findDailySales(startDate, endDate);
+
+        assertEquals(List.of(body, head, tail), dailySales);
+    }
+
+    /**
+     * Tests reading a range of whole days.
+     * Verifies that only the rollup is queried.
+     */
+    @Test
+    void testFindDailySalesWholeDays() {
+        LocalDateTime startDate = LocalDateTime.of(2025, 4, 1, 0, 0);
+        LocalDateTime endDate = LocalDateTime.of(2025, 4, 5, 0, 0);
+        when(dailyFuelSalesRepository.findAggregatesBetween(LocalDate.of(2025, 4, 1), LocalDate.of(2025, 4, 4)))
+            .thenReturn(List.of());
+
+        salesRollupService.findDailySales(startDate, endDate);
+
+        verify(transactionRepository, never()).aggregateDailySales(any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+
+    /**
+     * Tests reading a range shorter than a day.
+     * Verifies that the range is aggregated from transactions only.
+     */
+    @Test
+    void testFindDailySalesWithinOneDay() {
+        LocalDateTime startDate = LocalDateTime.of(2025, 4, 1, 8, 0);
+        LocalDateTime endDate = LocalDateTime.of(2025, 4, 1, 20, 0);
+        when(transactionRepository.aggregateDailySales(startDate, endDate)).thenReturn(List.of());
+
+        salesRollupService.findDailySales(startDate, endDate);
+
+        verify(dailyFuelSalesRepository, never()).findAggregatesBetween(any(LocalDate.class), any(LocalDate.class));
+    }
+
+    /**
+     * Tests reading a recent range when the store of recent sales is loaded.
+     * Verifies that the range is summed from the store without reading the rollup or the transactions.
+     */
+    @Test
+    void testFindDailySalesReadsRecentSalesStore() {
+        LocalDateTime today = LocalDate.now().atStartOfDay();
+        when(transactionRepository.findRecentSales(any(LocalDateTime.class))).thenReturn(List.of(
+            new RecentSale(1L, today.plusHours(9), "A95", new BigDecimal("10.00"), new BigDecimal("555.00"))));
+        RecentSalesStore recentSalesStore = new RecentSalesStore(transactionRepository, 30);
+        recentSalesStore.load();
+        salesRollupService = new SalesRollupService(dailyFuelSalesRepository, transactionRepository,
+            recentSalesStore, transactionArchiveService, transactionManager);
+
+        List<FuelSalesAggregate> dailySales = salesRollupService.findDailySales(today.minusDays(7), today.plusDays(1));
+
+        assertEquals(List.of(new FuelSalesAggregate(today.toLocalDate(), "A95", 10000, 55500, 1)), dailySales);
+        verifyNoInteractions(dailyFuelSalesRepository);
+        verify(transactionRepository, never()).aggregateDailySales(any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+
+    /**
+     * Creates an A95 transaction with the specified date and totals.
+     */
+    private Transaction createTransaction(LocalDateTime date, String volume, String totalAmount) {
+        Transaction transaction = new Transaction();
+        transaction.setFuelType(a95);
+        transaction.setFuelTypeName("A95");
+        transaction.setVolume(new BigDecimal(volume));
+        transaction.setTotalAmount(new BigDecimal(totalAmount));
+        transaction.setTransactionDate(date);
+        return transaction;
+    }
+}
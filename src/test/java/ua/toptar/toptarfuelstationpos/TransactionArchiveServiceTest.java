@@ -0,0 +1,197 @@
+package ua.toptar.toptarfuelstationpos;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import ua.toptar.toptarfuelstationpos.config.SqlStatementCounter;
+import ua.toptar.toptarfuelstationpos.dto.CursorPage;
+import ua.toptar.toptarfuelstationpos.dto.TransactionDto;
+import ua.toptar.toptarfuelstationpos.dto.TransactionView;
+import ua.toptar.toptarfuelstationpos.model.FuelType;
+import ua.toptar.toptarfuelstationpos.model.Transaction;
+import ua.toptar.toptarfuelstationpos.model.User;
+import ua.toptar.toptarfuelstationpos.repository.ArchivedTransactionRepository;
+import ua.toptar.toptarfuelstationpos.repository.FuelTypeRepository;
+import ua.toptar.toptarfuelstationpos.repository.TransactionRepository;
+import ua.toptar.toptarfuelstationpos.repository.UserRepository;
+import ua.toptar.toptarfuelstationpos.service.TransactionArchiveService;
+import ua.toptar.toptarfuelstationpos.service.TransactionService;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the {@code TransactionArchiveService} class.
+ * Tests that closed months are moved to the archive table and that listings read both tables as one.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TransactionArchiveServiceTest {
+
+    @Autowired
+    private TransactionArchiveService transactionArchiveService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ArchivedTransactionRepository archivedTransactionRepository;
+
+    @Autowired
+    private FuelTypeRepository fuelTypeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    private LocalDateTime today;
+
+    /**
+     * Saves 4 transactions of today, 3 of six months ago and 3 of eight months ago.
+     */
+    @BeforeEach
+    void setUp() {
+        FuelType a95 = fuelTypeRepository.save(new FuelType("A95", new BigDecimal("55.50")));
+        User cashier = new User();
+        cashier.setUsername("cashier");
+        cashier.setPassword("password");
+        cashier.setRole("USER");
+        userRepository.save(cashier);
+
+        today = LocalDate.now().atStartOfDay();
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            transactions.add(createTransaction(a95, cashier, today.plusMinutes(i)));
+        }
+        for (int i = 0; i < 3; i++) {
+            transactions.add(createTransaction(a95, cashier, today.minusMonths(6).plusHours(i)));
+            transactions.add(createTransaction(a95, cashier, today.minusMonths(8).plusHours(i)));
+        }
+        transactionRepository.saveAll(transactions);
+    }
+
+    /**
+     * Removes the test data and resets the archive boundary after each test.
+     */
+    @AfterEach
+    void tearDown() {
+        archivedTransactionRepository.deleteAll();
+        transactionRepository.deleteAll();
+        userRepository.deleteAll();
+        fuelTypeRepository.deleteAll();
+        transactionArchiveService.loadBoundary();
+    }
+
+    /**
+     * Tests archiving the closed months.
+     * Verifies that the old months are moved to the archive and today's transactions stay, and that a second run
+     * has nothing left to move.
+     */
+    @Test
+    void testArchiveMovesClosedMonths() {
+        assertEquals(6, transactionArchiveService.archiveClosedMonths());
+
+        assertEquals(4, transactionRepository.count());
+        assertEquals(6, archivedTransactionRepository.count());
+        assertTrue(transactionArchiveService.includes(today.minusMonths(7)));
+        assertFalse(transactionArchiveService.includes(today));
+        assertEquals(0, transactionArchiveService.archiveClosedMonths());
+    }
+
+    /**
+     * Tests paging through the whole listing after archiving, forwards and back.
+     * Verifies that the pages continue from the recent transactions into the archive in order,
+     * and that the total count includes both tables.
+     */
+    @Test
+    void testListingSpansBothTables() {
+        transactionArchiveService.archiveClosedMonths();
+
+        List<LocalDateTime> dates = new ArrayList<>();
+        CursorPage<TransactionDto> page = transactionService.getTransactionsPage(null, 3, null, null, true);
+        assertEquals(10, page.totalElements());
+        page.content().forEach(t -> dates.add(t.getTransactionDate()));
+        List<String> previousCursors = new ArrayList<>();
+        while (page.hasNext()) {
+            page = transactionService.getTransactionsPage(page.nextCursor(), 3, null, null, false);
+            page.content().forEach(t -> dates.add(t.getTransactionDate()));
+            previousCursors.add(page.previousCursor());
+        }
+
+        assertEquals(10, dates.size());
+        for (int i = 1; i < dates.size(); i++) {
+            assertTrue(dates.get(i - 1).isAfter(dates.get(i)), "Listing is out of order at " + i);
+        }
+        // Третя сторінка починається в архіві, а попередня до неї охоплює обидві таблиці
+        CursorPage<TransactionDto> previous = transactionService.getTransactionsPage(previousCursors.get(1), 3,
+            null, null, false);
+        assertEquals(dates.subList(3, 6), previous.content().stream().map(TransactionDto::getTransactionDate).toList());
+    }
+
+    /**
+     * Tests a listing of today's transactions with its total count after archiving.
+     * Verifies that only the transactions table is queried.
+     */
+    @Test
+    void testRecentListingSkipsArchive() {
+        transactionArchiveService.archiveClosedMonths();
+
+        sqlStatementCounter.reset();
+        CursorPage<TransactionDto> page = transactionService.getTransactionsPage(null, 10, null, today.minusMinutes(1), true);
+
+        assertEquals(4, page.content().size());
+        assertEquals(4, page.totalElements());
+        // Один запит сторінки й один запит кількості, обидва до таблиці transactions
+        assertEquals(2, sqlStatementCounter.getCount());
+    }
+
+    /**
+     * Tests reading export chunks of the archive with every combination of filters.
+     * Verifies that only the filters that are set narrow the chunk, and that the chunks follow the ID order.
+     */
+    @Test
+    void testExportChunkFiltersArchive() {
+        transactionArchiveService.archiveClosedMonths();
+        LocalDateTime sevenMonthsAgo = today.minusMonths(7);
+
+        List<TransactionView> all = transactionArchiveService.findExportChunk(0, null, null, Limit.of(10));
+        List<TransactionView> next = transactionArchiveService.findExportChunk(all.get(1).id(), null, null, Limit.of(10));
+
+        assertEquals(6, all.size());
+        assertEquals("cashier", all.get(0).username());
+        assertEquals(all.subList(2, 6), next);
+        assertEquals(6, transactionArchiveService.findExportChunk(0, "A95", null, Limit.of(10)).size());
+        assertEquals(0, transactionArchiveService.findExportChunk(0, "ДП", null, Limit.of(10)).size());
+        assertEquals(3, transactionArchiveService.findExportChunk(0, null, sevenMonthsAgo, Limit.of(10)).size());
+        assertEquals(3, transactionArchiveService.findExportChunk(0, "A95", sevenMonthsAgo, Limit.of(10)).size());
+    }
+
+    /**
+     * Creates an A95 transaction of 10 liters with the specified date.
+     */
+    private Transaction createTransaction(FuelType fuelType, User user, LocalDateTime date) {
+        Transaction transaction = new Transaction();
+        transaction.setFuelType(fuelType);
+        transaction.setFuelTypeName(fuelType.getName());
+        transaction.setPricePerLiter(fuelType.getPricePerLiter());
+        transaction.setVolume(new BigDecimal("10.00"));
+        transaction.setTotalAmount(new BigDecimal("555.00"));
+        transaction.setTransactionDate(date);
+        transaction.setUser(user);
+        return transaction;
+    }
+}
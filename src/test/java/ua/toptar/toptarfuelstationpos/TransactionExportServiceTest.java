@@ -0,0 +1,162 @@
+package ua.toptar.toptarfuelstationpos;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import ua.toptar.toptarfuelstationpos.config.PosMetrics;
+import ua.toptar.toptarfuelstationpos.dto.TransactionView;
+import ua.toptar.toptarfuelstationpos.repository.TransactionRepository;
+import ua.toptar.toptarfuelstationpos.service.TransactionArchiveService;
+import ua.toptar.toptarfuelstationpos.service.TransactionExportService;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the {@code TransactionExportService} class.
+ * Tests that transactions are read in chunks and written as a spreadsheet, CSV or NDJSON.
+ */
+@ExtendWith(MockitoExtension.class)
+class TransactionExportServiceTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private TransactionArchiveService transactionArchiveService;
+
+    private TransactionExportService transactionExportService;
+    private ObjectMapper objectMapper;
+    private SimpleMeterRegistry meterRegistry;
+
+    /**
+     * Sets up the service and test data before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+        meterRegistry = new SimpleMeterRegistry();
+        transactionExportService = new TransactionExportService(transactionRepository, objectMapper,
+            new PosMetrics(meterRegistry), transactionArchiveService);
+    }
+
+    /**
+     * Tests exporting more transactions than fit into one chunk.
+     * Verifies that the next chunk starts after the last exported ID, that every row is written and counted.
+     */
+    @Test
+    void testExportToXlsxReadsChunks() throws Exception {
+        List<TransactionView> firstChunk = createTransactions(1, 1000);
+        List<TransactionView> secondChunk = createTransactions(1001, 2);
+        when(transactionRepository.findExportChunk(eq(0L), eq("A95"), isNull(), any(Limit.class))).thenReturn(firstChunk);
+        when(transactionRepository.findExportChunk(eq(1000L), eq("A95"), isNull(), any(Limit.class))).thenReturn(secondChunk);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        transactionExportService.exportToXlsx("A95", null, out);
+
+        verify(transactionRepository, times(2)).findExportChunk(anyLong(), eq("A95"), isNull(), any(Limit.class));
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("Transactions");
+            assertEquals(1002, sheet.getLastRowNum());
+            assertEquals("ID", sheet.getRow(0).getCell(0).getStringCellValue());
+            assertEquals(1.0, sheet.getRow(1).getCell(0).getNumericCellValue());
+            assertEquals(1002.0, sheet.getRow(1002).getCell(0).getNumericCellValue());
+            assertEquals("guest", sheet.getRow(1002).getCell(6).getStringCellValue());
+        }
+        assertEquals(1002.0, meterRegistry.get("pos.export.rows").tag("format", "xlsx").counter().count());
+        assertEquals(1, meterRegistry.get("pos.export").tag("format", "xlsx").timer().count());
+    }
+
+    /**
+     * Tests exporting with an empty fuel type filter.
+     * Verifies that the empty filter is treated as no filter.
+     */
+    @Test
+    void testExportToXlsxWithEmptyFilter() throws Exception {
+        LocalDateTime startDate = LocalDateTime.of(2025, 4, 1, 0, 0);
+        when(transactionRepository.findExportChunk(eq(0L), isNull(), eq(startDate), any(Limit.class))).thenReturn(List.of());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        transactionExportService.exportToXlsx("", startDate, out);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals(0, workbook.getSheet("Transactions").getLastRowNum());
+        }
+    }
+
+    /**
+     * Tests exporting transactions to CSV.
+     * Verifies the header, plain number notation, ISO dates and quoting of values containing a separator.
+     */
+    @Test
+    void testExportToCsv() throws Exception {
+        List<TransactionView> transactions = List.of(createTransactions(1, 1).get(0),
+            new TransactionView(2L, 1L, "A95, Premium", new BigDecimal("55.50"), new BigDecimal("10.00"),
+                new BigDecimal("555.00"), LocalDateTime.of(2025, 4, 1, 12, 0), null));
+        when(transactionRepository.findExportChunk(eq(0L), isNull(), isNull(), any(Limit.class))).thenReturn(transactions);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        transactionExportService.exportToCsv(null, null, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("id,fuel_type_id,fuel_type_name,price_per_liter,volume,total_amount,transaction_date,username", lines[0]);
+        assertEquals("1,1,A95,55.50,10.00,555.00,2025-04-01T12:00:00,guest", lines[1]);
+        assertEquals("2,1,\"A95, Premium\",55.50,10.00,555.00,2025-04-01T12:00:00,", lines[2]);
+    }
+
+    /**
+     * Tests exporting transactions to NDJSON.
+     * Verifies that every transaction is written as one JSON object per line.
+     */
+    @Test
+    void testExportToNdjson() throws Exception {
+        when(transactionRepository.findExportChunk(eq(0L), isNull(), isNull(), any(Limit.class)))
+            .thenReturn(createTransactions(1, 2));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        transactionExportService.exportToNdjson(null, null, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(1, first.get("id").asLong());
+        assertEquals("A95", first.get("fuelTypeName").asText());
+        assertEquals(0, new BigDecimal("555.00").compareTo(first.get("totalAmount").decimalValue()));
+        assertEquals("2025-04-01T12:00:00", first.get("transactionDate").asText());
+        assertEquals("guest", first.get("username").asText());
+        assertEquals(2, objectMapper.readTree(lines[1]).get("id").asLong());
+    }
+
+    /**
+     * Creates projections of A95 guest transactions with consecutive IDs.
+     */
+    private List<TransactionView> createTransactions(long firstId, int count) {
+        List<TransactionView> transactions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            transactions.add(new TransactionView(firstId + i, 1L, "A95", new BigDecimal("55.50"),
+                new BigDecimal("10.00"), new BigDecimal("555.00"), LocalDateTime.of(2025, 4, 1, 12, 0), "guest"));
+        }
+        return transactions;
+    }
+}
@@ -0,0 +1,215 @@
+package ua.toptar.toptarfuelstationpos;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ua.toptar.toptarfuelstationpos.repository.TransactionRepository;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark of the {@code TransactionRepository} finder queries on a large synthetic dataset in H2.
+ * Verifies that every finder reads the transactions table through an index instead of a full table scan,
+ * and logs the indexes used and the average query time of every finder.
+ * The size of the dataset can be changed with the {@code benchmark.rows} system property.
+ */
+@DataJpaTest(showSql = false, properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+    + "ua.toptar.toptarfuelstationpos.TransactionIndexBenchmarkTest$SqlRecorder")
+@ActiveProfiles("test")
+class TransactionIndexBenchmarkTest {
+
+    private static final Logger logger = Logger.getLogger(TransactionIndexBenchmarkTest.class.getName());
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 100_000);
+    private static final int RUNS = 20;
+    private static final LocalDateTime FIRST_SALE = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final Pattern INDEX_PATTERN =
+        Pattern.compile("\"TRANSACTIONS\" \"\\w+\"\\s+/\\* PUBLIC\\.([A-Z0-9_.]+)(?::([^*]*))?\\*/");
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Loads the synthetic dataset: 50 users and 3 fuel types, with a sale every 5 minutes.
+     */
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("INSERT INTO fuel_types (id, name, price_per_liter) VALUES "
+            + "(1, 'A95', 55.50), (2, 'A92', 52.30), (3, 'Diesel', 52.30)");
+        jdbcTemplate.execute("INSERT INTO users (id, username, password, role) "
+            + "SELECT x, CONCAT('user', x), 'password', 'USER' FROM SYSTEM_RANGE(1, 50)");
+        // Продажі генеруються самою базою, щоб завантаження великого набору тривало секунди
+        jdbcTemplate.execute("INSERT INTO transactions (id, fuel_type_id, fuel_type_name, price_per_liter, volume, "
+            + "total_amount, transaction_date, user_id) "
+            + "SELECT x, MOD(x, 3) + 1, CASEWHEN(MOD(x, 3) = 0, 'A95', CASEWHEN(MOD(x, 3) = 1, 'A92', 'Diesel')), "
+            + "55.50, 10.00, 555.00, DATEADD('MINUTE', x * 5, TIMESTAMP '2024-01-01 00:00:00'), MOD(x, 50) + 1 "
+            + "FROM SYSTEM_RANGE(1, " + ROWS + ")");
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    /**
+     * Tests that every finder query of the repository uses an index on the transactions table.
+     * Verifies the execution plan of each SQL statement issued by a finder, including the count queries of listings,
+     * and that the listings of a user, of a user and a fuel type, and of a fuel type since a date
+     * seek an index by their filters.
+     */
+    @Test
+    void testFindersUseIndexes() {
+        LocalDateTime lastSale = FIRST_SALE.plusMinutes(ROWS * 5L);
+        LocalDateTime lastWeek = lastSale.minusDays(7);
+
+        Map<String, Runnable> finders = new LinkedHashMap<>();
+        finders.put("findSliceBy", () -> transactionRepository.findSliceBy(
+            PageRequest.of(0, 5, Sort.by("transactionDate").ascending())));
+        finders.put("findByTransactionDateBetween", () -> transactionRepository.findByTransactionDateBetween(lastWeek, lastSale));
+        finders.put("aggregateDailySales", () -> transactionRepository.aggregateDailySales(lastWeek, lastSale));
+        finders.put("findListingFirst", () -> transactionRepository.findListingFirst(null, null, null, Limit.of(11)));
+        finders.put("findListingAfter", () -> transactionRepository.findListingAfter(
+            null, null, null, lastWeek, (long) ROWS / 2, Limit.of(11)));
+        finders.put("findListingBefore", () -> transactionRepository.findListingBefore(
+            null, null, null, lastWeek, (long) ROWS / 2, Limit.of(11)));
+        finders.put("findExportChunk", () -> transactionRepository.findExportChunk(
+            ROWS / 2, null, null, Limit.of(1000)));
+
+        finders.forEach(this::assertUsesIndex);
+
+        // Відфільтровані списки мають шукати в індексі за своїми фільтрами, а не перебирати індекс за датою
+        LocalDateTime middleSale = FIRST_SALE.plusMinutes(ROWS * 5L / 2);
+        assertListingSeeks("user", List.of("USER_ID = ?"), 7L, null, null, middleSale, ROWS / 2);
+        assertListingSeeks("user and fuel type", List.of("USER_ID = ?", "FUEL_TYPE_NAME = ?"),
+            7L, "A95", null, middleSale, ROWS / 2);
+        assertListingSeeks("fuel type and date", List.of("FUEL_TYPE_NAME = ?", "TRANSACTION_DATE > ?"),
+            null, "A95", lastWeek, lastWeek.plusDays(3), ROWS / 2);
+        assertUsesIndex("findExportChunk by fuel type and date", List.of("FUEL_TYPE_NAME = ?", "TRANSACTION_DATE > ?"),
+            () -> transactionRepository.findExportChunk(0, "A95", lastWeek, Limit.of(1000)));
+    }
+
+    /**
+     * Checks that the count and every page query of a filtered listing seek an index by the expected conditions.
+     *
+     * @param filters the description of the filters of the listing
+     * @param seekConditions the conditions the index lookup of every statement must include
+     * @param userId the ID of the user to filter by, can be null
+     * @param fuelTypeName the name of the fuel type to filter by, can be null
+     * @param startDate the start date to filter transactions, can be null
+     * @param cursorDate the transaction date at the position of the following and preceding pages
+     * @param cursorId the transaction ID at the position of the following and preceding pages
+     */
+    private void assertListingSeeks(String filters, List<String> seekConditions, Long userId, String fuelTypeName,
+        LocalDateTime startDate, LocalDateTime cursorDate, long cursorId) {
+        assertUsesIndex("countListing by " + filters, seekConditions,
+            () -> transactionRepository.countListing(userId, fuelTypeName, startDate));
+        assertUsesIndex("findListingFirst by " + filters, seekConditions,
+            () -> transactionRepository.findListingFirst(userId, fuelTypeName, startDate, Limit.of(11)));
+        assertUsesIndex("findListingAfter by " + filters, seekConditions,
+            () -> transactionRepository.findListingAfter(userId, fuelTypeName, startDate, cursorDate, cursorId, Limit.of(11)));
+        assertUsesIndex("findListingBefore by " + filters, seekConditions,
+            () -> transactionRepository.findListingBefore(userId, fuelTypeName, startDate, cursorDate, cursorId, Limit.of(11)));
+    }
+
+    /**
+     * Runs a finder, checks the execution plans of the SQL statements it issued and measures its average time.
+     *
+     * @param name the name of the finder
+     * @param finder the call of the finder
+     */
+    private void assertUsesIndex(String name, Runnable finder) {
+        assertUsesIndex(name, List.of(), finder);
+    }
+
+    /**
+     * Runs a finder, checks the execution plans of the SQL statements it issued and measures its average time.
+     *
+     * @param name the name of the finder
+     * @param seekConditions the conditions the index lookup of every statement must include
+     * @param finder the call of the finder
+     */
+    private void assertUsesIndex(String name, List<String> seekConditions, Runnable finder) {
+        SqlRecorder.STATEMENTS.clear();
+        finder.run();
+        entityManager.clear();
+        // Перевіряються лише запити до таблиці транзакцій, без довантаження пов’язаних сутностей
+        List<String> statements = SqlRecorder.STATEMENTS.stream()
+            .filter(sql -> sql.contains("from transactions"))
+            .toList();
+        assertFalse(statements.isEmpty(), name + " issued no SQL on the transactions table");
+
+        Set<String> indexes = new LinkedHashSet<>();
+        for (String sql : statements) {
+            // Параметри запиту лишаються незв’язаними: план будується для будь-яких значень
+            String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+            assertNotNull(plan);
+            assertFalse(plan.contains("TRANSACTIONS.tableScan"), name + " scans the whole table: " + plan);
+            StringBuilder lookups = new StringBuilder();
+            Matcher matcher = INDEX_PATTERN.matcher(plan);
+            while (matcher.find()) {
+                indexes.add(matcher.group(1));
+                if (matcher.group(2) != null) {
+                    lookups.append(matcher.group(2));
+                }
+            }
+            // Номери параметрів залежать від порядку умов у запиті, тому порівнюються лише умови
+            String seek = lookups.toString().replaceAll("\\?\\d+", "?");
+            for (String condition : seekConditions) {
+                assertTrue(seek.contains(condition), name + " does not seek by " + condition + ": " + plan);
+            }
+        }
+
+        long startTime = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            finder.run();
+            entityManager.clear();
+        }
+        double averageMillis = (System.nanoTime() - startTime) / 1_000_000.0 / RUNS;
+        logger.info(String.format("%s over %d rows: %.2f ms, indexes %s", name, ROWS, averageMillis, indexes));
+    }
+
+    /**
+     * Records the SQL statements prepared by Hibernate, so that their execution plans can be checked.
+     */
+    public static class SqlRecorder implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        /**
+         * Records a SQL statement and returns it unchanged.
+         *
+         * @param sql the SQL statement
+         * @return the same SQL statement
+         */
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package ua.toptar.toptarfuelstationpos;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import ua.toptar.toptarfuelstationpos.dto.JournaledSale;
+import ua.toptar.toptarfuelstationpos.dto.TransactionDto;
+import ua.toptar.toptarfuelstationpos.service.TransactionJournalService;
+import ua.toptar.toptarfuelstationpos.service.TransactionService;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the {@code TransactionJournalService} class.
+ * Tests how sales are appended to the journal, drained to the database and replayed after a restart.
+ */
+@ExtendWith(MockitoExtension.class)
+class TransactionJournalServiceTest {
+
+    @TempDir
+    private Path directory;
+
+    @Mock
+    private TransactionService transactionService;
+
+    private ObjectMapper objectMapper;
+    private TransactionJournalService journalService;
+
+    /**
+     * Sets up and opens the journal before each test.
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        journalService = openJournal();
+    }
+
+    /**
+     * Closes the journal after each test.
+     */
+    @AfterEach
+    void tearDown() throws Exception {
+        journalService.close();
+    }
+
+    /**
+     * Tests that an accepted sale is saved by the next drain and the journal is then truncated.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSubmitAndDrain() throws Exception {
+        JournaledSale sale = createSale("key-1");
+        when(transactionService.prepareSale(any(TransactionDto.class))).thenReturn(sale);
+        when(transactionService.saveJournaledSales(anyList())).thenReturn(1);
+
+        TransactionDto accepted = journalService.submit(new TransactionDto());
+        journalService.drain();
+
+        assertNull(accepted.getId());
+        assertEquals(0, new BigDecimal("555.00").compareTo(accepted.getTotalAmount()));
+        ArgumentCaptor<List<JournaledSale>> captor = ArgumentCaptor.forClass(List.class);
+        verify(transactionService).saveJournaledSales(captor.capture());
+        assertEquals(List.of(sale), captor.getValue());
+        assertEquals(0, Files.size(directory.resolve("transactions.journal")));
+    }
+
+    /**
+     * Tests that sales that were not saved before a restart are replayed by the reopened journal.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testReplayAfterRestart() throws Exception {
+        when(transactionService.prepareSale(any(TransactionDto.class)))
+            .thenReturn(createSale("key-1"), createSale("key-2"));
+        journalService.submit(new TransactionDto());
+        journalService.submit(new TransactionDto());
+        journalService.close();
+
+        // Імітуємо перезапуск застосунку
+        journalService = openJournal();
+        journalService.drain();
+
+        ArgumentCaptor<List<JournaledSale>> captor = ArgumentCaptor.forClass(List.class);
+        verify(transactionService).saveJournaledSales(captor.capture());
+        assertEquals(List.of("key-1", "key-2"), captor.getValue().stream().map(JournaledSale::ingestKey).toList());
+    }
+
+    /**
+     * Tests that sales stay in the journal when the database cannot be reached, and are saved by a later drain.
+     */
+    @Test
+    void testFailedDrainIsRetried() throws Exception {
+        when(transactionService.prepareSale(any(TransactionDto.class))).thenReturn(createSale("key-1"));
+        when(transactionService.saveJournaledSales(anyList()))
+            .thenThrow(new CannotCreateTransactionException("Database unavailable"))
+            .thenReturn(1);
+        journalService.submit(new TransactionDto());
+
+        journalService.drain();
+        journalService.drain();
+
+        verify(transactionService, times(2)).saveJournaledSales(List.of(createSale("key-1")));
+        assertEquals(0, Files.size(directory.resolve("transactions.journal")));
+    }
+
+    /**
+     * Tests a group with a sale that the database rejects on its own.
+     * Verifies that the other sales of the group are saved one by one, that the rejected sale is moved
+     * to the dead-letter file, and that it is not retried by a later drain.
+     */
+    @Test
+    void testRejectedSaleMovedToDeadLetter() throws Exception {
+        JournaledSale first = createSale("key-1");
+        JournaledSale rejected = createSale("key-2");
+        JournaledSale third = createSale("key-3");
+        when(transactionService.prepareSale(any(TransactionDto.class))).thenReturn(first, rejected, third);
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("Fuel type not found");
+        when(transactionService.saveJournaledSales(List.of(first, rejected, third))).thenThrow(violation);
+        when(transactionService.saveJournaledSales(List.of(rejected))).thenThrow(violation);
+        when(transactionService.saveJournaledSales(List.of(first))).thenReturn(1);
+        when(transactionService.saveJournaledSales(List.of(third))).thenReturn(1);
+        for (int i = 0; i < 3; i++) {
+            journalService.submit(new TransactionDto());
+        }
+
+        journalService.drain();
+        journalService.drain();
+
+        verify(transactionService, times(1)).saveJournaledSales(List.of(rejected));
+        verify(transactionService).saveJournaledSales(List.of(third));
+        List<String> deadLetters = Files.readAllLines(directory.resolve("transactions.deadletter"));
+        assertEquals(1, deadLetters.size());
+        assertEquals("key-2", objectMapper.readValue(deadLetters.get(0), JournaledSale.class).ingestKey());
+        assertEquals(0, Files.size(directory.resolve("transactions.journal")));
+    }
+
+    /**
+     * Tests sales submitted from several threads at once, which share the forces of the journal.
+     * Verifies that every acknowledged sale is in the journal and saved by the next drain.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testConcurrentSubmissionsAllSaved() throws Exception {
+        AtomicInteger keys = new AtomicInteger();
+        when(transactionService.prepareSale(any(TransactionDto.class)))
+            .thenAnswer(invocation -> createSale("key-" + keys.incrementAndGet()));
+        when(transactionService.saveJournaledSales(anyList()))
+            .thenAnswer(invocation -> ((List<JournaledSale>) invocation.getArgument(0)).size());
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<TransactionDto>> submissions = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                submissions.add(executor.submit(() -> journalService.submit(new TransactionDto())));
+            }
+            for (Future<TransactionDto> submission : submissions) {
+                submission.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        journalService.drain();
+
+        ArgumentCaptor<List<JournaledSale>> captor = ArgumentCaptor.forClass(List.class);
+        verify(transactionService).saveJournaledSales(captor.capture());
+        assertEquals(200, captor.getValue().stream().map(JournaledSale::ingestKey).distinct().count());
+    }
+
+    /**
+     * Tests that an incomplete entry left by a crash is discarded when the journal is opened.
+     */
+    @Test
+    void testIncompleteEntryIsDiscarded() throws Exception {
+        journalService.close();
+        Files.writeString(directory.resolve("transactions.journal"), "{\"ingestKey\":\"torn",
+            StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        journalService = openJournal();
+        when(transactionService.prepareSale(any(TransactionDto.class))).thenReturn(createSale("key-1"));
+        journalService.submit(new TransactionDto());
+        journalService.drain();
+
+        verify(transactionService).saveJournaledSales(List.of(createSale("key-1")));
+    }
+
+    /**
+     * Creates and opens a journal service on the test directory.
+     */
+    private TransactionJournalService openJournal() throws Exception {
+        TransactionJournalService service = new TransactionJournalService(transactionService, objectMapper,
+            true, directory.toString(), 500);
+        service.open();
+        return service;
+    }
+
+    /**
+     * Creates a journaled A95 sale with the specified key.
+     */
+    private JournaledSale createSale(String ingestKey) {
+        return new JournaledSale(ingestKey, 1L, "A95", new BigDecimal("55.50"), new BigDecimal("10.00"),
+            new BigDecimal("555.00"), LocalDateTime.of(2025, 4, 1, 12, 0), 1L, "guest");
+    }
+}
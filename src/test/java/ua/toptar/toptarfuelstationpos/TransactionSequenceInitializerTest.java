@@ -0,0 +1,101 @@
+package ua.toptar.toptarfuelstationpos;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ua.toptar.toptarfuelstationpos.config.TransactionSequenceInitializer;
+import ua.toptar.toptarfuelstationpos.model.FuelType;
+import ua.toptar.toptarfuelstationpos.model.Transaction;
+import ua.toptar.toptarfuelstationpos.repository.FuelTypeRepository;
+import ua.toptar.toptarfuelstationpos.repository.TransactionRepository;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the {@code TransactionSequenceInitializer} class.
+ * Tests that the sequence of the transaction IDs is moved past the existing IDs, as after an upgrade
+ * from auto-increment IDs.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TransactionSequenceInitializerTest {
+
+    @Autowired
+    private TransactionSequenceInitializer transactionSequenceInitializer;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private FuelTypeRepository fuelTypeRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private FuelType a95;
+
+    /**
+     * Saves the A95 fuel type.
+     */
+    @BeforeEach
+    void setUp() {
+        a95 = fuelTypeRepository.save(new FuelType("A95", new BigDecimal("55.50")));
+    }
+
+    /**
+     * Removes the test data after each test.
+     */
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAll();
+        fuelTypeRepository.deleteAll();
+    }
+
+    /**
+     * Tests a sequence that starts again at 1 while transactions with higher IDs exist.
+     * Verifies that the sequence is moved a whole block past the last ID, and that the following sales,
+     * spanning several blocks, get new IDs.
+     */
+    @Test
+    void testSequenceMovedPastExistingIds() {
+        transactionRepository.saveAll(createTransactions(3));
+        long lastId = transactionRepository.findAll().stream().mapToLong(Transaction::getId).max().orElseThrow();
+        // Нова послідовність, як після переходу з автоінкременту
+        new JdbcTemplate(dataSource).execute("ALTER SEQUENCE " + Transaction.ID_SEQUENCE + " RESTART WITH 1");
+
+        assertEquals(lastId + Transaction.ID_ALLOCATION_SIZE, transactionSequenceInitializer.seedSequence());
+        // Послідовність, що вже попереду, лишається без змін
+        assertTrue(transactionSequenceInitializer.seedSequence() >= lastId + Transaction.ID_ALLOCATION_SIZE);
+
+        transactionRepository.saveAll(createTransactions(2 * Transaction.ID_ALLOCATION_SIZE));
+        assertEquals(3 + 2 * Transaction.ID_ALLOCATION_SIZE, transactionRepository.count());
+    }
+
+    /**
+     * Creates the specified number of A95 transactions of 10 liters.
+     */
+    private List<Transaction> createTransactions(int count) {
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setFuelType(a95);
+            transaction.setFuelTypeName(a95.getName());
+            transaction.setPricePerLiter(a95.getPricePerLiter());
+            transaction.setVolume(new BigDecimal("10.00"));
+            transaction.setTotalAmount(new BigDecimal("555.00"));
+            transaction.setTransactionDate(LocalDateTime.now());
+            transactions.add(transaction);
+        }
+        return transactions;
+    }
+}
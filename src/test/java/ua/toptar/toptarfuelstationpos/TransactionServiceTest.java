@@ -1,28 +1,52 @@
 package ua.toptar.toptarfuelstationpos;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ua.toptar.toptarfuelstationpos.config.PosMetrics;
+import ua.toptar.toptarfuelstationpos.dto.BatchItemResult;
+import ua.toptar.toptarfuelstationpos.dto.CursorPage;
+import ua.toptar.toptarfuelstationpos.dto.FuelSalesAggregate;
+import ua.toptar.toptarfuelstationpos.dto.FuelTypeCatalog;
+import ua.toptar.toptarfuelstationpos.dto.JournaledSale;
+import ua.toptar.toptarfuelstationpos.dto.TransactionCreatedEvent;
+import ua.toptar.toptarfuelstationpos.dto.TransactionCursor;
 import ua.toptar.toptarfuelstationpos.dto.TransactionDto;
+import ua.toptar.toptarfuelstationpos.dto.TransactionView;
+import ua.toptar.toptarfuelstationpos.dto.UserIdentity;
 import ua.toptar.toptarfuelstationpos.model.FuelType;
 import ua.toptar.toptarfuelstationpos.model.Transaction;
 import ua.toptar.toptarfuelstationpos.model.User;
 import ua.toptar.toptarfuelstationpos.repository.FuelTypeRepository;
 import ua.toptar.toptarfuelstationpos.repository.TransactionRepository;
 import ua.toptar.toptarfuelstationpos.repository.UserRepository;
+import ua.toptar.toptarfuelstationpos.service.AnalyticsResultCache;
+import ua.toptar.toptarfuelstationpos.service.AnalyticsShardExecutor;
+import ua.toptar.toptarfuelstationpos.service.FuelTypeCatalogService;
+import ua.toptar.toptarfuelstationpos.service.SalesRollupService;
+import ua.toptar.toptarfuelstationpos.service.TransactionArchiveService;
 import ua.toptar.toptarfuelstationpos.service.TransactionService;
+import ua.toptar.toptarfuelstationpos.service.UserIdentityService;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
@@ -31,6 +55,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 /**
@@ -46,12 +71,38 @@ class TransactionServiceTest {
     @Mock
     private FuelTypeRepository fuelTypeRepository;
 
+    @Mock
+    private FuelTypeCatalogService fuelTypeCatalogService;
+
     @Mock
     private TransactionRepository transactionRepository;
 
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserIdentityService userIdentityService;
+
+    @Mock
+    private SalesRollupService salesRollupService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionArchiveService transactionArchiveService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private PosMetrics posMetrics = new PosMetrics(meterRegistry);
+
+    @Spy
+    private AnalyticsShardExecutor analyticsShardExecutor = new AnalyticsShardExecutor(2);
+
+    @Spy
+    private AnalyticsResultCache analyticsResultCache = new AnalyticsResultCache(64);
+
     @Mock
     private Authentication authentication;
 
@@ -60,8 +111,11 @@ class TransactionServiceTest {
 
     private FuelType a95;
     private FuelType diesel;
+    private FuelTypeCatalog catalog;
     private User guestUser;
     private User authenticatedUser;
+    private UserIdentity guestIdentity;
+    private UserIdentity authenticatedIdentity;
 
     /**
      * Sets up test data before each test.
@@ -74,6 +128,7 @@ class TransactionServiceTest {
         a95.setId(1L);
         diesel = new FuelType("ДП", new BigDecimal("52.30"));
         diesel.setId(2L);
+        catalog = FuelTypeCatalog.of(1, List.of(a95, diesel));
 
         guestUser = new User();
         guestUser.setId(1L);
@@ -82,6 +137,9 @@ class TransactionServiceTest {
         authenticatedUser = new User();
         authenticatedUser.setId(2L);
         authenticatedUser.setUsername("testUser");
+
+        guestIdentity = new UserIdentity(1L, "guest", "USER");
+        authenticatedIdentity = new UserIdentity(2L, "testUser", "USER");
     }
 
     /**
@@ -91,8 +149,8 @@ class TransactionServiceTest {
     @Test
     void testCreateTransactionWithVolumeUnauthenticated() {
         // Налаштування моків
-        when(fuelTypeRepository.findById(1L)).thenReturn(Optional.of(a95));
-        when(userRepository.findByUsername("guest")).thenReturn(Optional.of(guestUser));
+        when(fuelTypeCatalogService.getCatalog()).thenReturn(catalog);
+        when(userIdentityService.getGuest()).thenReturn(guestIdentity);
 
         // Налаштування SecurityContext для неавторизованого користувача
         when(securityContext.getAuthentication()).thenReturn(null);
@@ -116,6 +174,8 @@ class TransactionServiceTest {
 
         TransactionDto result = transactionService.createTransaction(dto);
 
+        verify(salesRollupService).record(savedTransaction);
+        verify(eventPublisher).publishEvent(new TransactionCreatedEvent(savedTransaction));
         assertNotNull(result.getId());
         assertEquals("A95", result.getFuelTypeName());
         assertEquals(0, new BigDecimal("55.50").compareTo(result.getPricePerLiter()));
@@ -123,6 +183,8 @@ class TransactionServiceTest {
         assertEquals(0, new BigDecimal("1137.75").compareTo(result.getTotalAmount()));
         assertNotNull(result.getTransactionDate());
         assertEquals("guest", result.getUsername());
+        assertEquals(1, saleTimerCount("guest", "success"));
+        assertEquals(0, saleTimerCount("authenticated", "success"));
     }
 
     /**
@@ -132,8 +194,8 @@ class TransactionServiceTest {
     @Test
     void testCreateTransactionWithVolumeAuthenticated() {
         // Налаштування моків
-        when(fuelTypeRepository.findById(1L)).thenReturn(Optional.of(a95));
-        when(userRepository.findByUsername("testUser")).thenReturn(Optional.of(authenticatedUser));
+        when(fuelTypeCatalogService.getCatalog()).thenReturn(catalog);
+        when(userIdentityService.findByUsername("testUser")).thenReturn(Optional.of(authenticatedIdentity));
 
         // Налаштування SecurityContext для авторизованого користувача
         when(authentication.isAuthenticated()).thenReturn(true);
@@ -167,6 +229,8 @@ class TransactionServiceTest {
         assertEquals(0, new BigDecimal("1096.75").compareTo(result.getTotalAmount()));
         assertNotNull(result.getTransactionDate());
         assertEquals("testUser", result.getUsername());
+        assertEquals(1, saleTimerCount("authenticated", "success"));
+        assertEquals(0, saleTimerCount("guest", "success"));
     }
 
     /**
@@ -176,8 +240,8 @@ class TransactionServiceTest {
     @Test
     void testCreateTransactionWithTotalAmountUnauthenticated() {
         // Налаштування моків
-        when(fuelTypeRepository.findById(2L)).thenReturn(Optional.of(diesel));
-        when(userRepository.findByUsername("guest")).thenReturn(Optional.of(guestUser));
+        when(fuelTypeCatalogService.getCatalog()).thenReturn(catalog);
+        when(userIdentityService.getGuest()).thenReturn(guestIdentity);
 
         // Налаштування SecurityContext для неавторизованого користувача
         when(securityContext.getAuthentication()).thenReturn(null);
@@ -210,6 +274,41 @@ class TransactionServiceTest {
         assertEquals("guest", result.getUsername());
     }
 
+    /**
+     * Tests transaction creation with a volume and a total amount given with more than two decimals.
+     * Verifies that both are rounded half up rather than rejected, and that the total amount of the volume
+     * is calculated from the volume as given.
+     */
+    @Test
+    void testCreateTransactionRoundsExtraDecimals() {
+        when(fuelTypeCatalogService.getCatalog()).thenReturn(catalog);
+        when(userIdentityService.getGuest()).thenReturn(guestIdentity);
+        when(securityContext.getAuthentication()).thenReturn(null);
+        SecurityContextHolder.setContext(securityContext);
+        when(fuelTypeRepository.getReferenceById(a95.getId())).thenReturn(a95);
+        when(fuelTypeRepository.getReferenceById(diesel.getId())).thenReturn(diesel);
+        when(userRepository.getReferenceById(guestUser.getId())).thenReturn(guestUser);
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TransactionDto byVolume = new TransactionDto();
+        byVolume.setFuelTypeId(a95.getId());
+        byVolume.setVolume(new BigDecimal("20.5555"));
+        TransactionDto byVolumeResult = transactionService.createTransaction(byVolume);
+
+        // 20.5555 * 55.50 = 1140.83025
+        assertEquals(new BigDecimal("20.56"), byVolumeResult.getVolume());
+        assertEquals(new BigDecimal("1140.83"), byVolumeResult.getTotalAmount());
+
+        TransactionDto byTotalAmount = new TransactionDto();
+        byTotalAmount.setFuelTypeId(diesel.getId());
+        byTotalAmount.setTotalAmount(new BigDecimal("100.005"));
+        TransactionDto byTotalAmountResult = transactionService.createTransaction(byTotalAmount);
+
+        // 100.01 / 52.30 = 1.9122...
+        assertEquals(new BigDecimal("100.01"), byTotalAmountResult.getTotalAmount());
+        assertEquals(new BigDecimal("1.91"), byTotalAmountResult.getVolume());
+    }
+
     /**
      * Tests transaction creation with total amount for an authenticated user.
      * Verifies that the volume is calculated correctly with a discount and the transaction is associated with the authenticated user.
@@ -217,8 +316,8 @@ class TransactionServiceTest {
     @Test
     void testCreateTransactionWithTotalAmountAuthenticated() {
         // Налаштування моків
-        when(fuelTypeRepository.findById(2L)).thenReturn(Optional.of(diesel));
-        when(userRepository.findByUsername("testUser")).thenReturn(Optional.of(authenticatedUser));
+        when(fuelTypeCatalogService.getCatalog()).thenReturn(catalog);
+        when(userIdentityService.findByUsername("testUser")).thenReturn(Optional.of(authenticatedIdentity));
 
         // Налаштування SecurityContext для авторизованого користувача
         when(authentication.isAuthenticated()).thenReturn(true);
@@ -260,13 +359,132 @@ class TransactionServiceTest {
      */
     @Test
     void testCreateTransactionWithInvalidFuelType() {
-        when(fuelTypeRepository.findById(999L)).thenReturn(Optional.empty());
+        when(fuelTypeCatalogService.getCatalog()).thenReturn(catalog);
 
         TransactionDto dto = new TransactionDto();
         dto.setFuelTypeId(999L);
         dto.setVolume(new BigDecimal("10.0"));
 
         assertThrows(IllegalArgumentException.class, () -> transactionService.createTransaction(dto));
+        assertEquals(1, saleTimerCount("guest", "error") + saleTimerCount("authenticated", "error"));
+    }
+
+    /**
+     * Tests creating a batch with valid and invalid items for an unauthenticated user.
+     * Verifies that valid items are saved together and invalid items are reported in their position.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCreateTransactionsBatch() {
+        when(fuelTypeCatalogService.getCatalog()).thenReturn(catalog);
+        when(userIdentityService.getGuest()).thenReturn(guestIdentity);
+        when(securityContext.getAuthentication()).thenReturn(null);
+        SecurityContextHolder.setContext(securityContext);
+
+        TransactionDto byVolume = new TransactionDto();
+        byVolume.setFuelTypeId(a95.getId());
+        byVolume.setVolume(new BigDecimal("10.00"));
+        TransactionDto invalid = new TransactionDto();
+        invalid.setFuelTypeId(999L);
+        invalid.setVolume(new BigDecimal("10.00"));
+        TransactionDto byAmount = new TransactionDto();
+        byAmount.setFuelTypeId(diesel.getId());
+        byAmount.setTotalAmount(new BigDecimal("523.00"));
+
+        // Імітуємо присвоєння ID під час збереження
+        when(transactionRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Transaction> transactions = invocation.getArgument(0);
+            for (int i = 0; i < transactions.size(); i++) {
+                transactions.get(i).setId(i + 1L);
+                transactions.get(i).setFuelType(transactions.get(i).getFuelTypeName().equals("A95") ? a95 : diesel);
+            }
+            return transactions;
+        });
+
+        List<BatchItemResult> results = transactionService.createTransactions(List.of(byVolume, invalid, byAmount));
+
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).success());
+        assertEquals(0, new BigDecimal("555.00").compareTo(results.get(0).transaction().getTotalAmount()));
+        assertEquals("guest", results.get(0).transaction().getUsername());
+        assertFalse(results.get(1).success());
+        assertEquals(1, results.get(1).index());
+        assertEquals("Invalid fuel type ID: 999", results.get(1).error());
+        assertTrue(results.get(2).success());
+        assertEquals(0, new BigDecimal("10.00").compareTo(results.get(2).transaction().getVolume()));
+
+        ArgumentCaptor<List<Transaction>> captor = ArgumentCaptor.forClass(List.class);
+        verify(salesRollupService).recordAll(captor.capture());
+        assertEquals(2, captor.getValue().size());
+        verify(eventPublisher, times(2)).publishEvent(any(TransactionCreatedEvent.class));
+        assertEquals(2, saleTimerCount("guest", "success"));
+        assertEquals(1, saleTimerCount("guest", "error"));
+    }
+
+    /**
+     * Tests creating a batch for an authenticated user with an amount of a fuel priced at the discount.
+     * Verifies that the item is reported as invalid instead of failing the whole batch.
+     */
+    @Test
+    void testCreateTransactionsBatchWithFuelPricedAtDiscount() {
+        FuelType cheap = new FuelType("Газ", new BigDecimal("2.00"));
+        cheap.setId(3L);
+        when(fuelTypeCatalogService.getCatalog()).thenReturn(FuelTypeCatalog.of(1, List.of(a95, cheap)));
+        when(userIdentityService.findByUsername("testUser")).thenReturn(Optional.of(authenticatedIdentity));
+
+        // Налаштування SecurityContext для авторизованого користувача
+        when(authentication.isAuthenticated()).thenReturn(true);
+        when(authentication.getPrincipal()).thenReturn("testUser");
+        when(authentication.getName()).thenReturn("testUser");
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        SecurityContextHolder.setContext(securityContext);
+
+        TransactionDto byAmount = new TransactionDto();
+        byAmount.setFuelTypeId(cheap.getId());
+        byAmount.setTotalAmount(new BigDecimal("100.00"));
+        TransactionDto byVolume = new TransactionDto();
+        byVolume.setFuelTypeId(a95.getId());
+        byVolume.setVolume(new BigDecimal("10.00"));
+        when(transactionRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Transaction> transactions = invocation.getArgument(0);
+            transactions.forEach(transaction -> {
+                transaction.setId(1L);
+                transaction.setFuelType(a95);
+            });
+            return transactions;
+        });
+
+        List<BatchItemResult> results = transactionService.createTransactions(List.of(byAmount, byVolume));
+
+        assertFalse(results.get(0).success());
+        assertEquals("Total amount cannot be converted to volume at a zero price", results.get(0).error());
+        assertTrue(results.get(1).success());
+        assertEquals(1, saleTimerCount("authenticated", "success"));
+        assertEquals(1, saleTimerCount("authenticated", "error"));
+    }
+
+    /**
+     * Tests saving sales drained from the journal.
+     * Verifies that a sale whose key has already been saved is skipped.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSaveJournaledSalesSkipsSavedKeys() {
+        JournaledSale saved = new JournaledSale("key-1", 1L, "A95", new BigDecimal("55.50"), new BigDecimal("10.00"),
+            new BigDecimal("555.00"), LocalDateTime.of(2025, 4, 1, 12, 0), 1L, "guest");
+        JournaledSale pending = new JournaledSale("key-2", 1L, "A95", new BigDecimal("55.50"), new BigDecimal("20.00"),
+            new BigDecimal("1110.00"), LocalDateTime.of(2025, 4, 1, 12, 5), 1L, "guest");
+        when(transactionRepository.findExistingIngestKeys(List.of("key-1", "key-2"))).thenReturn(List.of("key-1"));
+        when(transactionRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        int count = transactionService.saveJournaledSales(List.of(saved, pending));
+
+        assertEquals(1, count);
+        ArgumentCaptor<List<Transaction>> captor = ArgumentCaptor.forClass(List.class);
+        verify(transactionRepository).saveAll(captor.capture());
+        assertEquals("key-2", captor.getValue().get(0).getIngestKey());
+        assertEquals(0, new BigDecimal("1110.00").compareTo(captor.getValue().get(0).getTotalAmount()));
+        verify(salesRollupService).recordAll(captor.getValue());
     }
 
     /**
@@ -290,8 +508,8 @@ class TransactionServiceTest {
     @Test
     void testCreateTransactionWithZeroVolume() {
         // Налаштування моків
-        when(fuelTypeRepository.findById(1L)).thenReturn(Optional.of(a95));
-        when(userRepository.findByUsername("guest")).thenReturn(Optional.of(guestUser));
+        when(fuelTypeCatalogService.getCatalog()).thenReturn(catalog);
+        when(userIdentityService.getGuest()).thenReturn(guestIdentity);
 
         // Налаштування SecurityContext для неавторизованого користувача
         when(securityContext.getAuthentication()).thenReturn(null);
@@ -311,8 +529,8 @@ class TransactionServiceTest {
     @Test
     void testCreateTransactionWithNegativeVolume() {
         // Налаштування моків
-        when(fuelTypeRepository.findById(1L)).thenReturn(Optional.of(a95));
-        when(userRepository.findByUsername("guest")).thenReturn(Optional.of(guestUser));
+        when(fuelTypeCatalogService.getCatalog()).thenReturn(catalog);
+        when(userIdentityService.getGuest()).thenReturn(guestIdentity);
 
         // Налаштування SecurityContext для неавторизованого користувача
         when(securityContext.getAuthentication()).thenReturn(null);
@@ -332,8 +550,8 @@ class TransactionServiceTest {
     @Test
     void testCreateTransactionWithInsufficientVolume() {
         // Налаштування моків
-        when(fuelTypeRepository.findById(1L)).thenReturn(Optional.of(a95));
-        when(userRepository.findByUsername("guest")).thenReturn(Optional.of(guestUser));
+        when(fuelTypeCatalogService.getCatalog()).thenReturn(catalog);
+        when(userIdentityService.getGuest()).thenReturn(guestIdentity);
 
         // Налаштування SecurityContext для неавторизованого користувача
         when(securityContext.getAuthentication()).thenReturn(null);
@@ -353,8 +571,8 @@ class TransactionServiceTest {
     @Test
     void testCreateTransactionWithZeroTotalAmount() {
         // Налаштування моків
-        when(fuelTypeRepository.findById(2L)).thenReturn(Optional.of(diesel));
-        when(userRepository.findByUsername("guest")).thenReturn(Optional.of(guestUser));
+        when(fuelTypeCatalogService.getCatalog()).thenReturn(catalog);
+        when(userIdentityService.getGuest()).thenReturn(guestIdentity);
 
         // Налаштування SecurityContext для неавторизованого користувача
         when(securityContext.getAuthentication()).thenReturn(null);
@@ -374,8 +592,8 @@ class TransactionServiceTest {
     @Test
     void testCreateTransactionWithNegativeTotalAmount() {
         // Налаштування моків
-        when(fuelTypeRepository.findById(2L)).thenReturn(Optional.of(diesel));
-        when(userRepository.findByUsername("guest")).thenReturn(Optional.of(guestUser));
+        when(fuelTypeCatalogService.getCatalog()).thenReturn(catalog);
+        when(userIdentityService.getGuest()).thenReturn(guestIdentity);
 
         // Налаштування SecurityContext для неавторизованого користувача
         when(securityContext.getAuthentication()).thenReturn(null);
@@ -388,6 +606,28 @@ class TransactionServiceTest {
         assertThrows(IllegalArgumentException.class, () -> transactionService.createTransaction(dto));
     }
 
+    /**
+     * Tests transaction creation with a volume just below 1 liter that rounds up to it.
+     * Verifies that the minimum is checked before rounding and an {@code IllegalArgumentException} is thrown.
+     */
+    @Test
+    void testCreateTransactionWithVolumeRoundingUpToMinimum() {
+        // Налаштування моків
+        when(fuelTypeCatalogService.getCatalog()).thenReturn(catalog);
+        when(userIdentityService.getGuest()).thenReturn(guestIdentity);
+
+        // Налаштування SecurityContext для неавторизованого користувача
+        when(securityContext.getAuthentication()).thenReturn(null);
+        SecurityContextHolder.setContext(securityContext);
+
+        TransactionDto dto = new TransactionDto();
+        dto.setFuelTypeId(a95.getId());
+        dto.setVolume(new BigDecimal("0.995"));
+
+        assertThrows(IllegalArgumentException.class, () -> transactionService.createTransaction(dto));
+        verify(transactionRepository, never()).save(any(Transaction.class));
+    }
+
     /**
      * Tests transaction creation with neither volume nor total amount provided.
      * Verifies that an {@code IllegalArgumentException} is thrown with the correct message.
@@ -395,8 +635,8 @@ class TransactionServiceTest {
     @Test
     void testCreateTransactionWithNeitherVolumeNorTotalAmount() {
         // Налаштування моків
-        when(fuelTypeRepository.findById(1L)).thenReturn(Optional.of(a95));
-        when(userRepository.findByUsername("guest")).thenReturn(Optional.of(guestUser));
+        when(fuelTypeCatalogService.getCatalog()).thenReturn(catalog);
+        when(userIdentityService.getGuest()).thenReturn(guestIdentity);
 
         // Налаштування SecurityContext для неавторизованого користувача
         when(securityContext.getAuthentication()).thenReturn(null);
@@ -409,44 +649,30 @@ class TransactionServiceTest {
     }
 
     /**
-     * Tests retrieval of all transactions.
+     * Tests retrieval of the first page of all transactions with the total count.
      * Verifies that the correct number of transactions is returned with the expected details.
      */
     @Test
-    void testGetAllTransactions() {
-        Transaction transaction1 = new Transaction();
-        transaction1.setId(1L);
-        transaction1.setFuelType(a95);
-        transaction1.setFuelTypeName("A95");
-        transaction1.setPricePerLiter(new BigDecimal("55.50"));
-        transaction1.setVolume(new BigDecimal("10.0"));
-        transaction1.setTotalAmount(new BigDecimal("555.00"));
-        transaction1.setTransactionDate(LocalDateTime.now());
-        transaction1.setUser(guestUser);
-
-        Transaction transaction2 = new Transaction();
-        transaction2.setId(2L);
-        transaction2.setFuelType(diesel);
-        transaction2.setFuelTypeName("Diesel");
-        transaction2.setPricePerLiter(new BigDecimal("52.30"));
-        transaction2.setVolume(new BigDecimal("15.0"));
-        transaction2.setTotalAmount(new BigDecimal("784.50"));
-        transaction2.setTransactionDate(LocalDateTime.now());
-        transaction2.setUser(guestUser);
-
-        when(transactionRepository.findAll(any(PageRequest.class)))
-            .thenReturn(new PageImpl<>(Arrays.asList(transaction1, transaction2)));
-
-        Page<TransactionDto> transactions = transactionService.getAllTransactions(0, 10);
-
-        assertEquals(2, transactions.getTotalElements());
-        assertEquals(1, transactions.getTotalPages());
-        assertEquals("A95", transactions.getContent().get(0).getFuelTypeName());
-        assertEquals("Diesel", transactions.getContent().get(1).getFuelTypeName());
-        assertEquals(0, new BigDecimal("555.00").compareTo(transactions.getContent().get(0).getTotalAmount()));
-        assertEquals(0, new BigDecimal("784.50").compareTo(transactions.getContent().get(1).getTotalAmount()));
-        assertEquals("guest", transactions.getContent().get(0).getUsername());
-        assertEquals("guest", transactions.getContent().get(1).getUsername());
+    void testGetTransactionsPage() {
+        LocalDateTime now = LocalDateTime.now();
+        List<TransactionView> rows = List.of(
+            new TransactionView(2L, 2L, "Diesel", new BigDecimal("52.30"), new BigDecimal("15.0"),
+                new BigDecimal("784.50"), now, "guest"),
+            new TransactionView(1L, 1L, "A95", new BigDecimal("55.50"), new BigDecimal("10.0"),
+                new BigDecimal("555.00"), now.minusMinutes(1), "guest"));
+        when(transactionRepository.findListingFirst(null, null, null, Limit.of(11))).thenReturn(rows);
+        when(transactionRepository.countListing(null, null, null)).thenReturn(2L);
+
+        CursorPage<TransactionDto> transactions = transactionService.getTransactionsPage(null, 10, null, null, true);
+
+        assertEquals(2L, transactions.totalElements());
+        assertFalse(transactions.hasNext());
+        assertEquals("Diesel", transactions.content().get(0).getFuelTypeName());
+        assertEquals("A95", transactions.content().get(1).getFuelTypeName());
+        assertEquals(0, new BigDecimal("784.50").compareTo(transactions.content().get(0).getTotalAmount()));
+        assertEquals(0, new BigDecimal("555.00").compareTo(transactions.content().get(1).getTotalAmount()));
+        assertEquals("guest", transactions.content().get(0).getUsername());
+        assertEquals("guest", transactions.content().get(1).getUsername());
     }
 
     /**
@@ -469,10 +695,10 @@ class TransactionServiceTest {
         }
 
         PageRequest pageable = PageRequest.of(0, 5, Sort.by("transactionDate").ascending());
-        when(transactionRepository.findAll(pageable))
-            .thenReturn(new PageImpl<>(Arrays.asList(transactions[0], transactions[1], transactions[2], transactions[3], transactions[4])));
+        when(transactionRepository.findSliceBy(pageable))
+            .thenReturn(new SliceImpl<>(Arrays.asList(transactions[0], transactions[1], transactions[2], transactions[3], transactions[4])));
 
-        Page<TransactionDto> recentTransactions = transactionService.getRecentTransactions();
+        Slice<TransactionDto> recentTransactions = transactionService.getRecentTransactions();
 
         assertEquals(5, recentTransactions.getContent().size());
         assertEquals(0, new BigDecimal("1.0").compareTo(recentTransactions.getContent().get(0).getVolume()));
@@ -480,59 +706,89 @@ class TransactionServiceTest {
     }
 
     /**
-     * Tests retrieval of transactions for a specific user.
+     * Tests retrieval of the first page of transactions for a specific user.
      * Verifies that the correct transactions are returned for the user.
      */
     @Test
-    void testGetUserTransactions() {
-        Transaction transaction1 = new Transaction();
-        transaction1.setId(1L);
-        transaction1.setFuelType(a95);
-        transaction1.setFuelTypeName("A95");
-        transaction1.setPricePerLiter(new BigDecimal("55.50"));
-        transaction1.setVolume(new BigDecimal("10.0"));
-        transaction1.setTotalAmount(new BigDecimal("555.00"));
-        transaction1.setTransactionDate(LocalDateTime.now());
-        transaction1.setUser(authenticatedUser);
+    void testGetUserTransactionsPage() {
+        when(transactionRepository.findListingFirst(2L, null, null, Limit.of(11)))
+            .thenReturn(List.of(createListedView(1L, LocalDateTime.now())));
+        when(transactionRepository.countListing(2L, null, null)).thenReturn(1L);
 
-        PageRequest pageable = PageRequest.of(0, 10);
-        when(transactionRepository.findByUserId(2L, pageable))
-            .thenReturn(new PageImpl<>(List.of(transaction1)));
+        CursorPage<TransactionDto> transactions = transactionService.getUserTransactionsPage(2L, null, 10, null, null, true);
 
-        Page<TransactionDto> transactions = transactionService.getUserTransactions(2L, 0, 10);
-
-        assertEquals(1, transactions.getTotalElements());
-        assertEquals("A95", transactions.getContent().get(0).getFuelTypeName());
-        assertEquals(0, new BigDecimal("555.00").compareTo(transactions.getContent().get(0).getTotalAmount()));
-        assertEquals("testUser", transactions.getContent().get(0).getUsername());
+        assertEquals(1L, transactions.totalElements());
+        assertEquals("A95", transactions.content().get(0).getFuelTypeName());
+        assertEquals(0, new BigDecimal("555.00").compareTo(transactions.content().get(0).getTotalAmount()));
+        assertEquals("testUser", transactions.content().get(0).getUsername());
     }
 
     /**
-     * Tests retrieval of transactions filtered by fuel type and date.
-     * Verifies that the correct transactions are returned based on the filter criteria.
+     * Tests retrieval of the first page of transactions filtered by fuel type and date.
+     * Verifies that the filters are passed to the listing query and its count.
      */
     @Test
-    void testGetFilteredTransactionsByFuelTypeAndDate() {
-        Transaction transaction1 = new Transaction();
-        transaction1.setId(1L);
-        transaction1.setFuelType(a95);
-        transaction1.setFuelTypeName("A95");
-        transaction1.setPricePerLiter(new BigDecimal("55.50"));
-        transaction1.setVolume(new BigDecimal("10.0"));
-        transaction1.setTotalAmount(new BigDecimal("555.00"));
-        transaction1.setTransactionDate(LocalDateTime.now());
-        transaction1.setUser(guestUser);
-
+    void testGetTransactionsPageByFuelTypeAndDate() {
         LocalDateTime startDate = LocalDateTime.now().minusDays(1);
-        PageRequest pageable = PageRequest.of(0, 10);
-        when(transactionRepository.findByFuelTypeNameAndTransactionDateAfter("A95", startDate, pageable))
-            .thenReturn(new PageImpl<>(List.of(transaction1)));
+        when(transactionRepository.findListingFirst(null, "A95", startDate, Limit.of(11)))
+            .thenReturn(List.of(createListedView(1L, LocalDateTime.now())));
+        when(transactionRepository.countListing(null, "A95", startDate)).thenReturn(1L);
 
-        Page<TransactionDto> transactions = transactionService.getFilteredTransactions(0, 10, "A95", startDate);
+        CursorPage<TransactionDto> transactions = transactionService.getTransactionsPage(null, 10, "A95", startDate, true);
+
+        assertEquals(1L, transactions.totalElements());
+        assertEquals("A95", transactions.content().get(0).getFuelTypeName());
+        assertEquals(0, new BigDecimal("555.00").compareTo(transactions.content().get(0).getTotalAmount()));
+    }
 
-        assertEquals(1, transactions.getTotalElements());
-        assertEquals("A95", transactions.getContent().get(0).getFuelTypeName());
-        assertEquals(0, new BigDecimal("555.00").compareTo(transactions.getContent().get(0).getTotalAmount()));
+    /**
+     * Tests retrieval of the first page of transactions by keyset pagination.
+     * Verifies that one extra row is read to detect the next page and that the next cursor points at the last row.
+     */
+    @Test
+    void testGetTransactionsPageReturnsNextCursor() {
+        LocalDateTime now = LocalDateTime.of(2025, 4, 1, 12, 0);
+        List<TransactionView> rows = List.of(
+            createListedView(3L, now), createListedView(2L, now), createListedView(1L, now.minusHours(1)));
+        when(transactionRepository.findListingFirst(null, "A95", null, Limit.of(3))).thenReturn(rows);
+
+        CursorPage<TransactionDto> page = transactionService.getTransactionsPage(null, 2, "A95", null, false);
+
+        // Третій рядок лише показує, що є наступна сторінка
+        assertEquals(2, page.content().size());
+        assertEquals(3L, page.content().get(0).getId());
+        assertFalse(page.hasPrevious());
+        TransactionCursor next = TransactionCursor.decode(page.nextCursor());
+        assertEquals(TransactionCursor.Direction.NEXT, next.direction());
+        assertEquals(now, next.transactionDate());
+        assertEquals(2L, next.id());
+        assertNull(page.totalElements());
+        verify(transactionRepository, never()).countListing(any(), any(), any());
+    }
+
+    /**
+     * Tests retrieval of a deeper page of a user's transactions by keyset pagination.
+     * Verifies that the page is read from the position of the cursor and that the last page has no next cursor.
+     */
+    @Test
+    void testGetUserTransactionsPageSeeksFromCursor() {
+        LocalDateTime position = LocalDateTime.of(2025, 4, 1, 12, 0);
+        String cursor = new TransactionCursor(TransactionCursor.Direction.NEXT, position, 5L).encode();
+        when(transactionRepository.findListingAfter(2L, null, null, position, 5L, Limit.of(11)))
+            .thenReturn(List.of(createListedView(4L, position)));
+        when(transactionRepository.countListing(2L, null, null)).thenReturn(11L);
+
+        CursorPage<TransactionDto> page = transactionService.getUserTransactionsPage(2L, cursor, 10, "", null, true);
+
+        assertEquals(1, page.content().size());
+        assertEquals(11L, page.totalElements());
+        assertFalse(page.hasNext());
+        TransactionCursor previous = TransactionCursor.decode(page.previousCursor());
+        assertEquals(TransactionCursor.Direction.PREVIOUS, previous.direction());
+        assertEquals(4L, previous.id());
+        // Запит з невалідним курсором відхиляється
+        assertThrows(IllegalArgumentException.class,
+            () -> transactionService.getUserTransactionsPage(2L, "not-a-cursor", 10, null, null, false));
     }
 
     /**
@@ -541,17 +797,12 @@ class TransactionServiceTest {
      */
     @Test
     void testGetSalesByFuelType() {
-        Transaction transaction1 = new Transaction();
-        transaction1.setFuelType(a95);
-        transaction1.setFuelTypeName("A95");
-        transaction1.setVolume(new BigDecimal("10.0"));
-
-        Transaction transaction2 = new Transaction();
-        transaction2.setFuelType(diesel);
-        transaction2.setFuelTypeName("Diesel");
-        transaction2.setVolume(new BigDecimal("15.0"));
+        FuelSalesAggregate a95Sales = new FuelSalesAggregate(LocalDate.of(2025, 4, 1), "A95",
+            new BigDecimal("10.0"), new BigDecimal("555.00"), 1);
+        FuelSalesAggregate dieselSales = new FuelSalesAggregate(LocalDate.of(2025, 4, 1), "Diesel",
+            new BigDecimal("15.0"), new BigDecimal("784.50"), 1);
 
-        when(transactionRepository.findAll()).thenReturn(Arrays.asList(transaction1, transaction2));
+        when(salesRollupService.findDailySales(null, null)).thenReturn(Arrays.asList(a95Sales, dieselSales));
 
         Map<String, BigDecimal> sales = transactionService.getSalesByFuelType(null, null);
 
@@ -562,29 +813,25 @@ class TransactionServiceTest {
 
     /**
      * Tests calculation of revenue by fuel type grouped by period.
-     * Verifies that the revenue is correctly calculated and grouped by fuel type and period.
+     * Verifies that the revenue is correctly calculated and grouped by fuel type and period,
+     * and that the computation is timed under its operation and period.
      */
     @Test
     void testGetRevenueByFuelTypeGroupedByPeriod() {
-        Transaction transaction1 = new Transaction();
-        transaction1.setFuelType(a95);
-        transaction1.setFuelTypeName("A95");
-        transaction1.setTotalAmount(new BigDecimal("555.00"));
-        transaction1.setTransactionDate(LocalDateTime.of(2025, 4, 1, 12, 0));
+        FuelSalesAggregate a95Sales = new FuelSalesAggregate(LocalDate.of(2025, 4, 1), "A95",
+            new BigDecimal("10.0"), new BigDecimal("555.00"), 1);
+        FuelSalesAggregate dieselSales = new FuelSalesAggregate(LocalDate.of(2025, 4, 1), "Diesel",
+            new BigDecimal("15.0"), new BigDecimal("784.50"), 1);
 
-        Transaction transaction2 = new Transaction();
-        transaction2.setFuelType(diesel);
-        transaction2.setFuelTypeName("Diesel");
-        transaction2.setTotalAmount(new BigDecimal("784.50"));
-        transaction2.setTransactionDate(LocalDateTime.of(2025, 4, 1, 12, 0));
-
-        when(transactionRepository.findAll()).thenReturn(Arrays.asList(transaction1, transaction2));
+        when(salesRollupService.findDailySales(null, null)).thenReturn(Arrays.asList(a95Sales, dieselSales));
 
         Map<String, Map<String, BigDecimal>> revenue = transactionService.getRevenueByFuelTypeGroupedByPeriod(null, null, "daily");
 
         assertEquals(2, revenue.size());
         assertEquals(0, new BigDecimal("555.00").compareTo(revenue.get("A95").get("2025-04-01")));
         assertEquals(0, new BigDecimal("784.50").compareTo(revenue.get("Diesel").get("2025-04-01")));
+        assertEquals(1, meterRegistry.get("pos.analytics")
+            .tag("operation", "revenueByFuelType").tag("period", "daily").timer().count());
     }
 
     /**
@@ -593,19 +840,12 @@ class TransactionServiceTest {
      */
     @Test
     void testGetSalesByFuelTypeGroupedByPeriod() {
-        Transaction transaction1 = new Transaction();
-        transaction1.setFuelType(a95);
-        transaction1.setFuelTypeName("A95");
-        transaction1.setVolume(new BigDecimal("10.0"));
-        transaction1.setTransactionDate(LocalDateTime.of(2025, 4, 1, 12, 0));
-
-        Transaction transaction2 = new Transaction();
-        transaction2.setFuelType(diesel);
-        transaction2.setFuelTypeName("Diesel");
-        transaction2.setVolume(new BigDecimal("15.0"));
-        transaction2.setTransactionDate(LocalDateTime.of(2025, 4, 1, 12, 0));
+        FuelSalesAggregate a95Sales = new FuelSalesAggregate(LocalDate.of(2025, 4, 1), "A95",
+            new BigDecimal("10.0"), new BigDecimal("555.00"), 1);
+        FuelSalesAggregate dieselSales = new FuelSalesAggregate(LocalDate.of(2025, 4, 1), "Diesel",
+            new BigDecimal("15.0"), new BigDecimal("784.50"), 1);
 
-        when(transactionRepository.findAll()).thenReturn(Arrays.asList(transaction1, transaction2));
+        when(salesRollupService.findDailySales(null, null)).thenReturn(Arrays.asList(a95Sales, dieselSales));
 
         Map<String, Map<String, BigDecimal>> sales = transactionService.getSalesByFuelTypeGroupedByPeriod(null, null, "daily");
 
@@ -620,19 +860,186 @@ class TransactionServiceTest {
      */
     @Test
     void testGetTotalRevenueGroupedByPeriod() {
-        Transaction transaction1 = new Transaction();
-        transaction1.setTotalAmount(new BigDecimal("555.00"));
-        transaction1.setTransactionDate(LocalDateTime.of(2025, 4, 1, 12, 0));
+        FuelSalesAggregate a95Sales = new FuelSalesAggregate(LocalDate.of(2025, 4, 1), "A95",
+            new BigDecimal("10.0"), new BigDecimal("555.00"), 1);
+        FuelSalesAggregate dieselSales = new FuelSalesAggregate(LocalDate.of(2025, 4, 1), "Diesel",
+            new BigDecimal("15.0"), new BigDecimal("784.50"), 1);
 
-        Transaction transaction2 = new Transaction();
-        transaction2.setTotalAmount(new BigDecimal("784.50"));
-        transaction2.setTransactionDate(LocalDateTime.of(2025, 4, 1, 12, 0));
-
-        when(transactionRepository.findAll()).thenReturn(Arrays.asList(transaction1, transaction2));
+        when(salesRollupService.findDailySales(null, null)).thenReturn(Arrays.asList(a95Sales, dieselSales));
 
         Map<String, BigDecimal> revenue = transactionService.getTotalRevenueGroupedByPeriod(null, null, "daily");
 
         assertEquals(1, revenue.size());
         assertEquals(0, new BigDecimal("1339.50").compareTo(revenue.get("2025-04-01")));
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests calculating the same series twice and with an invalid period.
+     * Verifies that the second call is served from the cache and the invalid period is rejected.
+     */
+    @Test
+    void testGroupedByPeriodCachedPerRangeAndPeriod() {
+        LocalDateTime startDate = LocalDateTime.of(2025, 4, 1, 0, 0);
+        LocalDateTime endDate = LocalDateTime.of(2025, 5, 1, 0, 0);
+        when(salesRollupService.findDailySales(startDate, endDate)).thenReturn(List.of(new FuelSalesAggregate(
+            LocalDate.of(2025, 4, 1), "A95", new BigDecimal("10.0"), new BigDecimal("555.00"), 1)));
+
+        Map<String, BigDecimal> first = transactionService.getTotalRevenueGroupedByPeriod(startDate, endDate, "weekly");
+        Map<String, BigDecimal> second = transactionService.getTotalRevenueGroupedByPeriod(startDate, endDate, "weekly");
+
+        assertEquals(first, second);
+        verify(salesRollupService, times(1)).findDailySales(startDate, endDate);
+        assertThrows(IllegalArgumentException.class,
+            () -> transactionService.getTotalRevenueGroupedByPeriod(startDate, endDate, "yearly"));
+    }
+
+    /**
+     * Tests calculating a series while a sale is committing, from sales that already include it.
+     * Verifies that the series is not cached until the sale has been added, so the sale is counted once.
+     */
+    @Test
+    void testSeriesComputedWhileSaleCommitsCountsSaleOnce() {
+        LocalDateTime startDate = LocalDateTime.of(2025, 4, 1, 0, 0);
+        LocalDateTime endDate = LocalDateTime.of(2025, 5, 1, 0, 0);
+        when(salesRollupService.findDailySales(startDate, endDate)).thenReturn(List.of(new FuelSalesAggregate(
+            LocalDate.of(2025, 4, 1), "A95", new BigDecimal("10.00"), new BigDecimal("555.00"), 1)));
+        Transaction sale = createListedTransaction(1L, LocalDateTime.of(2025, 4, 1, 12, 0));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            analyticsResultCache.onTransactionCreated(new TransactionCreatedEvent(sale));
+            // Продаж уже зафіксовано в базі, але ще не додано до кешу
+            Map<String, BigDecimal> during = transactionService.getTotalRevenueGroupedByPeriod(startDate, endDate, "daily");
+            assertEquals(0, new BigDecimal("555.00").compareTo(during.get("2025-04-01")));
+            TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        Map<String, BigDecimal> after = transactionService.getTotalRevenueGroupedByPeriod(startDate, endDate, "daily");
+        Map<String, BigDecimal> cached = transactionService.getTotalRevenueGroupedByPeriod(startDate, endDate, "daily");
+
+        assertEquals(0, new BigDecimal("555.00").compareTo(after.get("2025-04-01")));
+        assertEquals(after, cached);
+        verify(salesRollupService, times(2)).findDailySales(startDate, endDate);
+    }
+
+    /**
+     * Tests calculating the same series again after sales have been committed.
+     * Verifies that the rollup is read only once per series, and that a sale inside the range is added
+     * to the buckets of its day while the closed buckets keep their values.
+     */
+    @Test
+    void testCachedSeriesUpdatedBySale() {
+        LocalDateTime startDate = LocalDateTime.of(2025, 3, 31, 0, 0);
+        LocalDateTime endDate = LocalDateTime.of(2025, 4, 2, 0, 0);
+        when(salesRollupService.findDailySales(startDate, endDate)).thenReturn(List.of(
+            new FuelSalesAggregate(LocalDate.of(2025, 3, 31), "A95", new BigDecimal("10.00"), new BigDecimal("555.00"), 1),
+            new FuelSalesAggregate(LocalDate.of(2025, 4, 1), "A95", new BigDecimal("20.00"), new BigDecimal("1110.00"), 2)));
+        transactionService.getTotalRevenueGroupedByPeriod(startDate, endDate, "daily");
+        transactionService.getSalesByFuelTypeGroupedByPeriod(startDate, endDate, "daily");
+
+        // Продаж відкритого дня та продаж поза діапазоном
+        analyticsResultCache.onTransactionCreated(new TransactionCreatedEvent(
+            createSale(LocalDateTime.of(2025, 4, 1, 18, 30), "Diesel", "15.004", "784.50")));
+        analyticsResultCache.onTransactionCreated(new TransactionCreatedEvent(
+            createSale(LocalDateTime.of(2025, 4, 2, 0, 0), "A95", "1.00", "55.50")));
+        Map<String, BigDecimal> revenue = transactionService.getTotalRevenueGroupedByPeriod(startDate, endDate, "daily");
+        Map<String, Map<String, BigDecimal>> sales =
+            transactionService.getSalesByFuelTypeGroupedByPeriod(startDate, endDate, "daily");
+
+        verify(salesRollupService, times(2)).findDailySales(startDate, endDate);
+        assertEquals(new BigDecimal("555.00"), revenue.get("2025-03-31"));
+        assertEquals(new BigDecimal("1894.50"), revenue.get("2025-04-01"));
+        // Об'єм округлюється так само, як при збереженні в базі даних
+        assertEquals(new BigDecimal("15.00"), sales.get("Diesel").get("2025-04-01"));
+        assertEquals(new BigDecimal("20.00"), sales.get("A95").get("2025-04-01"));
+    }
+
+    /**
+     * Tests calculating series of more ranges than the cache holds.
+     * Verifies that the least recently used range is evicted and computed again when requested.
+     */
+    @Test
+    void testLeastRecentlyUsedRangeEvicted() {
+        // Кеш вміщує один ряд
+        transactionService = new TransactionService(transactionRepository, fuelTypeRepository, fuelTypeCatalogService,
+            userRepository, userIdentityService, salesRollupService, eventPublisher, posMetrics,
+            analyticsShardExecutor, transactionArchiveService, new AnalyticsResultCache(1));
+        LocalDateTime march = LocalDateTime.of(2025, 3, 1, 0, 0);
+        LocalDateTime april = LocalDateTime.of(2025, 4, 1, 0, 0);
+        LocalDateTime may = LocalDateTime.of(2025, 5, 1, 0, 0);
+        when(salesRollupService.findDailySales(any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(List.of());
+
+        transactionService.getTotalRevenueGroupedByPeriod(march, april, "daily");
+        transactionService.getTotalRevenueGroupedByPeriod(march, april, "daily");
+        transactionService.getTotalRevenueGroupedByPeriod(april, may, "daily");
+        transactionService.getTotalRevenueGroupedByPeriod(march, april, "daily");
+
+        verify(salesRollupService, times(2)).findDailySales(march, april);
+        verify(salesRollupService, times(1)).findDailySales(april, may);
+    }
+
+    /**
+     * Creates a saved sale with the specified date, fuel type and totals.
+     *
+     * @param transactionDate the date of the sale
+     * @param fuelTypeName the name of the fuel type
+     * @param volume the volume in liters
+     * @param totalAmount the total amount
+     * @return the sale
+     */
+    private static Transaction createSale(LocalDateTime transactionDate, String fuelTypeName, String volume,
+                                          String totalAmount) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionDate(transactionDate);
+        transaction.setFuelTypeName(fuelTypeName);
+        transaction.setVolume(new BigDecimal(volume));
+        transaction.setTotalAmount(new BigDecimal(totalAmount));
+        return transaction;
+    }
+
+    /**
+     * Creates a transaction of the authenticated user as returned by a listing query.
+     *
+     * @param id the ID of the transaction
+     * @param transactionDate the date of the transaction
+     * @return the transaction
+     */
+    private Transaction createListedTransaction(Long id, LocalDateTime transactionDate) {
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setFuelType(a95);
+        transaction.setFuelTypeName("A95");
+        transaction.setPricePerLiter(new BigDecimal("55.50"));
+        transaction.setVolume(new BigDecimal("10.0"));
+        transaction.setTotalAmount(new BigDecimal("555.00"));
+        transaction.setTransactionDate(transactionDate);
+        transaction.setUser(authenticatedUser);
+        return transaction;
+    }
+
+    /**
+     * Creates a projection of a transaction of the authenticated user as returned by a listing query.
+     *
+     * @param id the ID of the transaction
+     * @param transactionDate the date of the transaction
+     * @return the transaction projection
+     */
+    private TransactionView createListedView(Long id, LocalDateTime transactionDate) {
+        return new TransactionView(id, 1L, "A95", new BigDecimal("55.50"), new BigDecimal("10.0"),
+            new BigDecimal("555.00"), transactionDate, "testUser");
+    }
+
+    /**
+     * Returns how many sales were timed with the specified customer type and outcome.
+     *
+     * @param customer the customer type, "guest" or "authenticated"
+     * @param outcome the outcome of the sale, "success" or "error"
+     * @return the number of timed sales
+     */
+    private long saleTimerCount(String customer, String outcome) {
+        return meterRegistry.get("pos.transactions.create").tag("customer", customer).tag("outcome", outcome).timer().count();
+    }
+}
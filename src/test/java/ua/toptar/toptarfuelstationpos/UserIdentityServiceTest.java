@@ -0,0 +1,139 @@
+package ua.toptar.toptarfuelstationpos;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ua.toptar.toptarfuelstationpos.config.PosMetrics;
+import ua.toptar.toptarfuelstationpos.dto.UserIdentity;
+import ua.toptar.toptarfuelstationpos.model.User;
+import ua.toptar.toptarfuelstationpos.repository.UserRepository;
+import ua.toptar.toptarfuelstationpos.service.UserIdentityService;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the {@code UserIdentityService} class.
+ * Tests caching, invalidation and eviction of user identities and the pinned guest user.
+ */
+@ExtendWith(MockitoExtension.class)
+class UserIdentityServiceTest {
+
+    @InjectMocks
+    private UserIdentityService userIdentityService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private PosMetrics posMetrics = new PosMetrics(meterRegistry);
+
+    /**
+     * Tests that a found identity is read from the database only once.
+     * Verifies that the first lookup is counted as a cache miss and the second as a hit.
+     */
+    @Test
+    void testFindByUsernameIsCached() {
+        when(userRepository.findByUsername("testUser")).thenReturn(Optional.of(createUser(2L, "testUser")));
+
+        Optional<UserIdentity> first = userIdentityService.findByUsername("testUser");
+        Optional<UserIdentity> second = userIdentityService.findByUsername("testUser");
+
+        assertEquals(Optional.of(new UserIdentity(2L, "testUser", "USER")), first);
+        assertEquals(first, second);
+        verify(userRepository, times(1)).findByUsername("testUser");
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "userIdentities").tag("result", "miss").counter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "userIdentities").tag("result", "hit").counter().count());
+    }
+
+    /**
+     * Tests that an invalidated identity is read from the database again.
+     */
+    @Test
+    void testInvalidateRemovesCachedIdentity() {
+        when(userRepository.findByUsername("testUser")).thenReturn(Optional.of(createUser(2L, "testUser")));
+
+        userIdentityService.findByUsername("testUser");
+        userIdentityService.invalidate("testUser");
+        userIdentityService.findByUsername("testUser");
+
+        verify(userRepository, times(2)).findByUsername("testUser");
+    }
+
+    /**
+     * Tests that unknown usernames are not cached.
+     */
+    @Test
+    void testMissingUserIsNotCached() {
+        when(userRepository.findByUsername("unknown")).thenReturn(Optional.empty());
+
+        assertTrue(userIdentityService.findByUsername("unknown").isEmpty());
+        assertTrue(userIdentityService.findByUsername("unknown").isEmpty());
+
+        verify(userRepository, times(2)).findByUsername("unknown");
+    }
+
+    /**
+     * Tests that the least recently used identity is evicted once the cache is full.
+     */
+    @Test
+    void testLeastRecentlyUsedIdentityIsEvicted() {
+        when(userRepository.findByUsername(anyString()))
+            .thenAnswer(invocation -> Optional.of(createUser(1L, invocation.getArgument(0))));
+
+        // Заповнюємо кеш понад ліміт, постійно звертаючись до першого користувача
+        for (int i = 0; i <= 1000; i++) {
+            userIdentityService.findByUsername("user" + i);
+            userIdentityService.findByUsername("user0");
+        }
+        userIdentityService.findByUsername("user0");
+        userIdentityService.findByUsername("user1");
+
+        verify(userRepository, times(1)).findByUsername("user0");
+        verify(userRepository, times(2)).findByUsername("user1");
+    }
+
+    /**
+     * Tests that the guest user loaded at startup is served without further queries.
+     */
+    @Test
+    void testGuestIsPinnedAtStartup() {
+        when(userRepository.findByUsername("guest")).thenReturn(Optional.of(createUser(1L, "guest")));
+
+        userIdentityService.loadGuest();
+
+        assertEquals(1L, userIdentityService.getGuest().id());
+        assertEquals("guest", userIdentityService.getGuest().username());
+        verify(userRepository, times(1)).findByUsername("guest");
+    }
+
+    /**
+     * Tests that a missing guest user results in an exception.
+     */
+    @Test
+    void testMissingGuestThrows() {
+        when(userRepository.findByUsername("guest")).thenReturn(Optional.empty());
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> userIdentityService.getGuest());
+        assertEquals("Guest user not found", exception.getMessage());
+    }
+
+    /**
+     * Creates a user with the specified ID and username and the "USER" role.
+     */
+    private User createUser(Long id, String username) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setRole("USER");
+        return user;
+    }
+}
@@ -8,6 +8,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ua.toptar.toptarfuelstationpos.model.User;
 import ua.toptar.toptarfuelstationpos.repository.UserRepository;
+import ua.toptar.toptarfuelstationpos.service.UserIdentityService;
 import ua.toptar.toptarfuelstationpos.service.UserService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
@@ -32,6 +33,9 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private UserIdentityService userIdentityService;
+
     private User savedUser;
     private User existingUser;
 
@@ -72,6 +76,7 @@ class UserServiceTest {
         userService.registerUser(username, password, role);
 
         verify(userRepository).save(any(User.class));
+        verify(userIdentityService).invalidate(username);
         assertEquals("encoded_password123", savedUser.getPassword());
         assertEquals(username, savedUser.getUsername());
         assertEquals(role, savedUser.getRole());
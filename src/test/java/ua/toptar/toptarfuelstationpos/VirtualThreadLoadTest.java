@@ -0,0 +1,159 @@
+package ua.toptar.toptarfuelstationpos;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.h2.tools.Server;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import ua.toptar.toptarfuelstationpos.model.FuelType;
+import ua.toptar.toptarfuelstationpos.repository.FuelTypeRepository;
+import ua.toptar.toptarfuelstationpos.repository.UserRepository;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares request handling on platform threads with the {@code virtual} profile under the same mixed load.
+ * The application is started twice against an H2 TCP server, so that database calls block on the network
+ * as they do with MySQL, once with the test profile only and once with the {@code virtual} profile added,
+ * both with the same Tomcat thread limit of a small station server.
+ * Each run serves pumps, loyalty users, admins loading the analytics and dashboard pages, and exporters
+ * downloading the CSV export of a large transaction history, which holds a request thread for seconds.
+ * The throughput and latency of every endpoint in both modes and the throughput gain of the virtual threads
+ * are logged and written to {@code target/virtual-thread-report.json}.
+ *
+ * <p>The test only runs with {@code -Dloadtest=true}. Besides the properties of {@link PumpLoadTest},
+ * the load is set with {@code loadtest.exporters}, {@code loadtest.export-rows} and {@code loadtest.tomcat-threads}.
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class VirtualThreadLoadTest {
+
+    private static final Logger logger = Logger.getLogger(VirtualThreadLoadTest.class.getName());
+
+    private static final int PUMPS = Integer.getInteger("loadtest.pumps", 8);
+    private static final int USERS = Integer.getInteger("loadtest.users", 4);
+    private static final int ADMINS = Integer.getInteger("loadtest.admins", 2);
+    private static final int EXPORTERS = Integer.getInteger("loadtest.exporters", 4);
+    private static final int EXPORT_ROWS = Integer.getInteger("loadtest.export-rows", 100_000);
+    private static final int TOMCAT_THREADS = Integer.getInteger("loadtest.tomcat-threads", 8);
+    private static final int DURATION_SECONDS = Integer.getInteger("loadtest.duration-seconds", 30);
+    private static final int WARMUP_SECONDS = Integer.getInteger("loadtest.warmup-seconds", 5);
+    private static final long THINK_TIME_MILLIS = Long.getLong("loadtest.think-time-ms", 0L);
+
+    private static final String CARRIER_THREADS_PROPERTY = "jdk.virtualThreadScheduler.parallelism";
+    private static final Path REPORT = Path.of("target", "virtual-thread-report.json");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Runs the mixed load on platform threads and on virtual threads, and reports the throughput gain per endpoint.
+     * Verifies that every endpoint was called in both modes and that no request failed.
+     */
+    @Test
+    void testMixedLoadOnPlatformAndVirtualThreads() throws Exception {
+        // Генератор навантаження і база даних ділять процесори з додатком, тому віртуальні потоки отримують
+        // стільки ж потоків-носіїв, скільки потоків має Tomcat, інакше на малій кількості ядер вони програють за часткою процесора
+        if (System.getProperty(CARRIER_THREADS_PROPERTY) == null) {
+            System.setProperty(CARRIER_THREADS_PROPERTY, String.valueOf(TOMCAT_THREADS));
+        }
+        Map<String, Object> platform = runMixedLoad("platform", "test");
+        Map<String, Object> virtual = runMixedLoad("virtual", "test", "virtual");
+
+        Map<String, Object> gain = new LinkedHashMap<>();
+        double platformTotal = 0;
+        double virtualTotal = 0;
+        for (String endpoint : platform.keySet()) {
+            assertTrue(virtual.containsKey(endpoint), "No " + endpoint + " requests on virtual threads");
+            double platformThroughput = throughputOf(platform, endpoint);
+            double virtualThroughput = throughputOf(virtual, endpoint);
+            platformTotal += platformThroughput;
+            virtualTotal += virtualThroughput;
+            gain.put(endpoint, virtualThroughput / platformThroughput);
+        }
+        gain.put("total", virtualTotal / platformTotal);
+        gain.forEach((endpoint, ratio) ->
+            logger.info(String.format("throughput gain  %-32s x%.2f", endpoint, (double) ratio)));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("tomcatThreads", TOMCAT_THREADS);
+        report.put("exportRows", EXPORT_ROWS);
+        report.put("platform", platform);
+        report.put("virtual", virtual);
+        report.put("throughputGain", gain);
+        Files.createDirectories(REPORT.getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(REPORT.toFile(), report);
+        logger.info("Virtual thread comparison written to " + REPORT.toAbsolutePath());
+    }
+
+    /**
+     * Starts the application with the specified profiles on its own database server, seeds it,
+     * and runs the mixed load against it after a warmup.
+     *
+     * @param mode the name of the mode, also used to name the database
+     * @param profiles the profiles to start the application with
+     * @return the statistics of every endpoint, by endpoint
+     * @throws Exception if the load cannot be run
+     */
+    private Map<String, Object> runMixedLoad(String mode, String... profiles) throws Exception {
+        // База даних працює як окремий TCP-сервер, тож кожен запит до неї блокує потік на мережевому виклику, як MySQL
+        Server database = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TopTarFuelStationPosApplication.class)
+                .profiles(profiles)
+                .properties(
+                    "server.port=0",
+                    "server.tomcat.threads.max=" + TOMCAT_THREADS,
+                    "spring.datasource.url=jdbc:h2:tcp://localhost:" + database.getPort() + "/mem:loadtest-" + mode,
+                    "spring.jpa.show-sql=false")
+                .run()) {
+            List<FuelType> fuelTypes = LoadHarness.seed(context.getBean(FuelTypeRepository.class),
+                context.getBean(UserRepository.class), context.getBean(PasswordEncoder.class),
+                USERS, ADMINS, EXPORTERS);
+            seedHistory(context.getBean(JdbcTemplate.class), fuelTypes.get(0));
+
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            LoadHarness harness = new LoadHarness(port, objectMapper, fuelTypes, THINK_TIME_MILLIS);
+            // Прогрів JIT і пулів з’єднань, результати не враховуються
+            harness.run(WARMUP_SECONDS, PUMPS, USERS, ADMINS, EXPORTERS);
+            return LoadHarness.summarize(mode, harness.run(DURATION_SECONDS, PUMPS, USERS, ADMINS, EXPORTERS),
+                DURATION_SECONDS);
+        } finally {
+            database.stop();
+        }
+    }
+
+    /**
+     * Inserts the transaction history read by the exports with a single SQL statement.
+     * The IDs start far above the sequence used by Hibernate, so the sales made during the test do not collide with them.
+     *
+     * @param jdbcTemplate the template to run the statement with
+     * @param fuelType the fuel type of the historical sales
+     */
+    private void seedHistory(JdbcTemplate jdbcTemplate, FuelType fuelType) {
+        jdbcTemplate.update("""
+            INSERT INTO transactions (id, fuel_type_id, fuel_type_name, price_per_liter, volume, total_amount,
+                transaction_date)
+            SELECT 1000000000 + x, ?, ?, ?, 10.00, 10.00 * ?, DATEADD('SECOND', -x, CURRENT_TIMESTAMP)
+            FROM SYSTEM_RANGE(1, ?)""",
+            fuelType.getId(), fuelType.getName(), fuelType.getPricePerLiter(), fuelType.getPricePerLiter(), EXPORT_ROWS);
+    }
+
+    /**
+     * Returns the throughput of an endpoint from the statistics of a mode.
+     *
+     * @param summary the statistics of every endpoint, by endpoint
+     * @param endpoint the endpoint
+     * @return the throughput in requests per second
+     */
+    private static double throughputOf(Map<String, Object> summary, String endpoint) {
+        return (double) ((Map<?, ?>) summary.get(endpoint)).get("throughput");
+    }
+}